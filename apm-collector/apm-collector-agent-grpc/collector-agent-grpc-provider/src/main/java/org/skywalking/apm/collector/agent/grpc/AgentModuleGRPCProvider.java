@@ -22,6 +22,7 @@ import java.util.Properties;
 import org.skywalking.apm.collector.agent.grpc.handler.ApplicationRegisterServiceHandler;
 import org.skywalking.apm.collector.agent.grpc.handler.InstanceDiscoveryServiceHandler;
 import org.skywalking.apm.collector.agent.grpc.handler.JVMMetricsServiceHandler;
+import org.skywalking.apm.collector.agent.grpc.handler.RequestMetricServiceHandler;
 import org.skywalking.apm.collector.agent.grpc.handler.ServiceNameDiscoveryServiceHandler;
 import org.skywalking.apm.collector.agent.grpc.handler.TraceSegmentServiceHandler;
 import org.skywalking.apm.collector.agent.grpc.handler.naming.AgentGRPCNamingHandler;
@@ -94,5 +95,6 @@ public class AgentModuleGRPCProvider extends ModuleProvider {
         gRPCServer.addHandler(new ServiceNameDiscoveryServiceHandler(getManager()));
         gRPCServer.addHandler(new JVMMetricsServiceHandler(getManager()));
         gRPCServer.addHandler(new TraceSegmentServiceHandler(getManager()));
+        gRPCServer.addHandler(new RequestMetricServiceHandler(getManager()));
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.agent.grpc.handler;
+
+import io.grpc.stub.StreamObserver;
+import org.skywalking.apm.collector.agent.stream.AgentStreamModule;
+import org.skywalking.apm.collector.agent.stream.service.metric.IRequestMetricService;
+import org.skywalking.apm.collector.core.module.ModuleManager;
+import org.skywalking.apm.collector.server.grpc.GRPCHandler;
+import org.skywalking.apm.network.proto.Downstream;
+import org.skywalking.apm.network.proto.RequestMetricServiceGrpc;
+import org.skywalking.apm.network.proto.RequestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 请求指标逻辑处理器
+ */
+public class RequestMetricServiceHandler extends RequestMetricServiceGrpc.RequestMetricServiceImplBase implements GRPCHandler {
+
+    private final Logger logger = LoggerFactory.getLogger(RequestMetricServiceHandler.class);
+
+    private final IRequestMetricService requestMetricService;
+
+    public RequestMetricServiceHandler(ModuleManager moduleManager) {
+        this.requestMetricService = moduleManager.find(AgentStreamModule.NAME).getService(IRequestMetricService.class);
+    }
+
+    @Override public void collect(RequestMetrics request, StreamObserver<Downstream> responseObserver) {
+        logger.debug("receive the request metric from application instance, id: {}", request.getApplicationInstanceId());
+
+        requestMetricService.send(request);
+
+        responseObserver.onNext(Downstream.newBuilder().build());
+        responseObserver.onCompleted();
+    }
+}
@@ -36,6 +36,8 @@ public class SpanJsonReader implements StreamJsonReader<SpanObject> {
     private static final String PARENT_SPAN_ID = "ps";
     private static final String START_TIME = "st";
     private static final String END_TIME = "et";
+    private static final String START_TIME_MICROS = "su";
+    private static final String END_TIME_MICROS = "eu";
     private static final String COMPONENT_ID = "ci";
     private static final String COMPONENT_NAME = "cn";
     private static final String OPERATION_NAME_ID = "oi";
@@ -70,6 +72,12 @@ public class SpanJsonReader implements StreamJsonReader<SpanObject> {
                 case END_TIME:
                     builder.setEndTime(reader.nextLong());
                     break;
+                case START_TIME_MICROS:
+                    builder.setStartTimeMicros(reader.nextLong());
+                    break;
+                case END_TIME_MICROS:
+                    builder.setEndTimeMicros(reader.nextLong());
+                    break;
                 case COMPONENT_ID:
                     builder.setComponentId(reader.nextInt());
                     break;
@@ -25,6 +25,7 @@ import org.skywalking.apm.collector.agent.stream.service.jvm.IGCMetricService;
 import org.skywalking.apm.collector.agent.stream.service.jvm.IInstanceHeartBeatService;
 import org.skywalking.apm.collector.agent.stream.service.jvm.IMemoryMetricService;
 import org.skywalking.apm.collector.agent.stream.service.jvm.IMemoryPoolMetricService;
+import org.skywalking.apm.collector.agent.stream.service.metric.IRequestMetricService;
 import org.skywalking.apm.collector.agent.stream.service.register.IApplicationIDService;
 import org.skywalking.apm.collector.agent.stream.service.register.IInstanceIDService;
 import org.skywalking.apm.collector.agent.stream.service.register.IServiceNameService;
@@ -48,6 +49,7 @@ public class AgentStreamModule extends Module {
         addRegisterService(classes);
         addJVMService(classes);
         classes.add(ITraceSegmentService.class);
+        classes.add(IRequestMetricService.class);
 
         return classes.toArray(new Class[] {});
     }
@@ -20,6 +20,7 @@ package org.skywalking.apm.collector.agent.stream;
 
 import org.skywalking.apm.collector.agent.stream.graph.JvmMetricStreamGraph;
 import org.skywalking.apm.collector.agent.stream.graph.RegisterStreamGraph;
+import org.skywalking.apm.collector.agent.stream.graph.RequestMetricStreamGraph;
 import org.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
 import org.skywalking.apm.collector.core.module.ModuleManager;
 import org.skywalking.apm.collector.stream.timer.PersistenceTimer;
@@ -42,6 +43,7 @@ public class AgentStreamBootStartup {
         createJVMGraph();
         createRegisterGraph();
         createTraceGraph();
+        createRequestMetricGraph();
 
         PersistenceTimer timer = new PersistenceTimer();
         timer.start(moduleManager, workerCreateListener.getPersistenceWorkers());
@@ -75,5 +77,11 @@ public class AgentStreamBootStartup {
         traceStreamGraph.createServiceReferenceGraph();
         traceStreamGraph.createSegmentGraph();
         traceStreamGraph.createSegmentCostGraph();
+        traceStreamGraph.createThrowableFingerprintGraph();
+    }
+
+    private void createRequestMetricGraph() {
+        RequestMetricStreamGraph requestMetricStreamGraph = new RequestMetricStreamGraph(moduleManager, workerCreateListener);
+        requestMetricStreamGraph.createRequestMetricGraph();
     }
 }
@@ -25,6 +25,7 @@ import org.skywalking.apm.collector.agent.stream.service.jvm.IGCMetricService;
 import org.skywalking.apm.collector.agent.stream.service.jvm.IInstanceHeartBeatService;
 import org.skywalking.apm.collector.agent.stream.service.jvm.IMemoryMetricService;
 import org.skywalking.apm.collector.agent.stream.service.jvm.IMemoryPoolMetricService;
+import org.skywalking.apm.collector.agent.stream.service.metric.IRequestMetricService;
 import org.skywalking.apm.collector.agent.stream.service.register.IApplicationIDService;
 import org.skywalking.apm.collector.agent.stream.service.register.IInstanceIDService;
 import org.skywalking.apm.collector.agent.stream.service.register.IServiceNameService;
@@ -35,6 +36,7 @@ import org.skywalking.apm.collector.agent.stream.worker.jvm.GCMetricService;
 import org.skywalking.apm.collector.agent.stream.worker.jvm.InstanceHeartBeatService;
 import org.skywalking.apm.collector.agent.stream.worker.jvm.MemoryMetricService;
 import org.skywalking.apm.collector.agent.stream.worker.jvm.MemoryPoolMetricService;
+import org.skywalking.apm.collector.agent.stream.worker.metric.RequestMetricService;
 import org.skywalking.apm.collector.agent.stream.worker.register.ApplicationIDService;
 import org.skywalking.apm.collector.agent.stream.worker.register.InstanceIDService;
 import org.skywalking.apm.collector.agent.stream.worker.register.ServiceNameService;
@@ -72,6 +74,7 @@ public class AgentStreamModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(IInstanceHeartBeatService.class, new InstanceHeartBeatService());
 
         this.registerServiceImplementation(ITraceSegmentService.class, new TraceSegmentService(getManager()));
+        this.registerServiceImplementation(IRequestMetricService.class, new RequestMetricService());
 
         BufferFileConfig.Parser parser = new BufferFileConfig.Parser();
         parser.parse(config);
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.agent.stream.graph;
+
+import org.skywalking.apm.collector.agent.stream.worker.metric.RequestMetricPersistenceWorker;
+import org.skywalking.apm.collector.core.graph.Graph;
+import org.skywalking.apm.collector.core.graph.GraphManager;
+import org.skywalking.apm.collector.core.module.ModuleManager;
+import org.skywalking.apm.collector.queue.QueueModule;
+import org.skywalking.apm.collector.queue.service.QueueCreatorService;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetric;
+import org.skywalking.apm.collector.stream.worker.base.WorkerCreateListener;
+
+public class RequestMetricStreamGraph {
+
+    public static final int REQUEST_METRIC_GRAPH_ID = 400;
+
+    private final ModuleManager moduleManager;
+    private final WorkerCreateListener workerCreateListener;
+
+    public RequestMetricStreamGraph(ModuleManager moduleManager, WorkerCreateListener workerCreateListener) {
+        this.moduleManager = moduleManager;
+        this.workerCreateListener = workerCreateListener;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void createRequestMetricGraph() {
+        QueueCreatorService<RequestMetric> queueCreatorService = moduleManager.find(QueueModule.NAME).getService(QueueCreatorService.class);
+
+        Graph<RequestMetric> graph = GraphManager.INSTANCE.createIfAbsent(REQUEST_METRIC_GRAPH_ID, RequestMetric.class);
+        graph.addNode(new RequestMetricPersistenceWorker.Factory(moduleManager, queueCreatorService).create(workerCreateListener));
+    }
+}
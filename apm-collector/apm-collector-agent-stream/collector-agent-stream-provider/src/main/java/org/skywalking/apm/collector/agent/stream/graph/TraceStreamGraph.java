@@ -39,6 +39,7 @@ import org.skywalking.apm.collector.agent.stream.worker.trace.service.ServiceEnt
 import org.skywalking.apm.collector.agent.stream.worker.trace.serviceref.ServiceReferenceAggregationWorker;
 import org.skywalking.apm.collector.agent.stream.worker.trace.serviceref.ServiceReferencePersistenceWorker;
 import org.skywalking.apm.collector.agent.stream.worker.trace.serviceref.ServiceReferenceRemoteWorker;
+import org.skywalking.apm.collector.agent.stream.worker.trace.throwable.ThrowableFingerprintPersistenceWorker;
 import org.skywalking.apm.collector.core.graph.Graph;
 import org.skywalking.apm.collector.core.graph.GraphManager;
 import org.skywalking.apm.collector.core.module.ModuleManager;
@@ -55,6 +56,7 @@ import org.skywalking.apm.collector.storage.table.segment.Segment;
 import org.skywalking.apm.collector.storage.table.segment.SegmentCost;
 import org.skywalking.apm.collector.storage.table.service.ServiceEntry;
 import org.skywalking.apm.collector.storage.table.serviceref.ServiceReference;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprint;
 import org.skywalking.apm.collector.stream.worker.base.WorkerCreateListener;
 
 /**
@@ -72,6 +74,7 @@ public class TraceStreamGraph {
     public static final int SEGMENT_GRAPH_ID = 307;
     public static final int SEGMENT_COST_GRAPH_ID = 308;
     public static final int SEGMENT_STANDARDIZATION_GRAPH_ID = 309;
+    public static final int THROWABLE_FINGERPRINT_GRAPH_ID = 310;
 
     private final ModuleManager moduleManager;
     private final WorkerCreateListener workerCreateListener;
@@ -175,4 +178,12 @@ public class TraceStreamGraph {
         Graph<SegmentCost> graph = GraphManager.INSTANCE.createIfAbsent(SEGMENT_COST_GRAPH_ID, SegmentCost.class);
         graph.addNode(new SegmentCostPersistenceWorker.Factory(moduleManager, queueCreatorService).create(workerCreateListener));
     }
+
+    @SuppressWarnings("unchecked")
+    public void createThrowableFingerprintGraph() {
+        QueueCreatorService<ThrowableFingerprint> queueCreatorService = moduleManager.find(QueueModule.NAME).getService(QueueCreatorService.class);
+
+        Graph<ThrowableFingerprint> graph = GraphManager.INSTANCE.createIfAbsent(THROWABLE_FINGERPRINT_GRAPH_ID, ThrowableFingerprint.class);
+        graph.addNode(new ThrowableFingerprintPersistenceWorker.Factory(moduleManager, queueCreatorService).create(workerCreateListener));
+    }
 }
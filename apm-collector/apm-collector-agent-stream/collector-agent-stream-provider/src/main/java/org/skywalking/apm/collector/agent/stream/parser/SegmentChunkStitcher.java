@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.agent.stream.parser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.skywalking.apm.network.proto.TraceSegmentObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Segment 分块拼接器
+ *
+ * The agent sends the finished spans of a long segment in chunks, marked as partial, before the segment finishes. The
+ * chunks are held here, by segment id, until the last one arrives, then stitched into one segment, so the listeners and
+ * the storage see the whole segment as usual.
+ * <p>
+ * The chunks of a segment sent to another collector, or lost, can't be stitched. Then the segment is marked as size
+ * limited, and the held chunks expire when no chunk of the segment arrives in {@link #EXPIRE_TIME}. The chunks are
+ * kept in memory only, bounded by {@link #MAX_SEGMENT_BYTES} for each segment and {@link #MAX_TOTAL_BYTES} for all,
+ * the chunks over them are discarded, and the segment is marked as size limited too.
+ * <p>
+ * The chunks carry no refs, the refs come with the last one.
+ */
+public class SegmentChunkStitcher {
+
+    private final Logger logger = LoggerFactory.getLogger(SegmentChunkStitcher.class);
+
+    private static final SegmentChunkStitcher STITCHER = new SegmentChunkStitcher();
+
+    /**
+     * The longest time, in milliseconds, the chunks wait for the next one of the same segment.
+     */
+    private static final long EXPIRE_TIME = 10 * 60 * 1000;
+
+    /**
+     * The max number of segments with held chunks.
+     */
+    private static final int MAX_SEGMENTS = 10000;
+
+    /**
+     * The max serialized bytes of the held chunks of one segment, and of all segments.
+     */
+    private static final long MAX_SEGMENT_BYTES = 16 * 1024 * 1024;
+    private static final long MAX_TOTAL_BYTES = 256 * 1024 * 1024;
+
+    /**
+     * 按最后收到分块的时间排序
+     */
+    private final LinkedHashMap<String, Chunks> segments = new LinkedHashMap<>();
+
+    private long totalBytes;
+
+    public static SegmentChunkStitcher getInstance() {
+        return STITCHER;
+    }
+
+    private SegmentChunkStitcher() {
+    }
+
+    /**
+     * @param segmentObject a chunk, or the last one with chunks before
+     * @return the whole segment, or null if the given chunk is held to wait for the last one
+     */
+    public synchronized TraceSegmentObject stitch(String segmentId, TraceSegmentObject segmentObject) {
+        long now = System.currentTimeMillis();
+        expire(now);
+
+        if (segmentObject.getIsPartial()) {
+            hold(segmentId, segmentObject, now);
+            return null;
+        }
+
+        Chunks held = segments.remove(segmentId);
+        if (held != null) {
+            totalBytes -= held.bytes;
+        }
+        TraceSegmentObject.Builder builder = segmentObject.toBuilder().clearSpans();
+        if (held != null) {
+            held.chunks.values().forEach(chunk -> builder.addAllSpans(chunk.getSpansList()));
+        }
+        builder.addAllSpans(segmentObject.getSpansList());
+        builder.setIsPartial(false).setChunkSequence(0);
+
+        int heldCount = held == null ? 0 : held.chunks.size();
+        if (heldCount != segmentObject.getChunkSequence()) {
+            logger.warn("Segment {} has {} chunks, only {} of them received.", segmentId, segmentObject.getChunkSequence(), heldCount);
+            builder.setIsSizeLimited(true);
+        }
+        return builder.build();
+    }
+
+    private void hold(String segmentId, TraceSegmentObject chunk, long now) {
+        // 重新放入，保持按最后收到分块的时间排序
+        Chunks held = segments.remove(segmentId);
+        if (held == null) {
+            held = new Chunks();
+        }
+        held.lastChunkTime = now;
+        segments.put(segmentId, held);
+
+        int size = chunk.getSerializedSize();
+        TraceSegmentObject replaced = held.chunks.get(chunk.getChunkSequence());
+        long bytes = size - (replaced == null ? 0 : replaced.getSerializedSize());
+        if (held.bytes + bytes > MAX_SEGMENT_BYTES) {
+            logger.warn("The chunks of segment {} are over {} bytes, discard chunk {}.", segmentId, MAX_SEGMENT_BYTES, chunk.getChunkSequence());
+            return;
+        }
+        held.chunks.put(chunk.getChunkSequence(), chunk);
+        held.bytes += bytes;
+        totalBytes += bytes;
+
+        Iterator<Map.Entry<String, Chunks>> oldest = segments.entrySet().iterator();
+        while ((segments.size() > MAX_SEGMENTS || totalBytes > MAX_TOTAL_BYTES) && oldest.hasNext()) {
+            Map.Entry<String, Chunks> entry = oldest.next();
+            logger.warn("Too many chunks waiting for their last one, discard the chunks of segment {}", entry.getKey());
+            totalBytes -= entry.getValue().bytes;
+            oldest.remove();
+        }
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<String, Chunks>> oldest = segments.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, Chunks> entry = oldest.next();
+            if (now - entry.getValue().lastChunkTime < EXPIRE_TIME) {
+                break;
+            }
+            logger.warn("The last chunk of segment {} never arrives, discard {} chunks.", entry.getKey(), entry.getValue().chunks.size());
+            totalBytes -= entry.getValue().bytes;
+            oldest.remove();
+        }
+    }
+
+    private static class Chunks {
+        private long lastChunkTime;
+        /**
+         * 按序号排序，重复发送的分块只保留一个
+         */
+        private final TreeMap<Integer, TraceSegmentObject> chunks = new TreeMap<>();
+        /**
+         * 分块序列化后的字节数
+         */
+        private long bytes;
+    }
+}
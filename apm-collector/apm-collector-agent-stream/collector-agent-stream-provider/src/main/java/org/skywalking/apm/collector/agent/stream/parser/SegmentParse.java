@@ -29,6 +29,7 @@ import org.skywalking.apm.collector.agent.stream.worker.trace.noderef.NodeRefere
 import org.skywalking.apm.collector.agent.stream.worker.trace.segment.SegmentCostSpanListener;
 import org.skywalking.apm.collector.agent.stream.worker.trace.service.ServiceEntrySpanListener;
 import org.skywalking.apm.collector.agent.stream.worker.trace.serviceref.ServiceReferenceSpanListener;
+import org.skywalking.apm.collector.agent.stream.worker.trace.throwable.ThrowableFingerprintSpanListener;
 import org.skywalking.apm.collector.core.graph.Graph;
 import org.skywalking.apm.collector.core.graph.GraphManager;
 import org.skywalking.apm.collector.core.module.ModuleManager;
@@ -81,6 +82,7 @@ public class SegmentParse {
         this.spanListeners.add(new ServiceEntrySpanListener(moduleManager));
         this.spanListeners.add(new ServiceReferenceSpanListener());
         this.spanListeners.add(new InstPerformanceSpanListener());
+        this.spanListeners.add(new ThrowableFingerprintSpanListener());
     }
 
     public boolean parse(UpstreamSegment segment, Source source) {
@@ -88,6 +90,15 @@ public class SegmentParse {
             List<UniqueId> traceIds = segment.getGlobalTraceIdsList();
             TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(segment.getSegment());
 
+            // 分块发送的 TraceSegment ，拼接完整后再解析
+            if (segmentObject.getIsPartial() || segmentObject.getChunkSequence() > 0) {
+                segmentObject = SegmentChunkStitcher.getInstance().stitch(buildSegmentId(segmentObject.getTraceSegmentId()), segmentObject);
+                if (segmentObject == null) {
+                    return true;
+                }
+                segment = segment.toBuilder().setSegment(segmentObject.toByteString()).build();
+            }
+
             SegmentDecorator segmentDecorator = new SegmentDecorator(segmentObject);
 
             // 前置构造失败，将 TraceSegment 写入 Data 文件，暂存
@@ -117,15 +128,7 @@ public class SegmentParse {
 
     private boolean preBuild(List<UniqueId> traceIds, SegmentDecorator segmentDecorator) {
         // 拼接生成 segmentId
-        StringBuilder segmentIdBuilder = new StringBuilder();
-        for (int i = 0; i < segmentDecorator.getTraceSegmentId().getIdPartsList().size(); i++) {
-            if (i == 0) {
-                segmentIdBuilder.append(segmentDecorator.getTraceSegmentId().getIdPartsList().get(i));
-            } else {
-                segmentIdBuilder.append(".").append(segmentDecorator.getTraceSegmentId().getIdPartsList().get(i));
-            }
-        }
-        segmentId = segmentIdBuilder.toString();
+        segmentId = buildSegmentId(segmentDecorator.getTraceSegmentId());
 
         // 使用 GlobalTraceSpanListener 处理链路追踪全局编号数组( `TraceSegment.relatedGlobalTraces` )
         for (UniqueId uniqueId : traceIds) {
@@ -174,6 +177,18 @@ public class SegmentParse {
         return true;
     }
 
+    private String buildSegmentId(UniqueId traceSegmentId) {
+        StringBuilder segmentIdBuilder = new StringBuilder();
+        for (int i = 0; i < traceSegmentId.getIdPartsList().size(); i++) {
+            if (i == 0) {
+                segmentIdBuilder.append(traceSegmentId.getIdPartsList().get(i));
+            } else {
+                segmentIdBuilder.append(".").append(traceSegmentId.getIdPartsList().get(i));
+            }
+        }
+        return segmentIdBuilder.toString();
+    }
+
     private void buildSegment(String id, byte[] dataBinary) {
         Segment segment = new Segment(id);
         segment.setDataBinary(dataBinary);
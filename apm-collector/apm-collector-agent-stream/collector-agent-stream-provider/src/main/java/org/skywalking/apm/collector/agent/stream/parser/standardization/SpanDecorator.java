@@ -18,6 +18,8 @@
 
 package org.skywalking.apm.collector.agent.stream.parser.standardization;
 
+import java.util.List;
+import org.skywalking.apm.network.proto.LogMessage;
 import org.skywalking.apm.network.proto.SpanLayer;
 import org.skywalking.apm.network.proto.SpanObject;
 import org.skywalking.apm.network.proto.SpanType;
@@ -108,6 +110,43 @@ public class SpanDecorator implements StandardBuilder {
         }
     }
 
+    /**
+     * @return the start time in microseconds, or the milliseconds * 1000 if the agent doesn't send microseconds.
+     */
+    public long getStartTimeMicros() {
+        long startTimeMicros = isOrigin ? spanObject.getStartTimeMicros() : spanBuilder.getStartTimeMicros();
+        return startTimeMicros == 0 ? getStartTime() * 1000 : startTimeMicros;
+    }
+
+    /**
+     * @return the end time in microseconds, or the milliseconds * 1000 if the agent doesn't send microseconds.
+     */
+    public long getEndTimeMicros() {
+        long endTimeMicros = isOrigin ? spanObject.getEndTimeMicros() : spanBuilder.getEndTimeMicros();
+        return endTimeMicros == 0 ? getEndTime() * 1000 : endTimeMicros;
+    }
+
+    /**
+     * @return the cost in milliseconds, calculated from the microsecond times.
+     */
+    public long getCost() {
+        return (getEndTimeMicros() - getStartTimeMicros()) / 1000;
+    }
+
+    /**
+     * @return the cpu time of the entry thread in nanoseconds, or 0 if the agent doesn't send it.
+     */
+    public long getCpuTime() {
+        return isOrigin ? spanObject.getCpuTime() : spanBuilder.getCpuTime();
+    }
+
+    /**
+     * @return the bytes allocated by the entry thread, or 0 if the agent doesn't send it.
+     */
+    public long getAllocatedBytes() {
+        return isOrigin ? spanObject.getAllocatedBytes() : spanBuilder.getAllocatedBytes();
+    }
+
     public int getComponentId() {
         if (isOrigin) {
             return spanObject.getComponentId();
@@ -192,6 +231,14 @@ public class SpanDecorator implements StandardBuilder {
         }
     }
 
+    public List<LogMessage> getLogsList() {
+        if (isOrigin) {
+            return spanObject.getLogsList();
+        } else {
+            return spanBuilder.getLogsList();
+        }
+    }
+
     @Override public void toBuilder() {
         if (this.isOrigin) {
             this.isOrigin = false;
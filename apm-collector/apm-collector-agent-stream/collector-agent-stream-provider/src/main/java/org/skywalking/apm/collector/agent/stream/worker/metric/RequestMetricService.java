@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.agent.stream.worker.metric;
+
+import org.skywalking.apm.collector.agent.stream.graph.RequestMetricStreamGraph;
+import org.skywalking.apm.collector.agent.stream.service.metric.IRequestMetricService;
+import org.skywalking.apm.collector.core.graph.Graph;
+import org.skywalking.apm.collector.core.graph.GraphManager;
+import org.skywalking.apm.collector.core.util.Const;
+import org.skywalking.apm.collector.core.util.ObjectUtils;
+import org.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetric;
+import org.skywalking.apm.network.proto.RequestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class RequestMetricService implements IRequestMetricService {
+
+    private final Logger logger = LoggerFactory.getLogger(RequestMetricService.class);
+
+    private Graph<RequestMetric> requestMetricGraph;
+
+    private Graph<RequestMetric> getRequestMetricGraph() {
+        if (ObjectUtils.isEmpty(requestMetricGraph)) {
+            requestMetricGraph = GraphManager.INSTANCE.createIfAbsent(RequestMetricStreamGraph.REQUEST_METRIC_GRAPH_ID, RequestMetric.class);
+        }
+        return requestMetricGraph;
+    }
+
+    @Override public void send(RequestMetrics requestMetrics) {
+        int applicationId = requestMetrics.getApplicationId();
+        int instanceId = requestMetrics.getApplicationInstanceId();
+        requestMetrics.getMetricsList().forEach(metric -> {
+            // 按分钟聚合，同一分钟内多次上报的指标，由持久化 Worker 合并
+            long timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(metric.getTime());
+            RequestMetric requestMetric = new RequestMetric(timeBucket + Const.ID_SPLIT + instanceId + Const.ID_SPLIT + metric.getTypeValue() + Const.ID_SPLIT + metric.getTargetId());
+            requestMetric.setApplicationId(applicationId);
+            requestMetric.setInstanceId(instanceId);
+            requestMetric.setType(metric.getTypeValue());
+            requestMetric.setTargetId(metric.getTargetId());
+            requestMetric.setCalls(metric.getCalls());
+            requestMetric.setError(metric.getError());
+            requestMetric.setCostTotal(metric.getCostTotal());
+            requestMetric.setS1Lte(metric.getS1Lte());
+            requestMetric.setS3Lte(metric.getS3Lte());
+            requestMetric.setS5Lte(metric.getS5Lte());
+            requestMetric.setS5Gt(metric.getS5Gt());
+            requestMetric.setTimeBucket(timeBucket);
+
+            logger.debug("push to request metric graph, id: {}", requestMetric.getId());
+            getRequestMetricGraph().start(requestMetric);
+        });
+    }
+}
@@ -66,7 +66,7 @@ public class InstPerformanceSpanListener implements EntrySpanListener, FirstSpan
         String segmentId) {
         this.applicationId = applicationId;
         this.instanceId = instanceId;
-        this.cost = spanDecorator.getEndTime() - spanDecorator.getStartTime(); // 第一个 Span ，计算消耗时长
+        this.cost = spanDecorator.getCost(); // 第一个 Span ，计算消耗时长
         timeBucket = TimeBucketUtils.INSTANCE.getSecondTimeBucket(spanDecorator.getStartTime());
     }
 
@@ -70,7 +70,7 @@ public class NodeReferenceSpanListener implements EntrySpanListener, ExitSpanLis
             .append(Const.ID_SPLIT).append(spanDecorator.getPeerId()); // 编号，${timeBucket}_${frontApplicationId}_${behindApplicationId}
         nodeReference.setId(idBuilder.toString());
         // 添加到 `nodeReferences`
-        nodeReferences.add(buildNodeRefSum(nodeReference, spanDecorator.getStartTime(), spanDecorator.getEndTime(), spanDecorator.getIsError()));
+        nodeReferences.add(buildNodeRefSum(nodeReference, spanDecorator.getCost(), spanDecorator.getIsError()));
     }
 
     @Override
@@ -84,7 +84,7 @@ public class NodeReferenceSpanListener implements EntrySpanListener, ExitSpanLis
                     Const.ID_SPLIT + nodeReference.getBehindApplicationId(); // 编号，${timeBucket}_${frontApplicationId}_${behindApplicationId}
                 nodeReference.setId(idBuilder);
                 // 添加到 `nodeReferences`
-                nodeReferences.add(buildNodeRefSum(nodeReference, spanDecorator.getStartTime(), spanDecorator.getEndTime(), spanDecorator.getIsError()));
+                nodeReferences.add(buildNodeRefSum(nodeReference, spanDecorator.getCost(), spanDecorator.getIsError()));
             });
         } else {
             // 创建 NodeReference 对象
@@ -96,7 +96,7 @@ public class NodeReferenceSpanListener implements EntrySpanListener, ExitSpanLis
                 Const.ID_SPLIT + nodeReference.getBehindApplicationId(); // 编号，${timeBucket}_${frontApplicationId}_${behindApplicationId}
             nodeReference.setId(idBuilder);
             // 添加到 `nodeReferences`
-            nodeReferences.add(buildNodeRefSum(nodeReference, spanDecorator.getStartTime(), spanDecorator.getEndTime(), spanDecorator.getIsError()));
+            nodeReferences.add(buildNodeRefSum(nodeReference, spanDecorator.getCost(), spanDecorator.getIsError()));
         }
     }
 
@@ -119,9 +119,7 @@ public class NodeReferenceSpanListener implements EntrySpanListener, ExitSpanLis
         }
     }
 
-    private NodeReference buildNodeRefSum(NodeReference reference,
-        long startTime, long endTime, boolean isError) {
-        long cost = endTime - startTime;
+    private NodeReference buildNodeRefSum(NodeReference reference, long cost, boolean isError) {
         if (cost <= 1000 && !isError) {
             reference.setS1Lte(1);
         } else if (1000 < cost && cost <= 3000 && !isError) {
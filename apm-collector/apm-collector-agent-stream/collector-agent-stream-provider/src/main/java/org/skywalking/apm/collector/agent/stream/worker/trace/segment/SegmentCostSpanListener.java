@@ -71,7 +71,7 @@ public class SegmentCostSpanListener implements EntrySpanListener, ExitSpanListe
         SegmentCost segmentCost = new SegmentCost(Const.EMPTY_STRING);
         segmentCost.setSegmentId(segmentId);
         segmentCost.setApplicationId(applicationId);
-        segmentCost.setCost(spanDecorator.getEndTime() - spanDecorator.getStartTime());
+        segmentCost.setCost(spanDecorator.getCost());
         segmentCost.setStartTime(spanDecorator.getStartTime());
         segmentCost.setEndTime(spanDecorator.getEndTime());
         segmentCost.setId(segmentId);
@@ -50,13 +50,17 @@ public class ServiceReferenceSpanListener implements FirstSpanListener, EntrySpa
      */
     private int serviceId = 0;
     /**
-     * 开始时间
+     * 消耗时长（毫秒）
      */
-    private long startTime = 0;
+    private long cost = 0;
     /**
-     * 结束时间
+     * 入口 Span 线程消耗的 CPU 时间（纳秒）
      */
-    private long endTime = 0;
+    private long cpuTime = 0;
+    /**
+     * 入口 Span 线程分配的字节数
+     */
+    private long allocatedBytes = 0;
     /**
      * 是否有错误
      */
@@ -85,15 +89,14 @@ public class ServiceReferenceSpanListener implements FirstSpanListener, EntrySpa
     public void parseEntry(SpanDecorator spanDecorator, int applicationId, int instanceId,
         String segmentId) {
         serviceId = spanDecorator.getOperationNameId();
-        startTime = spanDecorator.getStartTime();
-        endTime = spanDecorator.getEndTime();
+        cost = spanDecorator.getCost();
+        cpuTime = spanDecorator.getCpuTime();
+        allocatedBytes = spanDecorator.getAllocatedBytes();
         isError = spanDecorator.getIsError();
         this.hasEntry = true;
     }
 
-    private void calculateCost(ServiceReference serviceReference, long startTime,
-        long endTime, boolean isError) {
-        long cost = endTime - startTime;
+    private void calculateCost(ServiceReference serviceReference, long cost, boolean isError) {
         if (cost <= 1000 && !isError) {
             serviceReference.setS1Lte(1L);
         } else if (1000 < cost && cost <= 3000 && !isError) {
@@ -107,6 +110,8 @@ public class ServiceReferenceSpanListener implements FirstSpanListener, EntrySpa
         }
         serviceReference.setSummary(1L);
         serviceReference.setCostSummary(cost);
+        serviceReference.setCpuTimeSummary(cpuTime);
+        serviceReference.setAllocatedBytesSummary(allocatedBytes);
     }
 
     @Override public void build() {
@@ -118,7 +123,7 @@ public class ServiceReferenceSpanListener implements FirstSpanListener, EntrySpa
                     int entryServiceId = reference.getEntryServiceId(); // 入口
                     int frontServiceId = reference.getParentServiceId(); // 父
                     int behindServiceId = serviceId; // 自己
-                    calculateCost(serviceReference, startTime, endTime, isError);
+                    calculateCost(serviceReference, cost, isError);
 
                     logger.debug("has reference, entryServiceId: {}", entryServiceId);
 
@@ -130,7 +135,7 @@ public class ServiceReferenceSpanListener implements FirstSpanListener, EntrySpa
                 int entryServiceId = serviceId; // 自己
                 int frontServiceId = Const.NONE_SERVICE_ID; // 【空】
                 int behindServiceId = serviceId; // 自己
-                calculateCost(serviceReference, startTime, endTime, isError);
+                calculateCost(serviceReference, cost, isError);
 
                 // 发送给 AggregationWorker
                 sendToAggregationWorker(serviceReference, entryServiceId, frontServiceId, behindServiceId);
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.agent.stream.worker.trace.throwable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.skywalking.apm.collector.agent.stream.graph.TraceStreamGraph;
+import org.skywalking.apm.collector.agent.stream.parser.EntrySpanListener;
+import org.skywalking.apm.collector.agent.stream.parser.ExitSpanListener;
+import org.skywalking.apm.collector.agent.stream.parser.LocalSpanListener;
+import org.skywalking.apm.collector.agent.stream.parser.standardization.SpanDecorator;
+import org.skywalking.apm.collector.core.graph.Graph;
+import org.skywalking.apm.collector.core.graph.GraphManager;
+import org.skywalking.apm.collector.core.util.Const;
+import org.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprint;
+import org.skywalking.apm.network.proto.KeyWithStringValue;
+import org.skywalking.apm.network.proto.LogMessage;
+
+/**
+ * ThrowableFingerprint 的 SpanListener
+ *
+ * The agent renders the stack of an exception with its fingerprint only until a segment carrying it is sent, and
+ * only the fingerprint for the following occurrences in the interval. Every rendered stack is persisted here, by
+ * application and fingerprint, so the UI fills the stack of the fingerprint only logs at read time, whichever
+ * collector received them.
+ */
+public class ThrowableFingerprintSpanListener implements EntrySpanListener, ExitSpanListener, LocalSpanListener {
+
+    public static final String FINGERPRINT = "fingerprint";
+    public static final String STACK = "stack";
+
+    /**
+     * 异常指纹编号( 应用编号 + 异常指纹 ) 与 完整堆栈 的映射
+     */
+    private final Map<String, String> stacks = new LinkedHashMap<>();
+    private long timeBucket;
+
+    @Override
+    public void parseEntry(SpanDecorator spanDecorator, int applicationId, int instanceId, String segmentId) {
+        parse(spanDecorator, applicationId);
+    }
+
+    @Override
+    public void parseExit(SpanDecorator spanDecorator, int applicationId, int instanceId, String segmentId) {
+        parse(spanDecorator, applicationId);
+    }
+
+    @Override
+    public void parseLocal(SpanDecorator spanDecorator, int applicationId, int instanceId, String segmentId) {
+        parse(spanDecorator, applicationId);
+    }
+
+    private void parse(SpanDecorator spanDecorator, int applicationId) {
+        for (LogMessage log : spanDecorator.getLogsList()) {
+            String fingerprint = null;
+            String stack = null;
+            for (KeyWithStringValue data : log.getDataList()) {
+                if (FINGERPRINT.equals(data.getKey())) {
+                    fingerprint = data.getValue();
+                } else if (STACK.equals(data.getKey())) {
+                    stack = data.getValue();
+                }
+            }
+            if (fingerprint != null && stack != null) {
+                stacks.put(applicationId + Const.ID_SPLIT + fingerprint, stack);
+                timeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(spanDecorator.getStartTime());
+            }
+        }
+    }
+
+    @Override public void build() {
+        Graph<ThrowableFingerprint> graph = GraphManager.INSTANCE.createIfAbsent(TraceStreamGraph.THROWABLE_FINGERPRINT_GRAPH_ID, ThrowableFingerprint.class);
+        for (Map.Entry<String, String> entry : stacks.entrySet()) {
+            ThrowableFingerprint throwableFingerprint = new ThrowableFingerprint(entry.getKey());
+            throwableFingerprint.setDataBinary(entry.getValue().getBytes(StandardCharsets.UTF_8));
+            throwableFingerprint.setTimeBucket(timeBucket);
+            graph.start(throwableFingerprint);
+        }
+    }
+}
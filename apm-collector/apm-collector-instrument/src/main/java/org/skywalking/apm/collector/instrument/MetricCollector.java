@@ -25,11 +25,13 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import org.skywalking.apm.commons.datacarrier.metric.DataCarrierMetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The <code>MetricCollector</code> collects the service metrics by Module/Provider/Service structure.
+ * The <code>MetricCollector</code> collects the service metrics by Module/Provider/Service structure, and reports the
+ * status of all DataCarriers in the collector, at info level.
  */
 public enum MetricCollector implements Runnable {
     INSTANCE;
@@ -45,6 +47,13 @@ public enum MetricCollector implements Runnable {
 
     @Override
     public void run() {
+        // DataCarrier 的监控数据始终以 INFO 级别输出，丢弃与阻塞需要被运维看到
+        StringBuilder carrierReport = new StringBuilder("DataCarrier status:\n");
+        DataCarrierMetricsRegistry.INSTANCE.getAll().forEach(carrierMetrics -> {
+            carrierReport.append("\t").append(carrierMetrics).append("\n");
+        });
+        logger.info(carrierReport.toString());
+
         if (!logger.isDebugEnabled()) {
             return;
         }
@@ -66,7 +75,6 @@ public enum MetricCollector implements Runnable {
                 });
             });
         });
-
         logger.debug(report.toString());
 
     }
@@ -29,7 +29,10 @@ import org.skywalking.apm.collector.remote.service.RemoteDataIDGetter;
 import org.skywalking.apm.collector.remote.service.RemoteDataMappingIdNotFoundException;
 import org.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
-import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.consumer.IBatchConsumer;
+import org.skywalking.apm.commons.datacarrier.wait.ParkingWaitStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,9 +61,10 @@ public class GRPCRemoteClient implements RemoteClient {
         this.client = client;
         this.service = new GRPCRemoteSerializeService();
         this.remoteDataIDGetter = remoteDataIDGetter;
-        this.carrier = new DataCarrier<>(channelSize, bufferSize);
+        this.carrier = new DataCarrier<>("RemoteClient-" + address, channelSize, bufferSize, BufferType.RING);
         this.carrier.setBufferStrategy(BufferStrategy.BLOCKING);
-        this.carrier.consume(new RemoteMessageConsumer(), 1);
+        // 空闲时消费线程休眠，产生数据时立即唤醒，单次最多休眠 20 毫秒
+        this.carrier.consume(new RemoteMessageConsumer(), 1, new ParkingWaitStrategy(20));
     }
 
     @Override public final String getAddress() {
@@ -90,16 +94,20 @@ public class GRPCRemoteClient implements RemoteClient {
     /**
      * 消费者
      */
-    class RemoteMessageConsumer implements IConsumer<RemoteMessage> {
+    class RemoteMessageConsumer implements IBatchConsumer<RemoteMessage> {
 
         @Override public void init() {
         }
 
+        @Override public void consumeBatch(ConsumeBatch<RemoteMessage> batch) {
+            consume(batch);
+        }
+
         @Override public void consume(List<RemoteMessage> remoteMessages) {
             // 创建 StreamObserver 对象
             StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
-            for (RemoteMessage remoteMessage : remoteMessages) {
-                streamObserver.onNext(remoteMessage);
+            for (int i = 0; i < remoteMessages.size(); i++) {
+                streamObserver.onNext(remoteMessages.get(i));
             }
 
             // 全部请求发送完成
@@ -77,6 +77,8 @@ public class StorageModule extends Module {
         classes.add(ISegmentPersistenceDAO.class); // Segment
         classes.add(IServiceEntryPersistenceDAO.class); // ServiceEntry
         classes.add(IServiceReferencePersistenceDAO.class); // ServiceReference
+        classes.add(IRequestMetricPersistenceDAO.class); // RequestMetric
+        classes.add(IThrowableFingerprintPersistenceDAO.class); // ThrowableFingerprint
 
         classes.add(IInstanceHeartBeatPersistenceDAO.class); // Instance
     }
@@ -98,5 +100,6 @@ public class StorageModule extends Module {
         classes.add(ISegmentUIDAO.class); // Segment
         classes.add(IServiceEntryUIDAO.class); // ServiceEntry
         classes.add(IServiceReferenceUIDAO.class); // ServiceReference
+        classes.add(IThrowableFingerprintUIDAO.class); // ThrowableFingerprint
     }
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.dao;
+
+import org.skywalking.apm.collector.storage.base.dao.DAO;
+
+public interface IThrowableFingerprintUIDAO extends DAO {
+    /**
+     * @return 异常指纹对应的完整堆栈，不存在时返回 null
+     */
+    String getStack(int applicationId, String fingerprint);
+}
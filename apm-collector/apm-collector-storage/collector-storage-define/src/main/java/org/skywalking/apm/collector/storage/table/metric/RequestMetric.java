@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.storage.table.metric;
+
+import org.skywalking.apm.collector.core.data.Column;
+import org.skywalking.apm.collector.core.data.Data;
+import org.skywalking.apm.collector.core.data.operator.AddOperation;
+import org.skywalking.apm.collector.core.data.operator.CoverOperation;
+import org.skywalking.apm.collector.core.data.operator.NonOperation;
+
+/**
+ * 请求指标，由 Agent 预聚合，包含未被采样的请求
+ */
+public class RequestMetric extends Data {
+
+    private static final Column[] STRING_COLUMNS = {
+        new Column(RequestMetricTable.COLUMN_ID, new NonOperation()),
+    };
+
+    private static final Column[] LONG_COLUMNS = {
+        new Column(RequestMetricTable.COLUMN_CALLS, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_ERROR, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_COST_TOTAL, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_S1_LTE, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_S3_LTE, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_S5_LTE, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_S5_GT, new AddOperation()),
+        new Column(RequestMetricTable.COLUMN_TIME_BUCKET, new CoverOperation()),
+    };
+
+    private static final Column[] DOUBLE_COLUMNS = {};
+
+    private static final Column[] INTEGER_COLUMNS = {
+        new Column(RequestMetricTable.COLUMN_APPLICATION_ID, new CoverOperation()),
+        new Column(RequestMetricTable.COLUMN_INSTANCE_ID, new CoverOperation()),
+        new Column(RequestMetricTable.COLUMN_TYPE, new CoverOperation()),
+        new Column(RequestMetricTable.COLUMN_TARGET_ID, new CoverOperation()),
+    };
+
+    private static final Column[] BOOLEAN_COLUMNS = {};
+    private static final Column[] BYTE_COLUMNS = {};
+
+    public RequestMetric(String id) {
+        super(id, STRING_COLUMNS, LONG_COLUMNS, DOUBLE_COLUMNS, INTEGER_COLUMNS, BOOLEAN_COLUMNS, BYTE_COLUMNS);
+    }
+
+    public Long getCalls() {
+        return getDataLong(0);
+    }
+
+    public void setCalls(Long calls) {
+        setDataLong(0, calls);
+    }
+
+    public Long getError() {
+        return getDataLong(1);
+    }
+
+    public void setError(Long error) {
+        setDataLong(1, error);
+    }
+
+    public Long getCostTotal() {
+        return getDataLong(2);
+    }
+
+    public void setCostTotal(Long costTotal) {
+        setDataLong(2, costTotal);
+    }
+
+    public Long getS1Lte() {
+        return getDataLong(3);
+    }
+
+    public void setS1Lte(Long s1Lte) {
+        setDataLong(3, s1Lte);
+    }
+
+    public Long getS3Lte() {
+        return getDataLong(4);
+    }
+
+    public void setS3Lte(Long s3Lte) {
+        setDataLong(4, s3Lte);
+    }
+
+    public Long getS5Lte() {
+        return getDataLong(5);
+    }
+
+    public void setS5Lte(Long s5Lte) {
+        setDataLong(5, s5Lte);
+    }
+
+    public Long getS5Gt() {
+        return getDataLong(6);
+    }
+
+    public void setS5Gt(Long s5Gt) {
+        setDataLong(6, s5Gt);
+    }
+
+    public Long getTimeBucket() {
+        return getDataLong(7);
+    }
+
+    public void setTimeBucket(Long timeBucket) {
+        setDataLong(7, timeBucket);
+    }
+
+    public Integer getApplicationId() {
+        return getDataInteger(0);
+    }
+
+    public void setApplicationId(Integer applicationId) {
+        setDataInteger(0, applicationId);
+    }
+
+    public Integer getInstanceId() {
+        return getDataInteger(1);
+    }
+
+    public void setInstanceId(Integer instanceId) {
+        setDataInteger(1, instanceId);
+    }
+
+    public Integer getType() {
+        return getDataInteger(2);
+    }
+
+    public void setType(Integer type) {
+        setDataInteger(2, type);
+    }
+
+    public Integer getTargetId() {
+        return getDataInteger(3);
+    }
+
+    public void setTargetId(Integer targetId) {
+        setDataInteger(3, targetId);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.storage.table.metric;
+
+import org.skywalking.apm.collector.core.data.CommonTable;
+
+/**
+ * 请求指标 Table ，由 Agent 预聚合，按分钟记录每个应用实例的入口操作、出口地址的调用统计
+ */
+public class RequestMetricTable extends CommonTable {
+
+    public static final String TABLE = "request_metric";
+
+    /**
+     * 应用编号
+     */
+    public static final String COLUMN_APPLICATION_ID = "application_id";
+    /**
+     * 应用实例编号
+     */
+    public static final String COLUMN_INSTANCE_ID = "instance_id";
+    /**
+     * 类型，0 为入口操作，1 为出口地址
+     */
+    public static final String COLUMN_TYPE = "type";
+    /**
+     * 入口操作编号，或出口地址编号
+     */
+    public static final String COLUMN_TARGET_ID = "target_id";
+    /**
+     * 调用总次数
+     */
+    public static final String COLUMN_CALLS = "calls";
+    /**
+     * 错误的次数
+     */
+    public static final String COLUMN_ERROR = "error";
+    /**
+     * 调用总时长
+     */
+    public static final String COLUMN_COST_TOTAL = "cost_total";
+    /**
+     * (0, 1000ms] 的次数
+     */
+    public static final String COLUMN_S1_LTE = "s1_lte";
+    /**
+     * (1000, 3000ms] 的次数
+     */
+    public static final String COLUMN_S3_LTE = "s3_lte";
+    /**
+     * (3000, 5000ms] 的次数
+     */
+    public static final String COLUMN_S5_LTE = "s5_lte";
+    /**
+     * (5000ms, 无穷] 的次数
+     */
+    public static final String COLUMN_S5_GT = "s5_gt";
+}
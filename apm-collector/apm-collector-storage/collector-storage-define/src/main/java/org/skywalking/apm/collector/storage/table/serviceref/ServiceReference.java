@@ -42,6 +42,8 @@ public class ServiceReference extends Data {
         new Column(ServiceReferenceTable.COLUMN_ERROR, new AddOperation()),
         new Column(ServiceReferenceTable.COLUMN_COST_SUMMARY, new AddOperation()),
         new Column(ServiceReferenceTable.COLUMN_TIME_BUCKET, new CoverOperation()),
+        new Column(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY, new AddOperation()),
+        new Column(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY, new AddOperation()),
     };
     private static final Column[] DOUBLE_COLUMNS = {};
     private static final Column[] INTEGER_COLUMNS = {
@@ -62,6 +64,8 @@ public class ServiceReference extends Data {
         setError(0L);
         setSummary(0L);
         setCostSummary(0L);
+        setCpuTimeSummary(0L);
+        setAllocatedBytesSummary(0L);
     }
 
     public Integer getEntryServiceId() {
@@ -151,4 +155,20 @@ public class ServiceReference extends Data {
     public void setTimeBucket(Long timeBucket) {
         setDataLong(7, timeBucket);
     }
+
+    public Long getCpuTimeSummary() {
+        return getDataLong(8);
+    }
+
+    public void setCpuTimeSummary(Long cpuTimeSummary) {
+        setDataLong(8, cpuTimeSummary);
+    }
+
+    public Long getAllocatedBytesSummary() {
+        return getDataLong(9);
+    }
+
+    public void setAllocatedBytesSummary(Long allocatedBytesSummary) {
+        setDataLong(9, allocatedBytesSummary);
+    }
 }
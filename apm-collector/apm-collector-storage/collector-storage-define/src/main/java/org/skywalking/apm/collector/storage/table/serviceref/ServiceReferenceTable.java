@@ -65,6 +65,14 @@ public class ServiceReferenceTable extends CommonTable {
      * 总共的花费时间
      */
     public static final String COLUMN_COST_SUMMARY = "cost_summary";
+    /**
+     * 入口 Span 线程的总共的 CPU 时间（纳秒）
+     */
+    public static final String COLUMN_CPU_TIME_SUMMARY = "cpu_time_summary";
+    /**
+     * 入口 Span 线程的总共的分配字节数
+     */
+    public static final String COLUMN_ALLOCATED_BYTES_SUMMARY = "allocated_bytes_summary";
     /**
      * 错误的次数
      */
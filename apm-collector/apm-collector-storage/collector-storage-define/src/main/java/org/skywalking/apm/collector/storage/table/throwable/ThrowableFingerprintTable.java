@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.table.throwable;
+
+import org.skywalking.apm.collector.core.data.CommonTable;
+
+/**
+ * 异常指纹 Table ，编号为 应用编号 + 异常指纹
+ */
+public class ThrowableFingerprintTable extends CommonTable {
+
+    public static final String TABLE = "throwable_fingerprint";
+
+    /**
+     * 完整堆栈，UTF-8 编码的二进制数组。
+     */
+    public static final String COLUMN_DATA_BINARY = "data_binary";
+}
@@ -120,5 +120,13 @@ public class DataTTLKeeperTimer {
         // ServiceReference
         IServiceReferencePersistenceDAO serviceReferencePersistenceDAO = moduleManager.find(StorageModule.NAME).getService(IServiceReferencePersistenceDAO.class);
         serviceReferencePersistenceDAO.deleteHistory(startTimestamp, endTimestamp);
+
+        // RequestMetric
+        IRequestMetricPersistenceDAO requestMetricPersistenceDAO = moduleManager.find(StorageModule.NAME).getService(IRequestMetricPersistenceDAO.class);
+        requestMetricPersistenceDAO.deleteHistory(startTimestamp, endTimestamp);
+
+        // ThrowableFingerprint
+        IThrowableFingerprintPersistenceDAO throwableFingerprintPersistenceDAO = moduleManager.find(StorageModule.NAME).getService(IThrowableFingerprintPersistenceDAO.class);
+        throwableFingerprintPersistenceDAO.deleteHistory(startTimestamp, endTimestamp);
     }
 }
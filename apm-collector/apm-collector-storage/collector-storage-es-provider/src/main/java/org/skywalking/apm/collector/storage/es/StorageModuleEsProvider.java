@@ -147,6 +147,8 @@ public class StorageModuleEsProvider extends ModuleProvider {
         this.registerServiceImplementation(ISegmentPersistenceDAO.class, new SegmentEsPersistenceDAO(elasticSearchClient));
         this.registerServiceImplementation(IServiceEntryPersistenceDAO.class, new ServiceEntryEsPersistenceDAO(elasticSearchClient));
         this.registerServiceImplementation(IServiceReferencePersistenceDAO.class, new ServiceReferenceEsPersistenceDAO(elasticSearchClient));
+        this.registerServiceImplementation(IRequestMetricPersistenceDAO.class, new RequestMetricEsPersistenceDAO(elasticSearchClient));
+        this.registerServiceImplementation(IThrowableFingerprintPersistenceDAO.class, new ThrowableFingerprintEsPersistenceDAO(elasticSearchClient));
 
         this.registerServiceImplementation(IInstanceHeartBeatPersistenceDAO.class, new InstanceHeartBeatEsPersistenceDAO(elasticSearchClient));
     }
@@ -168,5 +170,6 @@ public class StorageModuleEsProvider extends ModuleProvider {
         this.registerServiceImplementation(ISegmentUIDAO.class, new SegmentEsUIDAO(elasticSearchClient));
         this.registerServiceImplementation(IServiceEntryUIDAO.class, new ServiceEntryEsUIDAO(elasticSearchClient));
         this.registerServiceImplementation(IServiceReferenceUIDAO.class, new ServiceReferenceEsUIDAO(elasticSearchClient));
+        this.registerServiceImplementation(IThrowableFingerprintUIDAO.class, new ThrowableFingerprintEsUIDAO(elasticSearchClient));
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.storage.es.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.update.UpdateRequestBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.skywalking.apm.collector.storage.dao.IRequestMetricPersistenceDAO;
+import org.skywalking.apm.collector.storage.es.base.dao.EsDAO;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetric;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetricTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class RequestMetricEsPersistenceDAO extends EsDAO implements IRequestMetricPersistenceDAO<IndexRequestBuilder, UpdateRequestBuilder, RequestMetric> {
+
+    private final Logger logger = LoggerFactory.getLogger(RequestMetricEsPersistenceDAO.class);
+
+    public RequestMetricEsPersistenceDAO(ElasticSearchClient client) {
+        super(client);
+    }
+
+    @Override public RequestMetric get(String id) {
+        GetResponse getResponse = getClient().prepareGet(RequestMetricTable.TABLE, id).get();
+        if (getResponse.isExists()) {
+            logger.debug("getId: {} is exist", id);
+            RequestMetric requestMetric = new RequestMetric(id);
+            Map<String, Object> source = getResponse.getSource();
+            requestMetric.setApplicationId((Integer)source.get(RequestMetricTable.COLUMN_APPLICATION_ID));
+            requestMetric.setInstanceId((Integer)source.get(RequestMetricTable.COLUMN_INSTANCE_ID));
+            requestMetric.setType((Integer)source.get(RequestMetricTable.COLUMN_TYPE));
+            requestMetric.setTargetId((Integer)source.get(RequestMetricTable.COLUMN_TARGET_ID));
+            requestMetric.setCalls(((Number)source.get(RequestMetricTable.COLUMN_CALLS)).longValue());
+            requestMetric.setError(((Number)source.get(RequestMetricTable.COLUMN_ERROR)).longValue());
+            requestMetric.setCostTotal(((Number)source.get(RequestMetricTable.COLUMN_COST_TOTAL)).longValue());
+            requestMetric.setS1Lte(((Number)source.get(RequestMetricTable.COLUMN_S1_LTE)).longValue());
+            requestMetric.setS3Lte(((Number)source.get(RequestMetricTable.COLUMN_S3_LTE)).longValue());
+            requestMetric.setS5Lte(((Number)source.get(RequestMetricTable.COLUMN_S5_LTE)).longValue());
+            requestMetric.setS5Gt(((Number)source.get(RequestMetricTable.COLUMN_S5_GT)).longValue());
+            requestMetric.setTimeBucket(((Number)source.get(RequestMetricTable.COLUMN_TIME_BUCKET)).longValue());
+            return requestMetric;
+        } else {
+            return null;
+        }
+    }
+
+    @Override public IndexRequestBuilder prepareBatchInsert(RequestMetric data) {
+        Map<String, Object> source = new HashMap<>();
+        source.put(RequestMetricTable.COLUMN_APPLICATION_ID, data.getApplicationId());
+        source.put(RequestMetricTable.COLUMN_INSTANCE_ID, data.getInstanceId());
+        source.put(RequestMetricTable.COLUMN_TYPE, data.getType());
+        source.put(RequestMetricTable.COLUMN_TARGET_ID, data.getTargetId());
+        source.put(RequestMetricTable.COLUMN_CALLS, data.getCalls());
+        source.put(RequestMetricTable.COLUMN_ERROR, data.getError());
+        source.put(RequestMetricTable.COLUMN_COST_TOTAL, data.getCostTotal());
+        source.put(RequestMetricTable.COLUMN_S1_LTE, data.getS1Lte());
+        source.put(RequestMetricTable.COLUMN_S3_LTE, data.getS3Lte());
+        source.put(RequestMetricTable.COLUMN_S5_LTE, data.getS5Lte());
+        source.put(RequestMetricTable.COLUMN_S5_GT, data.getS5Gt());
+        source.put(RequestMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+
+        return getClient().prepareIndex(RequestMetricTable.TABLE, data.getId()).setSource(source);
+    }
+
+    @Override public UpdateRequestBuilder prepareBatchUpdate(RequestMetric data) {
+        Map<String, Object> source = new HashMap<>();
+        source.put(RequestMetricTable.COLUMN_APPLICATION_ID, data.getApplicationId());
+        source.put(RequestMetricTable.COLUMN_INSTANCE_ID, data.getInstanceId());
+        source.put(RequestMetricTable.COLUMN_TYPE, data.getType());
+        source.put(RequestMetricTable.COLUMN_TARGET_ID, data.getTargetId());
+        source.put(RequestMetricTable.COLUMN_CALLS, data.getCalls());
+        source.put(RequestMetricTable.COLUMN_ERROR, data.getError());
+        source.put(RequestMetricTable.COLUMN_COST_TOTAL, data.getCostTotal());
+        source.put(RequestMetricTable.COLUMN_S1_LTE, data.getS1Lte());
+        source.put(RequestMetricTable.COLUMN_S3_LTE, data.getS3Lte());
+        source.put(RequestMetricTable.COLUMN_S5_LTE, data.getS5Lte());
+        source.put(RequestMetricTable.COLUMN_S5_GT, data.getS5Gt());
+        source.put(RequestMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+
+        return getClient().prepareUpdate(RequestMetricTable.TABLE, data.getId()).setDoc(source);
+    }
+
+    @Override public void deleteHistory(Long startTimestamp, Long endTimestamp) {
+        long startTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(startTimestamp);
+        long endTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(endTimestamp);
+        BulkByScrollResponse response = getClient().prepareDelete()
+            .filter(QueryBuilders.rangeQuery(RequestMetricTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket))
+            .source(RequestMetricTable.TABLE)
+            .get();
+
+        long deleted = response.getDeleted();
+        logger.info("Delete {} rows history from {} index.", deleted, RequestMetricTable.TABLE);
+    }
+}
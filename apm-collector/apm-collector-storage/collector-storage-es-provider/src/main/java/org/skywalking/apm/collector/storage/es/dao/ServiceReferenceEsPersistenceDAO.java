@@ -60,6 +60,8 @@ public class ServiceReferenceEsPersistenceDAO extends EsDAO implements IServiceR
             serviceReference.setSummary(((Number)source.get(ServiceReferenceTable.COLUMN_SUMMARY)).longValue());
             serviceReference.setError(((Number)source.get(ServiceReferenceTable.COLUMN_ERROR)).longValue());
             serviceReference.setCostSummary(((Number)source.get(ServiceReferenceTable.COLUMN_COST_SUMMARY)).longValue());
+            serviceReference.setCpuTimeSummary(((Number)source.getOrDefault(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY, 0L)).longValue());
+            serviceReference.setAllocatedBytesSummary(((Number)source.getOrDefault(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY, 0L)).longValue());
             serviceReference.setTimeBucket(((Number)source.get(ServiceReferenceTable.COLUMN_TIME_BUCKET)).longValue());
             return serviceReference;
         } else {
@@ -79,6 +81,8 @@ public class ServiceReferenceEsPersistenceDAO extends EsDAO implements IServiceR
         source.put(ServiceReferenceTable.COLUMN_SUMMARY, data.getSummary());
         source.put(ServiceReferenceTable.COLUMN_ERROR, data.getError());
         source.put(ServiceReferenceTable.COLUMN_COST_SUMMARY, data.getCostSummary());
+        source.put(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY, data.getCpuTimeSummary());
+        source.put(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY, data.getAllocatedBytesSummary());
         source.put(ServiceReferenceTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
         return getClient().prepareIndex(ServiceReferenceTable.TABLE, data.getId()).setSource(source);
@@ -96,6 +100,8 @@ public class ServiceReferenceEsPersistenceDAO extends EsDAO implements IServiceR
         source.put(ServiceReferenceTable.COLUMN_SUMMARY, data.getSummary());
         source.put(ServiceReferenceTable.COLUMN_ERROR, data.getError());
         source.put(ServiceReferenceTable.COLUMN_COST_SUMMARY, data.getCostSummary());
+        source.put(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY, data.getCpuTimeSummary());
+        source.put(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY, data.getAllocatedBytesSummary());
         source.put(ServiceReferenceTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
         return getClient().prepareUpdate(ServiceReferenceTable.TABLE, data.getId()).setDoc(source);
@@ -97,7 +97,9 @@ public class ServiceReferenceEsUIDAO extends EsDAO implements IServiceReferenceU
                 .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_S5_GT).field(ServiceReferenceTable.COLUMN_S5_GT))
                 .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_ERROR).field(ServiceReferenceTable.COLUMN_ERROR))
                 .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_SUMMARY).field(ServiceReferenceTable.COLUMN_SUMMARY))
-                .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_COST_SUMMARY).field(ServiceReferenceTable.COLUMN_COST_SUMMARY))));
+                .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_COST_SUMMARY).field(ServiceReferenceTable.COLUMN_COST_SUMMARY))
+                .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY).field(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY))
+                .subAggregation(AggregationBuilders.sum(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY).field(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY))));
 
         Map<String, JsonObject> serviceReferenceMap = new LinkedHashMap<>();
 
@@ -127,6 +129,8 @@ public class ServiceReferenceEsUIDAO extends EsDAO implements IServiceReferenceU
                 Sum error = behindServiceIdBucket.getAggregations().get(ServiceReferenceTable.COLUMN_ERROR);
                 Sum summary = behindServiceIdBucket.getAggregations().get(ServiceReferenceTable.COLUMN_SUMMARY);
                 Sum costSum = behindServiceIdBucket.getAggregations().get(ServiceReferenceTable.COLUMN_COST_SUMMARY);
+                Sum cpuTimeSum = behindServiceIdBucket.getAggregations().get(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY);
+                Sum allocatedBytesSum = behindServiceIdBucket.getAggregations().get(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY);
 
                 JsonObject serviceReference = new JsonObject();
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_FRONT_SERVICE_ID), frontServiceId);
@@ -138,6 +142,8 @@ public class ServiceReferenceEsUIDAO extends EsDAO implements IServiceReferenceU
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_ERROR), (long)error.getValue());
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_SUMMARY), (long)summary.getValue());
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_COST_SUMMARY), (long)costSum.getValue());
+                serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY), (long)cpuTimeSum.getValue());
+                serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY), (long)allocatedBytesSum.getValue());
 
                 String id = serviceReference.get(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_FRONT_SERVICE_ID)) + Const.ID_SPLIT + serviceReference.get(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_BEHIND_SERVICE_ID));
                 serviceReferenceMap.put(id, serviceReference);
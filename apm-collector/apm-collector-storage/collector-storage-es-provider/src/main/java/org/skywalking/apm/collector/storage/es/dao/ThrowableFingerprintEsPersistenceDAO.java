@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.es.dao;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.update.UpdateRequestBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.skywalking.apm.collector.core.util.TimeBucketUtils;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintPersistenceDAO;
+import org.skywalking.apm.collector.storage.es.base.dao.EsDAO;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprint;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprintTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ThrowableFingerprintEsPersistenceDAO extends EsDAO implements IThrowableFingerprintPersistenceDAO<IndexRequestBuilder, UpdateRequestBuilder, ThrowableFingerprint> {
+
+    private final Logger logger = LoggerFactory.getLogger(ThrowableFingerprintEsPersistenceDAO.class);
+
+    public ThrowableFingerprintEsPersistenceDAO(ElasticSearchClient client) {
+        super(client);
+    }
+
+    @Override public ThrowableFingerprint get(String id) {
+        GetResponse getResponse = getClient().prepareGet(ThrowableFingerprintTable.TABLE, id).get();
+        if (getResponse.isExists()) {
+            logger.debug("getId: {} is exist", id);
+            ThrowableFingerprint throwableFingerprint = new ThrowableFingerprint(id);
+            Map<String, Object> source = getResponse.getSource();
+            throwableFingerprint.setDataBinary(Base64.getDecoder().decode((String)source.get(ThrowableFingerprintTable.COLUMN_DATA_BINARY)));
+            throwableFingerprint.setTimeBucket(((Number)source.get(ThrowableFingerprintTable.COLUMN_TIME_BUCKET)).longValue());
+            return throwableFingerprint;
+        } else {
+            return null;
+        }
+    }
+
+    @Override public IndexRequestBuilder prepareBatchInsert(ThrowableFingerprint data) {
+        Map<String, Object> source = new HashMap<>();
+        source.put(ThrowableFingerprintTable.COLUMN_DATA_BINARY, new String(Base64.getEncoder().encode(data.getDataBinary())));
+        source.put(ThrowableFingerprintTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+
+        return getClient().prepareIndex(ThrowableFingerprintTable.TABLE, data.getId()).setSource(source);
+    }
+
+    @Override public UpdateRequestBuilder prepareBatchUpdate(ThrowableFingerprint data) {
+        Map<String, Object> source = new HashMap<>();
+        source.put(ThrowableFingerprintTable.COLUMN_DATA_BINARY, new String(Base64.getEncoder().encode(data.getDataBinary())));
+        source.put(ThrowableFingerprintTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+
+        return getClient().prepareUpdate(ThrowableFingerprintTable.TABLE, data.getId()).setDoc(source);
+    }
+
+    @Override public void deleteHistory(Long startTimestamp, Long endTimestamp) {
+        long startTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(startTimestamp);
+        long endTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(endTimestamp);
+        BulkByScrollResponse response = getClient().prepareDelete()
+            .filter(QueryBuilders.rangeQuery(ThrowableFingerprintTable.COLUMN_TIME_BUCKET).gte(startTimeBucket).lte(endTimeBucket))
+            .source(ThrowableFingerprintTable.TABLE)
+            .get();
+
+        long deleted = response.getDeleted();
+        logger.info("Delete {} rows history from {} index.", deleted, ThrowableFingerprintTable.TABLE);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.es.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.elasticsearch.action.get.GetResponse;
+import org.skywalking.apm.collector.client.elasticsearch.ElasticSearchClient;
+import org.skywalking.apm.collector.core.util.Const;
+import org.skywalking.apm.collector.core.util.StringUtils;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintUIDAO;
+import org.skywalking.apm.collector.storage.es.base.dao.EsDAO;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprintTable;
+
+public class ThrowableFingerprintEsUIDAO extends EsDAO implements IThrowableFingerprintUIDAO {
+
+    public ThrowableFingerprintEsUIDAO(ElasticSearchClient client) {
+        super(client);
+    }
+
+    @Override public String getStack(int applicationId, String fingerprint) {
+        String id = applicationId + Const.ID_SPLIT + fingerprint;
+        GetResponse response = getClient().prepareGet(ThrowableFingerprintTable.TABLE, id).get();
+        if (response.isExists()) {
+            Map<String, Object> source = response.getSource();
+            String dataBinaryBase64 = (String)source.get(ThrowableFingerprintTable.COLUMN_DATA_BINARY);
+            if (StringUtils.isNotEmpty(dataBinaryBase64)) {
+                return new String(Base64.getDecoder().decode(dataBinaryBase64), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.es.define;
+
+import org.skywalking.apm.collector.storage.es.base.define.ElasticSearchColumnDefine;
+import org.skywalking.apm.collector.storage.es.base.define.ElasticSearchTableDefine;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprintTable;
+
+public class ThrowableFingerprintEsTableDefine extends ElasticSearchTableDefine {
+
+    public ThrowableFingerprintEsTableDefine() {
+        super(ThrowableFingerprintTable.TABLE);
+    }
+
+    @Override public int refreshInterval() {
+        return 2;
+    }
+
+    @Override public void initialize() {
+        addColumn(new ElasticSearchColumnDefine(ThrowableFingerprintTable.COLUMN_DATA_BINARY, ElasticSearchColumnDefine.Type.Binary.name()));
+        addColumn(new ElasticSearchColumnDefine(ThrowableFingerprintTable.COLUMN_TIME_BUCKET, ElasticSearchColumnDefine.Type.Long.name()));
+    }
+}
@@ -58,8 +58,11 @@ import org.skywalking.apm.collector.storage.dao.IServiceEntryPersistenceDAO;
 import org.skywalking.apm.collector.storage.dao.IServiceEntryUIDAO;
 import org.skywalking.apm.collector.storage.dao.IServiceNameCacheDAO;
 import org.skywalking.apm.collector.storage.dao.IServiceNameRegisterDAO;
+import org.skywalking.apm.collector.storage.dao.IRequestMetricPersistenceDAO;
 import org.skywalking.apm.collector.storage.dao.IServiceReferencePersistenceDAO;
 import org.skywalking.apm.collector.storage.dao.IServiceReferenceUIDAO;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintPersistenceDAO;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintUIDAO;
 import org.skywalking.apm.collector.storage.h2.base.dao.BatchH2DAO;
 import org.skywalking.apm.collector.storage.h2.base.define.H2StorageInstaller;
 import org.skywalking.apm.collector.storage.h2.dao.ApplicationH2CacheDAO;
@@ -94,8 +97,11 @@ import org.skywalking.apm.collector.storage.h2.dao.ServiceEntryH2PersistenceDAO;
 import org.skywalking.apm.collector.storage.h2.dao.ServiceEntryH2UIDAO;
 import org.skywalking.apm.collector.storage.h2.dao.ServiceNameH2CacheDAO;
 import org.skywalking.apm.collector.storage.h2.dao.ServiceNameH2RegisterDAO;
+import org.skywalking.apm.collector.storage.h2.dao.RequestMetricH2PersistenceDAO;
 import org.skywalking.apm.collector.storage.h2.dao.ServiceReferenceH2PersistenceDAO;
 import org.skywalking.apm.collector.storage.h2.dao.ServiceReferenceH2UIDAO;
+import org.skywalking.apm.collector.storage.h2.dao.ThrowableFingerprintH2PersistenceDAO;
+import org.skywalking.apm.collector.storage.h2.dao.ThrowableFingerprintH2UIDAO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -179,6 +185,8 @@ public class StorageModuleH2Provider extends ModuleProvider {
         this.registerServiceImplementation(ISegmentPersistenceDAO.class, new SegmentH2PersistenceDAO(h2Client));
         this.registerServiceImplementation(IServiceEntryPersistenceDAO.class, new ServiceEntryH2PersistenceDAO(h2Client));
         this.registerServiceImplementation(IServiceReferencePersistenceDAO.class, new ServiceReferenceH2PersistenceDAO(h2Client));
+        this.registerServiceImplementation(IRequestMetricPersistenceDAO.class, new RequestMetricH2PersistenceDAO(h2Client));
+        this.registerServiceImplementation(IThrowableFingerprintPersistenceDAO.class, new ThrowableFingerprintH2PersistenceDAO(h2Client));
 
         this.registerServiceImplementation(IInstanceHeartBeatPersistenceDAO.class, new InstanceHeartBeatH2PersistenceDAO(h2Client));
     }
@@ -200,5 +208,6 @@ public class StorageModuleH2Provider extends ModuleProvider {
         this.registerServiceImplementation(ISegmentUIDAO.class, new SegmentH2UIDAO(h2Client));
         this.registerServiceImplementation(IServiceEntryUIDAO.class, new ServiceEntryH2UIDAO(h2Client));
         this.registerServiceImplementation(IServiceReferenceUIDAO.class, new ServiceReferenceH2UIDAO(h2Client));
+        this.registerServiceImplementation(IThrowableFingerprintUIDAO.class, new ThrowableFingerprintH2UIDAO(h2Client));
     }
 }
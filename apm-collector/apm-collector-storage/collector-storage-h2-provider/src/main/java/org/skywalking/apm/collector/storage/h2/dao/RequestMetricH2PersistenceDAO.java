@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.storage.h2.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.skywalking.apm.collector.client.h2.H2Client;
+import org.skywalking.apm.collector.client.h2.H2ClientException;
+import org.skywalking.apm.collector.storage.base.sql.SqlBuilder;
+import org.skywalking.apm.collector.storage.dao.IRequestMetricPersistenceDAO;
+import org.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
+import org.skywalking.apm.collector.storage.h2.base.define.H2SqlEntity;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetric;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetricTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class RequestMetricH2PersistenceDAO extends H2DAO implements IRequestMetricPersistenceDAO<H2SqlEntity, H2SqlEntity, RequestMetric> {
+
+    private final Logger logger = LoggerFactory.getLogger(RequestMetricH2PersistenceDAO.class);
+    private static final String GET_SQL = "select * from {0} where {1} = ?";
+
+    public RequestMetricH2PersistenceDAO(H2Client client) {
+        super(client);
+    }
+
+    @Override public RequestMetric get(String id) {
+        H2Client client = getClient();
+        String sql = SqlBuilder.buildSql(GET_SQL, RequestMetricTable.TABLE, RequestMetricTable.COLUMN_ID);
+        Object[] params = new Object[] {id};
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            if (rs.next()) {
+                RequestMetric requestMetric = new RequestMetric(id);
+                requestMetric.setApplicationId(rs.getInt(RequestMetricTable.COLUMN_APPLICATION_ID));
+                requestMetric.setInstanceId(rs.getInt(RequestMetricTable.COLUMN_INSTANCE_ID));
+                requestMetric.setType(rs.getInt(RequestMetricTable.COLUMN_TYPE));
+                requestMetric.setTargetId(rs.getInt(RequestMetricTable.COLUMN_TARGET_ID));
+                requestMetric.setCalls(rs.getLong(RequestMetricTable.COLUMN_CALLS));
+                requestMetric.setError(rs.getLong(RequestMetricTable.COLUMN_ERROR));
+                requestMetric.setCostTotal(rs.getLong(RequestMetricTable.COLUMN_COST_TOTAL));
+                requestMetric.setS1Lte(rs.getLong(RequestMetricTable.COLUMN_S1_LTE));
+                requestMetric.setS3Lte(rs.getLong(RequestMetricTable.COLUMN_S3_LTE));
+                requestMetric.setS5Lte(rs.getLong(RequestMetricTable.COLUMN_S5_LTE));
+                requestMetric.setS5Gt(rs.getLong(RequestMetricTable.COLUMN_S5_GT));
+                requestMetric.setTimeBucket(rs.getLong(RequestMetricTable.COLUMN_TIME_BUCKET));
+                return requestMetric;
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    @Override public H2SqlEntity prepareBatchInsert(RequestMetric data) {
+        Map<String, Object> source = new HashMap<>();
+        H2SqlEntity entity = new H2SqlEntity();
+        source.put(RequestMetricTable.COLUMN_ID, data.getId());
+        source.put(RequestMetricTable.COLUMN_APPLICATION_ID, data.getApplicationId());
+        source.put(RequestMetricTable.COLUMN_INSTANCE_ID, data.getInstanceId());
+        source.put(RequestMetricTable.COLUMN_TYPE, data.getType());
+        source.put(RequestMetricTable.COLUMN_TARGET_ID, data.getTargetId());
+        source.put(RequestMetricTable.COLUMN_CALLS, data.getCalls());
+        source.put(RequestMetricTable.COLUMN_ERROR, data.getError());
+        source.put(RequestMetricTable.COLUMN_COST_TOTAL, data.getCostTotal());
+        source.put(RequestMetricTable.COLUMN_S1_LTE, data.getS1Lte());
+        source.put(RequestMetricTable.COLUMN_S3_LTE, data.getS3Lte());
+        source.put(RequestMetricTable.COLUMN_S5_LTE, data.getS5Lte());
+        source.put(RequestMetricTable.COLUMN_S5_GT, data.getS5Gt());
+        source.put(RequestMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+        String sql = SqlBuilder.buildBatchInsertSql(RequestMetricTable.TABLE, source.keySet());
+        entity.setSql(sql);
+        entity.setParams(source.values().toArray(new Object[0]));
+        return entity;
+    }
+
+    @Override public H2SqlEntity prepareBatchUpdate(RequestMetric data) {
+        Map<String, Object> source = new HashMap<>();
+        H2SqlEntity entity = new H2SqlEntity();
+        source.put(RequestMetricTable.COLUMN_APPLICATION_ID, data.getApplicationId());
+        source.put(RequestMetricTable.COLUMN_INSTANCE_ID, data.getInstanceId());
+        source.put(RequestMetricTable.COLUMN_TYPE, data.getType());
+        source.put(RequestMetricTable.COLUMN_TARGET_ID, data.getTargetId());
+        source.put(RequestMetricTable.COLUMN_CALLS, data.getCalls());
+        source.put(RequestMetricTable.COLUMN_ERROR, data.getError());
+        source.put(RequestMetricTable.COLUMN_COST_TOTAL, data.getCostTotal());
+        source.put(RequestMetricTable.COLUMN_S1_LTE, data.getS1Lte());
+        source.put(RequestMetricTable.COLUMN_S3_LTE, data.getS3Lte());
+        source.put(RequestMetricTable.COLUMN_S5_LTE, data.getS5Lte());
+        source.put(RequestMetricTable.COLUMN_S5_GT, data.getS5Gt());
+        source.put(RequestMetricTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+        String sql = SqlBuilder.buildBatchUpdateSql(RequestMetricTable.TABLE, source.keySet(), RequestMetricTable.COLUMN_ID);
+        entity.setSql(sql);
+        List<Object> values = new ArrayList<>(source.values());
+        values.add(data.getId());
+        entity.setParams(values.toArray(new Object[0]));
+        return entity;
+    }
+
+    @Override public void deleteHistory(Long startTimestamp, Long endTimestamp) {
+    }
+}
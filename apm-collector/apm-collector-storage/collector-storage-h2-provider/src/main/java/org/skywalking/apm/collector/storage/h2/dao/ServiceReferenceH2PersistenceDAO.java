@@ -65,6 +65,8 @@ public class ServiceReferenceH2PersistenceDAO extends H2DAO implements IServiceR
                 serviceReference.setSummary(rs.getLong(ServiceReferenceTable.COLUMN_SUMMARY));
                 serviceReference.setError(rs.getLong(ServiceReferenceTable.COLUMN_ERROR));
                 serviceReference.setCostSummary(rs.getLong(ServiceReferenceTable.COLUMN_COST_SUMMARY));
+                serviceReference.setCpuTimeSummary(rs.getLong(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY));
+                serviceReference.setAllocatedBytesSummary(rs.getLong(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY));
                 serviceReference.setTimeBucket(rs.getLong(ServiceReferenceTable.COLUMN_TIME_BUCKET));
                 return serviceReference;
             }
@@ -89,6 +91,8 @@ public class ServiceReferenceH2PersistenceDAO extends H2DAO implements IServiceR
         source.put(ServiceReferenceTable.COLUMN_SUMMARY, data.getSummary());
         source.put(ServiceReferenceTable.COLUMN_ERROR, data.getError());
         source.put(ServiceReferenceTable.COLUMN_COST_SUMMARY, data.getCostSummary());
+        source.put(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY, data.getCpuTimeSummary());
+        source.put(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY, data.getAllocatedBytesSummary());
         source.put(ServiceReferenceTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
         String sql = SqlBuilder.buildBatchInsertSql(ServiceReferenceTable.TABLE, source.keySet());
@@ -111,6 +115,8 @@ public class ServiceReferenceH2PersistenceDAO extends H2DAO implements IServiceR
         source.put(ServiceReferenceTable.COLUMN_SUMMARY, data.getSummary());
         source.put(ServiceReferenceTable.COLUMN_ERROR, data.getError());
         source.put(ServiceReferenceTable.COLUMN_COST_SUMMARY, data.getCostSummary());
+        source.put(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY, data.getCpuTimeSummary());
+        source.put(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY, data.getAllocatedBytesSummary());
         source.put(ServiceReferenceTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
 
         String sql = SqlBuilder.buildBatchUpdateSql(ServiceReferenceTable.TABLE, source.keySet(), ServiceReferenceTable.COLUMN_ID);
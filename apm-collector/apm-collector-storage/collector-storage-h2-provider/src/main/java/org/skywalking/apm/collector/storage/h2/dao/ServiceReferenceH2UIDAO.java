@@ -46,7 +46,7 @@ public class ServiceReferenceH2UIDAO extends H2DAO implements IServiceReferenceU
     }
 
     private static final String GET_SRV_REF_LOAD1 = "select {3}, {4}, sum({5}) as {5}, sum({6}) as {6}, sum({7}) as {7}" +
-        ",sum({8}) as {8}, sum({9}) as {9}, sum({10}) as {10}, sum({11}) as {11} from {0} where {1} >= ? and {1} <= ? and {2} = ? group by {3}, {4}";
+        ",sum({8}) as {8}, sum({9}) as {9}, sum({10}) as {10}, sum({11}) as {11}, sum({12}) as {12}, sum({13}) as {13} from {0} where {1} >= ? and {1} <= ? and {2} = ? group by {3}, {4}";
 
     @Override
     public Map<String, JsonObject> load(int entryServiceId, long startTime, long endTime) {
@@ -56,7 +56,8 @@ public class ServiceReferenceH2UIDAO extends H2DAO implements IServiceReferenceU
             ServiceReferenceTable.COLUMN_FRONT_SERVICE_ID, ServiceReferenceTable.COLUMN_BEHIND_SERVICE_ID,
             ServiceReferenceTable.COLUMN_S1_LTE, ServiceReferenceTable.COLUMN_S3_LTE, ServiceReferenceTable.COLUMN_S5_LTE,
             ServiceReferenceTable.COLUMN_S5_GT, ServiceReferenceTable.COLUMN_ERROR, ServiceReferenceTable.COLUMN_SUMMARY,
-            ServiceReferenceTable.COLUMN_COST_SUMMARY);
+            ServiceReferenceTable.COLUMN_COST_SUMMARY, ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY,
+            ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY);
         Object[] params = new Object[] {startTime, endTime, entryServiceId};
 
         return load(client, params, sql);
@@ -88,6 +89,8 @@ public class ServiceReferenceH2UIDAO extends H2DAO implements IServiceReferenceU
                 long error = rs.getLong(ServiceReferenceTable.COLUMN_ERROR);
                 long summary = rs.getLong(ServiceReferenceTable.COLUMN_SUMMARY);
                 long costSum = rs.getLong(ServiceReferenceTable.COLUMN_COST_SUMMARY);
+                long cpuTimeSum = rs.getLong(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY);
+                long allocatedBytesSum = rs.getLong(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY);
 
                 JsonObject serviceReference = new JsonObject();
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_FRONT_SERVICE_ID), frontServiceId);
@@ -99,6 +102,8 @@ public class ServiceReferenceH2UIDAO extends H2DAO implements IServiceReferenceU
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_ERROR), error);
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_SUMMARY), summary);
                 serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_COST_SUMMARY), costSum);
+                serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_CPU_TIME_SUMMARY), cpuTimeSum);
+                serviceReference.addProperty(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_ALLOCATED_BYTES_SUMMARY), allocatedBytesSum);
 
                 String id = serviceReference.get(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_FRONT_SERVICE_ID)) + Const.ID_SPLIT + serviceReference.get(ColumnNameUtils.INSTANCE.rename(ServiceReferenceTable.COLUMN_BEHIND_SERVICE_ID));
                 serviceReferenceMap.put(id, serviceReference);
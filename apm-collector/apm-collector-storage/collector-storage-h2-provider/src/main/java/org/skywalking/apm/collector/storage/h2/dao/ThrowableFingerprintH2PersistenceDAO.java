@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.h2.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.skywalking.apm.collector.client.h2.H2Client;
+import org.skywalking.apm.collector.client.h2.H2ClientException;
+import org.skywalking.apm.collector.storage.base.sql.SqlBuilder;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintPersistenceDAO;
+import org.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
+import org.skywalking.apm.collector.storage.h2.base.define.H2SqlEntity;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprint;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprintTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ThrowableFingerprintH2PersistenceDAO extends H2DAO implements IThrowableFingerprintPersistenceDAO<H2SqlEntity, H2SqlEntity, ThrowableFingerprint> {
+
+    private final Logger logger = LoggerFactory.getLogger(ThrowableFingerprintH2PersistenceDAO.class);
+    private static final String GET_SQL = "select * from {0} where {1} = ?";
+
+    public ThrowableFingerprintH2PersistenceDAO(H2Client client) {
+        super(client);
+    }
+
+    @Override public ThrowableFingerprint get(String id) {
+        H2Client client = getClient();
+        String sql = SqlBuilder.buildSql(GET_SQL, ThrowableFingerprintTable.TABLE, ThrowableFingerprintTable.COLUMN_ID);
+        Object[] params = new Object[] {id};
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            if (rs.next()) {
+                ThrowableFingerprint throwableFingerprint = new ThrowableFingerprint(id);
+                throwableFingerprint.setDataBinary(rs.getBytes(ThrowableFingerprintTable.COLUMN_DATA_BINARY));
+                throwableFingerprint.setTimeBucket(rs.getLong(ThrowableFingerprintTable.COLUMN_TIME_BUCKET));
+                return throwableFingerprint;
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    @Override public H2SqlEntity prepareBatchInsert(ThrowableFingerprint data) {
+        Map<String, Object> source = new HashMap<>();
+        H2SqlEntity entity = new H2SqlEntity();
+        source.put(ThrowableFingerprintTable.COLUMN_ID, data.getId());
+        source.put(ThrowableFingerprintTable.COLUMN_DATA_BINARY, data.getDataBinary());
+        source.put(ThrowableFingerprintTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+        String sql = SqlBuilder.buildBatchInsertSql(ThrowableFingerprintTable.TABLE, source.keySet());
+        entity.setSql(sql);
+        entity.setParams(source.values().toArray(new Object[0]));
+        return entity;
+    }
+
+    @Override public H2SqlEntity prepareBatchUpdate(ThrowableFingerprint data) {
+        Map<String, Object> source = new HashMap<>();
+        H2SqlEntity entity = new H2SqlEntity();
+        source.put(ThrowableFingerprintTable.COLUMN_DATA_BINARY, data.getDataBinary());
+        source.put(ThrowableFingerprintTable.COLUMN_TIME_BUCKET, data.getTimeBucket());
+        String sql = SqlBuilder.buildBatchUpdateSql(ThrowableFingerprintTable.TABLE, source.keySet(), ThrowableFingerprintTable.COLUMN_ID);
+        entity.setSql(sql);
+        List<Object> values = new ArrayList<>(source.values());
+        values.add(data.getId());
+        entity.setParams(values.toArray(new Object[0]));
+        return entity;
+    }
+
+    @Override public void deleteHistory(Long startTimestamp, Long endTimestamp) {
+    }
+}
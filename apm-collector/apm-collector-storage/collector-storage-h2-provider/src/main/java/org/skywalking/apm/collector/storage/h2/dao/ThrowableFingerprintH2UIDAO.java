@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.collector.storage.h2.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.skywalking.apm.collector.client.h2.H2Client;
+import org.skywalking.apm.collector.client.h2.H2ClientException;
+import org.skywalking.apm.collector.core.util.Const;
+import org.skywalking.apm.collector.storage.base.sql.SqlBuilder;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintUIDAO;
+import org.skywalking.apm.collector.storage.h2.base.dao.H2DAO;
+import org.skywalking.apm.collector.storage.table.throwable.ThrowableFingerprintTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ThrowableFingerprintH2UIDAO extends H2DAO implements IThrowableFingerprintUIDAO {
+
+    private final Logger logger = LoggerFactory.getLogger(ThrowableFingerprintH2UIDAO.class);
+    private static final String GET_STACK_SQL = "select {0} from {1} where {2} = ?";
+
+    public ThrowableFingerprintH2UIDAO(H2Client client) {
+        super(client);
+    }
+
+    @Override public String getStack(int applicationId, String fingerprint) {
+        H2Client client = getClient();
+        String sql = SqlBuilder.buildSql(GET_STACK_SQL, ThrowableFingerprintTable.COLUMN_DATA_BINARY,
+            ThrowableFingerprintTable.TABLE, ThrowableFingerprintTable.COLUMN_ID);
+        Object[] params = new Object[] {applicationId + Const.ID_SPLIT + fingerprint};
+        try (ResultSet rs = client.executeQuery(sql, params)) {
+            if (rs.next()) {
+                byte[] dataBinary = rs.getBytes(ThrowableFingerprintTable.COLUMN_DATA_BINARY);
+                if (dataBinary != null) {
+                    return new String(dataBinary, StandardCharsets.UTF_8);
+                }
+            }
+        } catch (SQLException | H2ClientException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return null;
+    }
+}
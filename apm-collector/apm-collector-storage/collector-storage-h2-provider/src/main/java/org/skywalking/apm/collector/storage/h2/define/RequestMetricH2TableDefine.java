@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.storage.h2.define;
+
+import org.skywalking.apm.collector.storage.h2.base.define.H2ColumnDefine;
+import org.skywalking.apm.collector.storage.h2.base.define.H2TableDefine;
+import org.skywalking.apm.collector.storage.table.metric.RequestMetricTable;
+
+public class RequestMetricH2TableDefine extends H2TableDefine {
+
+    public RequestMetricH2TableDefine() {
+        super(RequestMetricTable.TABLE);
+    }
+
+    @Override public void initialize() {
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_ID, H2ColumnDefine.Type.Varchar.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_APPLICATION_ID, H2ColumnDefine.Type.Int.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_INSTANCE_ID, H2ColumnDefine.Type.Int.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_TYPE, H2ColumnDefine.Type.Int.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_TARGET_ID, H2ColumnDefine.Type.Int.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_CALLS, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_ERROR, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_COST_TOTAL, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_S1_LTE, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_S3_LTE, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_S5_LTE, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_S5_GT, H2ColumnDefine.Type.Bigint.name()));
+        addColumn(new H2ColumnDefine(RequestMetricTable.COLUMN_TIME_BUCKET, H2ColumnDefine.Type.Bigint.name()));
+    }
+}
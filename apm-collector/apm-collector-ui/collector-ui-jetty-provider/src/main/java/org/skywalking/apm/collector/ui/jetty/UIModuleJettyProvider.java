@@ -33,6 +33,7 @@ import org.skywalking.apm.collector.naming.service.NamingHandlerRegisterService;
 import org.skywalking.apm.collector.server.Server;
 import org.skywalking.apm.collector.storage.StorageModule;
 import org.skywalking.apm.collector.ui.UIModule;
+import org.skywalking.apm.collector.ui.jetty.handler.SegmentProfileGetHandler;
 import org.skywalking.apm.collector.ui.jetty.handler.SegmentTopGetHandler;
 import org.skywalking.apm.collector.ui.jetty.handler.SpanGetHandler;
 import org.skywalking.apm.collector.ui.jetty.handler.TraceDagGetHandler;
@@ -112,5 +113,6 @@ public class UIModuleJettyProvider extends ModuleProvider {
         jettyServer.addHandler(new SpanGetHandler(getManager()));
         jettyServer.addHandler(new TraceDagGetHandler(getManager()));
         jettyServer.addHandler(new TraceStackGetHandler(getManager()));
+        jettyServer.addHandler(new SegmentProfileGetHandler(getManager()));
     }
 }
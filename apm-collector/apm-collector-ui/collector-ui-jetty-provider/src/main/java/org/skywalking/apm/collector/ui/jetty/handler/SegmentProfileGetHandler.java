@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.ui.jetty.handler;
+
+import com.google.gson.JsonElement;
+import org.skywalking.apm.collector.core.module.ModuleManager;
+import org.skywalking.apm.collector.server.jetty.ArgumentsParseException;
+import org.skywalking.apm.collector.server.jetty.JettyHandler;
+import org.skywalking.apm.collector.ui.service.SegmentProfileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 获得 TraceSegment 采样调用树的逻辑处理器
+ */
+public class SegmentProfileGetHandler extends JettyHandler {
+
+    private final Logger logger = LoggerFactory.getLogger(SegmentProfileGetHandler.class);
+
+    @Override public String pathSpec() {
+        return "/segment/profile";
+    }
+
+    private final SegmentProfileService service;
+
+    public SegmentProfileGetHandler(ModuleManager moduleManager) {
+        this.service = new SegmentProfileService(moduleManager);
+    }
+
+    @Override protected JsonElement doGet(HttpServletRequest req) throws ArgumentsParseException {
+        // 解析 segmentId
+        String segmentId = req.getParameter("segmentId");
+        logger.debug("segmentId: {}", segmentId);
+
+        // 加载采样调用树
+        return service.load(segmentId);
+    }
+
+    @Override protected JsonElement doPost(HttpServletRequest req) throws ArgumentsParseException {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.collector.ui.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.skywalking.apm.collector.core.module.ModuleManager;
+import org.skywalking.apm.collector.core.util.ObjectUtils;
+import org.skywalking.apm.collector.storage.StorageModule;
+import org.skywalking.apm.collector.storage.dao.ISegmentUIDAO;
+import org.skywalking.apm.network.proto.ProfileNode;
+import org.skywalking.apm.network.proto.TraceSegmentObject;
+
+/**
+ * 慢链路采样调用树服务
+ *
+ * Loads the call tree sampled by the agent from the thread of a slow segment. The nodes are in pre-order, each one with
+ * the id of its parent, -1 for the outermost frames.
+ */
+public class SegmentProfileService {
+
+    private final ISegmentUIDAO segmentDAO;
+
+    public SegmentProfileService(ModuleManager moduleManager) {
+        this.segmentDAO = moduleManager.find(StorageModule.NAME).getService(ISegmentUIDAO.class);
+    }
+
+    public JsonObject load(String segmentId) {
+        JsonObject profileJson = new JsonObject();
+        JsonArray nodesArray = new JsonArray();
+        long samples = 0;
+        int interval = 0;
+
+        TraceSegmentObject segmentObject = segmentDAO.load(segmentId);
+        if (ObjectUtils.isNotEmpty(segmentObject)) {
+            interval = segmentObject.getProfileInterval();
+            for (ProfileNode node : segmentObject.getProfileNodesList()) {
+                JsonObject nodeJson = new JsonObject();
+                nodeJson.addProperty("id", node.getId());
+                nodeJson.addProperty("parentId", node.getParentId());
+                nodeJson.addProperty("frame", node.getFrame());
+                nodeJson.addProperty("count", node.getCount());
+                nodesArray.add(nodeJson);
+
+                // 根节点的采样次数之和为总采样次数
+                if (node.getParentId() == -1) {
+                    samples += node.getCount();
+                }
+            }
+        }
+
+        profileJson.addProperty("interval", interval);
+        profileJson.addProperty("samples", samples);
+        profileJson.add("nodes", nodesArray);
+        return profileJson;
+    }
+}
@@ -28,6 +28,7 @@ import org.skywalking.apm.collector.core.util.Const;
 import org.skywalking.apm.collector.core.util.StringUtils;
 import org.skywalking.apm.collector.storage.StorageModule;
 import org.skywalking.apm.collector.storage.dao.ISegmentUIDAO;
+import org.skywalking.apm.collector.storage.dao.IThrowableFingerprintUIDAO;
 import org.skywalking.apm.network.proto.KeyWithStringValue;
 import org.skywalking.apm.network.proto.LogMessage;
 import org.skywalking.apm.network.proto.SpanObject;
@@ -41,12 +42,17 @@ import java.util.List;
  */
 public class SpanService {
 
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String STACK = "stack";
+
     private final ISegmentUIDAO segmentDAO;
+    private final IThrowableFingerprintUIDAO throwableFingerprintDAO;
     private final ServiceNameCacheService serviceNameCacheService;
     private final ApplicationCacheService applicationCacheService;
 
     public SpanService(ModuleManager moduleManager) {
         this.segmentDAO = moduleManager.find(StorageModule.NAME).getService(ISegmentUIDAO.class);
+        this.throwableFingerprintDAO = moduleManager.find(StorageModule.NAME).getService(IThrowableFingerprintUIDAO.class);
         this.serviceNameCacheService = moduleManager.find(CacheModule.NAME).getService(ServiceNameCacheService.class);
         this.applicationCacheService = moduleManager.find(CacheModule.NAME).getService(ApplicationCacheService.class);
     }
@@ -72,6 +78,8 @@ public class SpanService {
                 // 开始时间与结束时间
                 spanJson.addProperty("startTime", spanObject.getStartTime());
                 spanJson.addProperty("endTime", spanObject.getEndTime());
+                spanJson.addProperty("startTimeMicros", spanObject.getStartTimeMicros() == 0 ? spanObject.getStartTime() * 1000 : spanObject.getStartTimeMicros());
+                spanJson.addProperty("endTimeMicros", spanObject.getEndTimeMicros() == 0 ? spanObject.getEndTime() * 1000 : spanObject.getEndTimeMicros());
 
                 // loggers
                 JsonArray logsArray = new JsonArray();
@@ -81,17 +89,37 @@ public class SpanService {
                     logJson.addProperty("time", logMessage.getTime());
 
                     JsonArray logInfoArray = new JsonArray();
+                    String fingerprint = null;
+                    boolean hasStack = false;
                     for (KeyWithStringValue value : logMessage.getDataList()) {
                         JsonObject valueJson = new JsonObject();
                         valueJson.addProperty("key", value.getKey());
                         valueJson.addProperty("value", value.getValue());
                         logInfoArray.add(valueJson);
+                        if (FINGERPRINT.equals(value.getKey())) {
+                            fingerprint = value.getValue();
+                        } else if (STACK.equals(value.getKey())) {
+                            hasStack = true;
+                        }
+                    }
+                    // 只带异常指纹的日志，使用持久化的堆栈补全
+                    if (fingerprint != null && !hasStack) {
+                        String stack = throwableFingerprintDAO.getStack(segmentObject.getApplicationId(), fingerprint);
+                        if (stack != null) {
+                            JsonObject stackJson = new JsonObject();
+                            stackJson.addProperty("key", STACK);
+                            stackJson.addProperty("value", stack);
+                            logInfoArray.add(stackJson);
+                        }
                     }
                     logJson.add("logInfo", logInfoArray);
                     logsArray.add(logJson);
                 }
                 spanJson.add("logMessage", logsArray);
 
+                // 慢链路的采样调用树，见 SegmentProfileService
+                spanJson.addProperty("hasProfile", spanObject.getParentSpanId() == -1 && segmentObject.getProfileNodesCount() > 0);
+
                 JsonArray tagsArray = new JsonArray();
 
                 // 【tags】span type ，Entry / Local / Exit 三种
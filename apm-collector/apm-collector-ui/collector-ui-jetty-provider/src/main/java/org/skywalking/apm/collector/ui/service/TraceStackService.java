@@ -108,10 +108,12 @@ public class TraceStackService {
             spanJson.addProperty("parentSpanId", span.getParentSpanId());
             spanJson.addProperty("segmentSpanId", span.getSegmentSpanId());
             spanJson.addProperty("segmentParentSpanId", span.getSegmentParentSpanId());
-            spanJson.addProperty("startTime", span.getStartTime());
+            spanJson.addProperty("startTime", span.getStartTime() / 1000);
+            spanJson.addProperty("startTimeMicros", span.getStartTime());
             spanJson.addProperty("operationName", span.getOperationName());
             spanJson.addProperty("applicationCode", span.getApplicationCode());
             spanJson.addProperty("cost", span.getCost());
+            spanJson.addProperty("costMicros", span.getCostMicros());
             spanJson.addProperty("isRoot", span.isRoot());
             traceStackArray.add(spanJson);
         });
@@ -166,15 +168,17 @@ public class TraceStackService {
                 // 应用编码
                 String applicationCode = applicationCacheService.get(segment.getApplicationId());
 
+                // 开始时间（微秒）
+                long startTime = spanObject.getStartTimeMicros() == 0 ? spanObject.getStartTime() * 1000 : spanObject.getStartTimeMicros();
+                long endTime = spanObject.getEndTimeMicros() == 0 ? spanObject.getEndTime() * 1000 : spanObject.getEndTimeMicros();
+
                 // 消耗时间
-                long cost = spanObject.getEndTime() - spanObject.getStartTime();
+                long costMicros = endTime - startTime;
+                long cost = costMicros / 1000;
                 if (cost == 0) {
                     cost = 1;
                 }
 
-                // 开始时间
-                long startTime = spanObject.getStartTime();
-
                 // 第一个 Span ，并且有 TraceSegmentRef
                 if (parentSpanId == -1 && segment.getRefsCount() > 0) {
                     // 循环 TraceSegmentRef 数组
@@ -194,11 +198,11 @@ public class TraceStackService {
                         segmentParentSpanId = parentSegmentId + Const.SEGMENT_SPAN_SPLIT + String.valueOf(parentSpanId);
 
                         // 添加到 spans
-                        spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost));
+                        spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost, costMicros));
                     }
                 // 添加到 spans
                 } else {
-                    spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost));
+                    spans.add(new Span(spanId, parentSpanId, segmentSpanId, segmentParentSpanId, startTime, operationName, applicationCode, cost, costMicros));
                 }
             }
         }
@@ -272,7 +276,7 @@ public class TraceStackService {
          */
         private String segmentParentSpanId;
         /**
-         * 开始时间
+         * 开始时间（微秒）
          *
          * 传输到 UI 层时，会被 {@link #minStartTime(List)} 压缩
          */
@@ -286,16 +290,20 @@ public class TraceStackService {
          */
         private String applicationCode;
         /**
-         * 消耗时间
+         * 消耗时间，至少 1 毫秒
          */
         private long cost;
+        /**
+         * 消耗时间（微秒）
+         */
+        private long costMicros;
         /**
          * 是否根节点
          */
         private boolean isRoot = false;
 
         Span(int spanId, int parentSpanId, String segmentSpanId, String segmentParentSpanId, long startTime,
-            String operationName, String applicationCode, long cost) {
+            String operationName, String applicationCode, long cost, long costMicros) {
             this.spanId = spanId;
             this.parentSpanId = parentSpanId;
             this.segmentSpanId = segmentSpanId;
@@ -304,6 +312,7 @@ public class TraceStackService {
             this.operationName = operationName;
             this.applicationCode = applicationCode;
             this.cost = cost;
+            this.costMicros = costMicros;
         }
 
         int getSpanId() {
@@ -338,6 +347,10 @@ public class TraceStackService {
             return cost;
         }
 
+        long getCostMicros() {
+            return costMicros;
+        }
+
         public boolean isRoot() {
             return isRoot;
         }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.skywalking.apm.commons.datacarrier.partition.ProducerThreadPartitioner;
+import org.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+import org.skywalking.apm.commons.datacarrier.wait.BusySpinWaitStrategy;
+
+/**
+ * Throughput and latency percentiles of {@link DataCarrier#produce(Object)}, on the request path of every traced
+ * thread.
+ * <p>
+ * Build with <code>mvn package</code> in this module, then run <code>java -cp target/datacarrier-benchmarks.jar
+ * org.skywalking.apm.commons.datacarrier.benchmark.ProduceBenchmark</code>, which runs with every producer thread
+ * number of {@link #PRODUCER_THREADS}. Or run <code>java -jar target/datacarrier-benchmarks.jar ProduceBenchmark -t
+ * 4</code> for one thread number. Use <code>-p</code> to narrow the parameters, e.g. <code>-p bufferType=RING -p
+ * strategy=IF_POSSIBLE</code>.
+ * <p>
+ * The consumers busy spin, so the {@link BufferStrategy#BLOCKING} producers measure the carrier, not the sleep of an
+ * idle consumer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProduceBenchmark {
+
+    /**
+     * the producer thread numbers, JMH can't take the thread number as a {@link Param}.
+     */
+    public static final int[] PRODUCER_THREADS = {1, 4, 16};
+
+    @Param({"ARRAY", "RING"})
+    public BufferType bufferType;
+
+    @Param({"BLOCKING", "IF_POSSIBLE", "OVERRIDE"})
+    public BufferStrategy strategy;
+
+    @Param({"ROLLING", "PRODUCER_THREAD"})
+    public String partitioner;
+
+    @Param({"1", "5", "16"})
+    public int channelSize;
+
+    @Param({"300", "4096"})
+    public int bufferSize;
+
+    @Param({"1", "2"})
+    public int consumerNum;
+
+    private DataCarrier<Data> carrier;
+
+    private Data data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        carrier = new DataCarrier<Data>("benchmark", channelSize, bufferSize, bufferType);
+        carrier.setBufferStrategy(strategy);
+        carrier.setPartitioner(createPartitioner());
+        carrier.consume(new CountingConsumer(), consumerNum, new BusySpinWaitStrategy());
+        data = new Data();
+    }
+
+    private IDataPartitioner<Data> createPartitioner() {
+        if ("PRODUCER_THREAD".equals(partitioner)) {
+            return new ProducerThreadPartitioner<Data>();
+        }
+        return new SimpleRollingPartitioner<Data>();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        carrier.shutdownConsumers();
+    }
+
+    @Benchmark
+    public boolean produce() {
+        return carrier.produce(data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : PRODUCER_THREADS) {
+            Options options = new OptionsBuilder()
+                .include(ProduceBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+
+    public static class Data {
+    }
+
+    /**
+     * Does nothing but counting, so the consumer is never the bottleneck.
+     */
+    public static class CountingConsumer implements IConsumer<Data> {
+        private long count;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(List<Data> data) {
+            count += data.size();
+        }
+
+        @Override
+        public void onError(List<Data> data, Throwable t) {
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
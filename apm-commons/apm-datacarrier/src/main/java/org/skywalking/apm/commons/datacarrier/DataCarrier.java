@@ -18,12 +18,26 @@
 
 package org.skywalking.apm.commons.datacarrier;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
 import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.buffer.ByteBudget;
+import org.skywalking.apm.commons.datacarrier.common.ISizeable;
+import org.skywalking.apm.commons.datacarrier.spill.ISpillCodec;
+import org.skywalking.apm.commons.datacarrier.spill.SpillStore;
 import org.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.skywalking.apm.commons.datacarrier.consumer.IConsumerPool;
+import org.skywalking.apm.commons.datacarrier.consumer.WorkStealingConsumerPool;
+import org.skywalking.apm.commons.datacarrier.metric.CarrierMetrics;
+import org.skywalking.apm.commons.datacarrier.metric.DataCarrierMetricsRegistry;
 import org.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPrioritizer;
 import org.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+import org.skywalking.apm.commons.datacarrier.wait.IWaitStrategy;
 
 /**
  * DataCarrier main class.
@@ -48,12 +62,33 @@ public class DataCarrier<T> {
     /**
      * 消费线程
      */
-    private ConsumerPool<T> consumerPool;
+    private IConsumerPool<T> consumerPool;
 
     public DataCarrier(int channelSize, int bufferSize) {
+        this(channelSize, bufferSize, BufferType.ARRAY);
+    }
+
+    public DataCarrier(int channelSize, int bufferSize, BufferType bufferType) {
+        this("DataCarrier", channelSize, bufferSize, bufferType);
+    }
+
+    public DataCarrier(String name, int channelSize, int bufferSize) {
+        this(name, channelSize, bufferSize, BufferType.ARRAY);
+    }
+
+    /**
+     * @param name name of this carrier, used to report the {@link CarrierMetrics}
+     * @param channelSize 通道数量
+     * @param bufferSize buffer 大小
+     * @param bufferType implementation of the buffers. {@link BufferType#RING} is lock-free for producers, {@link
+     * BufferType#ARRAY} is the original one.
+     */
+    public DataCarrier(String name, int channelSize, int bufferSize, BufferType bufferType) {
         this.bufferSize = bufferSize;
         this.channelSize = channelSize;
-        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING);
+        channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING, bufferType);
+        channels.getMetrics().setName(name);
+        DataCarrierMetricsRegistry.INSTANCE.register(channels.getMetrics());
     }
 
     /**
@@ -68,6 +103,22 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * split the channels into the high and low priority lanes. When overloaded, the low priority data are shed first,
+     * and consumers drain the high priority lane first. Set it before producing.
+     * <p>
+     * The prioritizer runs on the producer thread for every data. Under {@link BufferStrategy#OVERRIDE}, the high
+     * priority data override the low priority lane without any failure returned, so the low priority data are lost
+     * silently, only counted by the metrics.
+     *
+     * @param highPriorityChannelSize the number of channels for the high priority data, less than channel size
+     * @param prioritizer decide the priority of each data
+     */
+    public DataCarrier setPrioritizer(int highPriorityChannelSize, IDataPrioritizer<T> prioritizer) {
+        this.channels.setPrioritizer(highPriorityChannelSize, prioritizer);
+        return this;
+    }
+
     /**
      * override the strategy at runtime.
      * Notice, {@link Channels<T>} will override several channels one by one.
@@ -79,6 +130,34 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * limit the bytes of data waiting for consuming, besides the number of data. The size of data is given by {@link
+     * ISizeable}, others are counted as zero bytes. When over the budget, {@link BufferStrategy#BLOCKING} waits for
+     * consumers, other strategies reject the data.
+     * Set it before producing.
+     *
+     * @param maxBytes max bytes of data in all channels
+     */
+    public DataCarrier setByteBudget(long maxBytes) {
+        this.channels.setByteBudget(new ByteBudget(maxBytes));
+        return this;
+    }
+
+    /**
+     * spill the data to a memory-mapped file when the buffers are full, and switch to {@link BufferStrategy#SPILL}.
+     * The spilled data is consumed when the buffers are not busy.
+     *
+     * @param path the spill file, its content will be overwritten
+     * @param capacityInBytes the max size of spill file
+     * @param codec convert the data to bytes and back
+     * @throws IOException if the spill file can't be mapped
+     */
+    public DataCarrier enableSpill(File path, int capacityInBytes, ISpillCodec<T> codec) throws IOException {
+        this.channels.setSpillStore(new SpillStore<T>(path, capacityInBytes, codec));
+        this.channels.setStrategy(BufferStrategy.SPILL);
+        return this;
+    }
+
     /**
      * produce data to buffer, using the givven {@link BufferStrategy}.
      *
@@ -86,13 +165,59 @@ public class DataCarrier<T> {
      * @return false means produce data failure. The data will not be consumed.
      */
     public boolean produce(T data) {
+        IConsumerPool<T> consumerPool = this.consumerPool;
         if (consumerPool != null) {
             if (!consumerPool.isRunning()) {
+                channels.getMetrics().onDropped();
                 return false;
             }
         }
 
-        return this.channels.save(data);
+        if (!this.channels.save(data)) {
+            channels.getMetrics().onDropped();
+            return false;
+        }
+        if (consumerPool != null) {
+            consumerPool.signal();
+        }
+        return true;
+    }
+
+    /**
+     * produce data[offset, offset + length) to buffer, using the givven {@link BufferStrategy}. The data are saved in
+     * continuous slots, reserved by one atomic step for each channel, instead of one by one.
+     *
+     * @param data
+     * @param offset the first data to produce
+     * @param length number of data to produce
+     * @return number of data produced from offset. The data after them are not produced, and will not be consumed.
+     */
+    public int produce(T[] data, int offset, int length) {
+        IConsumerPool<T> consumerPool = this.consumerPool;
+        if (consumerPool != null) {
+            if (!consumerPool.isRunning()) {
+                channels.getMetrics().onDropped(length);
+                return 0;
+            }
+        }
+
+        int count = this.channels.save(data, offset, length);
+        channels.getMetrics().onDropped(length - count);
+        if (count > 0 && consumerPool != null) {
+            consumerPool.signal();
+        }
+        return count;
+    }
+
+    /**
+     * produce all the data of the collection, see {@link #produce(Object[], int, int)}.
+     *
+     * @param data
+     * @return number of data produced, in the iteration order of the collection.
+     */
+    public int produce(Collection<T> data) {
+        T[] array = (T[])data.toArray();
+        return produce(array, 0, array.length);
     }
 
     /**
@@ -113,6 +238,23 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * set consumers to this Carrier, with the given {@link IWaitStrategy} deciding how consumer threads wait when no
+     * data.
+     *
+     * @param consumerClass class of consumer
+     * @param num number of consumer threads
+     * @param waitStrategy how the consumer threads wait for data
+     */
+    public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int num, IWaitStrategy waitStrategy) {
+        if (consumerPool != null) {
+            consumerPool.close();
+        }
+        consumerPool = new ConsumerPool<T>(this.channels, consumerClass, num, waitStrategy);
+        consumerPool.begin();
+        return this;
+    }
+
     /**
      * set consumers to this Carrier.
      * consumer begin to run when {@link DataCarrier<T>#produce(T)} begin to work.
@@ -131,14 +273,84 @@ public class DataCarrier<T> {
     }
 
     /**
-     * shutdown all consumer threads, if consumer threads are running. Notice {@link BufferStrategy}: if {@link
-     * BufferStrategy} == {@link BufferStrategy#BLOCKING}, shutdown consumers maybe cause blocking when producing.
-     * Better way to change consumers are use {@link DataCarrier#consume}
+     * set consumers to this Carrier, with the given {@link IWaitStrategy} deciding how consumer threads wait when no
+     * data.
+     *
+     * @param consumer single instance of consumer, all consumer threads will all use this instance.
+     * @param num number of consumer threads
+     * @param waitStrategy how the consumer threads wait for data
+     */
+    public DataCarrier consume(IConsumer<T> consumer, int num, IWaitStrategy waitStrategy) {
+        if (consumerPool != null) {
+            consumerPool.close();
+        }
+        consumerPool = new ConsumerPool<T>(this.channels, consumer, num, waitStrategy);
+        consumerPool.begin();
+        return this;
+    }
+
+    /**
+     * set consumers to this Carrier, in a {@link WorkStealingConsumerPool}. The threads are not bound to channels,
+     * and the number of threads changes between min and max, by the backlog.
+     *
+     * @param consumerClass class of consumer
+     * @param minNum min number of consumer threads
+     * @param maxNum max number of consumer threads
+     * @param keepAliveMillis a thread exits after finding no data for this time, if more than min threads are running
+     * @param waitStrategy how the consumer threads wait for data
+     */
+    public DataCarrier consume(Class<? extends IConsumer<T>> consumerClass, int minNum, int maxNum,
+        long keepAliveMillis, IWaitStrategy waitStrategy) {
+        if (consumerPool != null) {
+            consumerPool.close();
+        }
+        consumerPool = new WorkStealingConsumerPool<T>(this.channels, consumerClass, minNum, maxNum, keepAliveMillis, waitStrategy);
+        consumerPool.begin();
+        return this;
+    }
+
+    /**
+     * set consumers to this Carrier, in a {@link WorkStealingConsumerPool}. The threads are not bound to channels,
+     * and the number of threads changes between min and max, by the backlog.
+     *
+     * @param consumer single instance of consumer, all consumer threads will all use this instance.
+     * @param minNum min number of consumer threads
+     * @param maxNum max number of consumer threads
+     * @param keepAliveMillis a thread exits after finding no data for this time, if more than min threads are running
+     * @param waitStrategy how the consumer threads wait for data
+     */
+    public DataCarrier consume(IConsumer<T> consumer, int minNum, int maxNum, long keepAliveMillis,
+        IWaitStrategy waitStrategy) {
+        if (consumerPool != null) {
+            consumerPool.close();
+        }
+        consumerPool = new WorkStealingConsumerPool<T>(this.channels, consumer, minNum, maxNum, keepAliveMillis, waitStrategy);
+        consumerPool.begin();
+        return this;
+    }
+
+    /**
+     * @return the self-monitoring metrics of this carrier, also available in {@link DataCarrierMetricsRegistry}.
+     */
+    public CarrierMetrics getMetrics() {
+        return channels.getMetrics();
+    }
+
+    /**
+     * shutdown all consumer threads, if consumer threads are running, and close the spill store, see {@link
+     * #enableSpill}. Notice {@link BufferStrategy}: if {@link BufferStrategy} == {@link BufferStrategy#BLOCKING},
+     * shutdown consumers maybe cause blocking when producing. Better way to change consumers are use {@link
+     * DataCarrier#consume}
      */
     public void shutdownConsumers() {
         if (consumerPool != null) {
             consumerPool.close();
         }
+        try {
+            channels.closeSpillStore();
+        } catch (IOException e) {
+            // the spill file is discarded anyway, nothing more to do.
+        }
     }
 
 }
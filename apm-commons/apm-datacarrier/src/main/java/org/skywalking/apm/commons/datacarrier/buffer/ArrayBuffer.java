@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.buffer;
+
+import org.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+
+import java.util.LinkedList;
+
+/**
+ * 基于数组槽位的缓存区
+ *
+ * The original {@link Buffer} implementation. Each save grabs a slot by a rolling index, and waits or fails when the
+ * slot is still taken. The slots can be split into ranges, and consumed by several consumers.
+ *
+ * Created by wusheng on 2016/10/25.
+ */
+public class ArrayBuffer<T> extends Buffer<T> {
+
+    /**
+     * 缓存数组
+     */
+    private final Object[] buffer;
+    /**
+     * 递增位置
+     */
+    private AtomicRangeInteger index;
+
+    ArrayBuffer(int bufferSize, BufferStrategy strategy) {
+        super(bufferSize, strategy);
+        buffer = new Object[bufferSize];
+        index = new AtomicRangeInteger(0, bufferSize);
+    }
+
+    /**
+     * 保存数据
+     *
+     * @param data 数据
+     * @param strategy 缓冲策略
+     * @return 是否保存成功
+     */
+    @Override
+    boolean save(T data, BufferStrategy strategy) {
+        int i = index.getAndIncrement();
+        if (buffer[i] != null) {
+            switch (strategy) {
+                case BLOCKING:
+                    // 等待
+                    long startNanos = System.nanoTime();
+                    while (buffer[i] != null) {
+                        try {
+                            Thread.sleep(1L);
+                        } catch (InterruptedException e) {
+                        }
+                    }
+                    metrics.onBlocked(System.nanoTime() - startNanos);
+                    break;
+                case IF_POSSIBLE:
+                case SPILL:
+                    metrics.onRejected();
+                    return false;
+                case OVERRIDE:
+                default:
+                    release(buffer[i]);
+                    metrics.onOverridden();
+            }
+        }
+        buffer[i] = data;
+        metrics.onSaved();
+        return true;
+    }
+
+    @Override
+    int save(T[] data, int offset, int length) {
+        int i = index.getAndAdd(length);
+        for (int k = 0; k < length; k++) {
+            if (buffer[i] != null) {
+                switch (strategy) {
+                    case BLOCKING:
+                        long startNanos = System.nanoTime();
+                        while (buffer[i] != null) {
+                            try {
+                                Thread.sleep(1L);
+                            } catch (InterruptedException e) {
+                            }
+                        }
+                        metrics.onBlocked(System.nanoTime() - startNanos);
+                        break;
+                    case IF_POSSIBLE:
+                    case SPILL:
+                        // the rest of reserved slots are skipped, as the single save does.
+                        metrics.onSaved(k);
+                        metrics.onRejected(length - k);
+                        return k;
+                    case OVERRIDE:
+                    default:
+                        release(buffer[i]);
+                        metrics.onOverridden();
+                }
+            }
+            buffer[i] = data[offset + k];
+            i = i + 1 == buffer.length ? 0 : i + 1;
+        }
+        metrics.onSaved(length);
+        return length;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    @Override
+    public LinkedList<T> obtain(int start, int end) {
+        LinkedList<T> result = new LinkedList<T>();
+        for (int i = start; i < end; i++) {
+            if (buffer[i] != null) {
+                result.add((T)buffer[i]);
+                release(buffer[i]);
+                buffer[i] = null;
+            }
+        }
+        metrics.onConsumed(result.size());
+        return result;
+    }
+
+    @Override
+    public int drainTo(ConsumeBatch<T> batch, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] != null) {
+                batch.add((T)buffer[i]);
+                release(buffer[i]);
+                buffer[i] = null;
+                count++;
+            }
+        }
+        metrics.onConsumed(count);
+        return count;
+    }
+
+}
@@ -16,42 +16,59 @@
  * Project repository: https://github.com/OpenSkywalking/skywalking
  */
 
-package org.skywalking.apm.commons.datacarrier.buffer;
 
-import org.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
+package org.skywalking.apm.commons.datacarrier.buffer;
 
 import java.util.LinkedList;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.metric.ChannelMetrics;
 
 /**
  * 缓存区
  *
+ * Buffer is one channel of {@link Channels}. The way to save and obtain data depends on the implementation, see {@link
+ * BufferType}.
+ *
  * Created by wusheng on 2016/10/25.
  */
-public class Buffer<T> {
+public abstract class Buffer<T> {
 
     /**
-     * 缓存数组
+     * 缓冲策略
      */
-    private final Object[] buffer;
+    protected BufferStrategy strategy;
     /**
-     * 缓冲策略
+     * 监控数据
      */
-    private BufferStrategy strategy;
+    protected final ChannelMetrics metrics;
     /**
-     * 递增位置
+     * 字节预算，可选
      */
-    private AtomicRangeInteger index;
+    protected volatile ByteBudget byteBudget;
 
     Buffer(int bufferSize, BufferStrategy strategy) {
-        buffer = new Object[bufferSize];
         this.strategy = strategy;
-        index = new AtomicRangeInteger(0, bufferSize);
+        this.metrics = new ChannelMetrics(bufferSize);
     }
 
     void setStrategy(BufferStrategy strategy) {
         this.strategy = strategy;
     }
 
+    void setByteBudget(ByteBudget byteBudget) {
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * release the bytes of the data leaving this buffer, by consumed or overridden.
+     */
+    protected void release(Object data) {
+        ByteBudget byteBudget = this.byteBudget;
+        if (byteBudget != null) {
+            byteBudget.release(ByteBudget.sizeOf(data));
+        }
+    }
+
     /**
      * 保存数据
      *
@@ -59,41 +76,65 @@ public class Buffer<T> {
      * @return 是否保存成功
      */
     boolean save(T data) {
-        int i = index.getAndIncrement();
-        if (buffer[i] != null) {
-            switch (strategy) {
-                case BLOCKING:
-                    // 等待
-                    while (buffer[i] != null) {
-                        try {
-                            Thread.sleep(1L);
-                        } catch (InterruptedException e) {
-                        }
-                    }
-                    break;
-                case IF_POSSIBLE:
-                    return false;
-                case OVERRIDE:
-                default:
-            }
-        }
-        buffer[i] = data;
-        return true;
+        return save(data, strategy);
     }
 
-    public int getBufferSize() {
-        return buffer.length;
+    /**
+     * 按指定策略保存数据
+     *
+     * save data by the given strategy instead of the strategy of this buffer. {@link Channels} uses {@link
+     * BufferStrategy#OVERRIDE} to shed the low priority data for the high priority ones.
+     *
+     * @param data 数据
+     * @param strategy what to do when the buffer is full
+     * @return 是否保存成功
+     */
+    abstract boolean save(T data, BufferStrategy strategy);
+
+    /**
+     * 批量保存数据，一次预留连续的位置
+     *
+     * save data[offset, offset + length) into continuous slots reserved in one atomic step. length should not be
+     * larger than {@link #getBufferSize()}.
+     *
+     * @param data 数据
+     * @param offset the first data to save
+     * @param length number of data to save
+     * @return number of data saved, always from offset. The rest are rejected by the strategy.
+     */
+    abstract int save(T[] data, int offset, int length);
+
+    public abstract int getBufferSize();
+
+    public ChannelMetrics getMetrics() {
+        return metrics;
     }
 
-    public LinkedList<T> obtain(int start, int end) {
-        LinkedList<T> result = new LinkedList<T>();
-        for (int i = start; i < end; i++) {
-            if (buffer[i] != null) {
-                result.add((T)buffer[i]);
-                buffer[i] = null;
-            }
-        }
-        return result;
+    /**
+     * obtain and remove the data between [start, end) of this buffer.
+     *
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return the obtained data
+     */
+    public abstract LinkedList<T> obtain(int start, int end);
+
+    /**
+     * move the data between [start, end) of this buffer into the batch, without creating any object.
+     *
+     * @param batch the batch to fill
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return the number of data moved
+     */
+    public abstract int drainTo(ConsumeBatch<T> batch, int start, int end);
+
+    /**
+     * @return true if the data is always taken from the head, only the length of the range matters, see {@link
+     * RingBuffer}. Such a buffer can't be split by range, but can be drained by several consumers at the same time.
+     */
+    public boolean isHeadOnly() {
+        return false;
     }
 
 }
@@ -36,6 +36,13 @@ public enum BufferStrategy {
     /**
      * 跳过
      */
-    IF_POSSIBLE
+    IF_POSSIBLE,
+    /**
+     * 溢出到磁盘
+     *
+     * Save the data into the {@link org.skywalking.apm.commons.datacarrier.spill.SpillStore} when the buffers are
+     * full, consumers read it back later. Same as {@link #IF_POSSIBLE} if there is no spill store.
+     */
+    SPILL
 
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.buffer;
+
+/**
+ * 缓存区实现类型
+ *
+ * The implementation of {@link Buffer} used by {@link Channels}.
+ */
+public enum BufferType {
+
+    /**
+     * {@link ArrayBuffer}, slots are taken by a rolling index. Supports several consumers per channel by splitting
+     * the slots into ranges.
+     */
+    ARRAY,
+    /**
+     * {@link RingBuffer}, a lock-free, sequence based ring. Producers never sleep on a taken slot, and the data is
+     * always consumed in the order of producing.
+     */
+    RING
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.skywalking.apm.commons.datacarrier.common.ISizeable;
+
+/**
+ * 内存字节预算
+ *
+ * The max bytes of data resident in all buffers of a {@link Channels}. Bytes are acquired before saving into a buffer,
+ * and released when obtained by consumers or overridden.
+ * <p>
+ * A data larger than the whole budget is still accepted when no byte is resident, otherwise it could never be saved.
+ */
+public class ByteBudget {
+
+    private static final long MAX_PARK_NANOS = 1000000L;
+
+    private final long maxBytes;
+
+    private final AtomicLong residentBytes;
+
+    public ByteBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.residentBytes = new AtomicLong(0);
+    }
+
+    public static long sizeOf(Object data) {
+        if (data instanceof ISizeable) {
+            return ((ISizeable)data).estimatedSize();
+        }
+        return 0;
+    }
+
+    /**
+     * @return true if the bytes are acquired, false if over the budget.
+     */
+    public boolean tryAcquire(long bytes) {
+        if (bytes <= 0) {
+            return true;
+        }
+        while (true) {
+            long current = residentBytes.get();
+            if (current > 0 && current + bytes > maxBytes) {
+                return false;
+            }
+            if (residentBytes.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * wait until the bytes are acquired, parking with a growing timeout up to 1ms.
+     *
+     * @return nanoseconds waited
+     */
+    public long acquire(long bytes) {
+        if (tryAcquire(bytes)) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        long parkNanos = 1000L;
+        while (!tryAcquire(bytes)) {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    public void release(long bytes) {
+        if (bytes > 0) {
+            residentBytes.addAndGet(-bytes);
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getResidentBytes() {
+        return Math.max(0, residentBytes.get());
+    }
+}
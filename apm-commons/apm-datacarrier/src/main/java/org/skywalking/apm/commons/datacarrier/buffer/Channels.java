@@ -18,7 +18,13 @@
 
 package org.skywalking.apm.commons.datacarrier.buffer;
 
+import java.io.IOException;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.metric.CarrierMetrics;
+import org.skywalking.apm.commons.datacarrier.metric.ChannelMetrics;
 import org.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPrioritizer;
+import org.skywalking.apm.commons.datacarrier.spill.SpillStore;
 
 /**
  * 多 Buffer 的通道
@@ -40,6 +46,26 @@ public class Channels<T> {
      * 缓冲策略
      */
     private BufferStrategy strategy;
+    /**
+     * 监控数据
+     */
+    private final CarrierMetrics metrics;
+    /**
+     * 溢出存储，{@link BufferStrategy#SPILL} 时使用
+     */
+    private volatile SpillStore<T> spillStore;
+    /**
+     * 字节预算，为空时只限制数据条数
+     */
+    private volatile ByteBudget byteBudget;
+    /**
+     * 优先级判断者，为空时不区分优先级
+     */
+    private volatile IDataPrioritizer<T> prioritizer;
+    /**
+     * the first channels are the high priority lane, the others are the low priority lane.
+     */
+    private volatile int highPriorityChannelSize;
 
     /**
      * 创建 Channels
@@ -50,21 +76,88 @@ public class Channels<T> {
      * @param strategy 缓冲策略
      */
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.ARRAY);
+    }
+
+    /**
+     * 创建 Channels
+     *
+     * @param channelSize 通道数量
+     * @param bufferSize 缓冲区大小
+     * @param partitioner 数据分配者对象
+     * @param strategy 缓冲策略
+     * @param bufferType implementation of each channel
+     */
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+        BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         // 创建 Buffer 数组
         bufferChannels = new Buffer[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            bufferChannels[i] = new Buffer<T>(bufferSize, strategy);
+            if (BufferType.RING.equals(bufferType)) {
+                bufferChannels[i] = new RingBuffer<T>(bufferSize, strategy);
+            } else {
+                bufferChannels[i] = new ArrayBuffer<T>(bufferSize, strategy);
+            }
+        }
+        ChannelMetrics[] channelMetrics = new ChannelMetrics[channelSize];
+        for (int i = 0; i < channelSize; i++) {
+            channelMetrics[i] = bufferChannels[i].getMetrics();
         }
+        metrics = new CarrierMetrics("DataCarrier", channelMetrics);
     }
 
     public boolean save(T data) {
-        int index = dataPartitioner.partition(bufferChannels.length, data);
+        ByteBudget byteBudget = this.byteBudget;
+        long size = 0;
+        if (byteBudget != null) {
+            size = ByteBudget.sizeOf(data);
+            if (!acquire(byteBudget, size)) {
+                return spill(data);
+            }
+        }
+
+        if (saveByPriority(data)) {
+            return true;
+        }
+
+        if (byteBudget != null) {
+            byteBudget.release(size);
+        }
+        return spill(data);
+    }
+
+    /**
+     * When the high priority lane is full, the high priority data goes to the low priority lane, overriding the low
+     * priority data if necessary. So the low priority data are shed first.
+     */
+    private boolean saveByPriority(T data) {
+        IDataPrioritizer<T> prioritizer = this.prioritizer;
+        int highSize = this.highPriorityChannelSize;
+        if (prioritizer == null || highSize == 0) {
+            return save(data, 0, bufferChannels.length);
+        }
+        int lowSize = bufferChannels.length - highSize;
+        if (!prioritizer.isHighPriority(data)) {
+            return save(data, highSize, lowSize);
+        }
+        if (save(data, 0, highSize) || save(data, highSize, lowSize)) {
+            return true;
+        }
+        int index = highSize + dataPartitioner.partition(lowSize, data);
+        return bufferChannels[index].save(data, BufferStrategy.OVERRIDE);
+    }
+
+    /**
+     * save data into one of the channels between [from, from + size).
+     */
+    private boolean save(T data, int from, int size) {
+        int index = from + dataPartitioner.partition(size, data);
 
         // 计算最大重试次数
         int retryCountDown = 1;
-        if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+        if (BufferStrategy.IF_POSSIBLE.equals(strategy) || BufferStrategy.SPILL.equals(strategy)) {
             int maxRetryCount = dataPartitioner.maxRetryCount();
             if (maxRetryCount > 1) {
                 retryCountDown = maxRetryCount;
@@ -80,6 +173,113 @@ public class Channels<T> {
         return false;
     }
 
+    /**
+     * 溢出到磁盘
+     *
+     * @return true if the data is saved into the spill store.
+     */
+    private boolean spill(T data) {
+        SpillStore<T> spillStore = this.spillStore;
+        if (BufferStrategy.SPILL.equals(strategy) && spillStore != null) {
+            if (spillStore.spill(data)) {
+                metrics.onSpilled();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * acquire the bytes by the strategy. Only {@link BufferStrategy#BLOCKING} waits, others reject the data over the
+     * budget, including {@link BufferStrategy#OVERRIDE}, as the bytes of the oldest data in other channels can't be
+     * taken back.
+     */
+    private boolean acquire(ByteBudget byteBudget, long size) {
+        if (BufferStrategy.BLOCKING.equals(strategy)) {
+            long nanos = byteBudget.acquire(size);
+            if (nanos > 0) {
+                metrics.onOverBudget(nanos);
+            }
+            return true;
+        }
+        if (byteBudget.tryAcquire(size)) {
+            return true;
+        }
+        metrics.onOverBudget(0);
+        return false;
+    }
+
+    /**
+     * 批量保存数据
+     *
+     * save data[offset, offset + length) in chunks, each chunk goes to one channel chosen by its first data, and is
+     * saved in continuous slots. The strategy works as {@link #save(Object)}, but for a chunk.
+     *
+     * @return number of data saved from offset. When the strategy rejects, the data after it are not saved.
+     */
+    public int save(T[] data, int offset, int length) {
+        if (prioritizer != null) {
+            // each data may go to a different lane, save them one by one.
+            int saved = 0;
+            while (saved < length && save(data[offset + saved])) {
+                saved++;
+            }
+            return saved;
+        }
+        ByteBudget byteBudget = this.byteBudget;
+        int saved = 0;
+        while (saved < length) {
+            int index = dataPartitioner.partition(bufferChannels.length, data[offset + saved]);
+            Buffer<T> buffer = bufferChannels[index];
+            int chunk = Math.min(length - saved, buffer.getBufferSize());
+
+            boolean acquired = true;
+            if (byteBudget != null) {
+                acquired = acquire(byteBudget, sizeOf(data, offset + saved, chunk));
+            }
+
+            int retryCountDown = 1;
+            if (BufferStrategy.IF_POSSIBLE.equals(strategy) || BufferStrategy.SPILL.equals(strategy)) {
+                int maxRetryCount = dataPartitioner.maxRetryCount();
+                if (maxRetryCount > 1) {
+                    retryCountDown = maxRetryCount;
+                }
+            }
+
+            int count = 0;
+            if (acquired) {
+                for (; retryCountDown > 0 && count < chunk; retryCountDown--) {
+                    count += buffer.save(data, offset + saved + count, chunk - count);
+                }
+                if (byteBudget != null && count < chunk) {
+                    byteBudget.release(sizeOf(data, offset + saved + count, chunk - count));
+                }
+            }
+
+            // 溢出到磁盘
+            SpillStore<T> spillStore = this.spillStore;
+            if (count < chunk && BufferStrategy.SPILL.equals(strategy) && spillStore != null) {
+                while (count < chunk && spillStore.spill(data[offset + saved + count])) {
+                    metrics.onSpilled();
+                    count++;
+                }
+            }
+            saved += count;
+            if (count < chunk) {
+                break;
+            }
+        }
+        return saved;
+    }
+
+    private long sizeOf(T[] data, int offset, int length) {
+        long size = 0;
+        for (int i = offset; i < offset + length; i++) {
+            size += ByteBudget.sizeOf(data[i]);
+        }
+        return size;
+    }
+
     public void setPartitioner(IDataPartitioner<T> dataPartitioner) {
         this.dataPartitioner = dataPartitioner;
     }
@@ -91,6 +291,7 @@ public class Channels<T> {
      * @param strategy
      */
     public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
         for (Buffer<T> buffer : bufferChannels) {
             buffer.setStrategy(strategy);
         }
@@ -108,4 +309,90 @@ public class Channels<T> {
     public Buffer<T> getBuffer(int index) {
         return this.bufferChannels[index];
     }
+
+    public CarrierMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * split the channels into two lanes, the first highPriorityChannelSize channels are the high priority lane. The
+     * high priority data overflow into the low priority lane, and override the low priority data when both lanes are
+     * full. Consumers drain the channels in order, so the high priority lane is drained first.
+     *
+     * @param highPriorityChannelSize the number of channels in the high priority lane, less than channel size
+     * @param prioritizer null means no priority
+     */
+    public void setPrioritizer(int highPriorityChannelSize, IDataPrioritizer<T> prioritizer) {
+        if (prioritizer != null && (highPriorityChannelSize < 1 || highPriorityChannelSize >= bufferChannels.length)) {
+            throw new IllegalArgumentException("high priority channel size should be 1 <= size < " + bufferChannels.length + ", size=" + highPriorityChannelSize);
+        }
+        this.highPriorityChannelSize = prioritizer == null ? 0 : highPriorityChannelSize;
+        this.prioritizer = prioritizer;
+    }
+
+    public int getHighPriorityChannelSize() {
+        return highPriorityChannelSize;
+    }
+
+    public ByteBudget getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * limit the bytes of data in all buffers, by {@link ByteBudget#sizeOf(Object)}. Set it before producing, the data
+     * already in the buffers have acquired no byte.
+     *
+     * @param byteBudget null means no limit of bytes
+     */
+    public void setByteBudget(ByteBudget byteBudget) {
+        this.byteBudget = byteBudget;
+        for (Buffer<T> buffer : bufferChannels) {
+            buffer.setByteBudget(byteBudget);
+        }
+        metrics.setByteBudget(byteBudget);
+    }
+
+    public SpillStore<T> getSpillStore() {
+        return spillStore;
+    }
+
+    public void setSpillStore(SpillStore<T> spillStore) {
+        this.spillStore = spillStore;
+    }
+
+    /**
+     * detach and close the spill store, the spilled data not restored yet is dropped. The data over the buffers is
+     * rejected after that.
+     *
+     * @throws IOException if the spill file can't be closed
+     */
+    public void closeSpillStore() throws IOException {
+        SpillStore<T> spillStore = this.spillStore;
+        if (spillStore == null) {
+            return;
+        }
+        this.spillStore = null;
+        spillStore.close();
+    }
+
+    /**
+     * read the spilled data back into the batch, when the in-memory data in the batch is less than half of it. So the
+     * spilled data is consumed when the buffers are not busy.
+     *
+     * @param batch the batch filled by the buffers
+     * @return the number of data read from the spill store
+     */
+    public int restoreSpilled(ConsumeBatch<T> batch) {
+        SpillStore<T> spillStore = this.spillStore;
+        if (spillStore == null || spillStore.isEmpty()) {
+            return 0;
+        }
+        int room = batch.capacity() / 2 - batch.size();
+        if (room <= 0) {
+            return 0;
+        }
+        int count = spillStore.drainTo(batch, room);
+        metrics.onRestored(count);
+        return count;
+    }
 }
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.common.PaddedAtomicLong;
+
+/**
+ * 基于序号的无锁环形缓存区
+ *
+ * A bounded, lock-free, multi-producer ring buffer.
+ * <p>
+ * Each slot owns a sequence. A producer claims the next producer sequence by CAS, writes the data and then publishes
+ * the slot by moving its sequence forward. A consumer claims the next consumer sequence in the same way, so several
+ * consumers sharing one channel are safe too. When the ring is full, the {@link BufferStrategy} decides: {@link
+ * BufferStrategy#BLOCKING} spins, yields and then parks the producer, {@link BufferStrategy#OVERRIDE} drops the oldest
+ * data, {@link BufferStrategy#IF_POSSIBLE} and {@link BufferStrategy#SPILL} fail.
+ */
+public class RingBuffer<T> extends Buffer<T> {
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 100;
+
+    private static final int MAX_PARK_SHIFT = 10;
+
+    private final int capacity;
+
+    private final AtomicReferenceArray<T> elements;
+    /**
+     * sequence of each slot. slot is writable when sequence == producer sequence, readable when sequence == consumer
+     * sequence + 1.
+     */
+    private final AtomicLongArray sequences;
+
+    private final PaddedAtomicLong producerSequence;
+
+    private final PaddedAtomicLong consumerSequence;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy) {
+        super(bufferSize, strategy);
+        capacity = bufferSize;
+        elements = new AtomicReferenceArray<T>(bufferSize);
+        sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            sequences.set(i, i);
+        }
+        producerSequence = new PaddedAtomicLong(0);
+        consumerSequence = new PaddedAtomicLong(0);
+    }
+
+    @Override
+    boolean save(T data, BufferStrategy strategy) {
+        boolean interrupted = false;
+        int idleTimes = 0;
+        long blockStartNanos = 0;
+        try {
+            while (true) {
+                long sequence = producerSequence.get();
+                int slot = slot(sequence);
+                long distance = sequences.get(slot) - sequence;
+                if (distance == 0) {
+                    if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                        elements.lazySet(slot, data);
+                        // publish, the data is visible to the consumer who reads this sequence.
+                        sequences.lazySet(slot, sequence + 1);
+                        metrics.onSaved();
+                        if (blockStartNanos != 0) {
+                            metrics.onBlocked(System.nanoTime() - blockStartNanos);
+                        }
+                        return true;
+                    }
+                } else if (distance < 0) {
+                    // the slot hasn't been consumed since last round, buffer is full.
+                    switch (strategy) {
+                        case BLOCKING:
+                            if (blockStartNanos == 0) {
+                                blockStartNanos = System.nanoTime();
+                            }
+                            idleTimes = idle(idleTimes);
+                            if (Thread.interrupted()) {
+                                interrupted = true;
+                            }
+                            break;
+                        case OVERRIDE:
+                            if (poll() != null) {
+                                metrics.onOverridden();
+                            }
+                            break;
+                        case IF_POSSIBLE:
+                        case SPILL:
+                        default:
+                            metrics.onRejected();
+                            return false;
+                    }
+                }
+                // else, another producer claimed this sequence, try the next one.
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Claim all the writable slots from the producer sequence, up to the number of remaining data, by one CAS. Then
+     * fill and publish them in order, so consumers see the data as they are published.
+     */
+    @Override
+    int save(T[] data, int offset, int length) {
+        boolean interrupted = false;
+        int idleTimes = 0;
+        long blockStartNanos = 0;
+        int saved = 0;
+        try {
+            while (saved < length) {
+                long sequence = producerSequence.get();
+                int remaining = length - saved;
+                int writable = 0;
+                long distance = 0;
+                while (writable < remaining) {
+                    distance = sequences.get(slot(sequence + writable)) - (sequence + writable);
+                    if (distance != 0) {
+                        break;
+                    }
+                    writable++;
+                }
+                if (writable > 0) {
+                    if (producerSequence.compareAndSet(sequence, sequence + writable)) {
+                        for (int k = 0; k < writable; k++) {
+                            int slot = slot(sequence + k);
+                            elements.lazySet(slot, data[offset + saved + k]);
+                            sequences.lazySet(slot, sequence + k + 1);
+                        }
+                        saved += writable;
+                        metrics.onSaved(writable);
+                    }
+                } else if (distance < 0) {
+                    // buffer is full.
+                    switch (strategy) {
+                        case BLOCKING:
+                            if (blockStartNanos == 0) {
+                                blockStartNanos = System.nanoTime();
+                            }
+                            idleTimes = idle(idleTimes);
+                            if (Thread.interrupted()) {
+                                interrupted = true;
+                            }
+                            break;
+                        case OVERRIDE:
+                            if (poll() != null) {
+                                metrics.onOverridden();
+                            }
+                            break;
+                        case IF_POSSIBLE:
+                        case SPILL:
+                        default:
+                            metrics.onRejected(remaining);
+                            return saved;
+                    }
+                }
+                // else, another producer claimed this sequence, try again.
+            }
+            if (blockStartNanos != 0) {
+                metrics.onBlocked(System.nanoTime() - blockStartNanos);
+            }
+            return saved;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest data, or null if the buffer is empty.
+     */
+    private T poll() {
+        while (true) {
+            long sequence = consumerSequence.get();
+            int slot = slot(sequence);
+            long distance = sequences.get(slot) - (sequence + 1);
+            if (distance == 0) {
+                if (consumerSequence.compareAndSet(sequence, sequence + 1)) {
+                    T data = elements.get(slot);
+                    elements.lazySet(slot, null);
+                    // release the slot for the producer of next round.
+                    sequences.lazySet(slot, sequence + capacity);
+                    release(data);
+                    return data;
+                }
+            } else if (distance < 0) {
+                return null;
+            }
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int)(sequence % capacity);
+    }
+
+    /**
+     * Spin first, then yield, then park with a growing timeout. A producer is usually unblocked in microseconds, so
+     * don't sleep a whole millisecond at the beginning.
+     */
+    private int idle(int idleTimes) {
+        if (idleTimes < SPIN_TRIES) {
+            // busy spin
+        } else if (idleTimes < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            // 1us, 2us, 4us ... up to about 1ms
+            LockSupport.parkNanos(1000L << (idleTimes - SPIN_TRIES - YIELD_TRIES));
+        }
+        return Math.min(idleTimes + 1, SPIN_TRIES + YIELD_TRIES + MAX_PARK_SHIFT);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return capacity;
+    }
+
+    /**
+     * The ring has no fixed positions for consumers, so the range only means the max number of data to obtain.
+     */
+    @Override
+    public LinkedList<T> obtain(int start, int end) {
+        LinkedList<T> result = new LinkedList<T>();
+        for (int i = start; i < end; i++) {
+            T data = poll();
+            if (data == null) {
+                break;
+            }
+            result.add(data);
+        }
+        metrics.onConsumed(result.size());
+        return result;
+    }
+
+    @Override
+    public boolean isHeadOnly() {
+        return true;
+    }
+
+    @Override
+    public int drainTo(ConsumeBatch<T> batch, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            T data = poll();
+            if (data == null) {
+                break;
+            }
+            batch.add(data);
+            count++;
+        }
+        metrics.onConsumed(count);
+        return count;
+    }
+}
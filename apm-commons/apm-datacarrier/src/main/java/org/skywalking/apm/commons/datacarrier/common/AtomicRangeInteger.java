@@ -53,6 +53,27 @@ public class AtomicRangeInteger extends Number implements Serializable {
         return current;
     }
 
+    /**
+     * 一次获取连续的 delta 个值，超出范围时从 startValue 继续
+     *
+     * reserve delta continuous values in one CAS, wrapping to startValue at the end of range.
+     *
+     * @param delta number of values to reserve, not negative
+     * @return the first reserved value
+     */
+    public final int getAndAdd(int delta) {
+        int range = this.endValue - this.startValue + 1;
+        int current;
+        int next;
+        do {
+            current = this.value.get();
+            next = this.startValue + (current - this.startValue + delta % range) % range;
+        }
+        while (!this.value.compareAndSet(current, next));
+
+        return current;
+    }
+
     public final int get() {
         return this.value.get();
     }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.common;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * 可复用的批量数据
+ *
+ * An array backed, reusable batch of data. The consumer thread drains buffers into the same batch pass by pass, so
+ * the steady-state consumption allocates nothing.
+ * <p>
+ * Iterate by index to keep the loop allocation-free, {@link #iterator()} creates an object.
+ */
+public class ConsumeBatch<T> extends AbstractList<T> implements RandomAccess {
+
+    private Object[] elements;
+
+    private int size;
+
+    public ConsumeBatch(int capacity) {
+        elements = new Object[capacity];
+        size = 0;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T)elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(T element) {
+        if (size == elements.length) {
+            ensureCapacity(size + 1);
+        }
+        elements[size++] = element;
+        return true;
+    }
+
+    /**
+     * remove all data, and release the references of them.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[i] = null;
+        }
+        size = 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            Object[] newElements = new Object[Math.max(capacity, elements.length * 2)];
+            System.arraycopy(elements, 0, newElements, 0, size);
+            elements = newElements;
+        }
+    }
+}
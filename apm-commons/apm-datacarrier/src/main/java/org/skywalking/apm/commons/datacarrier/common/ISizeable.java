@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.common;
+
+/**
+ * 可估算内存大小的数据
+ *
+ * The data which knows its estimated memory size. Used by the byte budget of {@link
+ * org.skywalking.apm.commons.datacarrier.DataCarrier}, data without this interface are counted as zero bytes.
+ */
+public interface ISizeable {
+
+    /**
+     * The estimate must not change after the data is produced, because the same size is released when the data is
+     * consumed.
+     *
+     * @return estimated size in bytes
+     */
+    long estimatedSize();
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 填充缓存行的 AtomicLong
+ *
+ * An {@link AtomicLong} padded to its own cache line, so the hot sequences of producers and consumers don't false
+ * share.
+ */
+public class PaddedAtomicLong extends AtomicLong {
+
+    private static final long serialVersionUID = 1780463278236045571L;
+
+    public volatile long p1, p2, p3, p4, p5, p6 = 7L;
+
+    public PaddedAtomicLong(long initialValue) {
+        super(initialValue);
+    }
+
+    /**
+     * Keep the padding fields referenced, so they can't be optimized away.
+     */
+    public long sumPaddingToPreventOptimisation() {
+        return p1 + p2 + p3 + p4 + p5 + p6;
+    }
+}
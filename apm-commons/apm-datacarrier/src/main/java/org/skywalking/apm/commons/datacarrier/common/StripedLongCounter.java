@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.commons.datacarrier.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段计数器
+ *
+ * A counter updated by many threads, split into cells padded to their own cache lines. Each thread adds to the cell of
+ * its thread id, so the producers rarely contend, and the readers sum all cells.
+ */
+public class StripedLongCounter {
+
+    /**
+     * The longs in a cache line, only the first one of each cell is used.
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+
+    private final int mask;
+
+    public StripedLongCounter() {
+        int stripes = 1;
+        int expected = Math.min(Runtime.getRuntime().availableProcessors() * 2, 64);
+        while (stripes < expected) {
+            stripes <<= 1;
+        }
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.mask = stripes - 1;
+    }
+
+    public void add(long delta) {
+        cells.addAndGet((int)(Thread.currentThread().getId() & mask) * PADDING, delta);
+    }
+
+    /**
+     * @return the sum of all cells, not an atomic snapshot while adding.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+}
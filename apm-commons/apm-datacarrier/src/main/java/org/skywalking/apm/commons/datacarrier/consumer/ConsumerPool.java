@@ -20,6 +20,8 @@ package org.skywalking.apm.commons.datacarrier.consumer;
 
 import org.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.skywalking.apm.commons.datacarrier.wait.IWaitStrategy;
+import org.skywalking.apm.commons.datacarrier.wait.SleepingWaitStrategy;
 
 import java.util.ArrayList;
 import java.util.concurrent.locks.ReentrantLock;
@@ -31,7 +33,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * <p>
  * Created by wusheng on 2016/10/25.
  */
-public class ConsumerPool<T> {
+public class ConsumerPool<T> implements IConsumerPool<T> {
 
     /**
      * 是否运行中
@@ -49,39 +51,60 @@ public class ConsumerPool<T> {
      * 锁
      */
     private ReentrantLock lock;
+    /**
+     * 空闲等待策略
+     */
+    private IWaitStrategy waitStrategy;
 
     public ConsumerPool(Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int num) {
-        this(channels, num);
+        this(channels, consumerClass, num, defaultWaitStrategy());
+    }
+
+    public ConsumerPool(Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int num,
+        IWaitStrategy waitStrategy) {
+        this(channels, num, waitStrategy);
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier.Consumser." + i + ".Thread", getNewConsumerInstance(consumerClass));
+            consumerThreads[i] = new ConsumerThread("DataCarrier.Consumser." + i + ".Thread", getNewConsumerInstance(consumerClass), waitStrategy, channels);
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumerPool(Channels<T> channels, IConsumer<T> prototype, int num) {
-        this(channels, num);
+        this(channels, prototype, num, defaultWaitStrategy());
+    }
+
+    public ConsumerPool(Channels<T> channels, IConsumer<T> prototype, int num, IWaitStrategy waitStrategy) {
+        this(channels, num, waitStrategy);
         prototype.init();
         for (int i = 0; i < num; i++) {
-            consumerThreads[i] = new ConsumerThread("DataCarrier.Consumser." + i + ".Thread", prototype);
+            consumerThreads[i] = new ConsumerThread("DataCarrier.Consumser." + i + ".Thread", prototype, waitStrategy, channels);
             consumerThreads[i].setDaemon(true);
         }
 
     }
 
-    private ConsumerPool(Channels<T> channels, int num) {
+    private ConsumerPool(Channels<T> channels, int num, IWaitStrategy waitStrategy) {
         running = false;
         this.channels = channels;
+        this.waitStrategy = waitStrategy;
         consumerThreads = new ConsumerThread[num];
         lock = new ReentrantLock();
     }
 
+    /**
+     * The original behavior, sleep 20 millis when there is no data.
+     */
+    static IWaitStrategy defaultWaitStrategy() {
+        return new SleepingWaitStrategy(20);
+    }
+
     /**
      * 创建消费者对象，并初始化
      *
      * @param consumerClass 消费者类
      * @return 消费者对象
      */
-    private IConsumer<T> getNewConsumerInstance(Class<? extends IConsumer<T>> consumerClass) {
+    static <T> IConsumer<T> getNewConsumerInstance(Class<? extends IConsumer<T>> consumerClass) {
         try {
             IConsumer<T> inst = consumerClass.newInstance();
             inst.init();
@@ -93,6 +116,7 @@ public class ConsumerPool<T> {
         }
     }
 
+    @Override
     public void begin() {
         if (running) {
             return;
@@ -115,10 +139,16 @@ public class ConsumerPool<T> {
         }
     }
 
+    @Override
     public boolean isRunning() {
         return running;
     }
 
+    @Override
+    public void signal() {
+        waitStrategy.signal();
+    }
+
     private void allocateBuffer2Thread() {
         int channelSize = this.channels.getChannelSize();
         if (channelSize < consumerThreads.length) {
@@ -163,6 +193,7 @@ public class ConsumerPool<T> {
 
     }
 
+    @Override
     public void close() {
         try {
             lock.lock();
@@ -19,9 +19,13 @@
 package org.skywalking.apm.commons.datacarrier.consumer;
 
 import org.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.wait.IWaitStrategy;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 消费线程
@@ -42,12 +46,41 @@ public class ConsumerThread<T> extends Thread {
      * 数据源数组
      */
     private List<DataSource> dataSources;
+    /**
+     * 空闲等待策略
+     */
+    private IWaitStrategy waitStrategy;
+    /**
+     * 复用的批量数据，容量为所有数据源的大小之和
+     */
+    private ConsumeBatch<T> batch;
+    /**
+     * 通道，提供监控数据和溢出存储
+     */
+    private Channels<T> channels;
+    /**
+     * 数据源中待消费的数据，等待策略阻塞前再次检查
+     */
+    private final IWaitStrategy.Backlog backlog = new IWaitStrategy.Backlog() {
+        @Override
+        public boolean isEmpty() {
+            for (int i = 0; i < dataSources.size(); i++) {
+                if (dataSources.get(i).sourceBuffer.getMetrics().getBacklog() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
 
-    ConsumerThread(String threadName, IConsumer<T> consumer) {
+    ConsumerThread(String threadName, IConsumer<T> consumer, IWaitStrategy waitStrategy, Channels<T> channels) {
         super(threadName);
         this.consumer = consumer;
+        this.waitStrategy = waitStrategy;
+        this.channels = channels;
         running = false;
-        dataSources = new LinkedList<DataSource>();
+        dataSources = new ArrayList<DataSource>();
+        batch = new ConsumeBatch<T>(0);
     }
 
     /**
@@ -59,6 +92,7 @@ public class ConsumerThread<T> extends Thread {
      */
     void addDataSource(Buffer<T> sourceBuffer, int start, int end) {
         this.dataSources.add(new DataSource(sourceBuffer, start, end));
+        this.batch.ensureCapacity(this.batch.capacity() + end - start);
     }
 
     /**
@@ -67,22 +101,25 @@ public class ConsumerThread<T> extends Thread {
      * @param sourceBuffer
      */
     void addDataSource(Buffer<T> sourceBuffer) {
-        this.dataSources.add(new DataSource(sourceBuffer, 0, sourceBuffer.getBufferSize()));
+        addDataSource(sourceBuffer, 0, sourceBuffer.getBufferSize());
     }
 
     @Override
     public void run() {
         running = true;
 
+        int idleTimes = 0;
         // 不断消费，直到关闭
         while (running) {
             // 消费
             boolean hasData = consume();
 
-            if (!hasData) { // 无数据，sleep 等待
-                try {
-                    Thread.sleep(20);
-                } catch (InterruptedException e) {
+            if (hasData) {
+                idleTimes = 0;
+            } else { // 无数据，按策略等待
+                waitStrategy.idle(idleTimes, backlog);
+                if (idleTimes < Integer.MAX_VALUE) {
+                    idleTimes++;
                 }
             }
         }
@@ -101,34 +138,49 @@ public class ConsumerThread<T> extends Thread {
      * @return 是否消费了数据
      */
     private boolean consume() {
-        boolean hasData = false;
-
         // 获得数据
-        LinkedList<T> consumeList = new LinkedList<T>();
-        for (DataSource dataSource : dataSources) {
-            LinkedList<T> data = dataSource.obtain();
-            if (data.size() == 0) {
-                continue;
-            }
-            for (T element : data) {
-                consumeList.add(element);
-            }
-            hasData = true;
+        for (int i = 0; i < dataSources.size(); i++) {
+            dataSources.get(i).drainTo(batch);
         }
+        channels.restoreSpilled(batch);
+        if (batch.size() == 0) {
+            return false;
+        }
+
+        // 进行消费
+        int size = batch.size();
+        long startNanos = System.nanoTime();
+        consume(consumer, batch);
+        channels.getMetrics().onConsumed(size, System.nanoTime() - startNanos);
+        batch.clear();
+        return true;
+    }
 
-        // 若有数据，进行消费
-        if (consumeList.size() > 0) {
+    /**
+     * hand the batch to the consumer, and handle the exception.
+     */
+    static <T> void consume(IConsumer<T> consumer, ConsumeBatch<T> batch) {
+        if (consumer instanceof IBatchConsumer) {
+            try {
+                ((IBatchConsumer<T>)consumer).consumeBatch(batch);
+            } catch (Throwable t) {
+                consumer.onError(batch, t);
+            }
+        } else {
+            // the list may be kept by the consumer, so copy it.
+            List<T> consumeList = new ArrayList<T>(batch);
             try {
                 consumer.consume(consumeList);
             } catch (Throwable t) {
                 consumer.onError(consumeList, t);
             }
         }
-        return hasData;
     }
 
     void shutdown() {
         running = false;
+        // wake up, if parked by the wait strategy
+        LockSupport.unpark(this);
     }
 
     /**
@@ -147,8 +199,8 @@ public class ConsumerThread<T> extends Thread {
             this.end = end;
         }
 
-        LinkedList<T> obtain() {
-            return sourceBuffer.obtain(start, end);
+        int drainTo(ConsumeBatch<T> batch) {
+            return sourceBuffer.drainTo(batch, start, end);
         }
     }
 
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.consumer;
+
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+
+/**
+ * 批量消费者接口
+ *
+ * A consumer which receives the reusable {@link ConsumeBatch} of the consumer thread, instead of a new list for each
+ * pass. Use it when the consumer doesn't keep the data list after consuming.
+ */
+public interface IBatchConsumer<T> extends IConsumer<T> {
+
+    /**
+     * 批量消费消息
+     *
+     * @param batch the data of this pass. The batch is cleared and reused after this method returns, don't keep the
+     * reference of it. {@link #onError} receives the same batch, if this throws.
+     */
+    void consumeBatch(ConsumeBatch<T> batch);
+
+}
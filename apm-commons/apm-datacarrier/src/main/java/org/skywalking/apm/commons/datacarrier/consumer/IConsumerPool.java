@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.consumer;
+
+/**
+ * 消费者池接口
+ *
+ * Pool of consumer threads, which consume the data of {@link org.skywalking.apm.commons.datacarrier.buffer.Channels}.
+ */
+public interface IConsumerPool<T> {
+
+    /**
+     * start the consumer threads.
+     */
+    void begin();
+
+    boolean isRunning();
+
+    /**
+     * notify the consumers, new data has been saved.
+     */
+    void signal();
+
+    /**
+     * stop all consumer threads, after they consume the last time.
+     */
+    void close();
+
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import org.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.metric.CarrierMetrics;
+import org.skywalking.apm.commons.datacarrier.metric.ChannelMetrics;
+import org.skywalking.apm.commons.datacarrier.wait.IWaitStrategy;
+
+/**
+ * 工作窃取、动态大小的消费者池
+ *
+ * Pool of consumers, in which the threads are not bound to buffers.
+ * <p>
+ * Each {@link org.skywalking.apm.commons.datacarrier.buffer.BufferType#ARRAY} channel is split into max-threads range
+ * work units, each range is consumed by one thread at the same time. A {@link org.skywalking.apm.commons.datacarrier.buffer.BufferType#RING}
+ * channel is always taken from the head, so it is one shared unit, which all threads drain concurrently. Either way,
+ * even a single hot channel can be consumed by all threads at the same time. A consumer thread scans all units from
+ * its own home unit, and consumes the units not being consumed by others. So an idle thread steals the backlog of a
+ * hot channel, even the {@link org.skywalking.apm.commons.datacarrier.partition.IDataPartitioner} is skewed.
+ * <p>
+ * The batch of a thread is as large as the largest unit, and it is consumed before it overflows, so the memory of the
+ * pool doesn't grow with the number of channels.
+ * <p>
+ * The pool starts with min threads. When the backlog of any channel is over half of its capacity after consuming, a new
+ * thread is
+ * started, up to max threads. A thread finding no data longer than keep alive time exits, down to min threads.
+ */
+public class WorkStealingConsumerPool<T> implements IConsumerPool<T> {
+
+    /**
+     * grow at most once in this period, so the new thread can take effect before the next check.
+     */
+    private static final long GROW_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private volatile boolean running;
+
+    private final Channels<T> channels;
+
+    private final WorkUnit<T>[] workUnits;
+
+    private final int minNum;
+
+    private final int maxNum;
+
+    private final long keepAliveNanos;
+
+    private final IWaitStrategy waitStrategy;
+
+    private final Class<? extends IConsumer<T>> consumerClass;
+
+    private final IConsumer<T> prototype;
+
+    private final CopyOnWriteArrayList<StealingConsumerThread> consumerThreads;
+    /**
+     * number of threads started and not retired, or exited after the pool is closed
+     */
+    private final AtomicInteger liveThreadNum;
+
+    private final AtomicInteger threadSeq;
+
+    private volatile long lastGrowNanos;
+
+    private final ReentrantLock lock;
+
+    /**
+     * any thread steals from all the channels, so a thread blocks only if all of them are empty.
+     */
+    private final IWaitStrategy.Backlog backlog = new IWaitStrategy.Backlog() {
+        @Override
+        public boolean isEmpty() {
+            CarrierMetrics metrics = channels.getMetrics();
+            for (int i = 0; i < metrics.getChannelSize(); i++) {
+                if (metrics.getChannel(i).getBacklog() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    public WorkStealingConsumerPool(Channels<T> channels, Class<? extends IConsumer<T>> consumerClass, int minNum,
+        int maxNum, long keepAliveMillis, IWaitStrategy waitStrategy) {
+        this(channels, consumerClass, null, minNum, maxNum, keepAliveMillis, waitStrategy);
+    }
+
+    public WorkStealingConsumerPool(Channels<T> channels, IConsumer<T> prototype, int minNum, int maxNum,
+        long keepAliveMillis, IWaitStrategy waitStrategy) {
+        this(channels, null, prototype, minNum, maxNum, keepAliveMillis, waitStrategy);
+        prototype.init();
+    }
+
+    private WorkStealingConsumerPool(Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
+        IConsumer<T> prototype, int minNum, int maxNum, long keepAliveMillis, IWaitStrategy waitStrategy) {
+        if (minNum < 1 || maxNum < minNum) {
+            throw new IllegalArgumentException("consumer number should be 1 <= min <= max, min=" + minNum + ", max=" + maxNum);
+        }
+        this.running = false;
+        this.channels = channels;
+        this.consumerClass = consumerClass;
+        this.prototype = prototype;
+        this.minNum = minNum;
+        this.maxNum = maxNum;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMillis);
+        this.waitStrategy = waitStrategy;
+        this.consumerThreads = new CopyOnWriteArrayList<StealingConsumerThread>();
+        this.liveThreadNum = new AtomicInteger(0);
+        this.threadSeq = new AtomicInteger(0);
+        this.lock = new ReentrantLock();
+        this.workUnits = splitWorkUnits();
+    }
+
+    private WorkUnit<T>[] splitWorkUnits() {
+        int channelSize = channels.getChannelSize();
+        int unitsPerChannel = maxNum;
+        List<WorkUnit<T>> units = new ArrayList<WorkUnit<T>>(channelSize * unitsPerChannel);
+        List<WorkUnit<T>> rangeUnits = new ArrayList<WorkUnit<T>>(channelSize * unitsPerChannel);
+        for (int i = 0; i < channelSize * unitsPerChannel; i++) {
+            rangeUnits.add(null);
+        }
+        for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
+            Buffer<T> channel = channels.getBuffer(channelIndex);
+            int bufferSize = channel.getBufferSize();
+            if (channel.isHeadOnly()) {
+                // a range of a ring buffer means nothing, share the whole buffer.
+                units.add(new WorkUnit<T>(channel, 0, bufferSize, false));
+                continue;
+            }
+            if (bufferSize < unitsPerChannel) {
+                throw new IllegalArgumentException("buffer size " + bufferSize + " is less than max consumer number " + maxNum);
+            }
+            int step = bufferSize / unitsPerChannel;
+            for (int i = 0; i < unitsPerChannel; i++) {
+                int start = i * step;
+                int end = i == unitsPerChannel - 1 ? bufferSize : (i + 1) * step;
+                // interleave the channels, so the neighbour units of a thread belong to different channels.
+                rangeUnits.set(i * channelSize + channelIndex, new WorkUnit<T>(channel, start, end, true));
+            }
+        }
+        for (WorkUnit<T> unit : rangeUnits) {
+            if (unit != null) {
+                units.add(unit);
+            }
+        }
+        return units.toArray(new WorkUnit[units.size()]);
+    }
+
+    @Override
+    public void begin() {
+        if (running) {
+            return;
+        }
+        try {
+            lock.lock();
+            running = true;
+            lastGrowNanos = System.nanoTime();
+            for (int i = 0; i < minNum; i++) {
+                liveThreadNum.incrementAndGet();
+                startThread();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startThread() {
+        IConsumer<T> consumer = prototype != null ? prototype : ConsumerPool.getNewConsumerInstance(consumerClass);
+        int seq = threadSeq.getAndIncrement();
+        StealingConsumerThread thread = new StealingConsumerThread("DataCarrier.StealingConsumer." + seq + ".Thread", consumer, seq % workUnits.length);
+        thread.setDaemon(true);
+        consumerThreads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * start a new thread, if the backlog is high and the pool is not full.
+     */
+    private void tryGrow() {
+        long now = System.nanoTime();
+        if (now - lastGrowNanos < GROW_INTERVAL_NANOS) {
+            return;
+        }
+        if (!isBacklogHigh()) {
+            return;
+        }
+        try {
+            lock.lock();
+            if (!running || liveThreadNum.get() >= maxNum || now - lastGrowNanos < GROW_INTERVAL_NANOS) {
+                return;
+            }
+            lastGrowNanos = now;
+            liveThreadNum.incrementAndGet();
+            startThread();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isBacklogHigh() {
+        CarrierMetrics metrics = channels.getMetrics();
+        for (int i = 0; i < metrics.getChannelSize(); i++) {
+            ChannelMetrics channel = metrics.getChannel(i);
+            if (channel.getBacklog() * 2 >= channel.getCapacity()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true, if the caller thread should exit, and the pool keeps min threads.
+     */
+    private boolean tryRetire() {
+        while (true) {
+            int num = liveThreadNum.get();
+            if (num <= minNum) {
+                return false;
+            }
+            if (liveThreadNum.compareAndSet(num, num - 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void signal() {
+        waitStrategy.signal();
+    }
+
+    @Override
+    public void close() {
+        try {
+            lock.lock();
+            this.running = false;
+            for (StealingConsumerThread consumerThread : consumerThreads) {
+                LockSupport.unpark(consumerThread);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of running consumer threads.
+     */
+    public int getThreadNum() {
+        return liveThreadNum.get();
+    }
+
+    /**
+     * A range of a buffer. An exclusive unit can only be consumed by one thread at the same time, a shared unit is
+     * drained from the head of the buffer by any thread.
+     */
+    private static class WorkUnit<T> {
+        private final Buffer<T> buffer;
+        private final int start;
+        private final int end;
+        /**
+         * null for the shared unit.
+         */
+        private final AtomicBoolean consuming;
+
+        private WorkUnit(Buffer<T> buffer, int start, int end, boolean exclusive) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.consuming = exclusive ? new AtomicBoolean(false) : null;
+        }
+
+        private int size() {
+            return end - start;
+        }
+
+        /**
+         * @return the room of the batch needed by this unit.
+         */
+        private int roomNeeded() {
+            return consuming == null ? 1 : size();
+        }
+
+        private int tryDrainTo(ConsumeBatch<T> batch) {
+            if (consuming == null) {
+                int room = batch.capacity() - batch.size();
+                return buffer.drainTo(batch, 0, Math.min(room, size()));
+            }
+            if (!consuming.compareAndSet(false, true)) {
+                return 0;
+            }
+            try {
+                return buffer.drainTo(batch, start, end);
+            } finally {
+                consuming.set(false);
+            }
+        }
+    }
+
+    private class StealingConsumerThread extends Thread {
+        private final IConsumer<T> consumer;
+        private final int homeUnit;
+        private final ConsumeBatch<T> batch;
+
+        private StealingConsumerThread(String threadName, IConsumer<T> consumer, int homeUnit) {
+            super(threadName);
+            this.consumer = consumer;
+            this.homeUnit = homeUnit;
+            int capacity = 0;
+            for (WorkUnit<T> unit : workUnits) {
+                capacity = Math.max(capacity, unit.size());
+            }
+            this.batch = new ConsumeBatch<T>(capacity);
+        }
+
+        @Override
+        public void run() {
+            int idleTimes = 0;
+            long lastDataNanos = System.nanoTime();
+            boolean retired = false;
+            while (running) {
+                if (consume()) {
+                    idleTimes = 0;
+                    lastDataNanos = System.nanoTime();
+                    tryGrow();
+                } else {
+                    if (System.nanoTime() - lastDataNanos > keepAliveNanos && tryRetire()) {
+                        retired = true;
+                        break;
+                    }
+                    waitStrategy.idle(idleTimes, backlog);
+                    if (idleTimes < Integer.MAX_VALUE) {
+                        idleTimes++;
+                    }
+                }
+            }
+
+            boolean last = false;
+            if (!retired) {
+                // consume the last time
+                consume();
+                last = liveThreadNum.decrementAndGet() == 0;
+            }
+            consumerThreads.remove(this);
+            // a shared prototype is still used by the other threads, exit it only once, when the pool is closed.
+            if (prototype == null || last) {
+                consumer.onExit();
+            }
+        }
+
+        /**
+         * scan all units from the home unit, steal the units of others when they are idle.
+         */
+        private boolean consume() {
+            boolean consumed = false;
+            for (int i = 0; i < workUnits.length; i++) {
+                WorkUnit<T> unit = workUnits[(homeUnit + i) % workUnits.length];
+                if (batch.capacity() - batch.size() < unit.roomNeeded()) {
+                    consumed |= flush();
+                }
+                unit.tryDrainTo(batch);
+            }
+            channels.restoreSpilled(batch);
+            consumed |= flush();
+            return consumed;
+        }
+
+        private boolean flush() {
+            int size = batch.size();
+            if (size == 0) {
+                return false;
+            }
+
+            long startNanos = System.nanoTime();
+            ConsumerThread.consume(consumer, batch);
+            channels.getMetrics().onConsumed(size, System.nanoTime() - startNanos);
+            batch.clear();
+            return true;
+        }
+    }
+}
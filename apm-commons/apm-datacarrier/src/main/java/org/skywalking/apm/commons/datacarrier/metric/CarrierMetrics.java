@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.skywalking.apm.commons.datacarrier.buffer.ByteBudget;
+
+/**
+ * DataCarrier 的监控数据
+ *
+ * Counters and gauges of a {@link org.skywalking.apm.commons.datacarrier.DataCarrier}, including the {@link
+ * ChannelMetrics} of each channel and the consuming status.
+ */
+public class CarrierMetrics {
+
+    private volatile String name;
+
+    private final ChannelMetrics[] channels;
+    /**
+     * data failed to produce, by buffer full or consumers closed
+     */
+    private final AtomicLong dropped;
+    /**
+     * data saved into and read back from the spill store
+     */
+    private final AtomicLong spilled;
+    private final AtomicLong restored;
+    /**
+     * times, total data and total nanoseconds of consuming
+     */
+    private final AtomicLong consumeTimes;
+    private final AtomicLong consumeSize;
+    private final AtomicLong consumeNanos;
+    private final AtomicLong maxConsumeSize;
+    /**
+     * times and total nanoseconds of producers over the byte budget, rejected or waiting
+     */
+    private final AtomicLong overBudgetTimes;
+    private final AtomicLong overBudgetNanos;
+    private volatile ByteBudget byteBudget;
+
+    public CarrierMetrics(String name, ChannelMetrics[] channels) {
+        this.name = name;
+        this.channels = channels;
+        this.dropped = new AtomicLong(0);
+        this.spilled = new AtomicLong(0);
+        this.restored = new AtomicLong(0);
+        this.consumeTimes = new AtomicLong(0);
+        this.consumeSize = new AtomicLong(0);
+        this.consumeNanos = new AtomicLong(0);
+        this.maxConsumeSize = new AtomicLong(0);
+        this.overBudgetTimes = new AtomicLong(0);
+        this.overBudgetNanos = new AtomicLong(0);
+    }
+
+    public void onDropped() {
+        dropped.incrementAndGet();
+    }
+
+    public void onDropped(int count) {
+        if (count > 0) {
+            dropped.addAndGet(count);
+        }
+    }
+
+    /**
+     * @param nanos the time waiting for the budget, 0 if rejected
+     */
+    public void onOverBudget(long nanos) {
+        overBudgetTimes.incrementAndGet();
+        overBudgetNanos.addAndGet(nanos);
+    }
+
+    public void onSpilled() {
+        spilled.incrementAndGet();
+    }
+
+    public void onRestored(int count) {
+        if (count > 0) {
+            restored.addAndGet(count);
+        }
+    }
+
+    /**
+     * @param size the number of data in this consuming
+     * @param nanos the time cost of this consuming
+     */
+    public void onConsumed(int size, long nanos) {
+        consumeTimes.incrementAndGet();
+        consumeSize.addAndGet(size);
+        consumeNanos.addAndGet(nanos);
+        long max = maxConsumeSize.get();
+        while (size > max) {
+            if (maxConsumeSize.compareAndSet(max, size)) {
+                break;
+            }
+            max = maxConsumeSize.get();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getChannelSize() {
+        return channels.length;
+    }
+
+    public ChannelMetrics getChannel(int index) {
+        return channels[index];
+    }
+
+    public long getProduced() {
+        long produced = 0;
+        for (ChannelMetrics channel : channels) {
+            produced += channel.getSaved();
+        }
+        return produced;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getRestored() {
+        return restored.get();
+    }
+
+    public long getBlockedNanos() {
+        long blockedNanos = 0;
+        for (ChannelMetrics channel : channels) {
+            blockedNanos += channel.getBlockedNanos();
+        }
+        return blockedNanos;
+    }
+
+    public long getBacklog() {
+        long backlog = 0;
+        for (ChannelMetrics channel : channels) {
+            backlog += channel.getBacklog();
+        }
+        return backlog;
+    }
+
+    public long getCapacity() {
+        long capacity = 0;
+        for (ChannelMetrics channel : channels) {
+            capacity += channel.getCapacity();
+        }
+        return capacity;
+    }
+
+    public long getOverBudgetTimes() {
+        return overBudgetTimes.get();
+    }
+
+    public long getOverBudgetNanos() {
+        return overBudgetNanos.get();
+    }
+
+    public void setByteBudget(ByteBudget byteBudget) {
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * @return bytes of data in the buffers, 0 if no byte budget
+     */
+    public long getResidentBytes() {
+        ByteBudget byteBudget = this.byteBudget;
+        return byteBudget == null ? 0 : byteBudget.getResidentBytes();
+    }
+
+    public long getConsumeTimes() {
+        return consumeTimes.get();
+    }
+
+    public long getConsumeSize() {
+        return consumeSize.get();
+    }
+
+    public long getConsumeNanos() {
+        return consumeNanos.get();
+    }
+
+    public long getMaxConsumeSize() {
+        return maxConsumeSize.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(name).append(": produced=").append(getProduced())
+            .append(", dropped=").append(getDropped())
+            .append(", spilled=").append(getSpilled())
+            .append(", restored=").append(getRestored())
+            .append(", blocked=").append(getBlockedNanos() / 1000000).append("ms")
+            .append(", backlog=").append(getBacklog()).append("/").append(getCapacity());
+        ByteBudget byteBudget = this.byteBudget;
+        if (byteBudget != null) {
+            report.append(", bytes=").append(byteBudget.getResidentBytes()).append("/").append(byteBudget.getMaxBytes())
+                .append(", overBudget=").append(getOverBudgetTimes())
+                .append("(").append(getOverBudgetNanos() / 1000000).append("ms)");
+        }
+        report.append(", consumed=").append(getConsumeSize())
+            .append(", avgBatch=").append(consumeTimes.get() == 0 ? 0 : consumeSize.get() / consumeTimes.get())
+            .append(", maxBatch=").append(getMaxConsumeSize())
+            .append(", avgConsume=").append(consumeTimes.get() == 0 ? 0 : consumeNanos.get() / consumeTimes.get() / 1000).append("us")
+            .append(", highWaterMarks=[");
+        for (int i = 0; i < channels.length; i++) {
+            if (i > 0) {
+                report.append(",");
+            }
+            report.append(channels[i].getHighWaterMark());
+        }
+        return report.append("]").toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.skywalking.apm.commons.datacarrier.common.StripedLongCounter;
+
+/**
+ * 单个通道的监控数据
+ *
+ * Counters of a single {@link org.skywalking.apm.commons.datacarrier.buffer.Buffer}. All counters are cumulative since
+ * the buffer has been created, reporters calculate the increments by themselves.
+ * <p>
+ * The producers only add to a {@link StripedLongCounter}, the high water mark is updated by the consumers, with the
+ * backlog seen right before consuming.
+ */
+public class ChannelMetrics {
+
+    private final int capacity;
+    /**
+     * data saved into the buffer
+     */
+    private final StripedLongCounter saved;
+    /**
+     * data obtained by consumers
+     */
+    private final AtomicLong consumed;
+    /**
+     * data failed to save, because of {@link org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy#IF_POSSIBLE}
+     */
+    private final AtomicLong rejected;
+    /**
+     * data overridden before consumed, because of {@link org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy#OVERRIDE}
+     */
+    private final AtomicLong overridden;
+    /**
+     * times and total nanoseconds of producers waiting, because of {@link org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy#BLOCKING}
+     */
+    private final AtomicLong blockedTimes;
+    private final AtomicLong blockedNanos;
+    /**
+     * the max number of data waiting for consuming
+     */
+    private final AtomicLong highWaterMark;
+
+    public ChannelMetrics(int capacity) {
+        this.capacity = capacity;
+        this.saved = new StripedLongCounter();
+        this.consumed = new AtomicLong(0);
+        this.rejected = new AtomicLong(0);
+        this.overridden = new AtomicLong(0);
+        this.blockedTimes = new AtomicLong(0);
+        this.blockedNanos = new AtomicLong(0);
+        this.highWaterMark = new AtomicLong(0);
+    }
+
+    public void onSaved() {
+        onSaved(1);
+    }
+
+    public void onSaved(int count) {
+        if (count <= 0) {
+            return;
+        }
+        saved.add(count);
+    }
+
+    public void onConsumed(int count) {
+        if (count > 0) {
+            long backlog = saved.sum() - consumed.getAndAdd(count) - overridden.get();
+            long mark = highWaterMark.get();
+            while (backlog > mark) {
+                if (highWaterMark.compareAndSet(mark, backlog)) {
+                    break;
+                }
+                mark = highWaterMark.get();
+            }
+        }
+    }
+
+    public void onRejected() {
+        rejected.incrementAndGet();
+    }
+
+    public void onRejected(int count) {
+        if (count > 0) {
+            rejected.addAndGet(count);
+        }
+    }
+
+    public void onOverridden() {
+        overridden.incrementAndGet();
+    }
+
+    public void onBlocked(long nanos) {
+        blockedTimes.incrementAndGet();
+        blockedNanos.addAndGet(nanos);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getSaved() {
+        return saved.sum();
+    }
+
+    public long getConsumed() {
+        return consumed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getOverridden() {
+        return overridden.get();
+    }
+
+    public long getBlockedTimes() {
+        return blockedTimes.get();
+    }
+
+    public long getBlockedNanos() {
+        return blockedNanos.get();
+    }
+
+    /**
+     * @return the max backlog seen by the consumers, or the current backlog if larger.
+     */
+    public long getHighWaterMark() {
+        return Math.max(Math.min(highWaterMark.get(), capacity), getBacklog());
+    }
+
+    /**
+     * @return the number of data waiting for consuming, an estimate while producing and consuming.
+     */
+    public long getBacklog() {
+        long backlog = saved.sum() - consumed.get() - overridden.get();
+        return Math.max(0, Math.min(backlog, capacity));
+    }
+}
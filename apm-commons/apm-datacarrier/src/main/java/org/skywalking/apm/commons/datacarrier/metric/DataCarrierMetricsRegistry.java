@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.metric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * DataCarrier 监控数据注册表
+ *
+ * All {@link CarrierMetrics} of the carriers in this JVM, for the agent and collector to report. The metrics are held
+ * weakly, a carrier dropped by its owner disappears from the registry.
+ */
+public enum DataCarrierMetricsRegistry {
+    INSTANCE;
+
+    private final Map<CarrierMetrics, Boolean> carriers = Collections.synchronizedMap(new WeakHashMap<CarrierMetrics, Boolean>());
+
+    public void register(CarrierMetrics metrics) {
+        carriers.put(metrics, Boolean.TRUE);
+    }
+
+    public void unregister(CarrierMetrics metrics) {
+        carriers.remove(metrics);
+    }
+
+    public List<CarrierMetrics> getAll() {
+        synchronized (carriers) {
+            return new ArrayList<CarrierMetrics>(carriers.keySet());
+        }
+    }
+}
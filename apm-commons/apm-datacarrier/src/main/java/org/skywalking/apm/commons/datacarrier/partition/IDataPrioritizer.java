@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.partition;
+
+/**
+ * 数据优先级判断接口
+ *
+ * Decide whether the data goes to the high priority lane of {@link org.skywalking.apm.commons.datacarrier.buffer.Channels}.
+ * It is called on the producer thread for every data, keep it cheap.
+ */
+public interface IDataPrioritizer<T> {
+
+    /**
+     * @param data 数据
+     * @return true if the data should be kept when overloaded, in the high priority lane.
+     */
+    boolean isHighPriority(T data);
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.spill;
+
+/**
+ * 溢出数据编解码器接口
+ *
+ * Convert the data to bytes when it is spilled to disk, and back when it is consumed.
+ */
+public interface ISpillCodec<T> {
+
+    /**
+     * @param data the data to spill
+     * @return the bytes to write, or null if the data can't be encoded, then the data is dropped.
+     */
+    byte[] encode(T data);
+
+    /**
+     * @param bytes the bytes encoded by {@link #encode(Object)}
+     * @return the data, or null if the bytes can't be decoded, then the data is dropped.
+     */
+    T decode(byte[] bytes);
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.spill;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于内存映射文件的环形存储
+ *
+ * A bounded ring of byte records, in a memory-mapped file. Each record is a 4 bytes length and the content. When a
+ * record doesn't fit the tail of the file, a wrap mark is written and the record starts from the head.
+ * <p>
+ * The positions are kept in memory only, the content of an existing file is overwritten.
+ */
+public class MappedSpillFile {
+
+    private static final int LENGTH_SIZE = 4;
+
+    private static final int WRAP_MARK = -1;
+
+    private final RandomAccessFile file;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+    /**
+     * position of the next record to read
+     */
+    private int readPosition;
+    /**
+     * position of the next record to write
+     */
+    private int writePosition;
+    /**
+     * bytes in use, including the skipped tail before wrap
+     */
+    private int usedBytes;
+
+    private int recordCount;
+
+    public MappedSpillFile(File path, int capacity) throws IOException {
+        this.capacity = capacity;
+        this.file = new RandomAccessFile(path, "rw");
+        this.file.setLength(capacity);
+        this.buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.readPosition = 0;
+        this.writePosition = 0;
+        this.usedBytes = 0;
+        this.recordCount = 0;
+    }
+
+    /**
+     * @return false, if there is no enough space for the record.
+     */
+    public synchronized boolean write(byte[] record) {
+        int recordSize = LENGTH_SIZE + record.length;
+        if (recordCount == 0) {
+            readPosition = 0;
+            writePosition = 0;
+            usedBytes = 0;
+        }
+        if (recordSize > capacity - usedBytes) {
+            return false;
+        }
+        if (writePosition >= readPosition && recordSize > capacity - writePosition) {
+            // not enough at the tail, wrap to the head
+            int skipped = capacity - writePosition;
+            if (usedBytes + skipped + recordSize > capacity) {
+                return false;
+            }
+            if (skipped >= LENGTH_SIZE) {
+                buffer.putInt(writePosition, WRAP_MARK);
+            }
+            usedBytes += skipped;
+            writePosition = 0;
+        }
+        buffer.putInt(writePosition, record.length);
+        buffer.position(writePosition + LENGTH_SIZE);
+        buffer.put(record);
+        writePosition += recordSize;
+        usedBytes += recordSize;
+        recordCount++;
+        return true;
+    }
+
+    /**
+     * @return the oldest record, or null if empty.
+     */
+    public synchronized byte[] read() {
+        if (recordCount == 0) {
+            return null;
+        }
+        if (capacity - readPosition < LENGTH_SIZE || buffer.getInt(readPosition) == WRAP_MARK) {
+            usedBytes -= capacity - readPosition;
+            readPosition = 0;
+        }
+        int length = buffer.getInt(readPosition);
+        byte[] record = new byte[length];
+        buffer.position(readPosition + LENGTH_SIZE);
+        buffer.get(record);
+        readPosition += LENGTH_SIZE + length;
+        usedBytes -= LENGTH_SIZE + length;
+        recordCount--;
+        return record;
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized int getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.spill;
+
+import java.io.File;
+import java.io.IOException;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+
+/**
+ * 溢出存储
+ *
+ * Keeps the data overflowing the in-memory buffers, under {@link org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy#SPILL}.
+ * The data is encoded by the {@link ISpillCodec}, written into a {@link MappedSpillFile}, and read back by the
+ * consumers when the buffers are not busy.
+ */
+public class SpillStore<T> {
+
+    private final MappedSpillFile spillFile;
+
+    private final ISpillCodec<T> codec;
+
+    public SpillStore(File path, int capacityInBytes, ISpillCodec<T> codec) throws IOException {
+        this.spillFile = new MappedSpillFile(path, capacityInBytes);
+        this.codec = codec;
+    }
+
+    /**
+     * @return false, if the data can't be encoded, or the spill file is full.
+     */
+    public boolean spill(T data) {
+        byte[] bytes;
+        try {
+            bytes = codec.encode(data);
+        } catch (Throwable t) {
+            return false;
+        }
+        if (bytes == null || !spillFile.write(bytes)) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * read the spilled data back into the batch.
+     *
+     * @param batch the batch to fill
+     * @param max the max number of data to read
+     * @return the number of data read
+     */
+    public int drainTo(ConsumeBatch<T> batch, int max) {
+        int count = 0;
+        while (count < max) {
+            byte[] bytes = spillFile.read();
+            if (bytes == null) {
+                break;
+            }
+            T data;
+            try {
+                data = codec.decode(bytes);
+            } catch (Throwable t) {
+                data = null;
+            }
+            if (data != null) {
+                batch.add(data);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return spillFile.getRecordCount() == 0;
+    }
+
+    public int size() {
+        return spillFile.getRecordCount();
+    }
+
+    public void close() throws IOException {
+        spillFile.close();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.wait;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spin, then yield, then park with a timeout doubling from 1 microsecond up to the max. Data arriving in a burst is
+ * consumed quickly, and an idle carrier costs nearly nothing.
+ */
+public class BackoffWaitStrategy implements IWaitStrategy {
+
+    private final int spinTimes;
+
+    private final int yieldTimes;
+
+    private final long maxParkNanos;
+
+    /**
+     * @param maxParkMillis the max time to park in a single idle pass.
+     */
+    public BackoffWaitStrategy(long maxParkMillis) {
+        this(100, 100, maxParkMillis);
+    }
+
+    public BackoffWaitStrategy(int spinTimes, int yieldTimes, long maxParkMillis) {
+        this.spinTimes = spinTimes;
+        this.yieldTimes = yieldTimes;
+        this.maxParkNanos = TimeUnit.MILLISECONDS.toNanos(maxParkMillis);
+    }
+
+    @Override
+    public void idle(int idleTimes, Backlog backlog) {
+        if (idleTimes < spinTimes) {
+            return;
+        }
+        if (idleTimes < spinTimes + yieldTimes) {
+            Thread.yield();
+            return;
+        }
+        int shift = Math.min(idleTimes - spinTimes - yieldTimes, 30);
+        LockSupport.parkNanos(Math.min(1000L << shift, maxParkNanos));
+    }
+
+    @Override
+    public void signal() {
+    }
+
+}
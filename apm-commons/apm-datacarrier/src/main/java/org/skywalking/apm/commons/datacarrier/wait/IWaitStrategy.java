@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.wait;
+
+/**
+ * 消费线程空闲等待策略接口
+ *
+ * Decide what a consumer thread does when a consume pass finds no data, and how producers wake it up.
+ */
+public interface IWaitStrategy {
+
+    /**
+     * Called by the consumer thread, after a consume pass found no data.
+     *
+     * @param idleTimes how many passes found no data in a row, starts from 0.
+     * @param backlog the data of the consumer thread, a strategy woken by {@link #signal()} checks it again before
+     * blocking, for the data saved after the pass.
+     */
+    void idle(int idleTimes, Backlog backlog);
+
+    /**
+     * Called by the producer thread, after data has been saved into the buffer. Must be cheap, it runs in the
+     * application threads.
+     */
+    void signal();
+
+    /**
+     * The buffers consumed by a consumer thread.
+     */
+    interface Backlog {
+        /**
+         * @return true if no data is waiting in the buffers of the consumer thread.
+         */
+        boolean isEmpty();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.wait;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Park the idle consumer thread, and unpark it when a producer saves data. The consumer wakes immediately on produce,
+ * while an idle carrier costs nothing.
+ * <p>
+ * Each consumer thread registers one waiter, the first time it idles, so an idle pass allocates nothing. The producers
+ * scan the waiters, one per consumer thread, only when some of them are parked, and unpark all the parked ones, because
+ * the consumer threads of a pool own different channels.
+ * <p>
+ * The consumer publishes its parked flag, then checks its backlog again before parking. The producer saves the data,
+ * then reads the flags. So the data saved between the empty pass and the park either stops the park, or unparks it.
+ */
+public class ParkingWaitStrategy implements IWaitStrategy {
+
+    private final long maxParkNanos;
+
+    private final CopyOnWriteArrayList<Waiter> waiters;
+
+    private final ThreadLocal<Waiter> currentWaiter;
+
+    private final AtomicInteger parkedCount;
+
+    /**
+     * @param maxParkMillis the max time to park in a single idle pass.
+     */
+    public ParkingWaitStrategy(long maxParkMillis) {
+        this.maxParkNanos = TimeUnit.MILLISECONDS.toNanos(maxParkMillis);
+        this.waiters = new CopyOnWriteArrayList<Waiter>();
+        this.currentWaiter = new ThreadLocal<Waiter>();
+        this.parkedCount = new AtomicInteger(0);
+    }
+
+    @Override
+    public void idle(int idleTimes, Backlog backlog) {
+        Waiter waiter = currentWaiter.get();
+        if (waiter == null) {
+            waiter = new Waiter(Thread.currentThread());
+            currentWaiter.set(waiter);
+            // 移除已结束的消费线程，例如 WorkStealingConsumerPool 回收的线程
+            for (Waiter registered : waiters) {
+                if (!registered.thread.isAlive()) {
+                    waiters.remove(registered);
+                }
+            }
+            waiters.add(waiter);
+        }
+        waiter.set(true);
+        parkedCount.incrementAndGet();
+        try {
+            // 发布等待标志后再次检查，避免错过其间保存的数据
+            if (backlog.isEmpty()) {
+                LockSupport.parkNanos(this, maxParkNanos);
+            }
+        } finally {
+            waiter.set(false);
+            parkedCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void signal() {
+        if (parkedCount.get() > 0) {
+            for (int i = 0; i < waiters.size(); i++) {
+                Waiter waiter = waiters.get(i);
+                if (waiter.compareAndSet(true, false)) {
+                    LockSupport.unpark(waiter.thread);
+                }
+            }
+        }
+    }
+
+    /**
+     * The parked flag of a consumer thread.
+     */
+    private static class Waiter extends AtomicBoolean {
+        private final Thread thread;
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
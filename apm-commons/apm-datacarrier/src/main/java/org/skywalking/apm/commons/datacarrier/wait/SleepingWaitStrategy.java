@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.wait;
+
+/**
+ * Sleep a fixed time for each idle pass. This is the original behavior of the consumer thread.
+ */
+public class SleepingWaitStrategy implements IWaitStrategy {
+
+    private final long sleepMillis;
+
+    public SleepingWaitStrategy(long sleepMillis) {
+        this.sleepMillis = sleepMillis;
+    }
+
+    @Override
+    public void idle(int idleTimes, Backlog backlog) {
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+        }
+    }
+
+    @Override
+    public void signal() {
+    }
+
+}
@@ -18,6 +18,7 @@
 
 package org.skywalking.apm.commons.datacarrier;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
@@ -26,6 +27,7 @@ import org.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPrioritizer;
 import org.skywalking.apm.commons.datacarrier.partition.ProducerThreadPartitioner;
 import org.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -114,6 +116,70 @@ public class DataCarrierTest {
         Assert.assertEquals(200, result1.size() + result2.size());
     }
 
+    @Test
+    public void testBatchProduce() throws IllegalAccessException {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+
+        List<SampleData> data = new ArrayList<SampleData>();
+        for (int i = 0; i < 150; i++) {
+            data.add(new SampleData().setName("d" + i));
+        }
+        // 100 in channel 0, 50 in channel 1
+        Assert.assertEquals(150, carrier.produce(data));
+        // channel 0 is full, the whole batch is rejected
+        Assert.assertEquals(0, carrier.produce(data));
+        // channel 1 accepts the first 50, the rest are rejected
+        Assert.assertEquals(50, carrier.produce(data.toArray(new SampleData[0]), 50, 100));
+        Assert.assertEquals(200, carrier.getMetrics().getDropped());
+
+        Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
+        List<SampleData> result1 = channels.getBuffer(0).obtain(0, 100);
+        List<SampleData> result2 = channels.getBuffer(1).obtain(0, 100);
+        Assert.assertEquals(100, result1.size());
+        Assert.assertEquals(100, result2.size());
+        Assert.assertEquals("d0", result1.get(0).getName());
+        Assert.assertEquals("d100", result2.get(0).getName());
+        Assert.assertEquals("d99", result2.get(99).getName());
+    }
+
+    @Test
+    public void testPriorityProduce() throws IllegalAccessException {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 10);
+        carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+        carrier.setPrioritizer(1, new IDataPrioritizer<SampleData>() {
+            @Override
+            public boolean isHighPriority(SampleData data) {
+                return data.getName().startsWith("high");
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("low" + i)));
+        }
+        // low priority lane is full
+        Assert.assertFalse(carrier.produce(new SampleData().setName("low10")));
+
+        // high priority data fill their own lane, then override the low priority data
+        for (int i = 0; i < 15; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("high" + i)));
+        }
+
+        Channels<SampleData> channels = (Channels<SampleData>)(MemberModifier.field(DataCarrier.class, "channels").get(carrier));
+        List<SampleData> high = channels.getBuffer(0).obtain(0, 10);
+        List<SampleData> low = channels.getBuffer(1).obtain(0, 10);
+        Assert.assertEquals(10, high.size());
+        Assert.assertEquals(10, low.size());
+        int highInLowLane = 0;
+        for (SampleData data : low) {
+            if (data.getName().startsWith("high")) {
+                highInLowLane++;
+            }
+        }
+        Assert.assertEquals(5, highInLowLane);
+        Assert.assertEquals(5, channels.getBuffer(1).getMetrics().getOverridden());
+    }
+
     @Test
     public void testBlockingProduce() throws IllegalAccessException {
         final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.support.membermodification.MemberModifier;
+import org.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.skywalking.apm.commons.datacarrier.common.ISizeable;
+import org.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+
+public class ByteBudgetTest {
+    @Test
+    public void testAcquireAndRelease() {
+        ByteBudget budget = new ByteBudget(100);
+        Assert.assertTrue(budget.tryAcquire(60));
+        Assert.assertFalse(budget.tryAcquire(60));
+        Assert.assertTrue(budget.tryAcquire(40));
+        Assert.assertEquals(100, budget.getResidentBytes());
+
+        budget.release(100);
+        // larger than the whole budget, accepted when empty
+        Assert.assertTrue(budget.tryAcquire(500));
+        Assert.assertFalse(budget.tryAcquire(1));
+    }
+
+    @Test
+    public void testAdmissionByBytes() {
+        Channels<SizedData> channels = new Channels<SizedData>(2, 100, new SimpleRollingPartitioner<SizedData>(), BufferStrategy.IF_POSSIBLE);
+        channels.setByteBudget(new ByteBudget(1000));
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(channels.save(new SizedData(100)));
+        }
+        Assert.assertFalse(channels.save(new SizedData(100)));
+        Assert.assertEquals(1, channels.getMetrics().getOverBudgetTimes());
+        Assert.assertEquals(1000, channels.getMetrics().getResidentBytes());
+
+        List<SizedData> result = channels.getBuffer(0).obtain(0, 100);
+        Assert.assertEquals(5, result.size());
+        Assert.assertEquals(500, channels.getMetrics().getResidentBytes());
+        Assert.assertTrue(channels.save(new SizedData(500)));
+        Assert.assertFalse(channels.save(new SizedData(1)));
+    }
+
+    @Test
+    public void testBatchAdmissionByBytes() {
+        Channels<SizedData> channels = new Channels<SizedData>(1, 100, new SimpleRollingPartitioner<SizedData>(), BufferStrategy.IF_POSSIBLE, BufferType.RING);
+        channels.setByteBudget(new ByteBudget(1000));
+
+        SizedData[] data = new SizedData[8];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new SizedData(100);
+        }
+        Assert.assertEquals(8, channels.save(data, 0, 8));
+        Assert.assertEquals(0, channels.save(data, 0, 8));
+        Assert.assertEquals(800, channels.getMetrics().getResidentBytes());
+
+        channels.getBuffer(0).obtain(0, 100);
+        Assert.assertEquals(0, channels.getMetrics().getResidentBytes());
+    }
+
+    @Test
+    public void testBlockingOverBudget() throws InterruptedException, IllegalAccessException {
+        final DataCarrier<SizedData> carrier = new DataCarrier<SizedData>(1, 100, BufferType.RING);
+        carrier.setByteBudget(1000);
+        Assert.assertTrue(carrier.produce(new SizedData(1000)));
+
+        final Channels<SizedData> channels = (Channels<SizedData>)MemberModifier.field(DataCarrier.class, "channels").get(carrier);
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                }
+                channels.getBuffer(0).obtain(0, 100);
+            }
+        });
+        consumer.start();
+
+        long startTime = System.currentTimeMillis();
+        Assert.assertTrue(carrier.produce(new SizedData(100)));
+        Assert.assertTrue(System.currentTimeMillis() - startTime >= 100);
+        Assert.assertEquals(1, carrier.getMetrics().getOverBudgetTimes());
+        consumer.join();
+    }
+
+    private static class SizedData implements ISizeable {
+        private final long size;
+
+        private SizedData(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long estimatedSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.commons.datacarrier.SampleData;
+
+public class RingBufferTest {
+    @Test
+    public void testSaveAndObtainInOrder() {
+        RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(10, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setName("d" + i)));
+        }
+        Assert.assertFalse(buffer.save(new SampleData().setName("full")));
+
+        List<SampleData> result = buffer.obtain(0, 4);
+        Assert.assertEquals(4, result.size());
+        Assert.assertEquals("d0", result.get(0).getName());
+        Assert.assertEquals("d3", result.get(3).getName());
+
+        Assert.assertTrue(buffer.save(new SampleData().setName("d10")));
+        result = buffer.obtain(0, 10);
+        Assert.assertEquals(7, result.size());
+        Assert.assertEquals("d4", result.get(0).getName());
+        Assert.assertEquals("d10", result.get(6).getName());
+        Assert.assertEquals(0, buffer.obtain(0, 10).size());
+    }
+
+    @Test
+    public void testBatchSave() {
+        RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(10, BufferStrategy.IF_POSSIBLE);
+        SampleData[] data = new SampleData[8];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new SampleData().setName("d" + i);
+        }
+        Assert.assertEquals(6, buffer.save(data, 2, 6));
+        Assert.assertEquals(4, buffer.save(data, 0, 8));
+        Assert.assertEquals(4, buffer.getMetrics().getRejected());
+
+        List<SampleData> result = buffer.obtain(0, 10);
+        Assert.assertEquals(10, result.size());
+        Assert.assertEquals("d2", result.get(0).getName());
+        Assert.assertEquals("d7", result.get(5).getName());
+        Assert.assertEquals("d0", result.get(6).getName());
+        Assert.assertEquals("d3", result.get(9).getName());
+    }
+
+    @Test
+    public void testBatchOverride() {
+        RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(10, BufferStrategy.OVERRIDE);
+        SampleData[] data = new SampleData[25];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new SampleData().setName("d" + i);
+        }
+        Assert.assertEquals(8, buffer.save(data, 0, 8));
+        Assert.assertEquals(8, buffer.save(data, 8, 8));
+
+        List<SampleData> result = buffer.obtain(0, 10);
+        Assert.assertEquals(10, result.size());
+        Assert.assertEquals("d6", result.get(0).getName());
+        Assert.assertEquals("d15", result.get(9).getName());
+    }
+
+    @Test
+    public void testOverride() {
+        RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(10, BufferStrategy.OVERRIDE);
+        for (int i = 0; i < 25; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setName("d" + i)));
+        }
+
+        List<SampleData> result = buffer.obtain(0, 10);
+        Assert.assertEquals(10, result.size());
+        Assert.assertEquals("d15", result.get(0).getName());
+        Assert.assertEquals("d24", result.get(9).getName());
+    }
+
+    @Test
+    public void testBlocking() throws InterruptedException {
+        final RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(10, BufferStrategy.BLOCKING);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setName("d" + i)));
+        }
+
+        long time1 = System.currentTimeMillis();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                buffer.obtain(0, 1);
+            }
+        }).start();
+
+        Assert.assertTrue(buffer.save(new SampleData().setName("blocking-data")));
+        Assert.assertTrue(System.currentTimeMillis() - time1 >= 500);
+        Assert.assertEquals("d1", buffer.obtain(0, 10).get(0).getName());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final RingBuffer<SampleData> buffer = new RingBuffer<SampleData>(64, BufferStrategy.BLOCKING);
+        final int producerNum = 4;
+        final int dataNumPerProducer = 10000;
+        final CountDownLatch latch = new CountDownLatch(producerNum);
+        for (int p = 0; p < producerNum; p++) {
+            final int producerId = p;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < dataNumPerProducer; i++) {
+                        buffer.save(new SampleData().setIntValue(producerId * dataNumPerProducer + i));
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        Set<Integer> consumed = new HashSet<Integer>();
+        while (consumed.size() < producerNum * dataNumPerProducer) {
+            for (SampleData data : buffer.obtain(0, buffer.getBufferSize())) {
+                Assert.assertTrue(consumed.add(data.getIntValue()));
+            }
+        }
+        latch.await();
+        Assert.assertEquals(0, buffer.obtain(0, buffer.getBufferSize()).size());
+    }
+}
@@ -38,4 +38,15 @@ public class AtomicRangeIntegerTest {
         Assert.assertEquals(1, (int)atomicI.floatValue());
         Assert.assertEquals(1, (int)atomicI.doubleValue());
     }
+
+    @Test
+    public void testGetAndAdd() {
+        AtomicRangeInteger atomicI = new AtomicRangeInteger(0, 10);
+        Assert.assertEquals(0, atomicI.getAndAdd(4));
+        Assert.assertEquals(4, atomicI.getAndAdd(4));
+        Assert.assertEquals(8, atomicI.getAndAdd(4));
+        Assert.assertEquals(2, atomicI.get());
+        Assert.assertEquals(2, atomicI.getAndAdd(10));
+        Assert.assertEquals(2, atomicI.getAndIncrement());
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.commons.datacarrier.SampleData;
+
+public class ConsumeBatchTest {
+    @Test
+    public void testAddAndClear() {
+        ConsumeBatch<SampleData> batch = new ConsumeBatch<SampleData>(2);
+        batch.add(new SampleData().setName("a"));
+        batch.add(new SampleData().setName("b"));
+        batch.add(new SampleData().setName("c"));
+        Assert.assertEquals(3, batch.size());
+        Assert.assertTrue(batch.capacity() >= 3);
+        Assert.assertEquals("c", batch.get(2).getName());
+        Assert.assertEquals(3, batch.toArray().length);
+
+        int capacity = batch.capacity();
+        batch.clear();
+        Assert.assertEquals(0, batch.size());
+        Assert.assertEquals(capacity, batch.capacity());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfSize() {
+        ConsumeBatch<SampleData> batch = new ConsumeBatch<SampleData>(10);
+        batch.add(new SampleData().setName("a"));
+        batch.get(1);
+    }
+}
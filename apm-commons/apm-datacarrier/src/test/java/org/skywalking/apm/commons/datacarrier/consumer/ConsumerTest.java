@@ -19,14 +19,18 @@
 package org.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import org.junit.Assert;
 import org.junit.Test;
 import org.powermock.api.support.membermodification.MemberModifier;
 import org.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.skywalking.apm.commons.datacarrier.SampleData;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
 
 /**
  * Created by wusheng on 2016/10/26.
@@ -99,6 +103,64 @@ public class ConsumerTest {
         Assert.assertTrue(IS_OCCUR_ERROR);
     }
 
+    @Test
+    public void testBatchConsumer() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("data" + i)));
+        }
+        SampleBatchConsumer consumer = new SampleBatchConsumer();
+        carrier.consume(consumer, 1);
+
+        Thread.sleep(2000);
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("data" + i)));
+        }
+
+        Thread.sleep(2000);
+        carrier.shutdownConsumers();
+
+        Assert.assertEquals(250, consumer.count);
+        Assert.assertEquals(1, consumer.batches.size());
+        Assert.assertEquals(0, consumer.listConsumeTimes);
+    }
+
+    class SampleBatchConsumer implements IBatchConsumer<SampleData> {
+        private int count = 0;
+
+        private int listConsumeTimes = 0;
+
+        private Set<ConsumeBatch<SampleData>> batches = Collections.newSetFromMap(new IdentityHashMap<ConsumeBatch<SampleData>, Boolean>());
+
+        @Override
+        public void init() {
+
+        }
+
+        @Override
+        public void consumeBatch(ConsumeBatch<SampleData> batch) {
+            count += batch.size();
+            batches.add(batch);
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            listConsumeTimes++;
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+    }
+
     class SampleConsumer2 implements IConsumer<SampleData> {
         public int i = 1;
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.commons.datacarrier.SampleData;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.skywalking.apm.commons.datacarrier.wait.SleepingWaitStrategy;
+
+public class WorkStealingConsumerPoolTest {
+    @Test
+    public void testGrowAndShrinkWithArrayBuffer() throws InterruptedException {
+        testGrowAndShrink(BufferType.ARRAY);
+    }
+
+    @Test
+    public void testGrowAndShrinkWithRingBuffer() throws InterruptedException {
+        testGrowAndShrink(BufferType.RING);
+    }
+
+    private void testGrowAndShrink(BufferType bufferType) throws InterruptedException {
+        // all data goes into channel 0
+        final Channels<SampleData> channels = new Channels<SampleData>(4, 100, new IDataPartitioner<SampleData>() {
+            @Override
+            public int partition(int total, SampleData data) {
+                return 0;
+            }
+
+            @Override
+            public int maxRetryCount() {
+                return 1;
+            }
+        }, BufferStrategy.BLOCKING, bufferType);
+        final SlowConsumer consumer = new SlowConsumer(3);
+        WorkStealingConsumerPool<SampleData> pool = new WorkStealingConsumerPool<SampleData>(channels, consumer, 1, 3, 500, new SleepingWaitStrategy(5));
+        pool.begin();
+        Assert.assertEquals(1, pool.getThreadNum());
+
+        final AtomicInteger saved = new AtomicInteger(0);
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                while (consumer.fullyConcurrent.getCount() > 0) {
+                    channels.save(new SampleData().setName("d" + saved.getAndIncrement()));
+                }
+            }
+        };
+        producer.start();
+        Assert.assertTrue(consumer.fullyConcurrent.await(30, TimeUnit.SECONDS));
+        producer.join();
+        Assert.assertEquals(3, consumer.maxConcurrency.get());
+        Assert.assertTrue(consumer.maxBatchSize.get() <= 100);
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while ((consumer.count.get() < saved.get() || pool.getThreadNum() > 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(saved.get(), consumer.count.get());
+        Assert.assertEquals(1, pool.getThreadNum());
+        // the retired threads share the consumer with the live one
+        Assert.assertEquals(0, consumer.exitTimes.get());
+
+        pool.close();
+        Assert.assertFalse(pool.isRunning());
+        deadline = System.currentTimeMillis() + 30000;
+        while (consumer.exitTimes.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        Assert.assertEquals(1, consumer.exitTimes.get());
+    }
+
+    class SlowConsumer implements IConsumer<SampleData> {
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        private final AtomicInteger concurrency = new AtomicInteger(0);
+
+        private final AtomicInteger maxConcurrency = new AtomicInteger(0);
+
+        private final AtomicInteger maxBatchSize = new AtomicInteger(0);
+
+        private final int expectedConcurrency;
+
+        private final CountDownLatch fullyConcurrent = new CountDownLatch(1);
+
+        private final AtomicInteger exitTimes = new AtomicInteger(0);
+
+        SlowConsumer(int expectedConcurrency) {
+            this.expectedConcurrency = expectedConcurrency;
+        }
+
+        @Override
+        public void init() {
+
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            int current = concurrency.incrementAndGet();
+            updateMax(maxConcurrency, current);
+            updateMax(maxBatchSize, data.size());
+            if (current >= expectedConcurrency) {
+                fullyConcurrent.countDown();
+            }
+            try {
+                Thread.sleep(data.size());
+            } catch (InterruptedException e) {
+            }
+            count.addAndGet(data.size());
+            concurrency.decrementAndGet();
+        }
+
+        private void updateMax(AtomicInteger max, int value) {
+            while (true) {
+                int current = max.get();
+                if (value <= current || max.compareAndSet(current, value)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+            exitTimes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.metric;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.skywalking.apm.commons.datacarrier.SampleData;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+
+public class CarrierMetricsTest {
+    @Test
+    public void testProduceMetrics() {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>("test-produce", 2, 100, BufferType.RING);
+        carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 250; i++) {
+            carrier.produce(new SampleData().setName("d" + i));
+        }
+
+        CarrierMetrics metrics = carrier.getMetrics();
+        Assert.assertEquals("test-produce", metrics.getName());
+        Assert.assertEquals(200, metrics.getProduced());
+        Assert.assertEquals(50, metrics.getDropped());
+        Assert.assertEquals(200, metrics.getBacklog());
+        Assert.assertEquals(200, metrics.getCapacity());
+        Assert.assertEquals(100, metrics.getChannel(0).getHighWaterMark());
+        Assert.assertTrue(metrics.getChannel(0).getRejected() > 0);
+
+        Assert.assertTrue(DataCarrierMetricsRegistry.INSTANCE.getAll().contains(metrics));
+    }
+
+    @Test
+    public void testConsumeMetrics() throws InterruptedException {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>("test-consume", 2, 100);
+        for (int i = 0; i < 150; i++) {
+            carrier.produce(new SampleData().setName("d" + i));
+        }
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 1);
+
+        Thread.sleep(1000);
+        carrier.shutdownConsumers();
+
+        CarrierMetrics metrics = carrier.getMetrics();
+        Assert.assertEquals(150, metrics.getConsumeSize());
+        Assert.assertEquals(150, metrics.getMaxConsumeSize());
+        Assert.assertEquals(1, metrics.getConsumeTimes());
+        Assert.assertEquals(0, metrics.getBacklog());
+        Assert.assertEquals(75, metrics.getChannel(1).getHighWaterMark());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.spill;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedSpillFileTest {
+    private File path;
+
+    private MappedSpillFile spillFile;
+
+    @Before
+    public void setUp() throws IOException {
+        path = File.createTempFile("datacarrier", ".spill");
+        spillFile = new MappedSpillFile(path, 64);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        spillFile.close();
+        path.delete();
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        Assert.assertNull(spillFile.read());
+        Assert.assertTrue(spillFile.write("abc".getBytes()));
+        Assert.assertTrue(spillFile.write("defg".getBytes()));
+        Assert.assertEquals(2, spillFile.getRecordCount());
+        Assert.assertEquals("abc", new String(spillFile.read()));
+        Assert.assertEquals("defg", new String(spillFile.read()));
+        Assert.assertNull(spillFile.read());
+        Assert.assertEquals(0, spillFile.getUsedBytes());
+    }
+
+    @Test
+    public void testFullAndWrap() {
+        byte[] record = new byte[16];
+        // 3 records of 20 bytes in a 64 bytes file
+        for (int i = 0; i < 3; i++) {
+            record[0] = (byte)i;
+            Assert.assertTrue(spillFile.write(record));
+        }
+        Assert.assertFalse(spillFile.write(record));
+
+        Assert.assertEquals(0, spillFile.read()[0]);
+        Assert.assertEquals(1, spillFile.read()[0]);
+        // wrap to the head, the 4 bytes tail is skipped
+        record[0] = 3;
+        Assert.assertTrue(spillFile.write(record));
+        record[0] = 4;
+        Assert.assertTrue(spillFile.write(record));
+        Assert.assertFalse(spillFile.write(record));
+
+        Assert.assertEquals(2, spillFile.read()[0]);
+        Assert.assertEquals(3, spillFile.read()[0]);
+        Assert.assertEquals(4, spillFile.read()[0]);
+        Assert.assertNull(spillFile.read());
+        Assert.assertEquals(0, spillFile.getUsedBytes());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.spill;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.skywalking.apm.commons.datacarrier.SampleData;
+import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+
+public class SpillStoreTest {
+    @Test
+    public void testSpillAndRestore() throws IOException, InterruptedException {
+        File path = File.createTempFile("datacarrier", ".spill");
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 10);
+        carrier.enableSpill(path, 1024 * 1024, new ISpillCodec<SampleData>() {
+            @Override
+            public byte[] encode(SampleData data) {
+                return data.getName().getBytes();
+            }
+
+            @Override
+            public SampleData decode(byte[] bytes) {
+                return new SampleData().setName(new String(bytes));
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+        Assert.assertEquals(80, carrier.getMetrics().getSpilled());
+
+        final Set<String> consumed = new HashSet<String>();
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+                for (SampleData one : data) {
+                    consumed.add(one.getName());
+                }
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 1);
+
+        Thread.sleep(2000);
+        carrier.shutdownConsumers();
+
+        Assert.assertEquals(100, consumed.size());
+        Assert.assertEquals(80, carrier.getMetrics().getRestored());
+
+        // the spill store is closed with the consumers, no more data is spilled.
+        for (int i = 0; i < 100; i++) {
+            carrier.produce(new SampleData().setName("e" + i));
+        }
+        Assert.assertEquals(80, carrier.getMetrics().getSpilled());
+        path.delete();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.commons.datacarrier.wait;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.skywalking.apm.commons.datacarrier.SampleData;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+
+public class ParkingWaitStrategyTest {
+    @Test
+    public void testSignalWakeUpConsumer() throws InterruptedException {
+        final CountDownLatch consumed = new CountDownLatch(1);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 100, BufferType.RING);
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+                consumed.countDown();
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 1, new ParkingWaitStrategy(60 * 1000L));
+
+        // make sure the consumer has been parked
+        Thread.sleep(500);
+        long time1 = System.currentTimeMillis();
+        Assert.assertTrue(carrier.produce(new SampleData().setName("a")));
+
+        Assert.assertTrue(consumed.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(System.currentTimeMillis() - time1 < 10 * 1000L);
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testParkTimeout() {
+        ParkingWaitStrategy strategy = new ParkingWaitStrategy(50);
+        long time1 = System.currentTimeMillis();
+        strategy.idle(0, new IWaitStrategy.Backlog() {
+            @Override
+            public boolean isEmpty() {
+                return true;
+            }
+        });
+        Assert.assertTrue(System.currentTimeMillis() - time1 < 5 * 1000L);
+        // no parked thread, signal does nothing
+        strategy.signal();
+    }
+
+    @Test
+    public void testSignalWakeUpChannelOwner() throws InterruptedException {
+        final CountDownLatch consumedA = new CountDownLatch(1);
+        final CountDownLatch consumedB = new CountDownLatch(1);
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        // each consumer thread owns one channel
+        carrier.setPartitioner(new IDataPartitioner<SampleData>() {
+            @Override
+            public int partition(int total, SampleData data) {
+                return "a".equals(data.getName()) ? 0 : 1;
+            }
+
+            @Override
+            public int maxRetryCount() {
+                return 1;
+            }
+        });
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+                for (SampleData sampleData : data) {
+                    ("a".equals(sampleData.getName()) ? consumedA : consumedB).countDown();
+                }
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 2, new ParkingWaitStrategy(60 * 1000L));
+
+        // make sure the consumers have been parked
+        Thread.sleep(500);
+        Assert.assertTrue(carrier.produce(new SampleData().setName("a")));
+        Assert.assertTrue(consumedA.await(10, TimeUnit.SECONDS));
+        Thread.sleep(500);
+        Assert.assertTrue(carrier.produce(new SampleData().setName("b")));
+        Assert.assertTrue(consumedB.await(10, TimeUnit.SECONDS));
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testNotParkWithBacklog() {
+        ParkingWaitStrategy strategy = new ParkingWaitStrategy(60 * 1000L);
+        long time1 = System.currentTimeMillis();
+        // data saved after the empty pass
+        strategy.idle(0, new IWaitStrategy.Backlog() {
+            @Override
+            public boolean isEmpty() {
+                return false;
+            }
+        });
+        Assert.assertTrue(System.currentTimeMillis() - time1 < 10 * 1000L);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.CarrierItem;
+import org.skywalking.apm.agent.core.context.ContextCarrier;
+import org.skywalking.apm.agent.core.context.SW3BinaryCarrierItem;
+import org.skywalking.apm.agent.core.context.SW3CarrierItem;
+
+/**
+ * Injecting and extracting a {@link ContextCarrier} by {@link SW3CarrierItem} and by {@link SW3BinaryCarrierItem},
+ * the way the plugins do.
+ * <p>
+ * Build with <code>mvn package</code> in this module, then run <code>java -jar target/agent-core-benchmarks.jar
+ * CarrierBenchmark</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarrierBenchmark {
+
+    private static final String SW3 = "1.35.15127007074950012|3|1|1|300|#/order/create|12|1.35.15127007074950000";
+
+    private ContextCarrier carrier;
+
+    private String binary;
+
+    @Setup
+    public void setup() {
+        carrier = extract(SW3CarrierItem.HEADER_NAME, SW3);
+        Config.Agent.BINARY_CARRIER = true;
+        binary = carrier.items().next().getHeadValue();
+    }
+
+    @Benchmark
+    public void injectSW3(Blackhole blackhole) {
+        Config.Agent.BINARY_CARRIER = false;
+        inject(blackhole);
+    }
+
+    @Benchmark
+    public void injectBinary(Blackhole blackhole) {
+        Config.Agent.BINARY_CARRIER = true;
+        inject(blackhole);
+    }
+
+    @Benchmark
+    public Object extractSW3() {
+        return extract(SW3CarrierItem.HEADER_NAME, SW3);
+    }
+
+    @Benchmark
+    public Object extractBinary() {
+        return extract(SW3BinaryCarrierItem.HEADER_NAME, binary);
+    }
+
+    private void inject(Blackhole blackhole) {
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            blackhole.consume(next.getHeadValue());
+        }
+    }
+
+    private static ContextCarrier extract(String headKey, String headValue) {
+        ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            next.setHeadValue(headKey.equals(next.getHeadKey()) ? headValue : null);
+        }
+        return carrier;
+    }
+}
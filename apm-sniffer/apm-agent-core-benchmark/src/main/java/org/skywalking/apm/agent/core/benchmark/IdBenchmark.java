@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
+import org.skywalking.apm.agent.core.context.ids.ID;
+import org.skywalking.apm.network.proto.UniqueId;
+
+/**
+ * {@link GlobalIdGenerator} and {@link ID} encoding, compared with the implementation before the encoded forms were
+ * cached, see {@link LegacyID}. An id is usually encoded twice, e.g. by a carrier and by the log toolkit.
+ * <p>
+ * Build with <code>mvn package</code> in this module, then run <code>java -jar target/agent-core-benchmarks.jar
+ * IdBenchmark</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdBenchmark {
+
+    @Setup
+    public void setup() {
+        RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID = 1;
+    }
+
+    @Benchmark
+    public Object generateLegacy() {
+        return LegacyID.generate();
+    }
+
+    @Benchmark
+    public Object generate() {
+        return GlobalIdGenerator.generate();
+    }
+
+    @Benchmark
+    public void generateAndEncodeTwiceLegacy(Blackhole blackhole) {
+        LegacyID id = LegacyID.generate();
+        blackhole.consume(id.toString());
+        blackhole.consume(id.toString());
+    }
+
+    @Benchmark
+    public void generateAndEncodeTwice(Blackhole blackhole) {
+        ID id = GlobalIdGenerator.generate();
+        blackhole.consume(id.toString());
+        blackhole.consume(id.toString());
+    }
+
+    @Benchmark
+    public void generateAndTransformTwiceLegacy(Blackhole blackhole) {
+        LegacyID id = LegacyID.generate();
+        blackhole.consume(id.transform());
+        blackhole.consume(id.transform());
+    }
+
+    @Benchmark
+    public void generateAndTransformTwice(Blackhole blackhole) {
+        ID id = GlobalIdGenerator.generate();
+        blackhole.consume(id.transform());
+        blackhole.consume(id.transform());
+    }
+
+    @Benchmark
+    public Object toBytes() {
+        return GlobalIdGenerator.generate().toBytes();
+    }
+
+    /**
+     * The id and generator before the encoded forms were cached.
+     */
+    static class LegacyID {
+        private static final ThreadLocal<long[]> THREAD_SEQ = new ThreadLocal<long[]>() {
+            @Override protected long[] initialValue() {
+                return new long[1];
+            }
+        };
+
+        private final long part1;
+        private final long part2;
+        private final long part3;
+
+        LegacyID(long part1, long part2, long part3) {
+            this.part1 = part1;
+            this.part2 = part2;
+            this.part3 = part3;
+        }
+
+        static LegacyID generate() {
+            long[] seq = THREAD_SEQ.get();
+            if (seq[0] == 10000) {
+                seq[0] = 0;
+            }
+            return new LegacyID(RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID,
+                Thread.currentThread().getId(), System.currentTimeMillis() * 10000 + seq[0]++);
+        }
+
+        @Override public String toString() {
+            return part1 + "." + part2 + '.' + part3;
+        }
+
+        UniqueId transform() {
+            return UniqueId.newBuilder().addIdParts(part1).addIdParts(part2).addIdParts(part3).build();
+        }
+    }
+}
@@ -44,6 +44,12 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * Negative or zero means off, by default. Otherwise, sample about N traces per second, adapting to the
+         * throughput, and {@link #SAMPLE_N_PER_3_SECS} is ignored.
+         */
+        public static int SAMPLE_TRACES_PER_SEC = -1;
+
         /**
          * If the operation name of the first span is included in this set, this segment should be ignored.
          */
@@ -55,11 +61,68 @@ public class Config {
          */
         public static int SPAN_LIMIT_PER_SEGMENT = 300;
 
+        /**
+         * 0 means off, by default. Otherwise, once an unfinished segment holds this many finished spans, or {@link
+         * #SEGMENT_CHUNK_BYTES} of them, they are sent as a partial segment, stitched by the collector, and {@link
+         * #SPAN_LIMIT_PER_SEGMENT} is ignored. Requires a collector supporting partial segments.
+         */
+        public static int SEGMENT_CHUNK_SPANS = 0;
+        public static long SEGMENT_CHUNK_BYTES = 0;
+
         /**
          * If true, skywalking agent will save all instrumented classes files in `/debugging` folder.
          * Skywalking team may ask for these files in order to resolve compatible problem.
          */
         public static boolean IS_OPEN_DEBUGGING_CLASS = false;
+
+        /**
+         * The max number of idle segments and spans of each type kept for reusing, after they have been sent to
+         * collector. 0 means no pooling. Don't enable it if any plugin keeps the spans after they are stopped.
+         */
+        public static int OBJECT_POOL_SIZE = 0;
+
+        /**
+         * If true, the context is propagated by the compact `sw3b` header, instead of `sw3`. Both of them are always
+         * readable, so only enable it after all downstream agents have been upgraded.
+         */
+        public static boolean BINARY_CARRIER = false;
+
+        /**
+         * 0 means off, by default. Otherwise, in each this interval, in milliseconds, the stack of an exception is
+         * rendered until a segment carrying it has been sent, for the same exception class and top stack frames. The
+         * following ones refer to it by a fingerprint and count, resolved by the collector at read time.
+         */
+        public static long THROWABLE_FINGERPRINT_INTERVAL = 0;
+
+        /**
+         * If true, the entry spans record the cpu time and allocated bytes of their threads. The allocated bytes are
+         * only available on the JVMs supporting <code>com.sun.management.ThreadMXBean</code>.
+         */
+        public static boolean ENTRY_SPAN_THREAD_RESOURCES = false;
+
+        /**
+         * If true, the traces not sampled are still traced, held for {@link #TAIL_SAMPLING_HOLDING_TIME}, and sent
+         * only if any of their segments is slow or has an error. They are not propagated to the downstream
+         * applications. They wait in the segment buffer as the sampled ones, and are judged by the sending threads.
+         */
+        public static boolean TAIL_SAMPLING = false;
+
+        /**
+         * The segments of not sampled traces taking longer than this, in milliseconds, are sent.
+         */
+        public static long TAIL_SAMPLING_SLOW_THRESHOLD = 1000;
+
+        /**
+         * How long, in milliseconds, the segments of a not sampled trace are held waiting for a slow or failed segment
+         * of the same trace.
+         */
+        public static long TAIL_SAMPLING_HOLDING_TIME = 3000;
+
+        /**
+         * The max number and bytes of held segments. The oldest are discarded when over them.
+         */
+        public static int TAIL_SAMPLING_MAX_SEGMENTS = 2000;
+        public static long TAIL_SAMPLING_MAX_BYTES = 16 * 1024 * 1024;
     }
 
     public static class Collector {
@@ -85,6 +148,66 @@ public class Config {
          * Collector service discovery REST service name
          */
         public static String DISCOVERY_SERVICE_NAME = "/agent/gRPC";
+
+        /**
+         * The number of long-lived streams, and of the threads, sending the trace segments, not more than {@link
+         * Buffer#CHANNEL_SIZE}. Raise it if a single stream can't keep up.
+         */
+        public static int UPLINK_STREAMS = 1;
+
+        /**
+         * The seconds a trace segment stream lives, before it is completed and the sent segments are acknowledged.
+         */
+        public static long UPLINK_STREAM_LIFETIME = 60;
+    }
+
+    public static class Metric {
+        /**
+         * If true, the calls, errors and latency of every request, sampled or not, are aggregated by entry operation
+         * and exit peer, and sent to the collector directly. The collector must support the request metric service.
+         */
+        public static boolean ACTIVE = false;
+
+        /**
+         * The interval, in seconds, to send the aggregated request metrics.
+         */
+        public static int FLUSH_INTERVAL = 5;
+
+        /**
+         * The max number of entry operations, and of exit peers, to aggregate. The others are not counted.
+         */
+        public static int MAX_TARGETS = 1000;
+    }
+
+    public static class Profile {
+        /**
+         * If true, the thread of a segment, whose entry span lasts longer than {@link #THRESHOLD}, is sampled, and the
+         * sampled call tree is sent with the segment. The older collectors ignore it.
+         */
+        public static boolean ACTIVE = false;
+
+        /**
+         * The milliseconds an entry span lasts before its thread is sampled.
+         */
+        public static int THRESHOLD = 500;
+
+        /**
+         * The milliseconds between two samples, not less than 10. Each sample brings all application threads to a
+         * safepoint, so keep it coarse.
+         */
+        public static int INTERVAL = 100;
+
+        /**
+         * The max number of frames, from the innermost, of a sampled stack. The deeper stacks are cut, and merged under
+         * a truncated root.
+         */
+        public static int MAX_DEPTH = 256;
+
+        /**
+         * The max number of nodes of the call tree of a segment. The samples beyond it are only counted on the
+         * existing nodes.
+         */
+        public static int MAX_NODES = 500;
     }
 
     public static class Jvm {
@@ -98,6 +221,27 @@ public class Config {
         public static int CHANNEL_SIZE = 5;
 
         public static int BUFFER_SIZE = 300;
+
+        /**
+         * The max bytes of segments waiting for sending, estimated by their spans, tags and logs. The segments over it
+         * are abandoned, as the ones over the buffer size. 0 or negative means no limit of bytes.
+         */
+        public static long MAX_BYTES = 0;
+
+        /**
+         * The number of channels reserved for the error and slow segments, so they survive when the buffer is full.
+         * 0 means no priority, the default.
+         * <p>
+         * The priority is decided on the application thread finishing the segment, by walking all of its spans. When
+         * the buffer strategy is {@link org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy#OVERRIDE}, the
+         * high priority segments override the low priority ones silently, when both lanes are full.
+         */
+        public static int HIGH_PRIORITY_CHANNEL_SIZE = 0;
+
+        /**
+         * The segments taking longer than this, in milliseconds, are high priority.
+         */
+        public static long SLOW_SEGMENT_THRESHOLD = 1000;
     }
 
     public static class Dictionary {
@@ -137,6 +281,14 @@ public class Config {
     }
 
     public static class Plugin {
+        public static class Tag {
+            /**
+             * The max length of a lazy tag value, such as a sql statement or a command. The longer part is cut when
+             * sending.
+             */
+            public static int VALUE_MAX_LENGTH = 2048;
+        }
+
         public static class MongoDB {
             /**
              * If true, trace all the parameters, default is false. Only trace the operation, not include parameters.
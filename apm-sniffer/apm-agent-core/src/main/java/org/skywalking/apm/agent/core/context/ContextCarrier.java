@@ -18,10 +18,14 @@
 
 package org.skywalking.apm.agent.core.context;
 
+import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.context.ids.DistributedTraceId;
 import org.skywalking.apm.agent.core.context.ids.ID;
 import org.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.skywalking.apm.agent.core.context.ids.base64.Base64;
+import org.skywalking.apm.agent.core.context.ids.base64.StandardCharsets;
 import org.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.skywalking.apm.agent.core.context.util.VarintUtil;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.skywalking.apm.util.StringUtil;
 
@@ -38,6 +42,15 @@ import java.util.List;
  */
 public class ContextCarrier implements Serializable {
 
+    /**
+     * The first byte of the binary form, changed when the layout changes.
+     */
+    static final byte BINARY_VERSION = 1;
+
+    private static final Base64.Encoder BINARY_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder BINARY_DECODER = Base64.getUrlDecoder();
+
     /**
      * {@link TraceSegment#traceSegmentId}
      */
@@ -95,8 +108,36 @@ public class ContextCarrier implements Serializable {
      */
     private DistributedTraceId primaryDistributedTraceId;
 
+    /**
+     * 是否用于注入
+     *
+     * true, if this carrier has been passed to {@link ContextManager#inject(ContextCarrier)}, even nothing is injected
+     * because the context is ignored or not sampled.
+     */
+    private boolean injected;
+
+    /**
+     * A carrier passed to inject, see {@link #markInjected()}, or initialized, is going to be injected, with only one of
+     * {@link SW3CarrierItem} and {@link SW3BinaryCarrierItem}, chosen by {@link Config.Agent#BINARY_CARRIER}, as older
+     * agents can't read the binary one. Nothing is injected when the carrier stays empty. Otherwise, the carrier is
+     * going to be extracted, so both are read, and the binary one wins when the peer sends both.
+     */
     public CarrierItem items() {
-        SW3CarrierItem carrierItem = new SW3CarrierItem(this, null);
+        CarrierItem carrierItem = null;
+        if (!this.isValid()) {
+            if (injected) {
+                return new CarrierItemHead(null);
+            }
+            carrierItem = new SW3CarrierItem(this, new SW3BinaryCarrierItem(this, "", null));
+        } else if (Config.Agent.BINARY_CARRIER) {
+            String binary = serializeBinary();
+            if (binary.length() > 0) {
+                carrierItem = new SW3BinaryCarrierItem(this, binary, null);
+            }
+        }
+        if (carrierItem == null) {
+            carrierItem = new SW3CarrierItem(this, null);
+        }
         CarrierItemHead head = new CarrierItemHead(carrierItem);
         return head;
     }
@@ -149,6 +190,197 @@ public class ContextCarrier implements Serializable {
         return this;
     }
 
+    /**
+     * Serialize this {@link ContextCarrier} to the url safe base64 of a binary layout:
+     * <pre>
+     * version(1 byte) | traceSegmentId | spanId | parentApplicationInstanceId | entryApplicationInstanceId
+     *   | peerHost | entryOperationName | parentOperationName | primaryDistributedTraceId
+     * </pre>
+     * Each {@link ID} is three unsigned varints and each int is an unsigned varint. A name is a varint of
+     * {@code id << 1} when it has been compressed to an id, or of {@code length << 1 | 1} followed by its UTF-8 bytes.
+     *
+     * @return the serialization string, or empty if this carrier isn't valid, or its trace id isn't numeric, such as
+     * propagated by an older agent, then {@link #serialize()} should be used.
+     */
+    String serializeBinary() {
+        if (!this.isValid()) {
+            return "";
+        }
+        ID traceId = primaryDistributedTraceId.getId();
+        if (!traceId.isValid()) {
+            return "";
+        }
+        long peerHostHead = nameHead(peerHost);
+        long entryOperationNameHead = nameHead(entryOperationName);
+        long parentOperationNameHead = nameHead(parentOperationName);
+        if (peerHostHead < 0 || entryOperationNameHead < 0 || parentOperationNameHead < 0) {
+            return "";
+        }
+
+        int size = 1 + traceSegmentId.binarySize()
+            + VarintUtil.size(unsigned(spanId))
+            + VarintUtil.size(unsigned(parentApplicationInstanceId))
+            + VarintUtil.size(unsigned(entryApplicationInstanceId))
+            + nameSize(peerHostHead)
+            + nameSize(entryOperationNameHead)
+            + nameSize(parentOperationNameHead)
+            + traceId.binarySize();
+        byte[] bytes = new byte[size];
+        bytes[0] = BINARY_VERSION;
+        int offset = traceSegmentId.writeTo(bytes, 1);
+        offset = VarintUtil.write(bytes, offset, unsigned(spanId));
+        offset = VarintUtil.write(bytes, offset, unsigned(parentApplicationInstanceId));
+        offset = VarintUtil.write(bytes, offset, unsigned(entryApplicationInstanceId));
+        offset = writeName(bytes, offset, peerHost, peerHostHead);
+        offset = writeName(bytes, offset, entryOperationName, entryOperationNameHead);
+        offset = writeName(bytes, offset, parentOperationName, parentOperationNameHead);
+        traceId.writeTo(bytes, offset);
+        return BINARY_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Initialize fields with the given text, see {@link #serializeBinary()}. Nothing changes unless the whole text is
+     * readable.
+     */
+    ContextCarrier deserializeBinary(String text) {
+        if (text == null || text.length() == 0) {
+            return this;
+        }
+        byte[] bytes;
+        try {
+            bytes = BINARY_DECODER.decode(text);
+        } catch (IllegalArgumentException e) {
+            return this;
+        }
+        if (bytes.length == 0 || bytes[0] != BINARY_VERSION) {
+            return this;
+        }
+
+        int[] offset = new int[] {1};
+        ID segmentId = new ID(bytes, offset);
+        long spanId = VarintUtil.read(bytes, offset);
+        long parentApplicationInstanceId = VarintUtil.read(bytes, offset);
+        long entryApplicationInstanceId = VarintUtil.read(bytes, offset);
+        String peerHost = readName(bytes, offset);
+        String entryOperationName = readName(bytes, offset);
+        String parentOperationName = readName(bytes, offset);
+        ID traceId = new ID(bytes, offset);
+        if (offset[0] != bytes.length || peerHost == null || entryOperationName == null || parentOperationName == null) {
+            return this;
+        }
+
+        this.traceSegmentId = segmentId;
+        this.spanId = (int)spanId;
+        this.parentApplicationInstanceId = (int)parentApplicationInstanceId;
+        this.entryApplicationInstanceId = (int)entryApplicationInstanceId;
+        this.peerHost = peerHost;
+        this.entryOperationName = entryOperationName;
+        this.parentOperationName = parentOperationName;
+        this.primaryDistributedTraceId = new PropagatedTraceId(traceId);
+        return this;
+    }
+
+    private static long unsigned(int value) {
+        return value & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return the head of a name, {@code id << 1} or {@code utf8Length << 1 | 1}, or -1 for neither an id nor a name
+     */
+    private static long nameHead(String name) {
+        if (name.charAt(0) == '#') {
+            long length = 0;
+            for (int i = 1; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length << 1 | 1;
+        }
+        if (name.length() > 10) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id << 1;
+    }
+
+    private static int nameSize(long head) {
+        return VarintUtil.size(head) + ((head & 1) == 0 ? 0 : (int)(head >>> 1));
+    }
+
+    /**
+     * Write the head, and the UTF-8 bytes of a name, the same as {@link String#getBytes(java.nio.charset.Charset)}
+     * except that a lone surrogate isn't replaced.
+     */
+    private static int writeName(byte[] bytes, int offset, String name, long head) {
+        offset = VarintUtil.write(bytes, offset, head);
+        if ((head & 1) == 0) {
+            return offset;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80) {
+                bytes[offset++] = (byte)c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte)(0xC0 | (c >> 6));
+                bytes[offset++] = (byte)(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, name.charAt(++i));
+                bytes[offset++] = (byte)(0xF0 | (codePoint >> 18));
+                bytes[offset++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[offset++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[offset++] = (byte)(0x80 | (codePoint & 0x3F));
+            } else {
+                bytes[offset++] = (byte)(0xE0 | (c >> 12));
+                bytes[offset++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * @return the name with '#' prefixed, or the id, or null if truncated
+     */
+    private static String readName(byte[] bytes, int[] offset) {
+        long head = VarintUtil.read(bytes, offset);
+        if (head < 0) {
+            return null;
+        }
+        if ((head & 1) == 0) {
+            return String.valueOf(head >>> 1);
+        }
+        long length = head >>> 1;
+        if (length > bytes.length - offset[0]) {
+            return null;
+        }
+        String name = '#' + new String(bytes, offset[0], (int)length, StandardCharsets.UTF_8);
+        offset[0] += (int)length;
+        return name;
+    }
+
+    /**
+     * Mark this carrier as injected, so {@link #items()} doesn't return the empty items for extracting.
+     */
+    void markInjected() {
+        this.injected = true;
+    }
+
     /**
      * Make sure this {@link ContextCarrier} has been initialized.
      *
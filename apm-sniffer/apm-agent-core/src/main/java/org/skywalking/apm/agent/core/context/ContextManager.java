@@ -80,10 +80,13 @@ public class ContextManager implements TracingContextListener, BootService, Igno
                         // 强制收集或者需要收集，创建 TracingContext 对象
                         SamplingService samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
                         if (forceSampling || samplingService.trySampling()) {
-                            context = new TracingContext();
+                            context = TracingContext.newInstance();
+                        } else if (Config.Agent.TAIL_SAMPLING) {
+                        // 无需收集，但尾部抽样开启，依然追踪，结束后再决定是否发送
+                            context = TracingContext.newInstance(false);
                         } else {
-                        // 无需收集，创建 IgnoredTracerContext
-                            context = new IgnoredTracerContext();
+                        // 无需收集，创建 IgnoredTracerContext ，只记录请求指标
+                            context = new IgnoredTracerContext(true);
                         }
                     }
                 // 应用实例未注册，创建 IgnoredTracerContext 对象
@@ -149,6 +152,7 @@ public class ContextManager implements TracingContextListener, BootService, Igno
         // 创建 ExitSpan 对象
         AbstractSpan span = context.createExitSpan(operationName, remotePeer);
         // 将 Context 注入到 ContextCarrier
+        carrier.markInjected();
         context.inject(carrier);
         return span;
     }
@@ -162,6 +166,7 @@ public class ContextManager implements TracingContextListener, BootService, Igno
     }
 
     public static void inject(ContextCarrier carrier) {
+        carrier.markInjected();
         get().inject(carrier);
     }
 
@@ -221,6 +226,10 @@ public class ContextManager implements TracingContextListener, BootService, Igno
 
     @Override
     public void afterFinished(TraceSegment traceSegment) {
+        // 部分 TraceSegment 发送后，上下文仍在使用
+        if (traceSegment.isPartial()) {
+            return;
+        }
         CONTEXT.remove();
     }
 
@@ -52,6 +52,11 @@ public class ContextSnapshot {
 
     private int entryApplicationInstanceId = DictionaryUtil.nullValue();
 
+    /**
+     * False if the parent trace segment is traced only for the tail sampling.
+     */
+    private boolean headSampled = true;
+
     ContextSnapshot(ID traceSegmentId, int spanId,
         List<DistributedTraceId> distributedTraceIds) {
         this.traceSegmentId = traceSegmentId;
@@ -114,6 +119,14 @@ public class ContextSnapshot {
         return entryApplicationInstanceId;
     }
     
+    void setHeadSampled(boolean headSampled) {
+        this.headSampled = headSampled;
+    }
+
+    public boolean isHeadSampled() {
+        return headSampled;
+    }
+
     public boolean isFromCurrent() {
         return traceSegmentId.equals(ContextManager.capture().getTraceSegmentId());
     }
@@ -18,8 +18,10 @@
 
 package org.skywalking.apm.agent.core.context;
 
+import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.skywalking.apm.agent.core.context.trace.RequestMetricSpan;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -30,6 +32,9 @@ import java.util.List;
  *
  * All operations through this will be ignored, and keep the memory and gc cost as low as possible.
  *
+ * A trace not sampled still records the request metrics of its entry and exit spans, if {@link
+ * Config.Metric#ACTIVE}.
+ *
  * @author wusheng
  */
 public class IgnoredTracerContext implements AbstractTracerContext {
@@ -44,8 +49,29 @@ public class IgnoredTracerContext implements AbstractTracerContext {
      */
     private int stackDepth;
 
+    /**
+     * 是否记录请求指标，仅未被采样的链路记录
+     */
+    private final boolean recordMetric;
+
+    /**
+     * 入口 Span ，仅记录请求指标时存在
+     */
+    private RequestMetricSpan entrySpan;
+
+    /**
+     * 出口 Span ，及其所在的栈深度，仅记录请求指标时存在
+     */
+    private RequestMetricSpan exitSpan;
+    private int exitSpanDepth;
+
     public IgnoredTracerContext() {
+        this(false);
+    }
+
+    public IgnoredTracerContext(boolean recordMetric) {
         this.stackDepth = 0;
+        this.recordMetric = recordMetric && Config.Metric.ACTIVE;
     }
 
     @Override
@@ -74,6 +100,10 @@ public class IgnoredTracerContext implements AbstractTracerContext {
     @Override
     public AbstractSpan createEntrySpan(String operationName) {
         stackDepth++;
+        if (recordMetric && stackDepth == 1) {
+            entrySpan = new RequestMetricSpan(true, operationName);
+            return entrySpan;
+        }
         return NOOP_SPAN;
     }
 
@@ -86,16 +116,35 @@ public class IgnoredTracerContext implements AbstractTracerContext {
     @Override
     public AbstractSpan createExitSpan(String operationName, String remotePeer) {
         stackDepth++;
+        // 同 TracingContext ，嵌套的出口 Span 视为同一个
+        if (recordMetric && exitSpan == null) {
+            exitSpan = new RequestMetricSpan(false, remotePeer);
+            exitSpanDepth = stackDepth;
+            return exitSpan;
+        }
         return NOOP_SPAN;
     }
 
     @Override
     public AbstractSpan activeSpan() {
+        if (exitSpan != null && stackDepth == exitSpanDepth) {
+            return exitSpan;
+        }
+        if (entrySpan != null && stackDepth == 1) {
+            return entrySpan;
+        }
         return NOOP_SPAN;
     }
 
     @Override
     public void stopSpan(AbstractSpan span) {
+        if (exitSpan != null && stackDepth == exitSpanDepth) {
+            exitSpan.recordMetric();
+            exitSpan = null;
+        } else if (entrySpan != null && stackDepth == 1) {
+            entrySpan.recordMetric();
+            entrySpan = null;
+        }
         stackDepth--;
         if (stackDepth == 0) {
             ListenerManager.notifyFinish(this);
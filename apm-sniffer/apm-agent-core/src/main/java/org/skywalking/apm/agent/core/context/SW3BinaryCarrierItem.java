@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context;
+
+/**
+ * 二进制载体项
+ *
+ * The compact form of {@link SW3CarrierItem}, see {@link ContextCarrier#serializeBinary()}. The first byte of the
+ * layout is its version, so a newer layout can be told apart and ignored by this one.
+ */
+public class SW3BinaryCarrierItem extends CarrierItem {
+
+    /**
+     * 键
+     */
+    public static final String HEADER_NAME = "sw3b";
+
+    private ContextCarrier carrier;
+
+    public SW3BinaryCarrierItem(ContextCarrier carrier, CarrierItem next) {
+        this(carrier, carrier.serializeBinary(), next);
+    }
+
+    SW3BinaryCarrierItem(ContextCarrier carrier, String headValue, CarrierItem next) {
+        super(HEADER_NAME, headValue, next);
+        this.carrier = carrier;
+    }
+
+    @Override
+    public void setHeadValue(String headValue) {
+        carrier.deserializeBinary(headValue);
+    }
+
+}
@@ -23,11 +23,16 @@ import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.context.trace.*;
 import org.skywalking.apm.agent.core.dictionary.DictionaryManager;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
-import org.skywalking.apm.agent.core.dictionary.PossibleFound;
+import org.skywalking.apm.agent.core.metric.RequestMetricAggregator;
+import org.skywalking.apm.agent.core.profile.ProfileCallTree;
+import org.skywalking.apm.agent.core.profile.ProfileTask;
+import org.skywalking.apm.agent.core.profile.ThreadProfiler;
 import org.skywalking.apm.agent.core.sampling.SamplingService;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * The <code>TracingContext</code> represents a core tracing logic controller. It build the final {@link
@@ -53,29 +58,96 @@ public class TracingContext implements AbstractTracerContext {
      */
     private TraceSegment segment;
 
+    private static final int INITIAL_STACK_CAPACITY = 8;
+
+    /**
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This growable array is the in-memory
+     * storage-structure, with {@link #activeSpanStackDepth} as the top, see {@link #pop()}, {@link
+     * #push(AbstractSpan)}, {@link #peek()}
+     */
+    private AbstractSpan[] activeSpanStack = new AbstractSpan[INITIAL_STACK_CAPACITY];
+
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#last} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * 活跃 Span 栈深度
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<AbstractSpan>();
+    private int activeSpanStackDepth;
 
     /**
      * A counter for the next span.
      */
     private int spanIdGenerator;
 
+    /**
+     * Estimated bytes of the finished spans not sent yet, only counted if {@link Config.Agent#SEGMENT_CHUNK_BYTES} is
+     * set.
+     */
+    private long chunkBytes;
+
+    /**
+     * The finished context of each thread, reused by the next trace of the same thread, when {@link
+     * TraceObjectPool#isEnabled()}.
+     */
+    private static final ThreadLocal<TracingContext> FINISHED_CONTEXT = new ThreadLocal<TracingContext>();
+
+    /**
+     * 是否已结束，结束后不能再使用，直到被复用
+     */
+    private boolean finished = false;
+
+    /**
+     * The sampling of this thread since the entry span starts, only if {@link Config.Profile#ACTIVE}.
+     */
+    private ProfileTask profileTask;
+
     /**
      * Initialize all fields with default value.
      */
     TracingContext() {
-        this.segment = new TraceSegment();
+        this.segment = TraceObjectPool.INSTANCE.newSegment();
         this.spanIdGenerator = 0;
         if (samplingService == null) {
             samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
         }
     }
 
+    /**
+     * @return the finished context of current thread if pooling, or a new one.
+     */
+    static TracingContext newInstance() {
+        if (!TraceObjectPool.INSTANCE.isEnabled()) {
+            return new TracingContext();
+        }
+        TracingContext context = FINISHED_CONTEXT.get();
+        if (context == null) {
+            return new TracingContext();
+        }
+        FINISHED_CONTEXT.set(null);
+        context.segment = TraceObjectPool.INSTANCE.newSegment();
+        context.clearActiveSpanStack();
+        context.spanIdGenerator = 0;
+        context.chunkBytes = 0;
+        context.finished = false;
+        return context;
+    }
+
+    /**
+     * @param headSampled false if traced only for the tail sampling, see {@link Config.Agent#TAIL_SAMPLING}
+     */
+    static TracingContext newInstance(boolean headSampled) {
+        TracingContext context = newInstance();
+        context.segment.setHeadSampled(headSampled);
+        return context;
+    }
+
+    /**
+     * @throws IllegalStateException if this context has finished, and may be reused by the next trace.
+     */
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("Tracing context has finished, can't be used after its segment is finished.");
+        }
+    }
+
     /**
      * Inject the context into the given carrier, only when the active span is an exit one.
      *
@@ -90,6 +162,11 @@ public class TracingContext implements AbstractTracerContext {
             throw new IllegalStateException("Inject can be done only in Exit Span");
         }
 
+        // 尾部抽样的链路不传播，下游按自己的抽样决定
+        if (!segment.isHeadSampled()) {
+            return;
+        }
+
         WithPeerInfo spanWithPeer = (WithPeerInfo)span;
         String peer = spanWithPeer.getPeer();
         int peerId = spanWithPeer.getPeerId();
@@ -165,6 +242,7 @@ public class TracingContext implements AbstractTracerContext {
         ContextSnapshot snapshot = new ContextSnapshot(segment.getTraceSegmentId(),
             activeSpan().getSpanId(),
             segment.getRelatedGlobalTraces());
+        snapshot.setHeadSampled(segment.isHeadSampled());
         int entryOperationId;
         String entryOperationName;
         int entryApplicationInstanceId;
@@ -205,6 +283,8 @@ public class TracingContext implements AbstractTracerContext {
     public void continued(ContextSnapshot snapshot) {
         this.segment.ref(new TraceSegmentRef(snapshot));
         this.segment.relatedGlobalTraces(snapshot.getDistributedTraceId());
+        // 与父线程的链路保持一致
+        this.segment.setHeadSampled(snapshot.isHeadSampled());
     }
 
     /**
@@ -224,6 +304,7 @@ public class TracingContext implements AbstractTracerContext {
      */
     @Override
     public AbstractSpan createEntrySpan(final String operationName) {
+        checkNotFinished();
         // 超过 Span 数量上限，创建 NoopSpan 对象
         if (isLimitMechanismWorking()) {
             NoopSpan span = new NoopSpan();
@@ -231,39 +312,30 @@ public class TracingContext implements AbstractTracerContext {
         }
         AbstractSpan entrySpan;
         // 获得当前活跃的 AbstractSpan 对象
-        final AbstractSpan parentSpan = peek();
-        final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
+        AbstractSpan parentSpan = peek();
+        int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
         // 父 Span 对象不存在，创建 EntrySpan 对象
         if (parentSpan == null) {
             // 创建 EntrySpan 对象
-            entrySpan = (AbstractTracingSpan)DictionaryManager.findOperationNameCodeSection()
-                .findOnly(segment.getApplicationId(), operationName)
-                .doInCondition(new PossibleFound.FoundAndObtain() {
-                    @Override public Object doProcess(int operationId) {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationId);
-                    }
-                }, new PossibleFound.NotFoundAndObtain() {
-                    @Override public Object doProcess() {
-                        return new EntrySpan(spanIdGenerator++, parentSpanId, operationName);
-                    }
-                });
+            int operationId = DictionaryManager.findOperationNameCodeSection()
+                .findIdOnly(segment.getApplicationId(), operationName);
+            entrySpan = DictionaryUtil.isNull(operationId)
+                ? TraceObjectPool.INSTANCE.newEntrySpan(segment.getClock(), spanIdGenerator++, parentSpanId, operationName, operationId)
+                : TraceObjectPool.INSTANCE.newEntrySpan(segment.getClock(), spanIdGenerator++, parentSpanId, null, operationId);
             // 开始 EntrySpan
             entrySpan.start();
+            if (Config.Profile.ACTIVE) {
+                profileTask = ThreadProfiler.INSTANCE.start(System.currentTimeMillis());
+            }
             // 添加到 activeSpanStack
             return push(entrySpan);
         // 父 EntrySpan 对象存在，重新开始 EntrySpan
         } else if (parentSpan.isEntry()) {
-            entrySpan = (AbstractTracingSpan)DictionaryManager.findOperationNameCodeSection()
-                .findOnly(segment.getApplicationId(), operationName)
-                .doInCondition(new PossibleFound.FoundAndObtain() {
-                    @Override public Object doProcess(int operationId) {
-                        return parentSpan.setOperationId(operationId);
-                    }
-                }, new PossibleFound.NotFoundAndObtain() {
-                    @Override public Object doProcess() {
-                        return parentSpan.setOperationName(operationName);
-                    }
-                });
+            int operationId = DictionaryManager.findOperationNameCodeSection()
+                .findIdOnly(segment.getApplicationId(), operationName);
+            entrySpan = DictionaryUtil.isNull(operationId)
+                ? parentSpan.setOperationName(operationName)
+                : parentSpan.setOperationId(operationId);
             // 重新开始 EntrySpan
             return entrySpan.start();
         } else {
@@ -280,6 +352,7 @@ public class TracingContext implements AbstractTracerContext {
      */
     @Override
     public AbstractSpan createLocalSpan(final String operationName) {
+        checkNotFinished();
         // 超过 Span 数量上限，创建 NoopSpan 对象
         if (isLimitMechanismWorking()) {
             NoopSpan span = new NoopSpan();
@@ -289,19 +362,11 @@ public class TracingContext implements AbstractTracerContext {
         AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
         // 创建 LocalSpan 对象
-        AbstractTracingSpan span = (AbstractTracingSpan)DictionaryManager.findOperationNameCodeSection()
-            .findOrPrepare4Register(segment.getApplicationId(), operationName)
-            .doInCondition(new PossibleFound.FoundAndObtain() {
-                @Override
-                public Object doProcess(int operationId) {
-                    return new LocalSpan(spanIdGenerator++, parentSpanId, operationId);
-                }
-            }, new PossibleFound.NotFoundAndObtain() {
-                @Override
-                public Object doProcess() {
-                    return new LocalSpan(spanIdGenerator++, parentSpanId, operationName);
-                }
-            });
+        int operationId = DictionaryManager.findOperationNameCodeSection()
+            .findIdOrPrepare4Register(segment.getApplicationId(), operationName);
+        AbstractTracingSpan span = DictionaryUtil.isNull(operationId)
+            ? TraceObjectPool.INSTANCE.newLocalSpan(segment.getClock(), spanIdGenerator++, parentSpanId, operationName, operationId)
+            : TraceObjectPool.INSTANCE.newLocalSpan(segment.getClock(), spanIdGenerator++, parentSpanId, null, operationId);
         // 开始 LocalSpan
         span.start();
         // 添加到 activeSpanStack
@@ -318,6 +383,7 @@ public class TracingContext implements AbstractTracerContext {
      */
     @Override
     public AbstractSpan createExitSpan(final String operationName, final String remotePeer) {
+        checkNotFinished();
         AbstractSpan exitSpan;
         // 获得当前活跃的 AbstractSpan 对象
         AbstractSpan parentSpan = peek();
@@ -327,56 +393,19 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             // 创建 ExitSpan
             final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-            exitSpan = (AbstractSpan)DictionaryManager.findApplicationCodeSection()
-                .find(remotePeer).doInCondition( // remotePeer =》 peerId
-                    new PossibleFound.FoundAndObtain() {
-                        @Override
-                        public Object doProcess(final int peerId) {
-                            // 超过 Span 数量上限，创建 NoopExitSpan 对象
-                            if (isLimitMechanismWorking()) {
-                                return new NoopExitSpan(peerId);
-                            }
-
-                            return DictionaryManager.findOperationNameCodeSection()
-                                .findOnly(segment.getApplicationId(), operationName) // operationName =》 operationId
-                                .doInCondition(
-                                    new PossibleFound.FoundAndObtain() {
-                                        @Override
-                                        public Object doProcess(int operationId) {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationId, peerId);
-                                        }
-                                    }, new PossibleFound.NotFoundAndObtain() {
-                                        @Override
-                                        public Object doProcess() {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationName, peerId);
-                                        }
-                                    });
-                        }
-                    },
-                    new PossibleFound.NotFoundAndObtain() {
-                        @Override
-                        public Object doProcess() {
-                            // 超过 Span 数量上限，创建 NoopExitSpan 对象
-                            if (isLimitMechanismWorking()) {
-                                return new NoopExitSpan(remotePeer);
-                            }
-
-                            return DictionaryManager.findOperationNameCodeSection()
-                                .findOnly(segment.getApplicationId(), operationName) // operationName =》 operationId
-                                .doInCondition(
-                                    new PossibleFound.FoundAndObtain() {
-                                        @Override
-                                        public Object doProcess(int operationId) {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationId, remotePeer);
-                                        }
-                                    }, new PossibleFound.NotFoundAndObtain() {
-                                        @Override
-                                        public Object doProcess() {
-                                            return new ExitSpan(spanIdGenerator++, parentSpanId, operationName, remotePeer);
-                                        }
-                                    });
-                        }
-                    });
+            // remotePeer =》 peerId
+            int peerId = DictionaryManager.findApplicationCodeSection().findId(remotePeer);
+            // 超过 Span 数量上限，创建 NoopExitSpan 对象
+            if (isLimitMechanismWorking()) {
+                exitSpan = DictionaryUtil.isNull(peerId) ? new NoopExitSpan(remotePeer) : new NoopExitSpan(peerId);
+            } else {
+                // operationName =》 operationId
+                int operationId = DictionaryManager.findOperationNameCodeSection()
+                    .findIdOnly(segment.getApplicationId(), operationName);
+                exitSpan = TraceObjectPool.INSTANCE.newExitSpan(segment.getClock(), spanIdGenerator++, parentSpanId,
+                    DictionaryUtil.isNull(operationId) ? operationName : null, operationId,
+                    DictionaryUtil.isNull(peerId) ? remotePeer : null, peerId);
+            }
             // 添加到 activeSpanStack
             push(exitSpan);
         }
@@ -405,6 +434,7 @@ public class TracingContext implements AbstractTracerContext {
      */
     @Override
     public void stopSpan(AbstractSpan span) {
+        checkNotFinished();
         // 获得当前活跃的 AbstractSpan 对象
         AbstractSpan lastSpan = peek();
         if (lastSpan == span) {
@@ -415,6 +445,12 @@ public class TracingContext implements AbstractTracerContext {
                 if (toFinishSpan.finish(segment)) {
                     // 移除出 `activeSpanStack`
                     pop();
+                    if (Config.Metric.ACTIVE) {
+                        recordMetric(toFinishSpan);
+                    }
+                    if (Config.Agent.SEGMENT_CHUNK_BYTES > 0) {
+                        chunkBytes += toFinishSpan.estimatedSize();
+                    }
                 }
             // NoopSpan 子类
             } else {
@@ -426,11 +462,30 @@ public class TracingContext implements AbstractTracerContext {
         }
 
         // 当所有活跃的 Span 都被结束后，当前线程的 TraceSegment 完成
-        if (activeSpanStack.isEmpty()) {
+        if (activeSpanStackDepth == 0) {
             this.finish();
+        } else if (isChunkFull()) {
+            // 发送已完成的 Span ，避免长 TraceSegment 占用过多内存
+            chunkBytes = 0;
+            TracingContext.ListenerManager.notifyFinish(segment.takeChunk());
         }
     }
 
+    private void recordMetric(AbstractTracingSpan span) {
+        long cost = (span.getEndTimeMicros() - span.getStartTimeMicros()) / 1000;
+        if (span.isEntry()) {
+            RequestMetricAggregator.INSTANCE.record(true, span.getOperationId(), span.getOperationName(), cost, span.isErrorOccurred());
+        } else if (span.isExit()) {
+            WithPeerInfo exitSpan = (WithPeerInfo)span;
+            RequestMetricAggregator.INSTANCE.record(false, exitSpan.getPeerId(), exitSpan.getPeer(), cost, span.isErrorOccurred());
+        }
+    }
+
+    private boolean isChunkFull() {
+        return (Config.Agent.SEGMENT_CHUNK_SPANS > 0 && segment.getSpanCount() >= Config.Agent.SEGMENT_CHUNK_SPANS)
+            || (Config.Agent.SEGMENT_CHUNK_BYTES > 0 && chunkBytes >= Config.Agent.SEGMENT_CHUNK_BYTES);
+    }
+
     /**
      * Finish this context, and notify all {@link TracingContextListener}s, managed by {@link
      * TracingContext.ListenerManager}
@@ -445,13 +500,30 @@ public class TracingContext implements AbstractTracerContext {
          *
          * @see {@link #createSpan(String, long, boolean)}
          */
-        if (!segment.hasRef() && segment.isSingleSpanSegment()) {
+        if (segment.isHeadSampled() && !segment.hasRef() && !segment.hasChunks() && segment.isSingleSpanSegment()) {
             if (!samplingService.trySampling()) {
-                finishedSegment.setIgnore(true);
+                if (Config.Agent.TAIL_SAMPLING) {
+                    finishedSegment.setHeadSampled(false);
+                } else {
+                    finishedSegment.setIgnore(true);
+                }
+            }
+        }
+        if (profileTask != null) {
+            ProfileCallTree callTree = ThreadProfiler.INSTANCE.stop(profileTask);
+            profileTask = null;
+            if (callTree != null) {
+                finishedSegment.setProfile(callTree);
             }
         }
         // 通知监听器，一次 TraceSegment 完成
         TracingContext.ListenerManager.notifyFinish(finishedSegment);
+
+        if (TraceObjectPool.INSTANCE.isEnabled()) {
+            this.finished = true;
+            this.segment = null;
+            FINISHED_CONTEXT.set(this);
+        }
     }
 
     /**
@@ -496,7 +568,9 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        AbstractSpan span = activeSpanStack[--activeSpanStackDepth];
+        activeSpanStack[activeSpanStackDepth] = null;
+        return span;
     }
 
     /**
@@ -505,7 +579,10 @@ public class TracingContext implements AbstractTracerContext {
      * @param span
      */
     private AbstractSpan push(AbstractSpan span) {
-        activeSpanStack.addLast(span);
+        if (activeSpanStackDepth == activeSpanStack.length) {
+            activeSpanStack = Arrays.copyOf(activeSpanStack, activeSpanStack.length * 2);
+        }
+        activeSpanStack[activeSpanStackDepth++] = span;
         return span;
     }
 
@@ -513,17 +590,28 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack' only.
      */
     private AbstractSpan peek() {
-        if (activeSpanStack.isEmpty()) {
+        if (activeSpanStackDepth == 0) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack[activeSpanStackDepth - 1];
     }
 
     private AbstractSpan first() {
-        return activeSpanStack.getFirst();
+        if (activeSpanStackDepth == 0) {
+            throw new NoSuchElementException();
+        }
+        return activeSpanStack[0];
+    }
+
+    private void clearActiveSpanStack() {
+        Arrays.fill(activeSpanStack, 0, activeSpanStackDepth, null);
+        activeSpanStackDepth = 0;
     }
 
     private boolean isLimitMechanismWorking() {
+        if (Config.Agent.SEGMENT_CHUNK_SPANS > 0 || Config.Agent.SEGMENT_CHUNK_BYTES > 0) {
+            return false;
+        }
         return spanIdGenerator >= Config.Agent.SPAN_LIMIT_PER_SEGMENT;
     }
 }
@@ -22,6 +22,10 @@ import org.skywalking.apm.agent.core.context.trace.TraceSegment;
 
 public interface TracingContextListener {
 
+    /**
+     * @param traceSegment finished, or a chunk of a long segment when {@link TraceSegment#isPartial()}, and more chunks
+     * of the same id follow.
+     */
     void afterFinished(TraceSegment traceSegment);
 
 }
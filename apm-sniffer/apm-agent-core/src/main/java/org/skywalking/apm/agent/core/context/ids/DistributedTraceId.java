@@ -66,6 +66,10 @@ public abstract class DistributedTraceId {
         return id.transform();
     }
 
+    public ID getId() {
+        return id;
+    }
+
     /**
      * Compare the two <code>DistributedTraceId</code> by its {@link #id},
      * even these two <code>DistributedTraceId</code>s are not the same instances.
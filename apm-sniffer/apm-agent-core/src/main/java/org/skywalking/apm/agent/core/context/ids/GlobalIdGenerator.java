@@ -34,7 +34,7 @@ public final class GlobalIdGenerator {
     private static final ThreadLocal<IDContext> THREAD_ID_SEQUENCE = new ThreadLocal<IDContext>() {
         @Override
         protected IDContext initialValue() {
-            return new IDContext(System.currentTimeMillis(), (short) 0);
+            return new IDContext(System.currentTimeMillis(), (short) 0, Thread.currentThread().getId());
         }
     };
 
@@ -57,6 +57,10 @@ public final class GlobalIdGenerator {
      * sky-walking's old global and segment id like this: "S.1490097253214.-866187727.57515.1.1" which costs at least 72
      * bytes.
      *
+     * Each call allocates the returned {@link ID}, only holding the three longs. Its string and {@link
+     * org.skywalking.apm.network.proto.UniqueId} forms are built on first use, and the thread id is cached in the
+     * thread context, so nothing else is allocated per call.
+     *
      * @return an array contains three long numbers, which represents a unique id.
      */
     public static ID generate() {
@@ -68,7 +72,7 @@ public final class GlobalIdGenerator {
         // 生成编号
         return new ID(
             RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID, // 应用实例编号
-            Thread.currentThread().getId(), // 线程编号
+            context.threadId, // 线程编号
             context.nextSeq() // 带时间戳的序列号
         );
     }
@@ -85,15 +89,20 @@ public final class GlobalIdGenerator {
          * 线程自增序列号
          */
         private short threadSeq;
+        /**
+         * 线程编号，不会变化，缓存避免每次获取
+         */
+        private final long threadId;
 
         // Just for considering time-shift-back only.
         private long runRandomTimestamp;
         private int lastRandomValue;
         private Random random;
 
-        private IDContext(long lastTimestamp, short threadSeq) {
+        private IDContext(long lastTimestamp, short threadSeq, long threadId) {
             this.lastTimestamp = lastTimestamp;
             this.threadSeq = threadSeq;
+            this.threadId = threadId;
         }
 
         /**
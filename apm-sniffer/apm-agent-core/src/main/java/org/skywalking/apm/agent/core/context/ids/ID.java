@@ -18,11 +18,15 @@
 
 package org.skywalking.apm.agent.core.context.ids;
 
+import org.skywalking.apm.agent.core.context.util.VarintUtil;
 import org.skywalking.apm.network.proto.UniqueId;
 
 /**
  * 使用 {@link GlobalIdGenerator#generate()} 生成全局唯一编号
  *
+ * The string and protobuf forms are built lazily at the first use, and cached, because an id is usually encoded more
+ * than once, such as by the carriers of several exit spans and by the log toolkit.
+ *
  * @author wusheng
  */
 public class ID {
@@ -45,9 +49,13 @@ public class ID {
      * 编码后的字符串
      * 格式 ： ${part1}.${part2}.${part3}
      * 例如 ：12.35.15127007074950000
-     * 方法 ： ${@link #toString()}
+     * 方法 ： ${@link #encode()}
      */
     private String encoding;
+    /**
+     * 缓存的 protobuf 编号，方法 ：{@link #transform()}
+     */
+    private volatile UniqueId uniqueId;
     /**
      * 编号是否合法
      */
@@ -80,15 +88,62 @@ public class ID {
         }
     }
 
+    /**
+     * The binary form, see {@link #toBytes()}.
+     */
+    public ID(byte[] bytes) {
+        int[] offset = new int[1];
+        readFrom(bytes, offset);
+        this.isValid = offset[0] == bytes.length;
+    }
+
+    /**
+     * The binary form embedded in a larger layout, such as the binary carrier.
+     *
+     * @param offset in and out, moved to the next byte after this id
+     */
+    public ID(byte[] bytes, int[] offset) {
+        readFrom(bytes, offset);
+        this.isValid = offset[0] <= bytes.length;
+    }
+
+    private void readFrom(byte[] bytes, int[] offset) {
+        part1 = VarintUtil.read(bytes, offset);
+        part2 = VarintUtil.read(bytes, offset);
+        part3 = VarintUtil.read(bytes, offset);
+    }
+
     public String encode() {
         if (encoding == null) {
-            encoding = toString();
+            encoding = new StringBuilder(40).append(part1).append('.').append(part2).append('.').append(part3).toString();
         }
         return encoding;
     }
 
     @Override public String toString() {
-        return part1 + "." + part2 + '.' + part3;
+        return encode();
+    }
+
+    /**
+     * @return the three parts as unsigned varints, usually 11 bytes, at most 30.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[binarySize()];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+
+    public int binarySize() {
+        return VarintUtil.size(part1) + VarintUtil.size(part2) + VarintUtil.size(part3);
+    }
+
+    /**
+     * @return the offset of the next byte after this id
+     */
+    public int writeTo(byte[] bytes, int offset) {
+        offset = VarintUtil.write(bytes, offset, part1);
+        offset = VarintUtil.write(bytes, offset, part2);
+        return VarintUtil.write(bytes, offset, part3);
     }
 
     @Override public boolean equals(Object o) {
@@ -118,6 +173,9 @@ public class ID {
     }
 
     public UniqueId transform() {
-        return UniqueId.newBuilder().addIdParts(part1).addIdParts(part2).addIdParts(part3).build();
+        if (uniqueId == null) {
+            uniqueId = UniqueId.newBuilder().addIdParts(part1).addIdParts(part2).addIdParts(part3).build();
+        }
+        return uniqueId;
     }
 }
@@ -31,4 +31,8 @@ public class PropagatedTraceId extends DistributedTraceId {
         super(id);
     }
 
+    public PropagatedTraceId(ID id) {
+        super(id);
+    }
+
 }
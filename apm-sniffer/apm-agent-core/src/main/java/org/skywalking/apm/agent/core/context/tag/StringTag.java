@@ -18,6 +18,7 @@
 
 package org.skywalking.apm.agent.core.context.tag;
 
+import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
 
 /**
@@ -37,4 +38,11 @@ public class StringTag extends AbstractTag<String> {
     public void set(AbstractSpan span, String tagValue) {
         span.tag(key, tagValue);
     }
+
+    /**
+     * Set a lazy value, built when sending and cut to {@link Config.Plugin.Tag#VALUE_MAX_LENGTH}.
+     */
+    public void set(AbstractSpan span, TagValueSupplier tagValue) {
+        span.tag(key, tagValue, Config.Plugin.Tag.VALUE_MAX_LENGTH);
+    }
 }
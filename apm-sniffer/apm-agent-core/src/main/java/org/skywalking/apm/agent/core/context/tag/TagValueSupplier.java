@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.tag;
+
+import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
+
+/**
+ * 延迟计算的 Tag 值
+ *
+ * The value of a lazy tag, see {@link AbstractSpan#tag(String, TagValueSupplier, int)}. {@link #get()} is called
+ * only when the segment is sent, by the reporter thread, not the application thread. So it should only read objects
+ * which don't change after the span stops, copy the mutable ones, e.g. the parameter lists and documents reused by
+ * the drivers. Don't wrap a value which is already built or cheap to build, set it directly.
+ */
+public interface TagValueSupplier {
+    /**
+     * @return the tag value.
+     */
+    String get();
+}
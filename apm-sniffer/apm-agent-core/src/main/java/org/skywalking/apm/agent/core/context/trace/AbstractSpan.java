@@ -18,6 +18,8 @@
 
 package org.skywalking.apm.agent.core.context.trace;
 
+import org.skywalking.apm.agent.core.context.tag.TagValueSupplier;
+
 import org.skywalking.apm.network.trace.component.Component;
 
 import java.util.Map;
@@ -71,6 +73,17 @@ public interface AbstractSpan {
      */
     AbstractSpan tag(String key, String value);
 
+    /**
+     * 设置延迟计算的 Tag
+     *
+     * Set a key:value tag on the Span, the value is built by the reporter thread when the segment is sent, and cut to
+     * the max length.
+     *
+     * @param maxLength max chars of the value, no limit if not positive.
+     * @return this Span instance, for chaining
+     */
+    AbstractSpan tag(String key, TagValueSupplier value, int maxLength);
+
     /**
      * Record an exception event of the current walltime timestamp.
      *
@@ -18,14 +18,19 @@
 
 package org.skywalking.apm.agent.core.context.trace;
 
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.tag.TagValueSupplier;
+import org.skywalking.apm.agent.core.context.util.KeyValueArray;
 import org.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.skywalking.apm.agent.core.context.util.SizeEstimator;
+import org.skywalking.apm.agent.core.context.util.ThrowableFingerprintCache;
 import org.skywalking.apm.agent.core.context.util.ThrowableTransformer;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.skywalking.apm.network.proto.SpanObject;
 import org.skywalking.apm.network.proto.SpanType;
 import org.skywalking.apm.network.trace.component.Component;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -50,7 +55,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     /**
      * 键值标签数组
      */
-    protected List<KeyValuePair> tags;
+    protected KeyValueArray tags;
     /**
      * 操作名
      */
@@ -64,13 +69,18 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     protected SpanLayer layer;
     /**
-     * The start time of this Span.
+     * The start time of this Span, in microseconds.
      */
     protected long startTime;
     /**
-     * The end time of this Span.
+     * The end time of this Span, in microseconds.
      */
     protected long endTime;
+    /**
+     * The clock of the segment, see {@link TraceObjectPool}. Null if the span is created directly, then the wall
+     * clock is used.
+     */
+    SpanClock clock;
     /**
      * Error has occurred in the scope of span.
      */
@@ -89,6 +99,11 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     protected List<LogDataEntity> logs;
 
+    /**
+     * 是否已回收到对象池
+     */
+    private boolean released = false;
+
     protected AbstractTracingSpan(int spanId, int parentSpanId, String operationName) {
         this.operationName = operationName;
         this.operationId = DictionaryUtil.nullValue();
@@ -103,6 +118,53 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         this.parentSpanId = parentSpanId;
     }
 
+    /**
+     * Reset all fields as a new created span, when it is reused from {@link TraceObjectPool}. The tag and log lists are
+     * kept and cleared.
+     */
+    void reuse(int spanId, int parentSpanId, String operationName, int operationId) {
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.operationName = operationName;
+        this.operationId = operationId;
+        this.layer = null;
+        this.startTime = 0;
+        this.endTime = 0;
+        this.clock = null;
+        this.errorOccurred = false;
+        this.componentId = 0;
+        this.componentName = null;
+        if (this.tags != null) {
+            this.tags.clear();
+        }
+        if (this.logs != null) {
+            this.logs.clear();
+        }
+        this.released = false;
+    }
+
+    /**
+     * Mark this span as released into {@link TraceObjectPool}.
+     *
+     * @return false if it has been released already.
+     */
+    boolean markReleased() {
+        if (released) {
+            return false;
+        }
+        released = true;
+        return true;
+    }
+
+    /**
+     * @throws IllegalStateException if this span has been released, and may be reused by another segment.
+     */
+    protected void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("Span " + operationName + " has been released, can't be used after its segment is sent.");
+        }
+    }
+
     /**
      * Set a key:value tag on the Span.
      *
@@ -110,10 +172,21 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan tag(String key, String value) {
+        checkNotReleased();
         if (tags == null) {
-            tags = new LinkedList<KeyValuePair>();
+            tags = new KeyValueArray();
         }
-        tags.add(new KeyValuePair(key, value));
+        tags.add(key, value);
+        return this;
+    }
+
+    @Override
+    public AbstractTracingSpan tag(String key, TagValueSupplier value, int maxLength) {
+        checkNotReleased();
+        if (tags == null) {
+            tags = new KeyValueArray();
+        }
+        tags.add(key, value, maxLength);
         return this;
     }
 
@@ -124,14 +197,16 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      * @param owner of the Span.
      */
     public boolean finish(TraceSegment owner) {
-        this.endTime = System.currentTimeMillis();
+        checkNotReleased();
+        this.endTime = nowMicros();
         owner.archive(this);
         return true;
     }
 
     @Override
     public AbstractTracingSpan start() {
-        this.startTime = System.currentTimeMillis();
+        checkNotReleased();
+        this.startTime = nowMicros();
         return this;
     }
 
@@ -143,8 +218,29 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan log(Throwable t) {
+        checkNotReleased();
         if (logs == null) {
-            logs = new LinkedList<LogDataEntity>();
+            logs = new ArrayList<LogDataEntity>(1);
+        }
+        long currentTimeMillis = System.currentTimeMillis();
+        if (Config.Agent.THROWABLE_FINGERPRINT_INTERVAL > 0) {
+            long fingerprint = ThrowableFingerprintCache.INSTANCE.fingerprint(t);
+            int count = ThrowableFingerprintCache.INSTANCE.occur(fingerprint, currentTimeMillis);
+            LogDataEntity.Builder builder = new LogDataEntity.Builder()
+                .add(new KeyValuePair("event", "error"))
+                .add(new KeyValuePair("error.kind", t.getClass().getName()))
+                .add(new KeyValuePair("message", t.getMessage()));
+            // 指纹的堆栈发送到 Collector 之前，都输出完整堆栈，之后只引用指纹
+            if (!ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint)) {
+                builder.add(new KeyValuePair("stack", ThrowableTransformer.INSTANCE.convert2String(t, 4000)))
+                    .stackRendered(fingerprint);
+            }
+            builder.add(new KeyValuePair("fingerprint", ThrowableFingerprintCache.toId(fingerprint)));
+            if (count > 1) {
+                builder.add(new KeyValuePair("fingerprint.count", String.valueOf(count)));
+            }
+            logs.add(builder.build(currentTimeMillis));
+            return this;
         }
         // https://github.com/opentracing-contrib/opentracing-specification-zh/blob/master/semantic_conventions.md#log-field-%E6%B8%85%E5%8D%95
         logs.add(new LogDataEntity.Builder()
@@ -152,7 +248,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
             .add(new KeyValuePair("error.kind", t.getClass().getName()))
             .add(new KeyValuePair("message", t.getMessage()))
             .add(new KeyValuePair("stack", ThrowableTransformer.INSTANCE.convert2String(t, 4000)))
-            .build(System.currentTimeMillis()));
+            .build(currentTimeMillis));
         return this;
     }
 
@@ -164,8 +260,9 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan log(long timestampMicroseconds, Map<String, ?> fields) {
+        checkNotReleased();
         if (logs == null) {
-            logs = new LinkedList<LogDataEntity>();
+            logs = new ArrayList<LogDataEntity>(1);
         }
         LogDataEntity.Builder builder = new LogDataEntity.Builder();
         for (Map.Entry<String, ?> entry : fields.entrySet()) {
@@ -183,6 +280,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan errorOccurred() {
+        checkNotReleased();
         this.errorOccurred = true;
         return this;
     }
@@ -196,6 +294,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan setOperationName(String operationName) {
+        checkNotReleased();
         this.operationName = operationName;
         this.operationId = DictionaryUtil.nullValue();
         return this;
@@ -209,6 +308,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan setOperationId(int operationId) {
+        checkNotReleased();
         this.operationId = operationId;
         this.operationName = null;
         return this;
@@ -229,8 +329,39 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return operationName;
     }
 
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
+    /**
+     * @return the start time in milliseconds.
+     */
+    public long getStartTime() {
+        return startTime / 1000;
+    }
+
+    /**
+     * @return the end time in milliseconds.
+     */
+    public long getEndTime() {
+        return endTime / 1000;
+    }
+
+    public long getStartTimeMicros() {
+        return startTime;
+    }
+
+    public long getEndTimeMicros() {
+        return endTime;
+    }
+
+    private long nowMicros() {
+        return clock == null ? SpanClock.wallMicros() : clock.nowMicros();
+    }
+
     @Override
     public AbstractTracingSpan setLayer(SpanLayer layer) {
+        checkNotReleased();
         this.layer = layer;
         return this;
     }
@@ -243,6 +374,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan setComponent(Component component) {
+        checkNotReleased();
         this.componentId = component.getId();
         return this;
     }
@@ -255,17 +387,21 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan setComponent(String componentName) {
+        checkNotReleased();
         this.componentName = componentName;
         return this;
     }
 
     public SpanObject.Builder transform() {
+        checkNotReleased();
         SpanObject.Builder spanBuilder = SpanObject.newBuilder();
 
         spanBuilder.setSpanId(this.spanId);
         spanBuilder.setParentSpanId(parentSpanId);
-        spanBuilder.setStartTime(startTime);
-        spanBuilder.setEndTime(endTime);
+        spanBuilder.setStartTime(startTime / 1000);
+        spanBuilder.setEndTime(endTime / 1000);
+        spanBuilder.setStartTimeMicros(startTime);
+        spanBuilder.setEndTimeMicros(endTime);
         if (operationId != DictionaryUtil.nullValue()) {
             spanBuilder.setOperationNameId(operationId);
         } else {
@@ -290,16 +426,40 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         }
         spanBuilder.setIsError(errorOccurred);
         if (this.tags != null) {
-            for (KeyValuePair tag : this.tags) {
-                spanBuilder.addTags(tag.transform());
+            for (int i = 0; i < this.tags.size(); i++) {
+                spanBuilder.addTags(this.tags.transform(i));
             }
         }
         if (this.logs != null) {
-            for (LogDataEntity log : this.logs) {
-                spanBuilder.addLogs(log.transform());
+            for (int i = 0; i < this.logs.size(); i++) {
+                spanBuilder.addLogs(this.logs.get(i).transform());
             }
         }
 
         return spanBuilder;
     }
+
+    /**
+     * @return the logs of this span, or null if nothing logged.
+     */
+    public List<LogDataEntity> getLogs() {
+        return logs;
+    }
+
+    /**
+     * @return estimated memory size of this span, including tags and logs.
+     */
+    public long estimatedSize() {
+        long size = SizeEstimator.OBJECT_OVERHEAD * 4 + SizeEstimator.sizeOf(operationName) + SizeEstimator.sizeOf(componentName);
+        if (this.tags != null) {
+            size += this.tags.estimatedSize();
+        }
+        if (this.logs != null) {
+            size += SizeEstimator.LIST_OVERHEAD;
+            for (int i = 0; i < this.logs.size(); i++) {
+                size += SizeEstimator.REFERENCE_SIZE + this.logs.get(i).estimatedSize();
+            }
+        }
+        return size;
+    }
 }
@@ -18,7 +18,10 @@
 
 package org.skywalking.apm.agent.core.context.trace;
 
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.util.ThreadResourceProbe;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.skywalking.apm.network.proto.SpanObject;
 import org.skywalking.apm.network.trace.component.Component;
 
 /**
@@ -33,6 +36,9 @@ import org.skywalking.apm.network.trace.component.Component;
  * Such as: Tomcat Embed -> Dubbox
  * The <code>EntrySpan</code> represents the Dubbox span.
  *
+ * If {@link Config.Agent#ENTRY_SPAN_THREAD_RESOURCES}, the cpu time and allocated bytes of the thread, from the first
+ * start to the last finish, are recorded too. They are not recorded if the span finishes in another thread.
+ *
  * @author wusheng
  */
 public class EntrySpan extends StackBasedTracingSpan {
@@ -42,6 +48,19 @@ public class EntrySpan extends StackBasedTracingSpan {
      */
     private int currentMaxDepth;
 
+    /**
+     * 开始时线程的编号、CPU 时间、已分配字节数，-1 表示未记录
+     */
+    private long startThreadId = -1;
+    private long startCpuTime = -1;
+    private long startAllocatedBytes = -1;
+
+    /**
+     * 线程的 CPU 时间（纳秒）、分配字节数，0 表示未记录
+     */
+    private long cpuTime;
+    private long allocatedBytes;
+
     public EntrySpan(int spanId, int parentSpanId, String operationName) {
         super(spanId, parentSpanId, operationName);
         this.currentMaxDepth = 0;
@@ -52,20 +71,70 @@ public class EntrySpan extends StackBasedTracingSpan {
         this.currentMaxDepth = 0;
     }
 
+    @Override
+    void reuse(int spanId, int parentSpanId, String operationName, int operationId) {
+        super.reuse(spanId, parentSpanId, operationName, operationId);
+        this.currentMaxDepth = 0;
+        this.startThreadId = -1;
+        this.startCpuTime = -1;
+        this.startAllocatedBytes = -1;
+        this.cpuTime = 0;
+        this.allocatedBytes = 0;
+    }
+
     /**
      * Set the {@link #startTime}, when the first start, which means the first service provided.
      */
     @Override
     public EntrySpan start() {
+        checkNotReleased();
         // 只有首次启动时，设置开始时间
         if ((currentMaxDepth = ++stackDepth) == 1) {
             super.start();
+            if (Config.Agent.ENTRY_SPAN_THREAD_RESOURCES) {
+                startThreadId = Thread.currentThread().getId();
+                startCpuTime = ThreadResourceProbe.INSTANCE.currentThreadCpuTime();
+                startAllocatedBytes = ThreadResourceProbe.INSTANCE.currentThreadAllocatedBytes();
+            }
         }
         // 再次启动时，清空信息
         clearWhenRestart();
         return this;
     }
 
+    @Override
+    public boolean finish(TraceSegment owner) {
+        if (stackDepth == 1 && startThreadId == Thread.currentThread().getId()) {
+            if (startCpuTime >= 0) {
+                cpuTime = ThreadResourceProbe.INSTANCE.currentThreadCpuTime() - startCpuTime;
+            }
+            if (startAllocatedBytes >= 0) {
+                allocatedBytes = ThreadResourceProbe.INSTANCE.currentThreadAllocatedBytes() - startAllocatedBytes;
+            }
+        }
+        return super.finish(owner);
+    }
+
+    @Override
+    public SpanObject.Builder transform() {
+        SpanObject.Builder spanBuilder = super.transform();
+        if (cpuTime > 0) {
+            spanBuilder.setCpuTime(cpuTime);
+        }
+        if (allocatedBytes > 0) {
+            spanBuilder.setAllocatedBytes(allocatedBytes);
+        }
+        return spanBuilder;
+    }
+
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
     @Override
     public EntrySpan tag(String key, String value) {
         // 只有最深的栈，才设置，否则 `#clearWhenRestart()` 没有意思。
@@ -143,8 +212,12 @@ public class EntrySpan extends StackBasedTracingSpan {
         this.componentId = DictionaryUtil.nullValue();
         this.componentName = null;
         this.layer = null;
-        this.logs = null;
-        this.tags = null;
+        if (this.logs != null) {
+            this.logs.clear();
+        }
+        if (this.tags != null) {
+            this.tags.clear();
+        }
     }
 
 }
@@ -18,6 +18,7 @@
 
 package org.skywalking.apm.agent.core.context.trace;
 
+import org.skywalking.apm.agent.core.context.util.SizeEstimator;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.skywalking.apm.network.proto.SpanObject;
 import org.skywalking.apm.network.trace.component.Component;
@@ -72,11 +73,18 @@ public class ExitSpan extends StackBasedTracingSpan implements WithPeerInfo {
         this.peerId = peerId;
     }
 
+    void reuse(int spanId, int parentSpanId, String operationName, int operationId, String peer, int peerId) {
+        super.reuse(spanId, parentSpanId, operationName, operationId);
+        this.peer = peer;
+        this.peerId = peerId;
+    }
+
     /**
      * Set the {@link #startTime}, when the first start, which means the first service provided.
      */
     @Override
     public ExitSpan start() {
+        checkNotReleased();
         if (++stackDepth == 1) {
             super.start();
         }
@@ -138,6 +146,11 @@ public class ExitSpan extends StackBasedTracingSpan implements WithPeerInfo {
         return spanBuilder;
     }
 
+    @Override
+    public long estimatedSize() {
+        return super.estimatedSize() + SizeEstimator.sizeOf(peer);
+    }
+
     @Override
     public AbstractTracingSpan setOperationName(String operationName) {
         if (stackDepth == 1) {
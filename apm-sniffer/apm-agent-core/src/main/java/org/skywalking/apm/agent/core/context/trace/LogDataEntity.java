@@ -19,9 +19,10 @@
 package org.skywalking.apm.agent.core.context.trace;
 
 import org.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.skywalking.apm.agent.core.context.util.SizeEstimator;
 import org.skywalking.apm.network.proto.LogMessage;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,21 +41,45 @@ public class LogDataEntity {
      * 键值日志数组
      */
     private List<KeyValuePair> logs;
+    /**
+     * 是否输出了异常指纹的完整堆栈
+     */
+    private boolean stackRendered;
+    /**
+     * 异常指纹，{@link #stackRendered} 为 true 时有效
+     */
+    private long fingerprint;
 
-    private LogDataEntity(long timestamp, List<KeyValuePair> logs) {
+    private LogDataEntity(long timestamp, List<KeyValuePair> logs, boolean stackRendered, long fingerprint) {
         this.timestamp = timestamp;
         this.logs = logs;
+        this.stackRendered = stackRendered;
+        this.fingerprint = fingerprint;
     }
 
     public List<KeyValuePair> getLogs() {
         return logs;
     }
 
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isStackRendered() {
+        return stackRendered;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
     public static class Builder {
         protected List<KeyValuePair> logs;
+        private boolean stackRendered = false;
+        private long fingerprint;
 
         public Builder() {
-            logs = new LinkedList<KeyValuePair>();
+            logs = new ArrayList<KeyValuePair>(4);
         }
 
         public Builder add(KeyValuePair... fields) {
@@ -64,9 +89,27 @@ public class LogDataEntity {
             return this;
         }
 
+        /**
+         * Mark the stack of the fingerprint rendered in this log, see {@link
+         * org.skywalking.apm.agent.core.context.util.ThrowableFingerprintCache#stackSent(TraceSegment)}
+         */
+        public Builder stackRendered(long fingerprint) {
+            this.stackRendered = true;
+            this.fingerprint = fingerprint;
+            return this;
+        }
+
         public LogDataEntity build(long timestamp) {
-            return new LogDataEntity(timestamp, logs);
+            return new LogDataEntity(timestamp, logs, stackRendered, fingerprint);
+        }
+    }
+
+    public long estimatedSize() {
+        long size = SizeEstimator.OBJECT_OVERHEAD + SizeEstimator.LIST_OVERHEAD;
+        for (KeyValuePair log : logs) {
+            size += SizeEstimator.REFERENCE_SIZE + log.estimatedSize();
         }
+        return size;
     }
 
     public LogMessage transform() {
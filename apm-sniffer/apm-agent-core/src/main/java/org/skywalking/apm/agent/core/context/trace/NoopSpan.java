@@ -19,6 +19,7 @@
 package org.skywalking.apm.agent.core.context.trace;
 
 import org.skywalking.apm.agent.core.context.IgnoredTracerContext;
+import org.skywalking.apm.agent.core.context.tag.TagValueSupplier;
 import org.skywalking.apm.network.trace.component.Component;
 
 import java.util.Map;
@@ -67,6 +68,11 @@ public class NoopSpan implements AbstractSpan {
         return this;
     }
 
+    @Override
+    public AbstractSpan tag(String key, TagValueSupplier value, int maxLength) {
+        return this;
+    }
+
     @Override public boolean isEntry() {
         return false;
     }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context.trace;
+
+import java.util.concurrent.TimeUnit;
+import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.skywalking.apm.agent.core.metric.RequestMetricAggregator;
+
+/**
+ * 只记录请求指标的 Span
+ *
+ * The entry or exit span of a trace not sampled, which records nothing but the request metrics, by {@link
+ * RequestMetricAggregator}.
+ */
+public class RequestMetricSpan extends NoopSpan {
+
+    private final boolean entry;
+    private String name;
+    /**
+     * 开始时间，单位：纳秒，不受系统时间调整影响
+     */
+    private final long startNanos;
+    private boolean errorOccurred;
+
+    /**
+     * @param name the operation name of entry, or the peer of exit
+     */
+    public RequestMetricSpan(boolean entry, String name) {
+        this.entry = entry;
+        this.name = name;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public AbstractSpan log(Throwable t) {
+        errorOccurred = true;
+        return this;
+    }
+
+    @Override public AbstractSpan errorOccurred() {
+        errorOccurred = true;
+        return this;
+    }
+
+    @Override public AbstractSpan setOperationName(String operationName) {
+        if (entry) {
+            name = operationName;
+        }
+        return this;
+    }
+
+    public void recordMetric() {
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        RequestMetricAggregator.INSTANCE.record(entry, DictionaryUtil.nullValue(), name, cost, errorOccurred);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.trace;
+
+/**
+ * Span 时钟
+ *
+ * The clock of the spans in one {@link TraceSegment}, in microseconds. The wall time is read once when the segment
+ * starts, and the span times are derived from {@link System#nanoTime()} deltas, which have sub-millisecond precision.
+ * A segment is short, so the drift from the wall clock doesn't matter.
+ */
+public class SpanClock {
+    private long baseMicros;
+    private long baseNanos;
+
+    public SpanClock() {
+        reset();
+    }
+
+    /**
+     * Anchor the wall time again, when the segment is reused.
+     */
+    void reset() {
+        this.baseMicros = System.currentTimeMillis() * 1000;
+        this.baseNanos = System.nanoTime();
+    }
+
+    public long nowMicros() {
+        return baseMicros + (System.nanoTime() - baseNanos) / 1000;
+    }
+
+    /**
+     * @return the wall time in microseconds, with millisecond precision, for the spans without a segment clock.
+     */
+    static long wallMicros() {
+        return System.currentTimeMillis() * 1000;
+    }
+}
@@ -20,7 +20,6 @@ package org.skywalking.apm.agent.core.context.trace;
 
 import org.skywalking.apm.agent.core.dictionary.DictionaryManager;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
-import org.skywalking.apm.agent.core.dictionary.PossibleFound;
 
 /**
  * 基于栈的链路追踪 Span 抽象类
@@ -48,27 +47,20 @@ public abstract class StackBasedTracingSpan extends AbstractTracingSpan {
         this.stackDepth = 0;
     }
 
+    @Override
+    void reuse(int spanId, int parentSpanId, String operationName, int operationId) {
+        super.reuse(spanId, parentSpanId, operationName, operationId);
+        this.stackDepth = 0;
+    }
+
     @Override
     public boolean finish(TraceSegment owner) {
+        checkNotReleased();
         if (--stackDepth == 0) { // 为零，成功出栈
             // 获得 操作编号
             if (this.operationId == DictionaryUtil.nullValue()) {
-                this.operationId = (Integer)DictionaryManager.findOperationNameCodeSection()
-                    .findOrPrepare4Register(owner.getApplicationId(), operationName)
-                    .doInCondition(
-                        // 找到的处理逻辑，返回操作编号
-                        new PossibleFound.FoundAndObtain() {
-                            @Override public Object doProcess(int value) {
-                                return value;
-                            }
-                        },
-                        // 找不到的处理逻辑，返回空值
-                        new PossibleFound.NotFoundAndObtain() {
-                            @Override public Object doProcess() {
-                                return DictionaryUtil.nullValue();
-                            }
-                        }
-                    );
+                this.operationId = DictionaryManager.findOperationNameCodeSection()
+                    .findIdOrPrepare4Register(owner.getApplicationId(), operationName);
             }
             return super.finish(owner);
         } else {
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.trace;
+
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.util.ObjectPool;
+import org.skywalking.apm.agent.core.logging.api.ILog;
+import org.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * TraceSegment 和 Span 对象池
+ *
+ * Recycle the {@link TraceSegment}s and their spans after they have been transformed and sent, so high-QPS
+ * applications don't allocate them for each request. Enabled by {@link Config.Agent#OBJECT_POOL_SIZE}.
+ * <p>
+ * A released segment or span throws {@link IllegalStateException} when used, until it is reused.
+ */
+public class TraceObjectPool {
+    private static final ILog logger = LogManager.getLogger(TraceObjectPool.class);
+
+    public static final TraceObjectPool INSTANCE = new TraceObjectPool(Config.Agent.OBJECT_POOL_SIZE);
+
+    private final boolean enabled;
+
+    private final ObjectPool<TraceSegment> segments;
+
+    private final ObjectPool<EntrySpan> entrySpans;
+
+    private final ObjectPool<ExitSpan> exitSpans;
+
+    private final ObjectPool<LocalSpan> localSpans;
+
+    /**
+     * @param size max number of idle objects of each type, 0 means no pooling.
+     */
+    TraceObjectPool(int size) {
+        this.enabled = size > 0;
+        if (enabled) {
+            segments = new ObjectPool<TraceSegment>(size);
+            entrySpans = new ObjectPool<EntrySpan>(size);
+            exitSpans = new ObjectPool<ExitSpan>(size);
+            localSpans = new ObjectPool<LocalSpan>(size);
+        } else {
+            segments = null;
+            entrySpans = null;
+            exitSpans = null;
+            localSpans = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TraceSegment newSegment() {
+        if (enabled) {
+            TraceSegment segment = segments.acquire();
+            if (segment != null) {
+                segment.reuse();
+                return segment;
+            }
+        }
+        return new TraceSegment();
+    }
+
+    /**
+     * @param clock of the segment, see {@link TraceSegment#getClock()}
+     * @param operationName null if the operation id is found
+     * @param operationId {@link org.skywalking.apm.agent.core.dictionary.DictionaryUtil#nullValue()} if not found
+     */
+    public EntrySpan newEntrySpan(SpanClock clock, int spanId, int parentSpanId, String operationName,
+        int operationId) {
+        EntrySpan span = enabled ? entrySpans.acquire() : null;
+        if (span != null) {
+            span.reuse(spanId, parentSpanId, operationName, operationId);
+        } else {
+            span = operationName == null ? new EntrySpan(spanId, parentSpanId, operationId) : new EntrySpan(spanId, parentSpanId, operationName);
+        }
+        span.clock = clock;
+        return span;
+    }
+
+    /**
+     * @param clock of the segment, see {@link TraceSegment#getClock()}
+     * @param operationName null if the operation id is found
+     * @param operationId {@link org.skywalking.apm.agent.core.dictionary.DictionaryUtil#nullValue()} if not found
+     */
+    public LocalSpan newLocalSpan(SpanClock clock, int spanId, int parentSpanId, String operationName,
+        int operationId) {
+        LocalSpan span = enabled ? localSpans.acquire() : null;
+        if (span != null) {
+            span.reuse(spanId, parentSpanId, operationName, operationId);
+        } else {
+            span = operationName == null ? new LocalSpan(spanId, parentSpanId, operationId) : new LocalSpan(spanId, parentSpanId, operationName);
+        }
+        span.clock = clock;
+        return span;
+    }
+
+    /**
+     * @param clock of the segment, see {@link TraceSegment#getClock()}
+     * @param operationName null if the operation id is found
+     * @param operationId {@link org.skywalking.apm.agent.core.dictionary.DictionaryUtil#nullValue()} if not found
+     * @param peer null if the peer id is found
+     * @param peerId {@link org.skywalking.apm.agent.core.dictionary.DictionaryUtil#nullValue()} if not found
+     */
+    public ExitSpan newExitSpan(SpanClock clock, int spanId, int parentSpanId, String operationName,
+        int operationId, String peer, int peerId) {
+        ExitSpan span = enabled ? exitSpans.acquire() : null;
+        if (span != null) {
+            span.reuse(spanId, parentSpanId, operationName, operationId, peer, peerId);
+        } else if (operationName == null) {
+            span = peer == null ? new ExitSpan(spanId, parentSpanId, operationId, peerId) : new ExitSpan(spanId, parentSpanId, operationId, peer);
+        } else {
+            span = peer == null ? new ExitSpan(spanId, parentSpanId, operationName, peerId) : new ExitSpan(spanId, parentSpanId, operationName, peer);
+        }
+        span.clock = clock;
+        return span;
+    }
+
+    /**
+     * Release the segment and all its spans. Only call it when no one uses the segment any more, usually after {@link
+     * TraceSegment#transform()}.
+     */
+    public void release(TraceSegment segment) {
+        if (!enabled) {
+            return;
+        }
+        if (!segment.markReleased()) {
+            logger.warn("Trace segment {} has been released twice.", segment.getTraceSegmentId());
+            return;
+        }
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            if (!span.markReleased()) {
+                continue;
+            }
+            if (span instanceof EntrySpan) {
+                entrySpans.release((EntrySpan)span);
+            } else if (span instanceof ExitSpan) {
+                exitSpans.release((ExitSpan)span);
+            } else if (span instanceof LocalSpan) {
+                localSpans.release((LocalSpan)span);
+            }
+        }
+        segment.getSpans().clear();
+        segments.release(segment);
+    }
+}
@@ -20,10 +20,14 @@ package org.skywalking.apm.agent.core.context.trace;
 
 import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.skywalking.apm.agent.core.context.ids.*;
+import org.skywalking.apm.agent.core.context.util.SizeEstimator;
+import org.skywalking.apm.agent.core.profile.ProfileCallTree;
+import org.skywalking.apm.agent.core.profile.ThreadProfiler;
+import org.skywalking.apm.commons.datacarrier.common.ISizeable;
 import org.skywalking.apm.network.proto.TraceSegmentObject;
 import org.skywalking.apm.network.proto.UpstreamSegment;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -37,7 +41,7 @@ import java.util.List;
  *
  * @author wusheng
  */
-public class TraceSegment {
+public class TraceSegment implements ISizeable {
 
     /**
      * The id of this trace segment. Every segment has its unique-global-id.
@@ -71,27 +75,131 @@ public class TraceSegment {
 
     private boolean ignore = false;
 
+    /**
+     * False if this segment is traced only for the tail sampling, see {@link
+     * org.skywalking.apm.agent.core.conf.Config.Agent#TAIL_SAMPLING}
+     */
+    private boolean headSampled = true;
+
+    /**
+     * True if this is a chunk of a long segment, sent before the segment finishes, see {@link #takeChunk()}
+     */
+    private boolean partial = false;
+
+    /**
+     * The sequence of this chunk. For the segment itself, the number of chunks taken.
+     */
+    private int chunkSequence = 0;
+
     private boolean isSizeLimited = false;
 
+    /**
+     * 估算的内存大小，第一次使用时计算
+     */
+    private long estimatedSize = 0;
+
+    /**
+     * 是否已回收到对象池
+     */
+    private boolean released = false;
+
+    /**
+     * The clock of the spans in this segment.
+     */
+    private SpanClock clock;
+
+    /**
+     * The sampled call tree of the thread, if the entry span is slow, see {@link
+     * org.skywalking.apm.agent.core.conf.Config.Profile}
+     */
+    private ProfileCallTree profile;
+
     /**
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
         this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<AbstractTracingSpan>();
+        this.clock = new SpanClock();
+        this.spans = new ArrayList<AbstractTracingSpan>();
         // 创建 DistributedTraceIds 对象，并添加 NewDistributedTraceId 到它。
         this.relatedGlobalTraces = new DistributedTraceIds();
         this.relatedGlobalTraces.append(new NewDistributedTraceId());
     }
 
+    /**
+     * Create a chunk of the given segment, with its finished spans. The refs are not copied, they are sent with the
+     * last part of the segment.
+     */
+    private TraceSegment(TraceSegment segment) {
+        this.traceSegmentId = segment.traceSegmentId;
+        this.clock = new SpanClock();
+        this.spans = segment.spans;
+        this.relatedGlobalTraces = new DistributedTraceIds();
+        for (DistributedTraceId distributedTraceId : segment.getRelatedGlobalTraces()) {
+            this.relatedGlobalTraces.append(distributedTraceId);
+        }
+        this.headSampled = segment.headSampled;
+        this.partial = true;
+        this.chunkSequence = segment.chunkSequence;
+    }
+
+    /**
+     * Reset all fields as a new created segment, with a new segment id, when it is reused from {@link
+     * TraceObjectPool}.
+     */
+    void reuse() {
+        this.traceSegmentId = GlobalIdGenerator.generate();
+        this.clock.reset();
+        if (this.refs != null) {
+            this.refs.clear();
+        }
+        this.spans.clear();
+        this.relatedGlobalTraces = new DistributedTraceIds();
+        this.relatedGlobalTraces.append(new NewDistributedTraceId());
+        this.ignore = false;
+        this.headSampled = true;
+        this.partial = false;
+        this.chunkSequence = 0;
+        this.isSizeLimited = false;
+        this.estimatedSize = 0;
+        this.released = false;
+        this.profile = null;
+    }
+
+    /**
+     * @return false if it has been released already.
+     */
+    boolean markReleased() {
+        if (released) {
+            return false;
+        }
+        released = true;
+        return true;
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("Trace segment " + traceSegmentId + " has been released.");
+        }
+    }
+
+    public SpanClock getClock() {
+        return clock;
+    }
+
+    public List<AbstractTracingSpan> getSpans() {
+        return spans;
+    }
+
     /**
      * Establish the link between this segment and its parents.
      *
      * @param refSegment {@link TraceSegmentRef}
      */
     public void ref(TraceSegmentRef refSegment) {
+        checkNotReleased();
         if (refs == null) {
-            refs = new LinkedList<TraceSegmentRef>();
+            refs = new ArrayList<TraceSegmentRef>(1);
         }
         if (!refs.contains(refSegment)) {
             refs.add(refSegment);
@@ -112,9 +220,39 @@ public class TraceSegment {
      * @param finishedSpan
      */
     public void archive(AbstractTracingSpan finishedSpan) {
+        checkNotReleased();
         spans.add(finishedSpan);
     }
 
+    /**
+     * Move the finished spans into a partial segment of the same id, which can be sent before this one finishes, and
+     * stitched by the collector.
+     *
+     * @return the chunk
+     */
+    public TraceSegment takeChunk() {
+        checkNotReleased();
+        TraceSegment chunk = new TraceSegment(this);
+        this.spans = new ArrayList<AbstractTracingSpan>();
+        this.chunkSequence++;
+        return chunk;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * @return the number of finished spans
+     */
+    public int getSpanCount() {
+        return spans.size();
+    }
+
+    public boolean hasChunks() {
+        return !partial && chunkSequence > 0;
+    }
+
     /**
      * Finish this {@link TraceSegment}. <p> return this, for chaining
      */
@@ -123,10 +261,71 @@ public class TraceSegment {
         return this;
     }
 
+    public ProfileCallTree getProfile() {
+        return profile;
+    }
+
+    public void setProfile(ProfileCallTree profile) {
+        this.profile = profile;
+    }
+
     public ID getTraceSegmentId() {
         return traceSegmentId;
     }
 
+    /**
+     * Estimated once after finished, so the same size is acquired and released by the buffer.
+     *
+     * @return estimated memory size of this segment, including all spans and refs.
+     */
+    @Override
+    public long estimatedSize() {
+        if (estimatedSize == 0) {
+            long size = SizeEstimator.OBJECT_OVERHEAD * 4 + SizeEstimator.LIST_OVERHEAD;
+            for (int i = 0; i < spans.size(); i++) {
+                size += SizeEstimator.REFERENCE_SIZE + spans.get(i).estimatedSize();
+            }
+            if (refs != null) {
+                size += SizeEstimator.LIST_OVERHEAD;
+                for (int i = 0; i < refs.size(); i++) {
+                    size += SizeEstimator.REFERENCE_SIZE + refs.get(i).estimatedSize();
+                }
+            }
+            if (profile != null) {
+                size += profile.estimatedSize();
+            }
+            size += getRelatedGlobalTraces().size() * (SizeEstimator.LIST_NODE_OVERHEAD + SizeEstimator.OBJECT_OVERHEAD * 2);
+            estimatedSize = size;
+        }
+        return estimatedSize;
+    }
+
+    /**
+     * @return true if any span of this segment has an error.
+     */
+    public boolean isErrorOccurred() {
+        for (int i = 0; i < spans.size(); i++) {
+            if (spans.get(i).isErrorOccurred()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return milliseconds between the earliest start and the latest end of the spans, 0 if no span.
+     */
+    public long getDuration() {
+        long startTime = Long.MAX_VALUE;
+        long endTime = Long.MIN_VALUE;
+        for (int i = 0; i < spans.size(); i++) {
+            AbstractTracingSpan span = spans.get(i);
+            startTime = Math.min(startTime, span.getStartTime());
+            endTime = Math.max(endTime, span.getEndTime());
+        }
+        return endTime > startTime ? endTime - startTime : 0;
+    }
+
     public int getApplicationId() {
         return RemoteDownstreamConfig.Agent.APPLICATION_ID;
     }
@@ -155,12 +354,21 @@ public class TraceSegment {
         this.ignore = ignore;
     }
 
+    public boolean isHeadSampled() {
+        return headSampled;
+    }
+
+    public void setHeadSampled(boolean headSampled) {
+        this.headSampled = headSampled;
+    }
+
     /**
      * This is a high CPU cost method, only called when sending to collector or test cases.
      *
      * @return the segment as GRPC service parameter
      */
     public UpstreamSegment transform() {
+        checkNotReleased();
         UpstreamSegment.Builder upstreamBuilder = UpstreamSegment.newBuilder();
         for (DistributedTraceId distributedTraceId : getRelatedGlobalTraces()) {
             upstreamBuilder = upstreamBuilder.addGlobalTraceIds(distributedTraceId.toUniqueId());
@@ -172,17 +380,23 @@ public class TraceSegment {
         traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId.transform());
         // TraceSegmentReference
         if (this.refs != null) {
-            for (TraceSegmentRef ref : this.refs) {
-                traceSegmentBuilder.addRefs(ref.transform());
+            for (int i = 0; i < this.refs.size(); i++) {
+                traceSegmentBuilder.addRefs(this.refs.get(i).transform());
             }
         }
         // SpanObject
-        for (AbstractTracingSpan span : this.spans) {
-            traceSegmentBuilder.addSpans(span.transform());
+        for (int i = 0; i < this.spans.size(); i++) {
+            traceSegmentBuilder.addSpans(this.spans.get(i).transform());
         }
         traceSegmentBuilder.setApplicationId(RemoteDownstreamConfig.Agent.APPLICATION_ID);
         traceSegmentBuilder.setApplicationInstanceId(RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID);
         traceSegmentBuilder.setIsSizeLimited(this.isSizeLimited);
+        traceSegmentBuilder.setIsPartial(this.partial);
+        traceSegmentBuilder.setChunkSequence(this.chunkSequence);
+        if (this.profile != null) {
+            this.profile.transform(traceSegmentBuilder);
+            traceSegmentBuilder.setProfileInterval(ThreadProfiler.INSTANCE.getInterval());
+        }
 
         upstreamBuilder.setSegment(traceSegmentBuilder.build().toByteString());
         return upstreamBuilder.build();
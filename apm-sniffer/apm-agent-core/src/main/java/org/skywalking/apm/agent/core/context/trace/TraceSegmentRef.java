@@ -22,6 +22,7 @@ import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.skywalking.apm.agent.core.context.ContextCarrier;
 import org.skywalking.apm.agent.core.context.ContextSnapshot;
 import org.skywalking.apm.agent.core.context.ids.ID;
+import org.skywalking.apm.agent.core.context.util.SizeEstimator;
 import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.skywalking.apm.network.proto.RefType;
 import org.skywalking.apm.network.proto.TraceSegmentReference;
@@ -157,6 +158,11 @@ public class TraceSegmentRef {
         return entryApplicationInstanceId;
     }
 
+    public long estimatedSize() {
+        return SizeEstimator.OBJECT_OVERHEAD * 4 + SizeEstimator.sizeOf(peerHost)
+            + SizeEstimator.sizeOf(entryOperationName) + SizeEstimator.sizeOf(parentOperationName);
+    }
+
     public TraceSegmentReference transform() {
         TraceSegmentReference.Builder refBuilder = TraceSegmentReference.newBuilder();
         if (SegmentRefType.CROSS_PROCESS.equals(type)) {
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.util;
+
+import java.util.Arrays;
+import org.skywalking.apm.agent.core.context.tag.TagValueSupplier;
+import org.skywalking.apm.agent.core.logging.api.ILog;
+import org.skywalking.apm.agent.core.logging.api.LogManager;
+import org.skywalking.apm.network.proto.KeyWithStringValue;
+
+/**
+ * 键值对数组
+ *
+ * The <code>KeyValueArray</code> stores string key:value pairs in two parallel growable arrays, such as the tags of a
+ * span. Adding a pair doesn't create a {@link KeyValuePair} or a list node, and {@link #clear()} keeps the arrays for
+ * reuse.
+ * <p>
+ * A value can also be a {@link TagValueSupplier}, which is built and cut to its max length at the first {@link
+ * #getValue(int)}.
+ */
+public class KeyValueArray {
+    private static final ILog logger = LogManager.getLogger(KeyValueArray.class);
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] keys;
+    /**
+     * String or {@link TagValueSupplier}
+     */
+    private Object[] values;
+    /**
+     * 延迟值的最大长度，只在有延迟值时创建
+     */
+    private int[] maxLengths;
+    private int size;
+
+    public KeyValueArray() {
+        this.keys = new String[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    public void add(String key, String value) {
+        add0(key, value);
+    }
+
+    /**
+     * @param maxLength max chars of the value, no limit if not positive.
+     */
+    public void add(String key, TagValueSupplier value, int maxLength) {
+        int index = add0(key, value);
+        if (maxLengths == null) {
+            maxLengths = new int[keys.length];
+        }
+        maxLengths[index] = maxLength;
+    }
+
+    private int add0(String key, Object value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            if (maxLengths != null) {
+                maxLengths = Arrays.copyOf(maxLengths, size * 2);
+            }
+        }
+        keys[size] = key;
+        values[size] = value;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getKey(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    public String getValue(int index) {
+        checkIndex(index);
+        Object value = values[index];
+        if (value instanceof TagValueSupplier) {
+            value = build((TagValueSupplier)value, maxLengths[index]);
+            values[index] = value;
+        }
+        return (String)value;
+    }
+
+    private String build(TagValueSupplier supplier, int maxLength) {
+        String value;
+        try {
+            value = supplier.get();
+        } catch (Throwable t) {
+            logger.error(t, "Build lazy tag value fail.");
+            return null;
+        }
+        if (value != null && maxLength > 0 && value.length() > maxLength) {
+            value = value.substring(0, maxLength);
+        }
+        return value;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    public long estimatedSize() {
+        long size = SizeEstimator.OBJECT_OVERHEAD + 2 * (SizeEstimator.ARRAY_OVERHEAD + SizeEstimator.REFERENCE_SIZE * keys.length);
+        for (int i = 0; i < this.size; i++) {
+            size += SizeEstimator.sizeOf(keys[i]);
+            if (values[i] instanceof String) {
+                size += SizeEstimator.sizeOf((String)values[i]);
+            } else if (values[i] != null) {
+                // not built yet, the supplier and what it holds
+                size += SizeEstimator.OBJECT_OVERHEAD * 2;
+            }
+        }
+        return size;
+    }
+
+    public KeyWithStringValue transform(int index) {
+        checkIndex(index);
+        KeyWithStringValue.Builder keyValueBuilder = KeyWithStringValue.newBuilder();
+        keyValueBuilder.setKey(keys[index]);
+        String value = getValue(index);
+        if (value != null) {
+            keyValueBuilder.setValue(value);
+        }
+        return keyValueBuilder.build();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
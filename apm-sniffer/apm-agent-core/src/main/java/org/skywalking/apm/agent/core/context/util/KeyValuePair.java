@@ -42,6 +42,10 @@ public class KeyValuePair {
         return value;
     }
 
+    public long estimatedSize() {
+        return SizeEstimator.OBJECT_OVERHEAD + SizeEstimator.sizeOf(key) + SizeEstimator.sizeOf(value);
+    }
+
     public KeyWithStringValue transform() {
         KeyWithStringValue.Builder keyValueBuilder = KeyWithStringValue.newBuilder();
         keyValueBuilder.setKey(key);
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 有界对象池
+ *
+ * A bounded pool of recycled objects, shared by all threads. The objects are released by the consumer thread and
+ * acquired by the application threads, so they can't be kept in thread locals. {@link ArrayBlockingQueue} doesn't
+ * allocate when offering and polling.
+ */
+public class ObjectPool<T> {
+
+    private final ArrayBlockingQueue<T> idleObjects;
+
+    public ObjectPool(int capacity) {
+        this.idleObjects = new ArrayBlockingQueue<T>(capacity);
+    }
+
+    /**
+     * @return an idle object, or null if the pool is empty.
+     */
+    public T acquire() {
+        return idleObjects.poll();
+    }
+
+    /**
+     * @return false if the pool is full, the object is left to GC.
+     */
+    public boolean release(T object) {
+        return idleObjects.offer(object);
+    }
+
+    public int size() {
+        return idleObjects.size();
+    }
+}
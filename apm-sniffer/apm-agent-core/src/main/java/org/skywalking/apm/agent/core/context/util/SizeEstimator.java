@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.util;
+
+/**
+ * 内存大小估算
+ *
+ * Rough memory size of the trace objects, used by the byte budget of the segment buffer. It only needs to be stable and
+ * proportional, not exact.
+ */
+public final class SizeEstimator {
+    /**
+     * header and fields of a small object
+     */
+    public static final int OBJECT_OVERHEAD = 16;
+
+    /**
+     * header of a list and its node of each element
+     */
+    public static final int LIST_OVERHEAD = 32;
+    public static final int LIST_NODE_OVERHEAD = 24;
+
+    /**
+     * header of an array and its slot of each element
+     */
+    public static final int ARRAY_OVERHEAD = 16;
+    public static final int REFERENCE_SIZE = 4;
+
+    private SizeEstimator() {
+    }
+
+    public static long sizeOf(String value) {
+        if (value == null) {
+            return 0;
+        }
+        // String object, char[] header and 2 bytes per char
+        return 40 + 2L * value.length();
+    }
+}
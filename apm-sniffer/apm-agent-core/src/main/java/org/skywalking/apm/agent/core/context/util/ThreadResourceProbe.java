@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 线程资源探针
+ *
+ * Reads the cpu time and the allocated bytes of the current thread. The allocated bytes are only available through
+ * <code>com.sun.management.ThreadMXBean</code>, detected once, so the reads cost nothing more than the JVM calls.
+ */
+public enum ThreadResourceProbe {
+    INSTANCE;
+
+    private final ThreadMXBean threadMXBean;
+    private final boolean cpuTimeSupported;
+    private final com.sun.management.ThreadMXBean allocationMXBean;
+
+    ThreadResourceProbe() {
+        ThreadMXBean bean = null;
+        boolean cpuTime = false;
+        com.sun.management.ThreadMXBean allocation = null;
+        try {
+            bean = ManagementFactory.getThreadMXBean();
+            cpuTime = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean)bean;
+                if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                    allocation = sunBean;
+                }
+            }
+        } catch (Throwable t) {
+            // 非 HotSpot 的 JVM 可能不存在 com.sun.management.ThreadMXBean
+        }
+        this.threadMXBean = bean;
+        this.cpuTimeSupported = cpuTime;
+        this.allocationMXBean = allocation;
+    }
+
+    /**
+     * @return the cpu time of the current thread in nanoseconds, or -1 if not supported.
+     */
+    public long currentThreadCpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread, or -1 if not supported.
+     */
+    public long currentThreadAllocatedBytes() {
+        return allocationMXBean != null ? allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+}
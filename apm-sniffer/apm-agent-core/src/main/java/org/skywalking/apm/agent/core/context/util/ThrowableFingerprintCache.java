@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context.util;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.skywalking.apm.agent.core.context.trace.LogDataEntity;
+import org.skywalking.apm.agent.core.context.trace.TraceSegment;
+
+/**
+ * 异常指纹缓存
+ *
+ * The fingerprint of a {@link Throwable} is the hash of its class and its top stack frames. In each {@link
+ * Config.Agent#THROWABLE_FINGERPRINT_INTERVAL}, the stack of a fingerprint is rendered until a segment carrying it has
+ * been sent, see {@link #stackSent(TraceSegment)}. The following occurrences in the interval refer to the fingerprint
+ * and count, the collector persists the rendered stacks and resolves them at read time.
+ */
+public enum ThrowableFingerprintCache {
+    INSTANCE;
+
+    private static final int TOP_FRAMES = 5;
+
+    /**
+     * The cache is cleared when over it, then each fingerprint is rendered once more.
+     */
+    private static final int MAX_SIZE = 1000;
+
+    private final ConcurrentHashMap<Long, Occurrences> fingerprints = new ConcurrentHashMap<Long, Occurrences>();
+
+    public long fingerprint(Throwable throwable) {
+        long hash = mix(0xcbf29ce484222325L, throwable.getClass().getName().hashCode());
+        StackTraceElement[] stackTrace = throwable.getStackTrace();
+        for (int i = 0; i < stackTrace.length && i < TOP_FRAMES; i++) {
+            StackTraceElement element = stackTrace[i];
+            hash = mix(hash, element.getClassName().hashCode());
+            hash = mix(hash, element.getMethodName().hashCode());
+            hash = mix(hash, element.getLineNumber());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    /**
+     * @return the occurrence count of the fingerprint in the current interval.
+     */
+    public int occur(long fingerprint, long currentTimeMillis) {
+        Occurrences occurrences = fingerprints.get(fingerprint);
+        if (occurrences == null) {
+            if (fingerprints.size() >= MAX_SIZE) {
+                fingerprints.clear();
+            }
+            occurrences = new Occurrences(currentTimeMillis);
+            Occurrences previous = fingerprints.putIfAbsent(fingerprint, occurrences);
+            if (previous == null) {
+                return 1;
+            }
+            occurrences = previous;
+        }
+        if (currentTimeMillis - occurrences.intervalStartTime >= Config.Agent.THROWABLE_FINGERPRINT_INTERVAL) {
+            synchronized (occurrences) {
+                if (currentTimeMillis - occurrences.intervalStartTime >= Config.Agent.THROWABLE_FINGERPRINT_INTERVAL) {
+                    occurrences.intervalStartTime = currentTimeMillis;
+                    occurrences.stackSent = false;
+                    occurrences.count.set(1);
+                    return 1;
+                }
+            }
+        }
+        return occurrences.count.incrementAndGet();
+    }
+
+    /**
+     * @return true if a segment carrying the stack of the fingerprint has been sent in the current interval, then the
+     * stack needn't be rendered again.
+     */
+    public boolean isStackSent(long fingerprint) {
+        Occurrences occurrences = fingerprints.get(fingerprint);
+        return occurrences != null && occurrences.stackSent;
+    }
+
+    /**
+     * Confirm the stacks rendered in the segment, after it has been sent to the collector. A segment lost before, e.g.
+     * abandoned by a full buffer or discarded by the tail sampling, confirms nothing, so the next occurrence renders
+     * the stack again.
+     */
+    public void stackSent(TraceSegment segment) {
+        List<AbstractTracingSpan> spans = segment.getSpans();
+        for (int i = 0; i < spans.size(); i++) {
+            List<LogDataEntity> logs = spans.get(i).getLogs();
+            if (logs == null) {
+                continue;
+            }
+            for (int j = 0; j < logs.size(); j++) {
+                LogDataEntity log = logs.get(j);
+                if (log.isStackRendered()) {
+                    stackSent(log.getFingerprint(), log.getTimestamp());
+                }
+            }
+        }
+    }
+
+    void stackSent(long fingerprint, long timestamp) {
+        Occurrences occurrences = fingerprints.get(fingerprint);
+        if (occurrences == null) {
+            return;
+        }
+        synchronized (occurrences) {
+            // 上一个周期输出的堆栈，不确认当前周期
+            if (timestamp >= occurrences.intervalStartTime) {
+                occurrences.stackSent = true;
+            }
+        }
+    }
+
+    public static String toId(long fingerprint) {
+        return Long.toHexString(fingerprint);
+    }
+
+    private static class Occurrences {
+        private volatile long intervalStartTime;
+        private volatile boolean stackSent = false;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        private Occurrences(long intervalStartTime) {
+            this.intervalStartTime = intervalStartTime;
+        }
+    }
+}
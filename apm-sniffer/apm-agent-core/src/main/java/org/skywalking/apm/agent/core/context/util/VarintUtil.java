@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context.util;
+
+/**
+ * 变长整数编解码
+ *
+ * Unsigned LEB128 varints, 7 bits per byte with the high bit as the continuation flag, used by the binary forms of
+ * {@link org.skywalking.apm.agent.core.context.ids.ID} and the carrier.
+ */
+public final class VarintUtil {
+
+    private VarintUtil() {
+    }
+
+    public static int size(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * @return the offset of the next byte after the varint
+     */
+    public static int write(byte[] bytes, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[offset++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte)value;
+        return offset;
+    }
+
+    /**
+     * @param offset in and out, moved to the next byte after the varint
+     * @return the value, or -1 and {@code offset} moved beyond the bytes if truncated
+     */
+    public static long read(byte[] bytes, int[] offset) {
+        long value = 0;
+        for (int shift = 0; shift < 64 && offset[0] < bytes.length; shift += 7) {
+            byte b = bytes[offset[0]++];
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        offset[0] = bytes.length + 1;
+        return -1;
+    }
+}
@@ -24,9 +24,7 @@ import org.skywalking.apm.network.proto.ApplicationMapping;
 import org.skywalking.apm.network.proto.ApplicationRegisterServiceGrpc;
 import org.skywalking.apm.network.proto.KeyWithIntegerValue;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.skywalking.apm.agent.core.conf.Config.Dictionary.APPLICATION_CODE_BUFFER_SIZE;
 
@@ -47,23 +45,31 @@ public enum ApplicationDictionary {
     /**
      * 应用编码与应用编号的映射
      */
-    private Map<String, Integer> applicationDictionary = new ConcurrentHashMap<String, Integer>();
+    private StringIntMap applicationDictionary = new StringIntMap();
     /**
      * 未知应用编码集合
      */
     private Set<String> unRegisterApplications = new ConcurrentSet<String>();
 
     public PossibleFound find(String applicationCode) {
-        Integer applicationId = applicationDictionary.get(applicationCode);
-        if (applicationId != null) {
-            return new Found(applicationId);
-        } else {
+        int applicationId = findId(applicationCode);
+        return DictionaryUtil.isNull(applicationId) ? new NotFound() : new Found(applicationId);
+    }
+
+    /**
+     * 查找应用编号，未找到时准备注册
+     *
+     * @return the application id, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     */
+    public int findId(String applicationCode) {
+        int applicationId = applicationDictionary.get(applicationCode);
+        if (DictionaryUtil.isNull(applicationId)) {
             // 添加到 unRegisterApplications
             if (applicationDictionary.size() + unRegisterApplications.size() < APPLICATION_CODE_BUFFER_SIZE) {
                 unRegisterApplications.add(applicationCode);
             }
-            return new NotFound();
         }
+        return applicationId;
     }
 
     /**
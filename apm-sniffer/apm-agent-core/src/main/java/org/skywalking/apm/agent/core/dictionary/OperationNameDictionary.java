@@ -21,9 +21,7 @@ package org.skywalking.apm.agent.core.dictionary;
 import io.netty.util.internal.ConcurrentSet;
 import org.skywalking.apm.network.proto.*;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.skywalking.apm.agent.core.conf.Config.Dictionary.OPERATION_NAME_BUFFER_SIZE;
 
@@ -38,38 +36,89 @@ public enum OperationNameDictionary {
     INSTANCE;
 
     /**
-     * 操作名与操作编号的映射
+     * 各应用的操作名与操作编号的映射
+     *
+     * Operation name maps, one per application. There are only a few applications, so a copy-on-write array is
+     * scanned, rather than boxing the application id as a map key.
      */
-    private Map<OperationNameKey, Integer> operationNameDictionary = new ConcurrentHashMap<OperationNameKey, Integer>();
+    private volatile ApplicationOperationNames[] operationNameDictionary = new ApplicationOperationNames[0];
     /**
      * 未注册的操作名集合
      */
     private Set<OperationNameKey> unRegisterOperationNames = new ConcurrentSet<OperationNameKey>();
 
     public PossibleFound findOrPrepare4Register(int applicationId, String operationName) {
-        return find0(applicationId, operationName, true);
+        return toPossibleFound(findIdOrPrepare4Register(applicationId, operationName));
     }
 
     public PossibleFound findOnly(int applicationId, String operationName) {
+        return toPossibleFound(findIdOnly(applicationId, operationName));
+    }
+
+    /**
+     * 查找操作编号，未找到时准备注册
+     *
+     * @return the operation id, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     */
+    public int findIdOrPrepare4Register(int applicationId, String operationName) {
+        return find0(applicationId, operationName, true);
+    }
+
+    /**
+     * @return the operation id, or {@link DictionaryUtil#nullValue()} if not registered yet.
+     */
+    public int findIdOnly(int applicationId, String operationName) {
         return find0(applicationId, operationName, false);
     }
 
-    private PossibleFound find0(int applicationId, String operationName, boolean registerWhenNotFound) {
+    private int find0(int applicationId, String operationName, boolean registerWhenNotFound) {
         if (operationName == null || operationName.length() == 0) {
-            return new NotFound();
+            return DictionaryUtil.nullValue();
         }
-        OperationNameKey key = new OperationNameKey(applicationId, operationName);
-        Integer operationId = operationNameDictionary.get(key);
-        if (operationId != null) {
-            return new Found(operationId);
-        } else {
+        StringIntMap operationNames = operationNamesOf(applicationId);
+        int operationId = operationNames == null ? DictionaryUtil.nullValue() : operationNames.get(operationName);
+        if (DictionaryUtil.isNull(operationId)) {
             // 添加到 unRegisterOperationNames
             if (registerWhenNotFound &&
-                operationNameDictionary.size() + unRegisterOperationNames.size() < OPERATION_NAME_BUFFER_SIZE) {
-                unRegisterOperationNames.add(key);
+                registeredSize() + unRegisterOperationNames.size() < OPERATION_NAME_BUFFER_SIZE) {
+                unRegisterOperationNames.add(new OperationNameKey(applicationId, operationName));
             }
-            return new NotFound();
         }
+        return operationId;
+    }
+
+    private PossibleFound toPossibleFound(int operationId) {
+        return DictionaryUtil.isNull(operationId) ? new NotFound() : new Found(operationId);
+    }
+
+    private StringIntMap operationNamesOf(int applicationId) {
+        for (ApplicationOperationNames application : operationNameDictionary) {
+            if (application.applicationId == applicationId) {
+                return application.operationNames;
+            }
+        }
+        return null;
+    }
+
+    private synchronized StringIntMap getOrCreateOperationNames(int applicationId) {
+        StringIntMap operationNames = operationNamesOf(applicationId);
+        if (operationNames == null) {
+            ApplicationOperationNames[] current = operationNameDictionary;
+            ApplicationOperationNames[] applications = new ApplicationOperationNames[current.length + 1];
+            System.arraycopy(current, 0, applications, 0, current.length);
+            applications[current.length] = new ApplicationOperationNames(applicationId);
+            operationNameDictionary = applications;
+            operationNames = applications[current.length].operationNames;
+        }
+        return operationNames;
+    }
+
+    private int registeredSize() {
+        int size = 0;
+        for (ApplicationOperationNames application : operationNameDictionary) {
+            size += application.operationNames.size();
+        }
+        return size;
     }
 
     public void syncRemoteDictionary(
@@ -92,12 +141,22 @@ public enum OperationNameDictionary {
                         serviceNameMappingElement.getElement().getApplicationId(),
                         serviceNameMappingElement.getElement().getServiceName());
                     unRegisterOperationNames.remove(key);
-                    operationNameDictionary.put(key, serviceNameMappingElement.getServiceId());
+                    getOrCreateOperationNames(key.getApplicationId())
+                        .put(key.getOperationName(), serviceNameMappingElement.getServiceId());
                 }
             }
         }
     }
 
+    private static class ApplicationOperationNames {
+        private final int applicationId;
+        private final StringIntMap operationNames = new StringIntMap();
+
+        private ApplicationOperationNames(int applicationId) {
+            this.applicationId = applicationId;
+        }
+    }
+
     /**
      * 操作名 Key
      */
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.dictionary;
+
+/**
+ * 字符串到编号的开放寻址映射
+ *
+ * An open-addressing map from String to int id, for the dictionaries. {@link #get(String)} doesn't allocate, it is
+ * called for each span.
+ * <p>
+ * Only one thread writes at a time, and keys are never removed. A reader may miss a key being put, and gets {@link
+ * DictionaryUtil#nullValue()}, the same as before the key is registered. The table is published by a volatile write
+ * after each put.
+ */
+public class StringIntMap {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile Table table;
+
+    private volatile int size;
+
+    public StringIntMap() {
+        this.table = new Table(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @return the id, or {@link DictionaryUtil#nullValue()} if not found.
+     */
+    public int get(String key) {
+        Table table = this.table;
+        String[] keys = table.keys;
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            String existing = keys[index];
+            if (existing == null) {
+                return DictionaryUtil.nullValue();
+            }
+            if (existing == key || existing.equals(key)) {
+                return table.values[index];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public synchronized void put(String key, int value) {
+        Table table = this.table;
+        if ((size + 1) * 2 > table.keys.length) {
+            Table resized = new Table(table.keys.length * 2);
+            for (int i = 0; i < table.keys.length; i++) {
+                if (table.keys[i] != null) {
+                    resized.insert(table.keys[i], table.values[i]);
+                }
+            }
+            table = resized;
+        }
+        if (table.insert(key, value)) {
+            size++;
+        }
+        // publish
+        this.table = table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static class Table {
+        private final String[] keys;
+        private final int[] values;
+
+        private Table(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new int[capacity];
+        }
+
+        /**
+         * @return true if the key is new.
+         */
+        private boolean insert(String key, int value) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) {
+                    values[index] = value;
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            // value first, a reader seeing the key sees the value after the volatile publish.
+            values[index] = value;
+            keys[index] = key;
+            return true;
+        }
+    }
+}
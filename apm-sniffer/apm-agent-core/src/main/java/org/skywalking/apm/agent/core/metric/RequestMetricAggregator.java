@@ -0,0 +1,261 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.metric;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.skywalking.apm.agent.core.dictionary.ApplicationDictionary;
+import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.skywalking.apm.agent.core.dictionary.OperationNameDictionary;
+import org.skywalking.apm.network.proto.RequestMetric;
+import org.skywalking.apm.network.proto.SpanType;
+
+/**
+ * 请求指标聚合器
+ *
+ * Aggregates the calls, errors and latency histogram of every request, sampled or not, by entry operation and by
+ * exit peer. The targets are kept by id if registered, otherwise by name until the name is registered.
+ * <p>
+ * Each window has its own counters, removed from the targets when drained. A record finding the removed counters
+ * retries with the new ones. The removed counters are read again by the next drains, until no record is in progress on
+ * them, so the records racing with the drain are reported in the next window, and no record is lost.
+ */
+public enum RequestMetricAggregator {
+    INSTANCE;
+
+    private final Targets entries = new Targets(SpanType.Entry);
+    private final Targets exits = new Targets(SpanType.Exit);
+
+    /**
+     * @param targetId the operation id of entry, or the peer id of exit, {@link DictionaryUtil#nullValue()} if not
+     * registered yet.
+     * @param targetName the operation name of entry, or the peer of exit, used when the id is not registered.
+     */
+    public void record(boolean entry, int targetId, String targetName, long cost, boolean error) {
+        Targets targets = entry ? entries : exits;
+        while (true) {
+            Stats stats = targets.find(targetId, targetName);
+            if (stats == null || stats.tryRecord(cost, error)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Take the metrics aggregated since last time. The ones with a name not registered yet are kept.
+     */
+    synchronized List<RequestMetric> drain(long currentTimeMillis) {
+        List<RequestMetric> metrics = new LinkedList<RequestMetric>();
+        entries.drain(currentTimeMillis, metrics);
+        exits.drain(currentTimeMillis, metrics);
+        return metrics;
+    }
+
+    private static class Targets {
+        private final SpanType type;
+        private final ConcurrentHashMap<Integer, Stats> byId = new ConcurrentHashMap<Integer, Stats>();
+        private final ConcurrentHashMap<String, Stats> byName = new ConcurrentHashMap<String, Stats>();
+        /**
+         * removed by the drains, read again until no record is in progress on them
+         */
+        private List<Stats> removed = new ArrayList<Stats>();
+
+        private Targets(SpanType type) {
+            this.type = type;
+        }
+
+        private Stats find(int targetId, String targetName) {
+            if (!DictionaryUtil.isNull(targetId)) {
+                return findOrCreate(byId, targetId);
+            } else if (targetName != null) {
+                return findOrCreate(byName, targetName);
+            }
+            return null;
+        }
+
+        private <K> Stats findOrCreate(ConcurrentHashMap<K, Stats> targets, K key) {
+            Stats stats = targets.get(key);
+            if (stats == null) {
+                if (byId.size() + byName.size() >= Config.Metric.MAX_TARGETS) {
+                    return null;
+                }
+                stats = new Stats();
+                Stats previous = targets.putIfAbsent(key, stats);
+                if (previous != null) {
+                    stats = previous;
+                }
+            }
+            return stats;
+        }
+
+        private void drain(long currentTimeMillis, List<RequestMetric> metrics) {
+            // 已移除的 Stats 可能仍被并发的请求累加，再读取一次
+            List<Stats> recording = new ArrayList<Stats>();
+            for (Stats stats : removed) {
+                // 先检查再读取，无进行中的记录时，读取到的是最终计数
+                boolean finished = stats.recording.get() == 0;
+                stats.drainTo(type, currentTimeMillis, metrics);
+                if (!finished) {
+                    recording.add(stats);
+                }
+            }
+            removed = recording;
+            // 移除本窗口的计数，之后的请求记录到新的 Stats
+            for (Map.Entry<Integer, Stats> target : byId.entrySet()) {
+                if (byId.remove(target.getKey(), target.getValue())) {
+                    drainRemoved(target.getValue(), target.getKey(), currentTimeMillis, metrics);
+                }
+            }
+            for (Map.Entry<String, Stats> target : byName.entrySet()) {
+                int targetId = resolve(target.getKey());
+                if (!DictionaryUtil.isNull(targetId) && byName.remove(target.getKey(), target.getValue())) {
+                    drainRemoved(target.getValue(), targetId, currentTimeMillis, metrics);
+                }
+            }
+        }
+
+        private void drainRemoved(Stats stats, int targetId, long currentTimeMillis, List<RequestMetric> metrics) {
+            stats.targetId = targetId;
+            stats.removed = true;
+            stats.drainTo(type, currentTimeMillis, metrics);
+            removed.add(stats);
+        }
+
+        private int resolve(String targetName) {
+            if (type == SpanType.Entry) {
+                return OperationNameDictionary.INSTANCE.findIdOrPrepare4Register(RemoteDownstreamConfig.Agent.APPLICATION_ID, targetName);
+            } else {
+                return ApplicationDictionary.INSTANCE.findId(targetName);
+            }
+        }
+    }
+
+    /**
+     * 可合并的计数，延迟分布与 Collector 的 s1_lte / s3_lte / s5_lte / s5_gt 一致
+     */
+    private static class Stats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong error = new AtomicLong();
+        private final AtomicLong costTotal = new AtomicLong();
+        private final AtomicLong s1Lte = new AtomicLong();
+        private final AtomicLong s3Lte = new AtomicLong();
+        private final AtomicLong s5Lte = new AtomicLong();
+        private final AtomicLong s5Gt = new AtomicLong();
+        /**
+         * number of records in progress
+         */
+        private final AtomicInteger recording = new AtomicInteger();
+        /**
+         * set when removed from the targets, no record starts after it
+         */
+        private volatile boolean removed;
+        /**
+         * set when removed from the targets, only used by the drain
+         */
+        private int targetId;
+        /**
+         * the counts reported by the previous drains, only used by the drain
+         */
+        private long reportedCalls;
+        private long reportedError;
+        private long reportedCostTotal;
+        private long reportedS1Lte;
+        private long reportedS3Lte;
+        private long reportedS5Lte;
+        private long reportedS5Gt;
+
+        /**
+         * @return false if this has been removed from the targets, the caller should find the new one.
+         */
+        private boolean tryRecord(long cost, boolean isError) {
+            recording.incrementAndGet();
+            try {
+                if (removed) {
+                    return false;
+                }
+                record(cost, isError);
+                return true;
+            } finally {
+                recording.decrementAndGet();
+            }
+        }
+
+        private void record(long cost, boolean isError) {
+            calls.incrementAndGet();
+            costTotal.addAndGet(cost);
+            if (isError) {
+                error.incrementAndGet();
+            }
+            if (cost <= 1000) {
+                s1Lte.incrementAndGet();
+            } else if (cost <= 3000) {
+                s3Lte.incrementAndGet();
+            } else if (cost <= 5000) {
+                s5Lte.incrementAndGet();
+            } else {
+                s5Gt.incrementAndGet();
+            }
+        }
+
+        /**
+         * Called after this is removed from the targets, and again by the next drains, until no record is in progress.
+         * Reports the counts since the previous call.
+         */
+        private void drainTo(SpanType type, long currentTimeMillis, List<RequestMetric> metrics) {
+            long currentCalls = calls.get();
+            long currentError = error.get();
+            long currentCostTotal = costTotal.get();
+            long currentS1Lte = s1Lte.get();
+            long currentS3Lte = s3Lte.get();
+            long currentS5Lte = s5Lte.get();
+            long currentS5Gt = s5Gt.get();
+            // 各计数只增不减，全部未变则无新记录
+            if (currentCalls == reportedCalls && currentError == reportedError && currentCostTotal == reportedCostTotal
+                && currentS1Lte + currentS3Lte + currentS5Lte + currentS5Gt == reportedS1Lte + reportedS3Lte + reportedS5Lte + reportedS5Gt) {
+                return;
+            }
+            metrics.add(RequestMetric.newBuilder()
+                .setTime(currentTimeMillis)
+                .setType(type)
+                .setTargetId(targetId)
+                .setCalls(currentCalls - reportedCalls)
+                .setError(currentError - reportedError)
+                .setCostTotal(currentCostTotal - reportedCostTotal)
+                .setS1Lte(currentS1Lte - reportedS1Lte)
+                .setS3Lte(currentS3Lte - reportedS3Lte)
+                .setS5Lte(currentS5Lte - reportedS5Lte)
+                .setS5Gt(currentS5Gt - reportedS5Gt)
+                .build());
+            reportedCalls = currentCalls;
+            reportedError = currentError;
+            reportedCostTotal = currentCostTotal;
+            reportedS1Lte = currentS1Lte;
+            reportedS3Lte = currentS3Lte;
+            reportedS5Lte = currentS5Lte;
+            reportedS5Gt = currentS5Gt;
+        }
+    }
+}
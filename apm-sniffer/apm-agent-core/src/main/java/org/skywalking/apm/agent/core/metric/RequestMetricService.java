@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.metric;
+
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.skywalking.apm.agent.core.boot.BootService;
+import org.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.skywalking.apm.agent.core.boot.ServiceManager;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.skywalking.apm.agent.core.logging.api.ILog;
+import org.skywalking.apm.agent.core.logging.api.LogManager;
+import org.skywalking.apm.agent.core.remote.GRPCChannelListener;
+import org.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.skywalking.apm.network.proto.RequestMetric;
+import org.skywalking.apm.network.proto.RequestMetricServiceGrpc;
+import org.skywalking.apm.network.proto.RequestMetrics;
+
+import static org.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
+
+/**
+ * 请求指标服务，定时将 {@link RequestMetricAggregator} 聚合的指标发送给 Collector
+ *
+ * The metrics are kept aggregating while disconnected, and sent once connected.
+ */
+public class RequestMetricService implements BootService, Runnable, GRPCChannelListener {
+
+    private static final ILog logger = LogManager.getLogger(RequestMetricService.class);
+
+    private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    private volatile RequestMetricServiceGrpc.RequestMetricServiceBlockingStub stub = null;
+    private volatile ScheduledFuture<?> sendMetricFuture;
+
+    @Override
+    public void beforeBoot() throws Throwable {
+        if (Config.Metric.ACTIVE) {
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
+        }
+    }
+
+    @Override
+    public void boot() throws Throwable {
+        if (Config.Metric.ACTIVE) {
+            sendMetricFuture = Executors
+                .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("RequestMetricService"))
+                .scheduleAtFixedRate(this, Config.Metric.FLUSH_INTERVAL, Config.Metric.FLUSH_INTERVAL, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void afterBoot() throws Throwable {
+
+    }
+
+    @Override
+    public void shutdown() throws Throwable {
+        if (sendMetricFuture != null) {
+            sendMetricFuture.cancel(true);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (RemoteDownstreamConfig.Agent.APPLICATION_ID != DictionaryUtil.nullValue()
+            && RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID != DictionaryUtil.nullValue()
+            && status == GRPCChannelStatus.CONNECTED) {
+            try {
+                List<RequestMetric> metrics = RequestMetricAggregator.INSTANCE.drain(System.currentTimeMillis());
+                if (metrics.size() > 0) {
+                    RequestMetrics.Builder builder = RequestMetrics.newBuilder();
+                    builder.setApplicationId(RemoteDownstreamConfig.Agent.APPLICATION_ID);
+                    builder.setApplicationInstanceId(RemoteDownstreamConfig.Agent.APPLICATION_INSTANCE_ID);
+                    builder.addAllMetrics(metrics);
+                    stub.collect(builder.build());
+                }
+            } catch (Throwable t) {
+                logger.error(t, "send request metrics to Collector fail.");
+            }
+        }
+    }
+
+    @Override
+    public void statusChanged(GRPCChannelStatus status) {
+        if (CONNECTED.equals(status)) {
+            ManagedChannel channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class).getManagedChannel();
+            stub = RequestMetricServiceGrpc.newBlockingStub(channel);
+        }
+        this.status = status;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.profile;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.util.SizeEstimator;
+import org.skywalking.apm.network.proto.ProfileNode;
+import org.skywalking.apm.network.proto.TraceSegmentObject;
+
+/**
+ * 采样调用树
+ *
+ * The sampled stacks of a thread, merged from the outermost frame, so each node counts the samples in its frame or its
+ * callees. The nodes are bounded by {@link Config.Profile#MAX_NODES}.
+ * <p>
+ * A stack of {@link Config.Profile#MAX_DEPTH} frames may be cut, its outermost frame isn't the root of the thread. Such
+ * stacks are merged under the {@link #TRUNCATED} root, so they don't pose as the callees of a real root.
+ * <p>
+ * Not thread safe, guarded by its {@link ProfileTask}.
+ */
+public class ProfileCallTree {
+    /**
+     * The frame name of the root of the truncated stacks.
+     */
+    public static final String TRUNCATED = "[truncated]";
+
+    private final List<Node> roots = new ArrayList<Node>(1);
+
+    private int nodeCount = 0;
+
+    private int sampleCount = 0;
+
+    /**
+     * @param stack the frames from the innermost one, as {@link Thread#getStackTrace()}
+     */
+    void addSample(StackTraceElement[] stack) {
+        if (stack == null || stack.length == 0) {
+            return;
+        }
+        sampleCount++;
+        List<Node> siblings = roots;
+        if (stack.length >= Config.Profile.MAX_DEPTH) {
+            Node truncated = find(siblings, null);
+            if (truncated == null) {
+                if (nodeCount >= Config.Profile.MAX_NODES) {
+                    return;
+                }
+                truncated = new Node(null);
+                siblings.add(truncated);
+                nodeCount++;
+            }
+            truncated.count++;
+            siblings = truncated.children;
+        }
+        for (int i = stack.length - 1; i >= 0; i--) {
+            Node node = find(siblings, stack[i]);
+            if (node == null) {
+                if (nodeCount >= Config.Profile.MAX_NODES) {
+                    return;
+                }
+                node = new Node(stack[i]);
+                siblings.add(node);
+                nodeCount++;
+            }
+            node.count++;
+            siblings = node.children;
+        }
+    }
+
+    private Node find(List<Node> siblings, StackTraceElement frame) {
+        for (int i = 0; i < siblings.size(); i++) {
+            Node node = siblings.get(i);
+            if (node.frame == null ? frame == null : node.frame.equals(frame)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public long estimatedSize() {
+        return SizeEstimator.LIST_OVERHEAD + (long)nodeCount * (SizeEstimator.OBJECT_OVERHEAD + SizeEstimator.LIST_OVERHEAD + SizeEstimator.REFERENCE_SIZE * 2);
+    }
+
+    /**
+     * Add the nodes to the given segment in pre-order, so a parent always comes before its children.
+     */
+    public void transform(TraceSegmentObject.Builder segmentBuilder) {
+        int[] idGenerator = new int[] {0};
+        for (int i = 0; i < roots.size(); i++) {
+            transform(segmentBuilder, roots.get(i), -1, idGenerator);
+        }
+    }
+
+    private void transform(TraceSegmentObject.Builder segmentBuilder, Node node, int parentId, int[] idGenerator) {
+        int id = idGenerator[0]++;
+        StackTraceElement frame = node.frame;
+        segmentBuilder.addProfileNodes(ProfileNode.newBuilder()
+            .setId(id)
+            .setParentId(parentId)
+            .setFrame(frame == null ? TRUNCATED : frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+            .setCount(node.count));
+        for (int i = 0; i < node.children.size(); i++) {
+            transform(segmentBuilder, node.children.get(i), id, idGenerator);
+        }
+    }
+
+    private static class Node {
+        /**
+         * null for the root of the truncated stacks
+         */
+        private final StackTraceElement frame;
+        private final List<Node> children = new ArrayList<Node>(1);
+        private int count = 0;
+
+        private Node(StackTraceElement frame) {
+            this.frame = frame;
+        }
+    }
+}
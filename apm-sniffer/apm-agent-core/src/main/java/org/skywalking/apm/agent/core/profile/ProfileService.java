@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.profile;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.skywalking.apm.agent.core.boot.BootService;
+import org.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.logging.api.ILog;
+import org.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * 慢链路采样服务，定时触发 {@link ThreadProfiler} 采样
+ */
+public class ProfileService implements BootService, Runnable {
+
+    private static final ILog logger = LogManager.getLogger(ProfileService.class);
+
+    private volatile ScheduledFuture<?> sampleFuture;
+
+    @Override
+    public void beforeBoot() throws Throwable {
+
+    }
+
+    @Override
+    public void boot() throws Throwable {
+        if (Config.Profile.ACTIVE) {
+            int interval = ThreadProfiler.INSTANCE.getInterval();
+            sampleFuture = Executors
+                .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("ProfileService"))
+                .scheduleAtFixedRate(this, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void afterBoot() throws Throwable {
+
+    }
+
+    @Override
+    public void shutdown() throws Throwable {
+        if (sampleFuture != null) {
+            sampleFuture.cancel(true);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            ThreadProfiler.INSTANCE.sample(System.currentTimeMillis());
+        } catch (Throwable t) {
+            logger.error(t, "sample the threads of slow segments fail.");
+        }
+    }
+}
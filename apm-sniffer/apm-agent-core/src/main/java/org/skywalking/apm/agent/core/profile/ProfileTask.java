@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.profile;
+
+/**
+ * 采样任务
+ *
+ * The sampling of the thread of an in-flight segment, from the start of its entry span. The sampler adds the samples,
+ * until the owning context closes it when the segment finishes.
+ */
+public class ProfileTask {
+    private final long threadId;
+
+    private final long startTime;
+
+    private ProfileCallTree callTree;
+
+    private boolean closed = false;
+
+    ProfileTask(long threadId, long startTime) {
+        this.threadId = threadId;
+        this.startTime = startTime;
+    }
+
+    long getThreadId() {
+        return threadId;
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    synchronized void addSample(StackTraceElement[] stack) {
+        if (closed) {
+            return;
+        }
+        if (callTree == null) {
+            callTree = new ProfileCallTree();
+        }
+        callTree.addSample(stack);
+    }
+
+    /**
+     * @return the sampled call tree, or null if never sampled.
+     */
+    synchronized ProfileCallTree close() {
+        closed = true;
+        return callTree;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * 线程采样器
+ *
+ * Holds the {@link ProfileTask}s of the in-flight segments. Every {@link #getInterval()} milliseconds, the threads of
+ * the segments older than {@link Config.Profile#THRESHOLD} are sampled together, by one call of {@link
+ * java.lang.management.ThreadMXBean#getThreadInfo(long[], int)}, bounded by {@link Config.Profile#MAX_DEPTH}.
+ */
+public enum ThreadProfiler {
+    INSTANCE;
+
+    /**
+     * The longest time, in milliseconds, a segment is sampled, in case its context never finishes.
+     */
+    private static final long MAX_PROFILE_TIME = 10 * 60 * 1000;
+
+    private final Set<ProfileTask> tasks = Collections.newSetFromMap(new ConcurrentHashMap<ProfileTask, Boolean>());
+
+    /**
+     * Start to watch the current thread.
+     *
+     * @param startTime the start time of the entry span
+     */
+    public ProfileTask start(long startTime) {
+        ProfileTask task = new ProfileTask(Thread.currentThread().getId(), startTime);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * @return the sampled call tree, or null if the segment isn't slow enough to be sampled.
+     */
+    public ProfileCallTree stop(ProfileTask task) {
+        tasks.remove(task);
+        return task.close();
+    }
+
+    /**
+     * @return the milliseconds between two samples.
+     */
+    public int getInterval() {
+        return Math.max(Config.Profile.INTERVAL, 10);
+    }
+
+    void sample(long now) {
+        List<ProfileTask> slowTasks = new ArrayList<ProfileTask>();
+        Iterator<ProfileTask> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            ProfileTask task = iterator.next();
+            long duration = now - task.getStartTime();
+            if (duration > MAX_PROFILE_TIME) {
+                iterator.remove();
+            } else if (duration >= Config.Profile.THRESHOLD) {
+                slowTasks.add(task);
+            }
+        }
+        if (slowTasks.isEmpty()) {
+            return;
+        }
+
+        long[] threadIds = new long[slowTasks.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = slowTasks.get(i).getThreadId();
+        }
+        ThreadInfo[] threadInfos = ManagementFactory.getThreadMXBean().getThreadInfo(threadIds, Config.Profile.MAX_DEPTH);
+        for (int i = 0; i < threadInfos.length; i++) {
+            // 线程已结束
+            if (threadInfos[i] != null) {
+                slowTasks.get(i).addSample(threadInfos[i].getStackTrace());
+            }
+        }
+    }
+}
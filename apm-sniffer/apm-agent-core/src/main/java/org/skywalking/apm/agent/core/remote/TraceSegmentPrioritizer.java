@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.remote;
+
+import org.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.skywalking.apm.commons.datacarrier.partition.IDataPrioritizer;
+
+/**
+ * TraceSegment 优先级判断
+ *
+ * The segments with error or taking long are high priority, they are what we need most when the buffer is full.
+ */
+public class TraceSegmentPrioritizer implements IDataPrioritizer<TraceSegment> {
+
+    /**
+     * 慢链路阈值，单位：毫秒
+     */
+    private final long slowThreshold;
+
+    public TraceSegmentPrioritizer(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Override
+    public boolean isHighPriority(TraceSegment segment) {
+        return segment.isErrorOccurred() || segment.getDuration() >= slowThreshold;
+    }
+}
@@ -19,38 +19,57 @@
 package org.skywalking.apm.agent.core.remote;
 
 import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
 import org.skywalking.apm.agent.core.boot.BootService;
+import org.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.skywalking.apm.agent.core.boot.ServiceManager;
+import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.context.TracingContext;
 import org.skywalking.apm.agent.core.context.TracingContextListener;
+import org.skywalking.apm.agent.core.context.trace.TraceObjectPool;
 import org.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.skywalking.apm.agent.core.context.util.ThrowableFingerprintCache;
 import org.skywalking.apm.agent.core.logging.api.ILog;
 import org.skywalking.apm.agent.core.logging.api.LogManager;
 import org.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
-import org.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.skywalking.apm.network.proto.Downstream;
+import org.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.skywalking.apm.commons.datacarrier.common.ConsumeBatch;
+import org.skywalking.apm.commons.datacarrier.consumer.IBatchConsumer;
+import org.skywalking.apm.commons.datacarrier.metric.CarrierMetrics;
+import org.skywalking.apm.commons.datacarrier.metric.DataCarrierMetricsRegistry;
+import org.skywalking.apm.commons.datacarrier.wait.ParkingWaitStrategy;
 import org.skywalking.apm.network.proto.TraceSegmentServiceGrpc;
-import org.skywalking.apm.network.proto.UpstreamSegment;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
+import static org.skywalking.apm.agent.core.conf.Config.Buffer.HIGH_PRIORITY_CHANNEL_SIZE;
+import static org.skywalking.apm.agent.core.conf.Config.Buffer.MAX_BYTES;
+import static org.skywalking.apm.agent.core.conf.Config.Buffer.SLOW_SEGMENT_THRESHOLD;
 import static org.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
 
 /**
  * TraceSegment 发送服务客户端
  *
+ * Each consumer thread sends the segments through its own long-lived {@link TraceSegmentUplinkStream}, without waiting
+ * for the collector between batches. The number of consumer threads is {@link Config.Collector#UPLINK_STREAMS}. The
+ * streams are checked every second, and completed when expired, or when the channel status changes.
+ *
  * @author wusheng
  */
-public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
+public class TraceSegmentServiceClient implements BootService, IBatchConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
 
     private static final ILog logger = LogManager.getLogger(TraceSegmentServiceClient.class);
 
     /**
-     * 发送超时时间，单位：毫秒
+     * 等待数据流就绪的超时时间，单位：毫秒
      */
     private static final int TIMEOUT = 30 * 1000;
 
@@ -63,11 +82,34 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     /**
      * TraceSegment 发送数量
      */
-    private long segmentUplinkedCounter;
+    private final AtomicLong segmentUplinkedCounter = new AtomicLong(0);
     /**
      * TraceSegment 被遗弃数量
      */
-    private long segmentAbandonedCounter;
+    private final AtomicLong segmentAbandonedCounter = new AtomicLong(0);
+    /**
+     * TraceSegment 已发送但未被确认的数量，数据流异常时，不确定 Collector 是否收到
+     */
+    private final AtomicLong segmentUnacknowledgedCounter = new AtomicLong(0);
+    /**
+     * 所有消费线程的上行数据流
+     */
+    private final List<TraceSegmentUplinkStream> uplinkStreams = new CopyOnWriteArrayList<TraceSegmentUplinkStream>();
+    /**
+     * 当前消费线程的上行数据流
+     */
+    private final ThreadLocal<TraceSegmentUplinkStream> uplinkStream = new ThreadLocal<TraceSegmentUplinkStream>() {
+        @Override
+        protected TraceSegmentUplinkStream initialValue() {
+            TraceSegmentUplinkStream stream = new TraceSegmentUplinkStream(segmentUplinkedCounter, segmentUnacknowledgedCounter);
+            uplinkStreams.add(stream);
+            return stream;
+        }
+    };
+    /**
+     * 尾部抽样
+     */
+    private volatile TraceSegmentTailSampler tailSampler;
     /**
      * 内存队列
      */
@@ -80,6 +122,10 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
      * 连接状态
      */
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * 定时完成过期的上行数据流
+     */
+    private volatile ScheduledFuture<?> completeStreamFuture;
 
     @Override
     public void beforeBoot() throws Throwable {
@@ -89,12 +135,28 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void boot() throws Throwable {
         lastLogTime = System.currentTimeMillis();
-        segmentUplinkedCounter = 0;
-        segmentAbandonedCounter = 0;
         // 创建 DataCarrier 对象，作为内存队列
-        carrier = new DataCarrier<TraceSegment>(CHANNEL_SIZE, BUFFER_SIZE);
+        carrier = new DataCarrier<TraceSegment>("TraceSegment", CHANNEL_SIZE, BUFFER_SIZE, BufferType.RING);
         carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
-        carrier.consume(this, 1); // 消费者
+        if (MAX_BYTES > 0) {
+            carrier.setByteBudget(MAX_BYTES);
+        }
+        if (HIGH_PRIORITY_CHANNEL_SIZE > 0 && HIGH_PRIORITY_CHANNEL_SIZE < CHANNEL_SIZE) {
+            carrier.setPrioritizer(HIGH_PRIORITY_CHANNEL_SIZE, new TraceSegmentPrioritizer(SLOW_SEGMENT_THRESHOLD));
+        }
+        // 消费者，每个消费线程一个上行数据流，线程数不超过 Channel 数
+        // 空闲时消费线程休眠，产生数据时立即唤醒，不再固定沉睡 20 毫秒
+        carrier.consume(this, Math.max(1, Math.min(Config.Collector.UPLINK_STREAMS, CHANNEL_SIZE)), new ParkingWaitStrategy(20));
+        completeStreamFuture = Executors
+            .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("TraceSegmentUplinkStream"))
+            .scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    completeExpiredStreams();
+                }
+            }, 1, 1, TimeUnit.SECONDS);
+        tailSampler = new TraceSegmentTailSampler(Config.Agent.TAIL_SAMPLING_SLOW_THRESHOLD, Config.Agent.TAIL_SAMPLING_HOLDING_TIME,
+            Config.Agent.TAIL_SAMPLING_MAX_SEGMENTS, Config.Agent.TAIL_SAMPLING_MAX_BYTES);
     }
 
     @Override
@@ -104,7 +166,24 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void shutdown() throws Throwable {
+        if (completeStreamFuture != null) {
+            completeStreamFuture.cancel(true);
+        }
         carrier.shutdownConsumers();
+        for (TraceSegmentUplinkStream stream : uplinkStreams) {
+            stream.complete();
+        }
+    }
+
+    private void completeExpiredStreams() {
+        try {
+            long now = System.currentTimeMillis();
+            for (TraceSegmentUplinkStream stream : uplinkStreams) {
+                stream.completeIfExpired(now);
+            }
+        } catch (Throwable t) {
+            logger.error(t, "Complete the expired trace segment streams fail.");
+        }
     }
 
     @Override
@@ -112,72 +191,104 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     }
 
+    @Override
+    public void consumeBatch(ConsumeBatch<TraceSegment> batch) {
+        consume(batch);
+    }
+
     @Override
     public void consume(List<TraceSegment> data) {
+        data = tailSample(data);
         if (CONNECTED.equals(status)) {
-            // 创建 GRPCStreamServiceStatus 对象
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-
-            // 创建 StreamObserver 对象
-            StreamObserver<UpstreamSegment> upstreamSegmentStreamObserver = serviceStub.collect(new StreamObserver<Downstream>() {
-                @Override
-                public void onNext(Downstream downstream) {
-
-                }
-
-                @Override
-                public void onError(Throwable throwable) {
-                    status.finished();
-                    if (logger.isErrorEnable()) {
-                        logger.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
-                    }
-                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
-                }
-
-                @Override
-                public void onCompleted() {
-                    status.finished(); // 标记处理完成
-                }
-            });
-
-            // 逐条发送 TraceSegment 请求
-            for (TraceSegment segment : data) {
+            TraceSegmentUplinkStream stream = uplinkStream.get();
+            TraceSegmentServiceGrpc.TraceSegmentServiceStub stub = serviceStub;
+            // 逐条发送 TraceSegment 请求，不等待 Collector 处理完成
+            for (int i = 0; i < data.size(); i++) {
                 try {
-                    UpstreamSegment upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
+                    if (!stream.send(stub, data.get(i).transform(), TIMEOUT)) {
+                        // 数据流未就绪，放弃剩余的 TraceSegment
+                        segmentAbandonedCounter.addAndGet(data.size() - i);
+                        break;
+                    }
+                    // 已发送，确认其中输出的异常堆栈
+                    if (Config.Agent.THROWABLE_FINGERPRINT_INTERVAL > 0) {
+                        ThrowableFingerprintCache.INSTANCE.stackSent(data.get(i));
+                    }
                 } catch (Throwable t) {
                     logger.error(t, "Transform and send UpstreamSegment to collector fail.");
                 }
             }
+            // 已转换，回收到对象池
+            release(data);
+        } else {
+            segmentAbandonedCounter.addAndGet(data.size());
+            release(data);
+        }
 
-            // 全部请求发送完成
-            upstreamSegmentStreamObserver.onCompleted();
+        printUplinkStatus();
+    }
 
-            // 等待处理完成
-            if (status.wait4Finish(TIMEOUT)) {
-                segmentUplinkedCounter += data.size();
+    /**
+     * 尾部抽样，在消费线程执行，不占用应用线程
+     *
+     * @return the head sampled segments, and the segments kept by {@link TraceSegmentTailSampler}. The held ones are
+     * not in it.
+     */
+    private List<TraceSegment> tailSample(List<TraceSegment> data) {
+        List<TraceSegment> segments = null;
+        long currentTimeMillis = 0;
+        for (int i = 0; i < data.size(); i++) {
+            TraceSegment segment = data.get(i);
+            if (segment.isHeadSampled()) {
+                if (segments != null) {
+                    segments.add(segment);
+                }
+                continue;
+            }
+            if (segments == null) {
+                segments = new ArrayList<TraceSegment>(data.size());
+                segments.addAll(data.subList(0, i));
+                currentTimeMillis = System.currentTimeMillis();
+            }
+            List<TraceSegment> kept = tailSampler.offer(segment, currentTimeMillis);
+            if (kept != null) {
+                segments.addAll(kept);
             }
-        } else {
-            segmentAbandonedCounter += data.size();
         }
+        return segments == null ? data : segments;
+    }
 
-        printUplinkStatus();
+    private void release(List<TraceSegment> data) {
+        for (int i = 0; i < data.size(); i++) {
+            TraceObjectPool.INSTANCE.release(data.get(i));
+        }
     }
 
     /**
-     * 每三十秒，打印一次 segmentUplinkedCounter 和 segmentAbandonedCounter 数据。主要用于开发调试。
+     * 每三十秒，打印一次 segmentUplinkedCounter 和 segmentAbandonedCounter 数据，以及所有 DataCarrier 的监控数据（INFO 级别）。
      */
-    private void printUplinkStatus() {
+    private synchronized void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
             lastLogTime = currentTimeMillis;
-            if (segmentUplinkedCounter > 0) {
-                logger.debug("{} trace segments have been sent to collector.", segmentUplinkedCounter);
-                segmentUplinkedCounter = 0;
+            long uplinked = segmentUplinkedCounter.getAndSet(0);
+            if (uplinked > 0) {
+                logger.debug("{} trace segments have been sent to collector.", uplinked);
+            }
+            long abandoned = segmentAbandonedCounter.getAndSet(0);
+            if (abandoned > 0) {
+                logger.debug("{} trace segments have been abandoned, cause by no available channel.", abandoned);
+            }
+            long unacknowledged = segmentUnacknowledgedCounter.getAndSet(0);
+            if (unacknowledged > 0) {
+                logger.debug("{} trace segments have been sent, but unacknowledged, cause by the stream failure.", unacknowledged);
+            }
+            if (Config.Agent.TAIL_SAMPLING) {
+                logger.info("{} trace segments have been retained by tail sampling, {} discarded, {} held.",
+                    tailSampler.getRetainedCounter(), tailSampler.getDiscardedCounter(), tailSampler.getHeldSegments());
             }
-            if (segmentAbandonedCounter > 0) {
-                logger.debug("{} trace segments have been abandoned, cause by no available channel.", segmentAbandonedCounter);
-                segmentAbandonedCounter = 0;
+            for (CarrierMetrics metrics : DataCarrierMetricsRegistry.INSTANCE.getAll()) {
+                logger.info("DataCarrier status, {}", metrics.toString());
             }
         }
     }
@@ -185,6 +296,12 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void onError(List<TraceSegment> data, Throwable t) {
         logger.error(t, "Try to send {} trace segments to collector, with unexpected exception.", data.size());
+        // 未被头部抽样的可能仍被尾部抽样持有，不回收
+        for (int i = 0; i < data.size(); i++) {
+            if (data.get(i).isHeadSampled()) {
+                TraceObjectPool.INSTANCE.release(data.get(i));
+            }
+        }
     }
 
     @Override
@@ -195,13 +312,15 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void afterFinished(TraceSegment traceSegment) {
         if (traceSegment.isIgnore()) {
+            TraceObjectPool.INSTANCE.release(traceSegment);
             return;
         }
-        // 提交 TraceSegment 到内存队列
+        // 提交 TraceSegment 到内存队列，未被头部抽样的由消费线程做尾部抽样，见 #tailSample
         if (!carrier.produce(traceSegment)) {
             if (logger.isDebugEnable()) {
                 logger.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
+            TraceObjectPool.INSTANCE.release(traceSegment);
         }
     }
 
@@ -213,6 +332,10 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
             serviceStub = TraceSegmentServiceGrpc.newStub(channel);
         }
         this.status = status;
+        // 完成旧连接上的数据流，下次发送时重新打开
+        for (TraceSegmentUplinkStream stream : uplinkStreams) {
+            stream.complete();
+        }
     }
 
 }
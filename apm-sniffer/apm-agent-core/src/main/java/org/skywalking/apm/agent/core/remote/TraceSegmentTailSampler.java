@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.remote;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.skywalking.apm.agent.core.context.trace.TraceObjectPool;
+import org.skywalking.apm.agent.core.context.trace.TraceSegment;
+
+/**
+ * 尾部抽样
+ *
+ * Decides which segments of the traces not head sampled are sent, see {@link Config.Agent#TAIL_SAMPLING}. A slow or
+ * failed segment is sent, with the held segments of the same trace, and the following ones of the trace within the
+ * holding time. The others are held, by their first global trace id, until they expire or the holding area is full,
+ * then discarded. Expired ones are only checked when a segment is offered.
+ * <p>
+ * The chunks of a long segment, see {@link TraceSegment#isPartial()}, are judged alone, as they carry no refs. A chunk
+ * renews the holding time of its trace, so the held chunks survive until the last part, which holds the entry span
+ * and the whole duration, decides for all of them.
+ * <p>
+ * It is called by the consumer threads of the segment buffer, not the application threads, so the lock and the walks
+ * over the spans don't delay the traced requests.
+ */
+public class TraceSegmentTailSampler {
+
+    private final long slowThreshold;
+    private final long holdingTime;
+    private final int maxSegments;
+    private final long maxBytes;
+
+    /**
+     * 按过期时间排序的链路
+     */
+    private final LinkedHashMap<DistributedTraceId, HeldTrace> traces = new LinkedHashMap<DistributedTraceId, HeldTrace>();
+    private int heldSegments;
+    private long heldBytes;
+
+    private long retainedCounter;
+    private long discardedCounter;
+
+    public TraceSegmentTailSampler(long slowThreshold, long holdingTime, int maxSegments, long maxBytes) {
+        this.slowThreshold = slowThreshold;
+        this.holdingTime = holdingTime;
+        this.maxSegments = maxSegments;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param segment finished, and not head sampled
+     * @return the segments to send, or null if none
+     */
+    public List<TraceSegment> offer(TraceSegment segment, long currentTimeMillis) {
+        boolean interesting = segment.isErrorOccurred() || segment.getDuration() >= slowThreshold;
+        DistributedTraceId traceId = segment.getRelatedGlobalTraces().get(0);
+        long size = interesting ? 0 : segment.estimatedSize();
+
+        synchronized (this) {
+            expire(currentTimeMillis);
+            HeldTrace trace = traces.get(traceId);
+            if (trace != null && trace.kept) {
+                retainedCounter++;
+                return Collections.singletonList(segment);
+            }
+
+            if (interesting) {
+                List<TraceSegment> segments;
+                if (trace == null) {
+                    trace = new HeldTrace(currentTimeMillis + holdingTime);
+                    traces.put(traceId, trace);
+                    segments = Collections.singletonList(segment);
+                } else {
+                    segments = trace.segments;
+                    heldSegments -= segments.size();
+                    heldBytes -= trace.bytes;
+                    segments.add(segment);
+                    trace.segments = null;
+                    trace.bytes = 0;
+                }
+                trace.kept = true;
+                retainedCounter += segments.size();
+                return segments;
+            }
+
+            if (trace == null) {
+                trace = new HeldTrace(currentTimeMillis + holdingTime);
+                traces.put(traceId, trace);
+            } else if (segment.isPartial()) {
+                // 长 TraceSegment 仍在进行，延长持有时间，并移到队尾保持按过期时间排序
+                trace.deadline = currentTimeMillis + holdingTime;
+                traces.remove(traceId);
+                traces.put(traceId, trace);
+            }
+            if (trace.segments == null) {
+                trace.segments = new ArrayList<TraceSegment>(2);
+            }
+            trace.segments.add(segment);
+            trace.bytes += size;
+            heldSegments++;
+            heldBytes += size;
+
+            Iterator<HeldTrace> oldest = traces.values().iterator();
+            while ((heldSegments > maxSegments || heldBytes > maxBytes || traces.size() > maxSegments) && oldest.hasNext()) {
+                HeldTrace evicted = oldest.next();
+                oldest.remove();
+                discard(evicted);
+            }
+            return null;
+        }
+    }
+
+    private void expire(long currentTimeMillis) {
+        Iterator<HeldTrace> oldest = traces.values().iterator();
+        while (oldest.hasNext()) {
+            HeldTrace trace = oldest.next();
+            if (trace.deadline > currentTimeMillis) {
+                break;
+            }
+            oldest.remove();
+            discard(trace);
+        }
+    }
+
+    private void discard(HeldTrace trace) {
+        if (trace.segments == null) {
+            return;
+        }
+        for (int i = 0; i < trace.segments.size(); i++) {
+            TraceObjectPool.INSTANCE.release(trace.segments.get(i));
+        }
+        discardedCounter += trace.segments.size();
+        heldSegments -= trace.segments.size();
+        heldBytes -= trace.bytes;
+    }
+
+    /**
+     * @return the number of segments sent for being slow or failed, or for their traces
+     */
+    public synchronized long getRetainedCounter() {
+        return retainedCounter;
+    }
+
+    /**
+     * @return the number of segments discarded after being held
+     */
+    public synchronized long getDiscardedCounter() {
+        return discardedCounter;
+    }
+
+    public synchronized int getHeldSegments() {
+        return heldSegments;
+    }
+
+    private static class HeldTrace {
+        private long deadline;
+        /**
+         * 是否已决定发送，之后的同链路 TraceSegment 直接发送
+         */
+        private boolean kept;
+        private List<TraceSegment> segments;
+        private long bytes;
+
+        private HeldTrace(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.remote;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.skywalking.apm.agent.core.boot.ServiceManager;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.logging.api.ILog;
+import org.skywalking.apm.agent.core.logging.api.LogManager;
+import org.skywalking.apm.network.proto.Downstream;
+import org.skywalking.apm.network.proto.TraceSegmentServiceGrpc;
+import org.skywalking.apm.network.proto.UpstreamSegment;
+
+/**
+ * TraceSegment 长连接上行数据流
+ *
+ * A long-lived <code>collect</code> stream, used by one consumer thread of {@link TraceSegmentServiceClient}. The
+ * segments are sent one after another, without waiting for the collector, as long as the transport is ready, see
+ * {@link ClientCallStreamObserver#isReady()}. They are acknowledged asynchronously, when the collector completes the
+ * stream.
+ * <p>
+ * The stream is completed every {@link Config.Collector#UPLINK_STREAM_LIFETIME} seconds, so the acknowledgement
+ * doesn't wait too long, even if no more segments are sent, see {@link #completeIfExpired(long)}. It is completed on the
+ * channel status changes too. A new stream is opened by the next segment.
+ * <p>
+ * The stream monitor is only held to open, send on, or complete the stream. The readiness is awaited out of it, so
+ * {@link #complete()} doesn't wait for an unready stream, and the waiting {@link #send} returns at once.
+ */
+class TraceSegmentUplinkStream {
+
+    private static final ILog logger = LogManager.getLogger(TraceSegmentUplinkStream.class);
+
+    /**
+     * The sent segments acknowledged by the collector.
+     */
+    private final AtomicLong uplinkedCounter;
+
+    /**
+     * The sent segments never acknowledged, because the stream fails. Some of them may have been received by the
+     * collector.
+     */
+    private final AtomicLong unacknowledgedCounter;
+
+    private Call call;
+
+    TraceSegmentUplinkStream(AtomicLong uplinkedCounter, AtomicLong unacknowledgedCounter) {
+        this.uplinkedCounter = uplinkedCounter;
+        this.unacknowledgedCounter = unacknowledgedCounter;
+    }
+
+    /**
+     * Send the segment once the stream is ready.
+     *
+     * @param stub of the current channel, a new stream is opened if the stub changes.
+     * @param timeout the max milliseconds to wait for the stream to be ready.
+     * @return false if the stream isn't ready in time, broken, or completed while waiting.
+     */
+    boolean send(TraceSegmentServiceGrpc.TraceSegmentServiceStub stub, UpstreamSegment segment, long timeout) {
+        Call current = open(stub);
+        // 在锁外等待就绪，不阻塞 complete()
+        boolean ready = current.awaitReady(timeout);
+        synchronized (this) {
+            if (call != current) {
+                // 等待期间数据流已完成
+                return false;
+            }
+            if (!ready) {
+                if (!current.broken) {
+                    // 取消长时间未就绪的数据流，下次发送时重新打开
+                    current.broken = true;
+                    current.requestStream.onError(new TimeoutException("The stream isn't ready in " + timeout + " ms."));
+                }
+                return false;
+            }
+            current.requestStream.onNext(segment);
+            current.sentCounter.incrementAndGet();
+            return true;
+        }
+    }
+
+    private synchronized Call open(TraceSegmentServiceGrpc.TraceSegmentServiceStub stub) {
+        long now = System.currentTimeMillis();
+        if (call != null && call.stub != stub) {
+            complete();
+        }
+        completeIfExpired(now);
+        if (call == null) {
+            call = new Call(stub, now);
+        }
+        return call;
+    }
+
+    /**
+     * Complete the current stream if it lives longer than {@link Config.Collector#UPLINK_STREAM_LIFETIME}, or drop it
+     * if broken. Called before sending, and by a timer, so an idle stream is completed too.
+     */
+    synchronized void completeIfExpired(long now) {
+        if (call != null && (call.broken || now - call.openTime > Config.Collector.UPLINK_STREAM_LIFETIME * 1000)) {
+            complete();
+        }
+    }
+
+    /**
+     * Complete the current stream, the sent segments are acknowledged asynchronously. A {@link #send} waiting for it to
+     * be ready returns false at once.
+     */
+    synchronized void complete() {
+        if (call != null) {
+            Call completed = call;
+            call = null;
+            completed.completed = true;
+            completed.signalReady();
+            if (!completed.broken) {
+                completed.requestStream.onCompleted();
+            }
+        }
+    }
+
+    private class Call implements ClientResponseObserver<UpstreamSegment, Downstream> {
+        private final TraceSegmentServiceGrpc.TraceSegmentServiceStub stub;
+        private final long openTime;
+        private final AtomicInteger sentCounter = new AtomicInteger(0);
+        private final Object readyLock = new Object();
+        private volatile boolean broken = false;
+        private volatile boolean completed = false;
+        private ClientCallStreamObserver<UpstreamSegment> requestStream;
+
+        private Call(TraceSegmentServiceGrpc.TraceSegmentServiceStub stub, long openTime) {
+            this.stub = stub;
+            this.openTime = openTime;
+            stub.collect(this);
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<UpstreamSegment> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(new Runnable() {
+                @Override
+                public void run() {
+                    signalReady();
+                }
+            });
+        }
+
+        private void signalReady() {
+            synchronized (readyLock) {
+                readyLock.notifyAll();
+            }
+        }
+
+        private boolean awaitReady(long timeout) {
+            if (broken || completed) {
+                return false;
+            }
+            if (requestStream.isReady()) {
+                return true;
+            }
+            long deadline = System.currentTimeMillis() + timeout;
+            synchronized (readyLock) {
+                while (!broken && !completed && !requestStream.isReady()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    try {
+                        readyLock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+            return !broken && !completed;
+        }
+
+        @Override
+        public void onNext(Downstream downstream) {
+
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            boolean cancelled = broken;
+            broken = true;
+            signalReady();
+            unacknowledgedCounter.addAndGet(sentCounter.get());
+            // 本地取消的数据流，不视为连接异常
+            if (!cancelled) {
+                if (logger.isErrorEnable()) {
+                    logger.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+                }
+                ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            uplinkedCounter.addAndGet(sentCounter.get());
+        }
+    }
+}
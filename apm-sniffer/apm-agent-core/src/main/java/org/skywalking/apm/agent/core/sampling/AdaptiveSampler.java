@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.sampling;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应抽样器
+ *
+ * Samples about {@link #tracesPerSecond} traces per second, whatever the throughput is. The rate of local traces and of
+ * forced traces, i.e. propagated from the peers, are smoothed over the windows, and the sampling probability of the
+ * next window is {@code (tracesPerSecond - forcedRate) / localRate}.
+ * <p>
+ * In a window, every {@code 1 / probability}th local trace is sampled, from a random phase, so the samples are spread
+ * over the whole window instead of being its first traces. No more than twice the budget is sampled in a window, in
+ * case the throughput jumps before the estimate catches up.
+ */
+class AdaptiveSampler {
+    /**
+     * The weight of the latest window in the smoothed rates.
+     */
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * {@link #step} of probability 1.
+     */
+    private static final long SCALE = 1L << 32;
+
+    private final int tracesPerSecond;
+
+    /**
+     * 本窗口的本地请求数，从随机相位开始
+     */
+    private final AtomicLong localCounter = new AtomicLong();
+    /**
+     * 本窗口的强制抽样数
+     */
+    private final AtomicLong forcedCounter = new AtomicLong();
+    /**
+     * 本窗口的抽样数，包括强制抽样
+     */
+    private final AtomicInteger sampledCounter = new AtomicInteger();
+
+    /**
+     * The sampling probability, scaled by {@link #SCALE}.
+     */
+    private volatile long step = SCALE;
+    private volatile int windowLimit;
+    private volatile double sampledRate;
+
+    /**
+     * The fields below are only accessed by {@link #roll(long)}.
+     */
+    private final Random random = new Random();
+    private long phase;
+    private long windowStartNanos;
+    private double localRate = -1;
+    private double forcedRate;
+
+    AdaptiveSampler(int tracesPerSecond, long nowNanos) {
+        this.tracesPerSecond = tracesPerSecond;
+        this.windowStartNanos = nowNanos;
+        this.windowLimit = tracesPerSecond * 2;
+    }
+
+    boolean trySampling() {
+        long n = localCounter.getAndIncrement();
+        long step = this.step;
+        if (n < 0 || n >= Integer.MAX_VALUE || (n + 1) * step >>> 32 == n * step >>> 32) {
+            return false;
+        }
+        return sampledCounter.incrementAndGet() <= windowLimit;
+    }
+
+    void forceSampled() {
+        forcedCounter.incrementAndGet();
+        sampledCounter.incrementAndGet();
+    }
+
+    /**
+     * Start a new window, called periodically by one thread.
+     */
+    void roll(long nowNanos) {
+        double seconds = (nowNanos - windowStartNanos) / 1e9;
+        if (seconds <= 0) {
+            return;
+        }
+        windowStartNanos = nowNanos;
+        long local = Math.max(localCounter.getAndSet(0) - phase, 0);
+        long forced = forcedCounter.getAndSet(0);
+        int sampled = Math.min(sampledCounter.getAndSet(0), windowLimit);
+
+        if (localRate < 0) {
+            localRate = local / seconds;
+            forcedRate = forced / seconds;
+        } else {
+            localRate += SMOOTHING * (local / seconds - localRate);
+            forcedRate += SMOOTHING * (forced / seconds - forcedRate);
+        }
+        sampledRate = sampled / seconds;
+
+        double probability = localRate <= 0 ? 1 : (tracesPerSecond - forcedRate) / localRate;
+        probability = Math.max(0, Math.min(1, probability));
+        long step = (long)(probability * SCALE);
+        this.step = step;
+        this.windowLimit = (int)Math.ceil(tracesPerSecond * 2 * seconds);
+
+        phase = step == 0 ? 0 : random.nextInt((int)Math.min(SCALE / step, Integer.MAX_VALUE));
+        localCounter.addAndGet(phase);
+    }
+
+    /**
+     * @return the probability of a local trace being sampled in this window
+     */
+    double getSamplingRate() {
+        return (double)step / SCALE;
+    }
+
+    /**
+     * @return the sampled traces per second of the last window, including the forced ones
+     */
+    double getSampledRate() {
+        return sampledRate;
+    }
+}
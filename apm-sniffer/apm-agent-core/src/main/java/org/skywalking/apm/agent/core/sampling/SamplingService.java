@@ -39,6 +39,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and {@see {@link Config.Agent#SAMPLE_N_PER_3_SECS }}
+ * <p>
+ * If {@link Config.Agent#SAMPLE_TRACES_PER_SEC} is set, the {@link AdaptiveSampler} is used instead, which keeps the
+ * sampled traces per second around the budget, whatever the throughput is.
  *
  * @author wusheng
  */
@@ -53,6 +56,10 @@ public class SamplingService implements BootService {
      * 抽样计数器
      */
     private volatile AtomicInteger samplingFactorHolder;
+    /**
+     * 自适应抽样器，未开启时为空
+     */
+    private volatile AdaptiveSampler adaptiveSampler;
     /**
      * 定时任务
      */
@@ -73,7 +80,24 @@ public class SamplingService implements BootService {
              */
             scheduledFuture.cancel(true);
         }
-        if (Config.Agent.SAMPLE_N_PER_3_SECS > 0) {
+        adaptiveSampler = null;
+        if (Config.Agent.SAMPLE_TRACES_PER_SEC > 0) {
+            on = true;
+            final AdaptiveSampler sampler = new AdaptiveSampler(Config.Agent.SAMPLE_TRACES_PER_SEC, System.nanoTime());
+            adaptiveSampler = sampler;
+            // 创建定时任务，每秒切换窗口
+            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SamplingService"));
+            scheduledFuture = service.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    sampler.roll(System.nanoTime());
+                    if (logger.isDebugEnable()) {
+                        logger.debug("Agent sampling rate {}, {} traces sampled per second.", sampler.getSamplingRate(), sampler.getSampledRate());
+                    }
+                }
+            }, 1, 1, TimeUnit.SECONDS);
+            logger.debug("Agent adaptive sampling mechanism started. Sample {} traces per second.", Config.Agent.SAMPLE_TRACES_PER_SEC);
+        } else if (Config.Agent.SAMPLE_N_PER_3_SECS > 0) {
             on = true;
             // 重置
             this.resetSamplingFactor();
@@ -104,6 +128,10 @@ public class SamplingService implements BootService {
      */
     public boolean trySampling() {
         if (on) {
+            AdaptiveSampler sampler = adaptiveSampler;
+            if (sampler != null) {
+                return sampler.trySampling();
+            }
             int factor = samplingFactorHolder.get();
             if (factor < Config.Agent.SAMPLE_N_PER_3_SECS) {
                 boolean success = samplingFactorHolder.compareAndSet(factor, factor + 1);
@@ -123,10 +151,24 @@ public class SamplingService implements BootService {
      */
     public void forceSampled() {
         if (on) {
-            samplingFactorHolder.incrementAndGet();
+            AdaptiveSampler sampler = adaptiveSampler;
+            if (sampler != null) {
+                sampler.forceSampled();
+            } else {
+                samplingFactorHolder.incrementAndGet();
+            }
         }
     }
 
+    /**
+     * @return the probability of a trace beginning at local being sampled, 1 if sampling is off. It is estimated by
+     * the adaptive sampling only, the fixed {@link Config.Agent#SAMPLE_N_PER_3_SECS} reports 1 too.
+     */
+    public double getSamplingRate() {
+        AdaptiveSampler sampler = adaptiveSampler;
+        return on && sampler != null ? sampler.getSamplingRate() : 1;
+    }
+
     private void resetSamplingFactor() {
         samplingFactorHolder = new AtomicInteger(0);
     }
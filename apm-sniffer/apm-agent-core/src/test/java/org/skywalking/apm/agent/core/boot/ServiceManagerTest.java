@@ -30,6 +30,8 @@ import org.skywalking.apm.agent.core.context.IgnoredTracerContext;
 import org.skywalking.apm.agent.core.context.TracingContext;
 import org.skywalking.apm.agent.core.context.TracingContextListener;
 import org.skywalking.apm.agent.core.jvm.JVMService;
+import org.skywalking.apm.agent.core.metric.RequestMetricService;
+import org.skywalking.apm.agent.core.profile.ProfileService;
 import org.skywalking.apm.agent.core.remote.CollectorDiscoveryService;
 import org.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.skywalking.apm.agent.core.remote.GRPCChannelManager;
@@ -56,7 +58,7 @@ public class ServiceManagerTest {
     public void testServiceDependencies() throws Exception {
         HashMap<Class, BootService> registryService = getFieldValue(ServiceManager.INSTANCE, "bootedServices");
 
-        assertThat(registryService.size(), is(7));
+        assertThat(registryService.size(), is(9));
 
         assertTraceSegmentServiceClient(ServiceManager.INSTANCE.findService(TraceSegmentServiceClient.class));
         assertContextManager(ServiceManager.INSTANCE.findService(ContextManager.class));
@@ -64,6 +66,8 @@ public class ServiceManagerTest {
         assertGRPCChannelManager(ServiceManager.INSTANCE.findService(GRPCChannelManager.class));
         assertSamplingService(ServiceManager.INSTANCE.findService(SamplingService.class));
         assertJVMService(ServiceManager.INSTANCE.findService(JVMService.class));
+        assertNotNull(ServiceManager.INSTANCE.findService(RequestMetricService.class));
+        assertNotNull(ServiceManager.INSTANCE.findService(ProfileService.class));
 
         assertTracingContextListener();
         assertIgnoreTracingContextListener();
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context;
+
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.skywalking.apm.agent.core.context.ids.ID;
+import org.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+
+public class ContextCarrierTest {
+
+    @After
+    public void tearDown() {
+        Config.Agent.BINARY_CARRIER = false;
+    }
+
+    @Test
+    public void testBinaryRoundTrip() {
+        ContextCarrier carrier = newCarrier();
+        carrier.setPeerHost("127.0.0.1:8080");
+        carrier.setEntryOperationName("/入口\uD83D\uDE00");
+        carrier.setParentOperationId(12345);
+
+        String binary = carrier.serializeBinary();
+        Assert.assertTrue(binary.length() < carrier.serialize().length());
+        Assert.assertEquals(-1, binary.indexOf('='));
+
+        ContextCarrier decoded = new ContextCarrier().deserializeBinary(binary);
+        Assert.assertTrue(decoded.isValid());
+        Assert.assertEquals(carrier.serialize(), decoded.serialize());
+        Assert.assertEquals(binary, decoded.serializeBinary());
+    }
+
+    @Test
+    public void testInvalidBinary() {
+        String binary = newCarrier().serializeBinary();
+        Assert.assertFalse(new ContextCarrier().deserializeBinary(binary.substring(0, binary.length() - 2)).isValid());
+        Assert.assertFalse(new ContextCarrier().deserializeBinary(binary + "AA").isValid());
+        Assert.assertFalse(new ContextCarrier().deserializeBinary("a|b|c").isValid());
+        Assert.assertFalse(new ContextCarrier().deserializeBinary("Ag").isValid());
+        Assert.assertFalse(new ContextCarrier().deserializeBinary(null).isValid());
+    }
+
+    @Test
+    public void testInjectByConfig() {
+        ContextCarrier carrier = newCarrier();
+        CarrierItem item = carrier.items().next();
+        Assert.assertEquals(SW3CarrierItem.HEADER_NAME, item.getHeadKey());
+        Assert.assertFalse(item.hasNext());
+
+        Config.Agent.BINARY_CARRIER = true;
+        item = carrier.items().next();
+        Assert.assertEquals(SW3BinaryCarrierItem.HEADER_NAME, item.getHeadKey());
+        Assert.assertEquals(carrier.serializeBinary(), item.getHeadValue());
+        Assert.assertFalse(item.hasNext());
+
+        // a trace id propagated by an older agent has no binary form
+        carrier.setDistributedTraceIds(Collections.<DistributedTraceId>singletonList(new PropagatedTraceId("#AQA*#AQA*Et0We0tQNQA*")));
+        item = carrier.items().next();
+        Assert.assertEquals(SW3CarrierItem.HEADER_NAME, item.getHeadKey());
+    }
+
+    @Test
+    public void testInjectNothing() {
+        // the context is ignored or not sampled, nothing injected
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.markInjected();
+        Assert.assertFalse(carrier.items().hasNext());
+    }
+
+    @Test
+    public void testExtractBoth() {
+        ContextCarrier sw3 = newCarrier();
+        ContextCarrier binary = newCarrier();
+        binary.setSpanId(7);
+
+        ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            if (SW3CarrierItem.HEADER_NAME.equals(next.getHeadKey())) {
+                next.setHeadValue(sw3.serialize());
+            } else if (SW3BinaryCarrierItem.HEADER_NAME.equals(next.getHeadKey())) {
+                next.setHeadValue(binary.serializeBinary());
+            }
+        }
+        Assert.assertTrue(carrier.isValid());
+        Assert.assertEquals(7, carrier.getSpanId());
+
+        carrier = new ContextCarrier();
+        next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            next.setHeadValue(SW3CarrierItem.HEADER_NAME.equals(next.getHeadKey()) ? sw3.serialize() : null);
+        }
+        Assert.assertTrue(carrier.isValid());
+        Assert.assertEquals(3, carrier.getSpanId());
+    }
+
+    private ContextCarrier newCarrier() {
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceSegmentId(new ID(1, 35, 15127007074950012L));
+        carrier.setSpanId(3);
+        carrier.setParentApplicationInstanceId(1);
+        carrier.setEntryApplicationInstanceId(2);
+        carrier.setPeerId(300);
+        carrier.setEntryOperationId(1);
+        carrier.setParentOperationId(2);
+        carrier.setDistributedTraceIds(Collections.<DistributedTraceId>singletonList(new PropagatedTraceId("1.35.15127007074950000")));
+        return carrier;
+    }
+}
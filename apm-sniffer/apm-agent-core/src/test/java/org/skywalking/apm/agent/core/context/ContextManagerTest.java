@@ -24,10 +24,12 @@ import java.util.List;
 import org.junit.*;
 import org.junit.runner.RunWith;
 import org.skywalking.apm.agent.core.boot.ServiceManager;
+import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.skywalking.apm.agent.core.context.tag.Tags;
 import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.skywalking.apm.agent.core.context.trace.EntrySpan;
 import org.skywalking.apm.agent.core.context.trace.LogDataEntity;
 import org.skywalking.apm.agent.core.context.trace.SpanLayer;
 import org.skywalking.apm.agent.core.context.trace.TraceSegment;
@@ -217,6 +219,56 @@ public class ContextManagerTest {
 
     }
 
+    @Test
+    public void createSegmentChunks() throws InvalidProtocolBufferException {
+        Config.Agent.SEGMENT_CHUNK_SPANS = 2;
+        try {
+            ContextManager.createEntrySpan("/testEntrySpan", null);
+            for (int i = 0; i < 5; i++) {
+                ContextManager.createLocalSpan("/testLocalSpan" + i);
+                ContextManager.stopSpan();
+            }
+            ContextManager.stopSpan();
+        } finally {
+            Config.Agent.SEGMENT_CHUNK_SPANS = 0;
+        }
+
+        List<TraceSegment> segments = tracingData.getTraceSegments();
+        assertThat(segments.size(), is(3));
+        int spanCount = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(segments.get(i).transform().getSegment());
+            assertThat(segmentObject.getTraceSegmentId(), is(segments.get(0).getTraceSegmentId().transform()));
+            assertThat(segmentObject.getIsPartial(), is(i < 2));
+            assertThat(segmentObject.getChunkSequence(), is(i));
+            assertThat(segmentObject.getIsSizeLimited(), is(false));
+            spanCount += segmentObject.getSpansCount();
+        }
+        assertThat(spanCount, is(6));
+        assertThat(SegmentHelper.getSpan(segments.get(2)).get(1).getSpanId(), is(0));
+    }
+
+    @Test
+    public void createEntrySpanWithThreadResources() {
+        Config.Agent.ENTRY_SPAN_THREAD_RESOURCES = true;
+        try {
+            ContextManager.createEntrySpan("/testEntrySpan", null);
+            StringBuilder allocated = new StringBuilder();
+            for (int i = 0; i < 10000; i++) {
+                allocated.append(i);
+            }
+            assertTrue(allocated.length() > 0);
+            ContextManager.stopSpan();
+        } finally {
+            Config.Agent.ENTRY_SPAN_THREAD_RESOURCES = false;
+        }
+
+        EntrySpan entrySpan = (EntrySpan)SegmentHelper.getSpan(tracingData.getTraceSegments().get(0)).get(0);
+        assertTrue(entrySpan.getCpuTime() >= 0);
+        assertTrue(entrySpan.getAllocatedBytes() > 0);
+        assertThat(entrySpan.transform().getAllocatedBytes(), is(entrySpan.getAllocatedBytes()));
+    }
+
     @After
     public void tearDown() throws Exception {
         RemoteDownstreamConfig.Agent.APPLICATION_ID = DictionaryUtil.nullValue();
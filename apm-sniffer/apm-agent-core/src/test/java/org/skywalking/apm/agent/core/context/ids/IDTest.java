@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.ids;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IDTest {
+    @Test
+    public void testEncode() {
+        ID id = new ID(1, 35, 15127007074950012L);
+        Assert.assertEquals("1.35.15127007074950012", id.encode());
+        Assert.assertSame(id.encode(), id.toString());
+        Assert.assertSame(id.transform(), id.transform());
+        Assert.assertEquals(id, new ID(id.encode()));
+    }
+
+    @Test
+    public void testBytes() {
+        ID id = new ID(1, 35, 15127007074950012L);
+        byte[] bytes = id.toBytes();
+        Assert.assertEquals(10, bytes.length);
+        ID decoded = new ID(bytes);
+        Assert.assertTrue(decoded.isValid());
+        Assert.assertEquals(id, decoded);
+
+        ID negative = new ID(1, 2, -1L);
+        Assert.assertEquals(negative, new ID(negative.toBytes()));
+    }
+
+    @Test
+    public void testInvalidBytes() {
+        byte[] bytes = new ID(1, 35, 15127007074950012L).toBytes();
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Assert.assertFalse(new ID(truncated).isValid());
+        Assert.assertFalse(new ID(new byte[0]).isValid());
+    }
+}
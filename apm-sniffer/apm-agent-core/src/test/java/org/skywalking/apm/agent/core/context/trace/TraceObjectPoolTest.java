@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.trace;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+
+public class TraceObjectPoolTest {
+    @Test
+    public void testReuse() {
+        TraceObjectPool pool = new TraceObjectPool(4);
+        TraceSegment segment = pool.newSegment();
+        EntrySpan entrySpan = pool.newEntrySpan(new SpanClock(), 0, -1, "/entry", DictionaryUtil.nullValue());
+        entrySpan.start();
+        ExitSpan exitSpan = pool.newExitSpan(new SpanClock(), 1, 0, null, 5, "127.0.0.1:8080", DictionaryUtil.nullValue());
+        exitSpan.start();
+        exitSpan.tag("key", "value");
+        exitSpan.errorOccurred();
+        exitSpan.finish(segment);
+        entrySpan.finish(segment);
+        String segmentId = segment.getTraceSegmentId().toString();
+
+        pool.release(segment);
+
+        TraceSegment reusedSegment = pool.newSegment();
+        Assert.assertSame(segment, reusedSegment);
+        Assert.assertNotEquals(segmentId, reusedSegment.getTraceSegmentId().toString());
+        Assert.assertTrue(reusedSegment.getSpans().isEmpty());
+
+        ExitSpan reusedExitSpan = pool.newExitSpan(new SpanClock(), 0, -1, "/exit", DictionaryUtil.nullValue(), null, 3);
+        Assert.assertSame(exitSpan, reusedExitSpan);
+        Assert.assertEquals("/exit", reusedExitSpan.getOperationName());
+        Assert.assertEquals(3, reusedExitSpan.getPeerId());
+        Assert.assertNull(reusedExitSpan.getPeer());
+        Assert.assertFalse(reusedExitSpan.isErrorOccurred());
+        Assert.assertEquals(0, reusedExitSpan.transform().getTagsCount());
+
+        Assert.assertSame(entrySpan, pool.newEntrySpan(new SpanClock(), 0, -1, null, 7));
+        Assert.assertNotSame(entrySpan, pool.newEntrySpan(new SpanClock(), 0, -1, null, 7));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUseSpanAfterRelease() {
+        TraceObjectPool pool = new TraceObjectPool(4);
+        TraceSegment segment = pool.newSegment();
+        LocalSpan span = pool.newLocalSpan(new SpanClock(), 0, -1, "/local", DictionaryUtil.nullValue());
+        span.start();
+        span.finish(segment);
+        pool.release(segment);
+
+        span.tag("key", "value");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUseSegmentAfterRelease() {
+        TraceObjectPool pool = new TraceObjectPool(4);
+        TraceSegment segment = pool.newSegment();
+        pool.release(segment);
+        // released twice, ignored
+        pool.release(segment);
+
+        segment.transform();
+    }
+
+    @Test
+    public void testDisabled() {
+        TraceObjectPool pool = new TraceObjectPool(0);
+        TraceSegment segment = pool.newSegment();
+        pool.release(segment);
+        Assert.assertNotSame(segment, pool.newSegment());
+        segment.transform();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.trace;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.skywalking.apm.network.proto.SpanObject;
+
+public class TraceSegmentTest {
+    @Test
+    public void testEstimatedSize() {
+        TraceSegment segment = new TraceSegment();
+        ExitSpan span = new ExitSpan(0, -1, "/test", "127.0.0.1:8080");
+        span.start();
+        span.finish(segment);
+        long smallSize = new TraceSegment().estimatedSize();
+
+        TraceSegment bigSegment = new TraceSegment();
+        ExitSpan bigSpan = new ExitSpan(0, -1, "/test", "127.0.0.1:8080");
+        bigSpan.start();
+        bigSpan.tag("db.statement", new String(new char[10000]));
+        bigSpan.finish(bigSegment);
+
+        Assert.assertTrue(segment.estimatedSize() > smallSize);
+        Assert.assertTrue(bigSegment.estimatedSize() > segment.estimatedSize() + 20000);
+        Assert.assertEquals(segment.estimatedSize(), segment.estimatedSize());
+    }
+
+    @Test
+    public void testSpanClock() {
+        TraceSegment segment = new TraceSegment();
+        ExitSpan span = TraceObjectPool.INSTANCE.newExitSpan(segment.getClock(), 0, -1, "/test", DictionaryUtil.nullValue(), "127.0.0.1:6379", DictionaryUtil.nullValue());
+        span.start();
+        span.finish(segment);
+
+        SpanObject spanObject = span.transform().build();
+        Assert.assertTrue(spanObject.getEndTimeMicros() >= spanObject.getStartTimeMicros());
+        Assert.assertEquals(spanObject.getStartTimeMicros() / 1000, spanObject.getStartTime());
+        Assert.assertEquals(spanObject.getEndTimeMicros() / 1000, spanObject.getEndTime());
+        Assert.assertTrue(Math.abs(spanObject.getStartTime() - System.currentTimeMillis()) < 1000);
+    }
+}
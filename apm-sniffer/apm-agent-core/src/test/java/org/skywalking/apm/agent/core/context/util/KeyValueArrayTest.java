@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.context.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.context.tag.TagValueSupplier;
+
+public class KeyValueArrayTest {
+    @Test
+    public void testAddAndGrow() {
+        KeyValueArray array = new KeyValueArray();
+        for (int i = 0; i < 10; i++) {
+            array.add("key" + i, "value" + i);
+        }
+        Assert.assertEquals(10, array.size());
+        Assert.assertEquals("key9", array.getKey(9));
+        Assert.assertEquals("value9", array.getValue(9));
+
+        array.clear();
+        Assert.assertEquals(0, array.size());
+    }
+
+    @Test
+    public void testLazyValue() {
+        final int[] called = new int[1];
+        KeyValueArray array = new KeyValueArray();
+        array.add("db.type", "sql");
+        array.add("db.statement", new TagValueSupplier() {
+            @Override public String get() {
+                called[0]++;
+                return "select * from test";
+            }
+        }, 6);
+        Assert.assertEquals(0, called[0]);
+
+        Assert.assertEquals("select", array.getValue(1));
+        Assert.assertEquals("select", array.transform(1).getValue());
+        Assert.assertEquals(1, called[0]);
+        Assert.assertEquals("sql", array.getValue(0));
+    }
+
+    @Test
+    public void testLazyValueFail() {
+        KeyValueArray array = new KeyValueArray();
+        array.add("db.statement", new TagValueSupplier() {
+            @Override public String get() {
+                throw new IllegalStateException();
+            }
+        }, 0);
+        Assert.assertNull(array.getValue(0));
+        Assert.assertEquals("", array.transform(0).getValue());
+    }
+}
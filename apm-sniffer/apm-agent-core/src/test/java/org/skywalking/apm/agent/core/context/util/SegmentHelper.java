@@ -19,7 +19,9 @@
 package org.skywalking.apm.agent.core.context.util;
 
 import java.util.List;
+import org.powermock.reflect.Whitebox;
 import org.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.skywalking.apm.agent.core.context.trace.EntrySpan;
 import org.skywalking.apm.agent.core.context.trace.TraceSegment;
 
 public class SegmentHelper {
@@ -32,4 +34,19 @@ public class SegmentHelper {
 
         return null;
     }
+
+    /**
+     * @return a finished segment with one entry span, taking the given milliseconds.
+     */
+    public static TraceSegment createSegment(long durationMillis, boolean error) {
+        TraceSegment segment = new TraceSegment();
+        AbstractTracingSpan span = new EntrySpan(0, -1, "/test");
+        span.start();
+        if (error) {
+            span.errorOccurred();
+        }
+        span.finish(segment);
+        Whitebox.setInternalState(span, "startTime", span.getEndTimeMicros() - durationMillis * 1000);
+        return segment;
+    }
 }
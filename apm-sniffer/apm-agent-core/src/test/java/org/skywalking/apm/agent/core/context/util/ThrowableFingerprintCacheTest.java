@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.context.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.conf.Config;
+
+public class ThrowableFingerprintCacheTest {
+    @Before
+    public void setUp() {
+        Config.Agent.THROWABLE_FINGERPRINT_INTERVAL = 1000;
+    }
+
+    @After
+    public void tearDown() {
+        Config.Agent.THROWABLE_FINGERPRINT_INTERVAL = 0;
+    }
+
+    @Test
+    public void testFingerprint() {
+        Exception[] exceptions = new Exception[2];
+        for (int i = 0; i < 2; i++) {
+            exceptions[i] = new IllegalStateException("message " + i);
+        }
+        long fingerprint = ThrowableFingerprintCache.INSTANCE.fingerprint(exceptions[0]);
+        Assert.assertEquals(fingerprint, ThrowableFingerprintCache.INSTANCE.fingerprint(exceptions[1]));
+        Assert.assertNotEquals(fingerprint, ThrowableFingerprintCache.INSTANCE.fingerprint(new IllegalStateException()));
+        Assert.assertNotEquals(fingerprint, ThrowableFingerprintCache.INSTANCE.fingerprint(new IllegalArgumentException()));
+    }
+
+    @Test
+    public void testOccurPerInterval() {
+        long fingerprint = ThrowableFingerprintCache.INSTANCE.fingerprint(new RuntimeException());
+        Assert.assertEquals(1, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 10000));
+        Assert.assertEquals(2, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 10500));
+        Assert.assertEquals(3, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 10999));
+        Assert.assertEquals(1, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 11000));
+        Assert.assertEquals(2, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 11001));
+    }
+
+    @Test
+    public void testStackSentPerInterval() {
+        long fingerprint = ThrowableFingerprintCache.INSTANCE.fingerprint(new IllegalArgumentException());
+        Assert.assertEquals(1, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 20000));
+        Assert.assertFalse(ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint));
+        // 未发送，之后的出现仍输出堆栈
+        Assert.assertEquals(2, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 20100));
+        Assert.assertFalse(ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint));
+
+        ThrowableFingerprintCache.INSTANCE.stackSent(fingerprint, 19999);
+        Assert.assertFalse(ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint));
+        ThrowableFingerprintCache.INSTANCE.stackSent(fingerprint, 20100);
+        Assert.assertTrue(ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint));
+
+        Assert.assertEquals(3, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 20500));
+        Assert.assertTrue(ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint));
+        Assert.assertEquals(1, ThrowableFingerprintCache.INSTANCE.occur(fingerprint, 21000));
+        Assert.assertFalse(ThrowableFingerprintCache.INSTANCE.isStackSent(fingerprint));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.dictionary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StringIntMapTest {
+    @Test
+    public void testPutAndGet() {
+        StringIntMap map = new StringIntMap();
+        Assert.assertEquals(DictionaryUtil.nullValue(), map.get("/test"));
+
+        map.put("/test", 1);
+        map.put("/test", 2);
+        Assert.assertEquals(2, map.get("/test"));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(DictionaryUtil.nullValue(), map.get("/test2"));
+    }
+
+    @Test
+    public void testResize() {
+        StringIntMap map = new StringIntMap();
+        for (int i = 1; i <= 1000; i++) {
+            map.put("/test" + i, i);
+        }
+        Assert.assertEquals(1000, map.size());
+        for (int i = 1; i <= 1000; i++) {
+            Assert.assertEquals(i, map.get("/test" + i));
+        }
+        Assert.assertEquals(DictionaryUtil.nullValue(), map.get("/test0"));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.metric;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.agent.core.context.IgnoredTracerContext;
+import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.skywalking.apm.agent.core.context.trace.RequestMetricSpan;
+import org.skywalking.apm.agent.core.dictionary.ApplicationDictionary;
+import org.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.skywalking.apm.agent.core.dictionary.StringIntMap;
+import org.skywalking.apm.network.proto.RequestMetric;
+import org.skywalking.apm.network.proto.SpanType;
+
+public class RequestMetricAggregatorTest {
+    @Before
+    public void setUp() {
+        RequestMetricAggregator.INSTANCE.drain(0);
+    }
+
+    @Test
+    public void testAggregate() {
+        RequestMetricAggregator.INSTANCE.record(true, 1, null, 10, false);
+        RequestMetricAggregator.INSTANCE.record(true, 1, null, 2000, true);
+        RequestMetricAggregator.INSTANCE.record(true, 1, null, 6000, false);
+        RequestMetricAggregator.INSTANCE.record(false, 1, null, 4000, false);
+
+        List<RequestMetric> metrics = RequestMetricAggregator.INSTANCE.drain(100);
+        Assert.assertEquals(2, metrics.size());
+
+        RequestMetric entry = metrics.get(0);
+        Assert.assertEquals(SpanType.Entry, entry.getType());
+        Assert.assertEquals(1, entry.getTargetId());
+        Assert.assertEquals(100, entry.getTime());
+        Assert.assertEquals(3, entry.getCalls());
+        Assert.assertEquals(1, entry.getError());
+        Assert.assertEquals(8010, entry.getCostTotal());
+        Assert.assertEquals(1, entry.getS1Lte());
+        Assert.assertEquals(1, entry.getS3Lte());
+        Assert.assertEquals(0, entry.getS5Lte());
+        Assert.assertEquals(1, entry.getS5Gt());
+
+        RequestMetric exit = metrics.get(1);
+        Assert.assertEquals(SpanType.Exit, exit.getType());
+        Assert.assertEquals(1, exit.getCalls());
+        Assert.assertEquals(1, exit.getS5Lte());
+
+        Assert.assertEquals(0, RequestMetricAggregator.INSTANCE.drain(200).size());
+    }
+
+    @Test
+    public void testIgnoredTracerContext() {
+        ((StringIntMap)Whitebox.getInternalState(ApplicationDictionary.INSTANCE, "applicationDictionary")).put("request.metric.test:8080", 5);
+        Config.Metric.ACTIVE = true;
+        try {
+            IgnoredTracerContext context = new IgnoredTracerContext(true);
+            AbstractSpan entrySpan = context.createEntrySpan("/not/sampled");
+            Assert.assertTrue(entrySpan instanceof RequestMetricSpan);
+            AbstractSpan exitSpan = context.createExitSpan("/exit", "request.metric.test:8080");
+            Assert.assertTrue(exitSpan instanceof RequestMetricSpan);
+            // nested exit span is the same one
+            AbstractSpan nestedSpan = context.createExitSpan("/exit/nested", "request.metric.test:8080");
+            Assert.assertFalse(nestedSpan instanceof RequestMetricSpan);
+            context.stopSpan(nestedSpan);
+            exitSpan.errorOccurred();
+            context.stopSpan(exitSpan);
+            context.stopSpan(entrySpan);
+        } finally {
+            Config.Metric.ACTIVE = false;
+        }
+
+        // the entry operation is not registered, kept
+        List<RequestMetric> metrics = RequestMetricAggregator.INSTANCE.drain(100);
+        Assert.assertEquals(1, metrics.size());
+        RequestMetric exit = metrics.get(0);
+        Assert.assertEquals(SpanType.Exit, exit.getType());
+        Assert.assertEquals(5, exit.getTargetId());
+        Assert.assertEquals(1, exit.getCalls());
+        Assert.assertEquals(1, exit.getError());
+        Assert.assertEquals(1, exit.getS1Lte());
+    }
+
+    @Test
+    public void testKeepNotRegistered() {
+        RequestMetricAggregator.INSTANCE.record(true, DictionaryUtil.nullValue(), "/not/registered", 10, false);
+        RequestMetricAggregator.INSTANCE.record(true, DictionaryUtil.nullValue(), null, 10, false);
+
+        Assert.assertEquals(0, RequestMetricAggregator.INSTANCE.drain(100).size());
+    }
+
+    @Test
+    public void testRecordRacingWithDrain() throws InterruptedException {
+        final int threadNum = 4;
+        final int recordTimes = 100000;
+        final CountDownLatch finished = new CountDownLatch(threadNum);
+        for (int i = 0; i < threadNum; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < recordTimes; j++) {
+                        RequestMetricAggregator.INSTANCE.record(true, 1, null, 10, false);
+                    }
+                    finished.countDown();
+                }
+            }.start();
+        }
+
+        long[] total = new long[2];
+        while (finished.getCount() > 0) {
+            sum(RequestMetricAggregator.INSTANCE.drain(100), total);
+        }
+        // the last window, and the records racing with it
+        sum(RequestMetricAggregator.INSTANCE.drain(200), total);
+        sum(RequestMetricAggregator.INSTANCE.drain(300), total);
+        Assert.assertEquals(threadNum * recordTimes, total[0]);
+        Assert.assertEquals(threadNum * recordTimes * 10L, total[1]);
+    }
+
+    private void sum(List<RequestMetric> metrics, long[] total) {
+        for (RequestMetric metric : metrics) {
+            total[0] += metric.getCalls();
+            total[1] += metric.getCostTotal();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.profile;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.conf.Config;
+import org.skywalking.apm.network.proto.ProfileNode;
+import org.skywalking.apm.network.proto.TraceSegmentObject;
+
+public class ThreadProfilerTest {
+    @Test
+    public void testCallTree() {
+        ProfileCallTree callTree = new ProfileCallTree();
+        StackTraceElement root = new StackTraceElement("A", "run", "A.java", 1);
+        StackTraceElement left = new StackTraceElement("B", "query", "B.java", 2);
+        StackTraceElement right = new StackTraceElement("C", "render", "C.java", 3);
+        callTree.addSample(new StackTraceElement[] {left, root});
+        callTree.addSample(new StackTraceElement[] {left, root});
+        callTree.addSample(new StackTraceElement[] {right, root});
+
+        TraceSegmentObject.Builder builder = TraceSegmentObject.newBuilder();
+        callTree.transform(builder);
+        List<ProfileNode> nodes = builder.getProfileNodesList();
+        Assert.assertEquals(3, callTree.getSampleCount());
+        Assert.assertEquals(3, nodes.size());
+
+        Assert.assertEquals(-1, nodes.get(0).getParentId());
+        Assert.assertEquals("A.run:1", nodes.get(0).getFrame());
+        Assert.assertEquals(3, nodes.get(0).getCount());
+        Assert.assertEquals(0, nodes.get(1).getParentId());
+        Assert.assertEquals("B.query:2", nodes.get(1).getFrame());
+        Assert.assertEquals(2, nodes.get(1).getCount());
+        Assert.assertEquals(0, nodes.get(2).getParentId());
+        Assert.assertEquals(1, nodes.get(2).getCount());
+    }
+
+    @Test
+    public void testTruncatedStack() {
+        int maxDepth = Config.Profile.MAX_DEPTH;
+        Config.Profile.MAX_DEPTH = 2;
+        try {
+            ProfileCallTree callTree = new ProfileCallTree();
+            StackTraceElement root = new StackTraceElement("A", "run", "A.java", 1);
+            StackTraceElement middle = new StackTraceElement("B", "query", "B.java", 2);
+            StackTraceElement leaf = new StackTraceElement("C", "read", "C.java", 3);
+            callTree.addSample(new StackTraceElement[] {middle, root});
+            callTree.addSample(new StackTraceElement[] {leaf});
+
+            TraceSegmentObject.Builder builder = TraceSegmentObject.newBuilder();
+            callTree.transform(builder);
+            List<ProfileNode> nodes = builder.getProfileNodesList();
+            Assert.assertEquals(4, nodes.size());
+            Assert.assertEquals(ProfileCallTree.TRUNCATED, nodes.get(0).getFrame());
+            Assert.assertEquals(-1, nodes.get(0).getParentId());
+            Assert.assertEquals("A.run:1", nodes.get(1).getFrame());
+            Assert.assertEquals(0, nodes.get(1).getParentId());
+            Assert.assertEquals("C.read:3", nodes.get(3).getFrame());
+            Assert.assertEquals(-1, nodes.get(3).getParentId());
+        } finally {
+            Config.Profile.MAX_DEPTH = maxDepth;
+        }
+    }
+
+    @Test
+    public void testSampleSlowTask() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch sampled = new CountDownLatch(1);
+        final ProfileTask[] tasks = new ProfileTask[2];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                tasks[0] = ThreadProfiler.INSTANCE.start(System.currentTimeMillis() - Config.Profile.THRESHOLD);
+                tasks[1] = ThreadProfiler.INSTANCE.start(System.currentTimeMillis());
+                started.countDown();
+                try {
+                    sampled.await();
+                } catch (InterruptedException e) {
+                }
+            }
+        });
+        thread.start();
+        started.await();
+
+        ThreadProfiler.INSTANCE.sample(System.currentTimeMillis());
+        ProfileCallTree slow = ThreadProfiler.INSTANCE.stop(tasks[0]);
+        ProfileCallTree fast = ThreadProfiler.INSTANCE.stop(tasks[1]);
+        sampled.countDown();
+        thread.join();
+
+        Assert.assertNull(fast);
+        Assert.assertNotNull(slow);
+        Assert.assertEquals(1, slow.getSampleCount());
+        Assert.assertTrue(slow.getNodeCount() > 0);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.remote;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.skywalking.apm.agent.core.context.util.SegmentHelper.createSegment;
+
+public class TraceSegmentPrioritizerTest {
+    private TraceSegmentPrioritizer prioritizer = new TraceSegmentPrioritizer(1000);
+
+    @Test
+    public void testNormalSegment() {
+        Assert.assertFalse(prioritizer.isHighPriority(createSegment(100, false)));
+    }
+
+    @Test
+    public void testErrorSegment() {
+        Assert.assertTrue(prioritizer.isHighPriority(createSegment(100, true)));
+    }
+
+    @Test
+    public void testSlowSegment() {
+        Assert.assertTrue(prioritizer.isHighPriority(createSegment(1500, false)));
+    }
+}
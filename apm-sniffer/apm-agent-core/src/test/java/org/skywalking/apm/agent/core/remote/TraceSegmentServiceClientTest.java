@@ -24,16 +24,19 @@ import io.grpc.testing.GrpcServerRule;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.*;
 import org.junit.runner.RunWith;
 import org.powermock.reflect.Whitebox;
 import org.skywalking.apm.agent.core.boot.ServiceManager;
+import org.skywalking.apm.agent.core.conf.Config;
 import org.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.skywalking.apm.agent.core.context.ContextManager;
 import org.skywalking.apm.agent.core.context.tag.Tags;
 import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.skywalking.apm.agent.core.test.tools.SegmentStorage;
 import org.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
@@ -64,10 +67,12 @@ public class TraceSegmentServiceClientTest {
 
     private TraceSegmentServiceClient serviceClient = new TraceSegmentServiceClient();
     private List<UpstreamSegment> upstreamSegments;
+    private int streamCounter;
 
     private TraceSegmentServiceGrpc.TraceSegmentServiceImplBase serviceImplBase = new TraceSegmentServiceGrpc.TraceSegmentServiceImplBase() {
         @Override
         public StreamObserver<UpstreamSegment> collect(final StreamObserver<Downstream> responseObserver) {
+            streamCounter++;
             return new StreamObserver<UpstreamSegment>() {
                 @Override
                 public void onNext(UpstreamSegment value) {
@@ -108,6 +113,16 @@ public class TraceSegmentServiceClientTest {
         Whitebox.setInternalState(serviceClient, "status", GRPCChannelStatus.CONNECTED);
 
         upstreamSegments = new ArrayList<UpstreamSegment>();
+        streamCounter = 0;
+    }
+
+    @After
+    public void tearDown() {
+        // 完成数据流，否则 GrpcServerRule 等待服务关闭超时
+        List<TraceSegmentUplinkStream> uplinkStreams = Whitebox.getInternalState(serviceClient, "uplinkStreams");
+        for (TraceSegmentUplinkStream stream : uplinkStreams) {
+            stream.complete();
+        }
     }
 
     @Test
@@ -155,4 +170,58 @@ public class TraceSegmentServiceClientTest {
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testSendBatchesOnOneLongLivedStream() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+
+        ContextManager.createEntrySpan("/testFirstEntry", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(new ArrayList<TraceSegment>(storage.getTraceSegments()));
+        ContextManager.createEntrySpan("/testSecondEntry", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(new ArrayList<TraceSegment>(storage.getTraceSegments().subList(1, 2)));
+
+        assertThat(upstreamSegments.size(), is(2));
+        assertThat(streamCounter, is(1));
+
+        // 数据流完成后，才确认发送成功
+        AtomicLong uplinkedCounter = Whitebox.getInternalState(serviceClient, "segmentUplinkedCounter");
+        assertThat(uplinkedCounter.get(), is(0L));
+        List<TraceSegmentUplinkStream> uplinkStreams = Whitebox.getInternalState(serviceClient, "uplinkStreams");
+        assertThat(uplinkStreams.size(), is(1));
+        uplinkStreams.get(0).complete();
+        assertThat(uplinkedCounter.get(), is(2L));
+    }
+
+    @Test
+    public void testCompleteExpiredStream() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+
+        ContextManager.createEntrySpan("/testFirstEntry", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+
+        AtomicLong uplinkedCounter = Whitebox.getInternalState(serviceClient, "segmentUplinkedCounter");
+        List<TraceSegmentUplinkStream> uplinkStreams = Whitebox.getInternalState(serviceClient, "uplinkStreams");
+        uplinkStreams.get(0).completeIfExpired(System.currentTimeMillis());
+        assertThat(uplinkedCounter.get(), is(0L));
+
+        // 空闲的数据流过期后，由定时任务完成
+        uplinkStreams.get(0).completeIfExpired(System.currentTimeMillis() + Config.Collector.UPLINK_STREAM_LIFETIME * 1000 + 1);
+        assertThat(uplinkedCounter.get(), is(1L));
+    }
+
+    @Test
+    public void testCompleteStreamOnStatusChanged() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+
+        ContextManager.createEntrySpan("/testFirstEntry", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+
+        AtomicLong uplinkedCounter = Whitebox.getInternalState(serviceClient, "segmentUplinkedCounter");
+        serviceClient.statusChanged(GRPCChannelStatus.DISCONNECT);
+        assertThat(uplinkedCounter.get(), is(1L));
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.remote;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.skywalking.apm.agent.core.context.util.SegmentHelper;
+
+public class TraceSegmentTailSamplerTest {
+
+    @Test
+    public void testKeepTrace() {
+        TraceSegmentTailSampler sampler = new TraceSegmentTailSampler(1000, 3000, 100, 1024 * 1024);
+        TraceSegment held = createSegment("1.1.1", 100, false);
+        Assert.assertNull(sampler.offer(held, 0));
+        Assert.assertNull(sampler.offer(createSegment("1.1.2", 100, false), 0));
+        Assert.assertEquals(2, sampler.getHeldSegments());
+
+        TraceSegment failed = createSegment("1.1.1", 100, true);
+        List<TraceSegment> segments = sampler.offer(failed, 100);
+        Assert.assertEquals(2, segments.size());
+        Assert.assertSame(held, segments.get(0));
+        Assert.assertSame(failed, segments.get(1));
+        Assert.assertEquals(1, sampler.getHeldSegments());
+
+        // the following segments of a kept trace
+        Assert.assertEquals(1, sampler.offer(createSegment("1.1.1", 100, false), 200).size());
+        Assert.assertEquals(1, sampler.offer(createSegment("1.1.3", 1500, false), 200).size());
+        Assert.assertEquals(4, sampler.getRetainedCounter());
+        Assert.assertEquals(0, sampler.getDiscardedCounter());
+    }
+
+    @Test
+    public void testExpire() {
+        TraceSegmentTailSampler sampler = new TraceSegmentTailSampler(1000, 3000, 100, 1024 * 1024);
+        Assert.assertNull(sampler.offer(createSegment("1.1.1", 100, false), 0));
+        Assert.assertNull(sampler.offer(createSegment("1.1.2", 100, false), 2000));
+        Assert.assertNull(sampler.offer(createSegment("1.1.3", 100, false), 3000));
+        Assert.assertEquals(1, sampler.getDiscardedCounter());
+        Assert.assertEquals(2, sampler.getHeldSegments());
+
+        // too late for the first trace
+        Assert.assertEquals(1, sampler.offer(createSegment("1.1.1", 100, true), 3000).size());
+        Assert.assertEquals(1, sampler.getRetainedCounter());
+    }
+
+    @Test
+    public void testChunksRenewHolding() {
+        TraceSegmentTailSampler sampler = new TraceSegmentTailSampler(1000, 3000, 100, 1024 * 1024);
+        TraceSegment longSegment = createSegment("1.1.1", 100, false);
+        Assert.assertNull(sampler.offer(longSegment.takeChunk(), 0));
+        Assert.assertNull(sampler.offer(longSegment.takeChunk(), 2000));
+        Assert.assertNull(sampler.offer(longSegment.takeChunk(), 4000));
+        Assert.assertEquals(0, sampler.getDiscardedCounter());
+
+        // the last part holds the slow entry span
+        List<TraceSegment> segments = sampler.offer(createSegment("1.1.1", 6000, false), 6000);
+        Assert.assertEquals(4, segments.size());
+        Assert.assertEquals(0, sampler.getHeldSegments());
+    }
+
+    @Test
+    public void testLimit() {
+        TraceSegmentTailSampler sampler = new TraceSegmentTailSampler(1000, 3000, 2, 1024 * 1024);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertNull(sampler.offer(createSegment("1.1." + i, 100, false), 0));
+        }
+        Assert.assertEquals(2, sampler.getHeldSegments());
+        Assert.assertEquals(3, sampler.getDiscardedCounter());
+
+        TraceSegment segment = createSegment("1.2.1", 100, false);
+        sampler = new TraceSegmentTailSampler(1000, 3000, 100, segment.estimatedSize() * 2);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertNull(sampler.offer(createSegment("1.2." + i, 100, false), 0));
+        }
+        Assert.assertEquals(2, sampler.getHeldSegments());
+        Assert.assertEquals(3, sampler.getDiscardedCounter());
+    }
+
+    private TraceSegment createSegment(String traceId, long duration, boolean error) {
+        TraceSegment segment = SegmentHelper.createSegment(duration, error);
+        segment.setHeadSampled(false);
+        segment.relatedGlobalTraces(new PropagatedTraceId(traceId));
+        return segment;
+    }
+}
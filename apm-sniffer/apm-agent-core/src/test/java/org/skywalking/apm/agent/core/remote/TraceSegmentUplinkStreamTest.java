@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+
+package org.skywalking.apm.agent.core.remote;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.skywalking.apm.network.proto.TraceSegmentServiceGrpc;
+import org.skywalking.apm.network.proto.UpstreamSegment;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TraceSegmentUplinkStreamTest {
+
+    @Test(timeout = 10000)
+    public void testCompleteUnreadyStream() throws InterruptedException {
+        final TraceSegmentServiceGrpc.TraceSegmentServiceStub stub = TraceSegmentServiceGrpc.newStub(new UnreadyChannel());
+        final TraceSegmentUplinkStream stream = new TraceSegmentUplinkStream(new AtomicLong(0), new AtomicLong(0));
+        final AtomicBoolean sent = new AtomicBoolean(true);
+        final CountDownLatch returned = new CountDownLatch(1);
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sent.set(stream.send(stub, UpstreamSegment.getDefaultInstance(), 30000));
+                returned.countDown();
+            }
+        });
+        sender.start();
+        while (sender.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        // 另一线程完成数据流，不等待未就绪的发送
+        long start = System.currentTimeMillis();
+        stream.complete();
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertTrue(returned.await(1, TimeUnit.SECONDS));
+        assertThat(sent.get(), is(false));
+    }
+
+    /**
+     * The calls of this channel are never ready.
+     */
+    private static class UnreadyChannel extends Channel {
+        @Override
+        public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+            MethodDescriptor<RequestT, ResponseT> methodDescriptor, CallOptions callOptions) {
+            return new ClientCall<RequestT, ResponseT>() {
+                @Override
+                public void start(Listener<ResponseT> responseListener, Metadata headers) {
+                }
+
+                @Override
+                public void request(int numMessages) {
+                }
+
+                @Override
+                public void cancel(String message, Throwable cause) {
+                }
+
+                @Override
+                public void halfClose() {
+                }
+
+                @Override
+                public void sendMessage(RequestT message) {
+                }
+
+                @Override
+                public boolean isReady() {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public String authority() {
+            return "unready";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017, OpenSkywalking Organization All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Project repository: https://github.com/OpenSkywalking/skywalking
+ */
+
+package org.skywalking.apm.agent.core.sampling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveSamplerTest {
+    private static final long SECOND = 1000000000L;
+
+    @Test
+    public void testLowThroughput() {
+        AdaptiveSampler sampler = new AdaptiveSampler(100, 0);
+        for (int window = 1; window <= 3; window++) {
+            Assert.assertEquals(10, sample(sampler, 10));
+            sampler.roll(window * SECOND);
+            Assert.assertEquals(1, sampler.getSamplingRate(), 0);
+        }
+    }
+
+    @Test
+    public void testHighThroughput() {
+        AdaptiveSampler sampler = new AdaptiveSampler(100, 0);
+        // the first window has no estimate, only limited
+        Assert.assertEquals(200, sample(sampler, 50000));
+        sampler.roll(SECOND);
+        Assert.assertEquals(0.002, sampler.getSamplingRate(), 0.0001);
+
+        for (int window = 2; window <= 4; window++) {
+            boolean[] sampled = new boolean[50000];
+            int count = 0;
+            for (int i = 0; i < sampled.length; i++) {
+                sampled[i] = sampler.trySampling();
+                count += sampled[i] ? 1 : 0;
+            }
+            Assert.assertTrue(count >= 99 && count <= 101);
+            // spread over the window, one every 500 traces
+            for (int start = 0; start < sampled.length; start += 500) {
+                int inRange = 0;
+                for (int i = start; i < start + 500; i++) {
+                    inRange += sampled[i] ? 1 : 0;
+                }
+                Assert.assertEquals(1, inRange);
+            }
+            sampler.roll(window * SECOND);
+        }
+    }
+
+    @Test
+    public void testForced() {
+        AdaptiveSampler sampler = new AdaptiveSampler(100, 0);
+        for (int i = 0; i < 60; i++) {
+            sampler.forceSampled();
+        }
+        sample(sampler, 1000);
+        sampler.roll(SECOND);
+        Assert.assertEquals(0.04, sampler.getSamplingRate(), 0.0001);
+
+        for (int i = 0; i < 200; i++) {
+            sampler.forceSampled();
+        }
+        Assert.assertEquals(0, sample(sampler, 1000));
+        sampler.roll(2 * SECOND);
+        Assert.assertEquals(200, sampler.getSampledRate(), 0);
+        Assert.assertEquals(0, sampler.getSamplingRate(), 0);
+    }
+
+    private int sample(AdaptiveSampler sampler, int traces) {
+        int sampled = 0;
+        for (int i = 0; i < traces; i++) {
+            if (sampler.trySampling()) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
@@ -53,7 +53,8 @@ public class TracingSegmentRunner extends BlockJUnit4ClassRunner {
         return targetObject;
     }
 
-    @Override protected Statement withAfters(FrameworkMethod method, Object target, final Statement statement) {
+    @Override protected Statement withAfters(FrameworkMethod method, Object target, Statement statement) {
+        final Statement withAfters = super.withAfters(method, target, statement);
         return new Statement() {
             @Override public void evaluate() throws Throwable {
                 if (field != null) {
@@ -80,7 +81,7 @@ public class TracingSegmentRunner extends BlockJUnit4ClassRunner {
                 TracingContext.ListenerManager.add(tracingContextListener);
                 IgnoredTracerContext.ListenerManager.add(ignoreTracerContextListener);
                 try {
-                    statement.evaluate();
+                    withAfters.evaluate();
                 } finally {
                     TracingContext.ListenerManager.remove(tracingContextListener);
                     IgnoredTracerContext.ListenerManager.remove(ignoreTracerContextListener);
@@ -28,6 +28,7 @@ import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.Subscribe;
 import org.skywalking.apm.agent.core.context.ContextManager;
 import org.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.skywalking.apm.agent.core.context.tag.TagValueSupplier;
 import org.skywalking.apm.agent.core.context.tag.Tags;
 import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.skywalking.apm.agent.core.context.trace.SpanLayer;
@@ -68,8 +69,14 @@ public class ExecuteEventListener {
                 Tags.DB_TYPE.set(span, "sql");
                 Tags.DB_INSTANCE.set(span, event.getDataSource());
                 Tags.DB_STATEMENT.set(span, event.getSql());
-                if (!event.getParameters().isEmpty()) {
-                    Tags.DB_BIND_VARIABLES.set(span, Joiner.on(",").join(event.getParameters()));
+                // copy the parameters, the list may be reused after executing.
+                final Object[] parameters = event.getParameters().toArray();
+                if (parameters.length > 0) {
+                    Tags.DB_BIND_VARIABLES.set(span, new TagValueSupplier() {
+                        @Override public String get() {
+                            return Joiner.on(",").join(parameters);
+                        }
+                    });
                 }
                 span.setComponent(ComponentsDefine.SHARDING_JDBC);
                 SpanLayer.asDB(span);
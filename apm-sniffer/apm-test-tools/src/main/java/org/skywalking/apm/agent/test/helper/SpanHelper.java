@@ -18,11 +18,13 @@
 
 package org.skywalking.apm.agent.test.helper;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.skywalking.apm.agent.core.context.trace.LogDataEntity;
 import org.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.skywalking.apm.agent.core.context.util.KeyValueArray;
 import org.skywalking.apm.agent.core.context.util.KeyValuePair;
 
 public class SpanHelper {
@@ -61,23 +63,25 @@ public class SpanHelper {
     }
 
     public static List<KeyValuePair> getTags(AbstractSpan tracingSpan) {
+        KeyValueArray tags;
         try {
-            List<KeyValuePair> tags = FieldGetter.get2LevelParentFieldValue(tracingSpan, "tags");
-            if (tags != null) {
-                return tags;
-            }
+            tags = FieldGetter.get2LevelParentFieldValue(tracingSpan, "tags");
         } catch (Exception e) {
             try {
-                List<KeyValuePair> tags = FieldGetter.getParentFieldValue(tracingSpan, "tags");
-                if (tags != null) {
-                    return tags;
-                }
+                tags = FieldGetter.getParentFieldValue(tracingSpan, "tags");
             } catch (Exception e1) {
-
+                tags = null;
             }
         }
 
-        return Collections.emptyList();
+        if (tags == null) {
+            return Collections.emptyList();
+        }
+        List<KeyValuePair> tagList = new ArrayList<KeyValuePair>(tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            tagList.add(new KeyValuePair(tags.getKey(i), tags.getValue(i)));
+        }
+        return tagList;
     }
 
     public static SpanLayer getLayer(AbstractSpan tracingSpan) {